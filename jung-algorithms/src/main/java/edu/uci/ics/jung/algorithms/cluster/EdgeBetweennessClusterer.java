@@ -14,6 +14,7 @@ import com.google.common.graph.Graphs;
 import com.google.common.graph.MutableNetwork;
 import com.google.common.graph.Network;
 import edu.uci.ics.jung.algorithms.scoring.BetweennessCentrality;
+import edu.uci.ics.jung.algorithms.scoring.EdgeScorer;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.function.Function;
@@ -44,6 +45,8 @@ import java.util.function.Function;
  */
 public class EdgeBetweennessClusterer<V, E> implements Function<Network<V, E>, Set<Set<V>>> {
   private final int mNumEdgesToRemove;
+  private final Function<? super Network<V, E>, ? extends EdgeScorer<E, ? extends Number>>
+      edgeScorerFactory;
   private LinkedHashSet<E> edgesRemoved;
 
   /**
@@ -52,9 +55,25 @@ public class EdgeBetweennessClusterer<V, E> implements Function<Network<V, E>, S
    * @param numEdgesToRemove the number of edges to be progressively removed from the graph
    */
   public EdgeBetweennessClusterer(int numEdgesToRemove) {
+    this(numEdgesToRemove, BetweennessCentrality::new);
+  }
+
+  /**
+   * Constructs a new clusterer which scores the edges of the graph with the specified scorer, such
+   * as an <code>ApproximateBetweennessCentrality</code> for large graphs.
+   *
+   * @param numEdgesToRemove the number of edges to be progressively removed from the graph
+   * @param edgeScorerFactory creates the edge betweenness scorer for the graph that remains after
+   *     each removal
+   */
+  public EdgeBetweennessClusterer(
+      int numEdgesToRemove,
+      Function<? super Network<V, E>, ? extends EdgeScorer<E, ? extends Number>>
+          edgeScorerFactory) {
     Preconditions.checkArgument(
         numEdgesToRemove >= 0, "Number of edges to remove must be positive");
     mNumEdgesToRemove = numEdgesToRemove;
+    this.edgeScorerFactory = Preconditions.checkNotNull(edgeScorerFactory);
     edgesRemoved = new LinkedHashSet<>(mNumEdgesToRemove);
   }
 
@@ -74,13 +93,14 @@ public class EdgeBetweennessClusterer<V, E> implements Function<Network<V, E>, S
     edgesRemoved.clear();
 
     for (int k = 0; k < mNumEdgesToRemove; k++) {
-      BetweennessCentrality<V, E> bc = new BetweennessCentrality<V, E>(filtered);
+      EdgeScorer<E, ? extends Number> bc = edgeScorerFactory.apply(filtered);
       E to_remove = null;
       double score = 0;
       for (E e : filtered.edges()) {
-        if (bc.getEdgeScore(e) > score) {
+        double e_score = bc.getEdgeScore(e).doubleValue();
+        if (e_score > score) {
           to_remove = e;
-          score = bc.getEdgeScore(e);
+          score = e_score;
         }
       }
       edgesRemoved.add(to_remove);
@@ -12,20 +12,38 @@
 package edu.uci.ics.jung.algorithms.scoring;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.BiMap;
 import com.google.common.graph.Network;
 import edu.uci.ics.jung.algorithms.scoring.util.DelegateToEdgeTransformer;
 import edu.uci.ics.jung.algorithms.scoring.util.VEPair;
+import edu.uci.ics.jung.algorithms.util.Indexer;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * An abstract class for algorithms that assign scores to vertices based on iterative methods.
  * Generally, any (concrete) subclass will function by creating an instance, and then either calling
  * <code>evaluate</code> (if the user wants to iterate until the algorithms is 'done') or repeatedly
  * call <code>step</code> (if the user wants to observe the values at each step).
+ *
+ * <p>Subclasses that implement {@link #compile()} also have a compiled mode, enabled with {@link
+ * #setCompiled(boolean)}, in which the graph, the edge weights and the scores are copied into
+ * primitive arrays when the mode is enabled, and each step is a power iteration over those arrays
+ * rather than a call to <code>update</code> for each vertex. The scores are copied back when they
+ * are requested. Changes to the graph or the edge weights made after that are not seen in this
+ * mode.
+ *
+ * <p>In compiled mode the vertices may also be updated by one of several {@link
+ * IterationStrategy}s: all at once from the previous scores (the default), the same split across
+ * the threads of a <code>ForkJoinPool</code>, or one after another in place.
  */
 public abstract class AbstractIterativeScorer<V, E, T>
     implements IterativeContext, VertexScorer<V, T> {
@@ -60,6 +78,21 @@ public abstract class AbstractIterativeScorer<V, E, T>
    */
   private boolean accept_disconnected_graph;
 
+  /** Whether steps are run by a {@link CompiledScorer}. Defaults to false. */
+  private boolean compiled;
+
+  /** How the compiled vertex updates of a step are ordered. Defaults to {@code JACOBI}. */
+  private IterationStrategy iteration_strategy = IterationStrategy.JACOBI;
+
+  /** The pool for {@code PARALLEL_JACOBI} steps, or null for the common pool. */
+  private ForkJoinPool fork_join_pool;
+
+  /** The compiled form of this instance, created by the first step in compiled mode. */
+  private CompiledScorer compiled_scorer;
+
+  /** True if the compiled scores have changed since they were last copied to the output map. */
+  private boolean output_stale;
+
   /**
    * Sets the output value for this vertex.
    *
@@ -103,6 +136,25 @@ public abstract class AbstractIterativeScorer<V, E, T>
   /** The largest change seen so far among all vertex scores. */
   protected double max_delta;
 
+  /** The sum of the changes in all vertex scores during the last step. */
+  protected double total_delta;
+
+  /** The orders in which the vertex scores of a step may be updated in compiled mode. */
+  public enum IterationStrategy {
+    /** each vertex is updated from the scores of the previous step, on the calling thread */
+    JACOBI,
+    /**
+     * as {@code JACOBI}, with the vertices split across the threads of a <code>ForkJoinPool</code>;
+     * the changes are combined by a reduction, without locking
+     */
+    PARALLEL_JACOBI,
+    /**
+     * each vertex is updated in place, from the scores already updated in the same step where there
+     * are any (Gauss-Seidel); this often converges in fewer steps, and needs no second score vector
+     */
+    GAUSS_SEIDEL
+  }
+
   /**
    * Creates an instance for the specified graph and edge weights.
    *
@@ -136,8 +188,11 @@ public abstract class AbstractIterativeScorer<V, E, T>
   protected void initialize() {
     this.total_iterations = 0;
     this.max_delta = Double.MIN_VALUE;
+    this.total_delta = Double.MIN_VALUE;
     this.current_values = new HashMap<V, T>();
     this.output = new HashMap<V, T>();
+    this.compiled_scorer = null;
+    this.output_stale = false;
   }
 
   /** Steps through this scoring algorithm until a termination condition is reached. */
@@ -157,12 +212,27 @@ public abstract class AbstractIterativeScorer<V, E, T>
 
   /** Performs one step of this algorithm; updates the state (value) for each vertex. */
   public void step() {
+    if (compiled) {
+      if (compiled_scorer == null) {
+        compiled_scorer = compile();
+      }
+      compiled_scorer.step();
+      output_stale = true;
+      total_iterations++;
+      return;
+    }
+    Preconditions.checkState(
+        iteration_strategy == IterationStrategy.JACOBI,
+        "iteration strategy %s requires compiled mode",
+        iteration_strategy);
     swapOutputForCurrent();
     max_delta = 0;
+    total_delta = 0;
 
     for (V v : graph.nodes()) {
       double diff = update(v);
       updateMaxDelta(v, diff);
+      total_delta += diff;
     }
     total_iterations++;
     afterStep();
@@ -194,14 +264,157 @@ public abstract class AbstractIterativeScorer<V, E, T>
     Preconditions.checkArgument(
         graph.nodes().contains(v), "Vertex %s not an element of this graph", v.toString());
 
+    copyCompiledScores();
     return output.get(v);
   }
 
   @Override
   public Map<V, T> vertexScores() {
+    copyCompiledScores();
     return Collections.unmodifiableMap(output);
   }
 
+  private void copyCompiledScores() {
+    if (output_stale) {
+      compiled_scorer.copyScores();
+      output_stale = false;
+    }
+  }
+
+  /**
+   * Specifies whether this instance runs in compiled mode. It must be set before the first step.
+   * The graph and the edge weights are copied when compiled mode is enabled, so any changes to them
+   * must be made before this is called; later changes are not seen.
+   *
+   * @param compiled true if steps are to run over primitive arrays
+   * @throws IllegalStateException if a step has already been taken
+   * @throws UnsupportedOperationException if this instance has no compiled mode
+   */
+  public void setCompiled(boolean compiled) {
+    Preconditions.checkState(
+        total_iterations == 0, "compiled mode must be chosen before the first step");
+    if (compiled && compiled_scorer == null) {
+      // fail now rather than on the first step
+      compiled_scorer = compile();
+    }
+    this.compiled = compiled;
+  }
+
+  /** @return true if this instance runs in compiled mode */
+  public boolean isCompiled() {
+    return compiled;
+  }
+
+  /**
+   * Specifies the order in which the vertex scores of each step are updated. Strategies other than
+   * {@code JACOBI} require compiled mode.
+   *
+   * @param iteration_strategy the strategy for the following steps
+   */
+  public void setIterationStrategy(IterationStrategy iteration_strategy) {
+    this.iteration_strategy = Preconditions.checkNotNull(iteration_strategy);
+  }
+
+  /** @return the order in which the vertex scores of each step are updated */
+  public IterationStrategy getIterationStrategy() {
+    return iteration_strategy;
+  }
+
+  /**
+   * @param fork_join_pool the pool on which {@code PARALLEL_JACOBI} steps run, or null to use the
+   *     common pool
+   */
+  public void setForkJoinPool(ForkJoinPool fork_join_pool) {
+    this.fork_join_pool = fork_join_pool;
+  }
+
+  /**
+   * Copies the graph, the edge weights and the current scores of this instance into a {@link
+   * CompiledScorer}. Called when compiled mode is enabled. The default implementation throws <code>
+   * UnsupportedOperationException</code>.
+   *
+   * @return the compiled form of this instance
+   */
+  protected CompiledScorer compile() {
+    throw new UnsupportedOperationException(getClass().getSimpleName() + " has no compiled mode");
+  }
+
+  /**
+   * The compiled form of an iterative scorer, which runs its steps over primitive arrays indexed by
+   * vertex.
+   */
+  protected abstract class CompiledScorer {
+    /** The vertices of the graph, in index order. */
+    protected final List<V> vertices;
+
+    /** The index of each vertex. */
+    protected final BiMap<V, Integer> indices;
+
+    protected CompiledScorer() {
+      this.vertices = new ArrayList<V>(graph.nodes());
+      this.indices = Indexer.create(vertices);
+    }
+
+    /**
+     * Performs one step of the algorithm over the arrays, updating the vertices in the order given
+     * by the iteration strategy of the scorer, and records the largest and the total change.
+     */
+    protected void step() {
+      int size = vertices.size();
+      beforeUpdates();
+      if (iteration_strategy == IterationStrategy.PARALLEL_JACOBI) {
+        ForkJoinPool pool = fork_join_pool != null ? fork_join_pool : ForkJoinPool.commonPool();
+        DoubleSummaryStatistics deltas =
+            pool.submit(
+                    () ->
+                        IntStream.range(0, size)
+                            .parallel()
+                            .mapToDouble(i -> updateVertex(i, false))
+                            .summaryStatistics())
+                .join();
+        max_delta = size == 0 ? 0 : deltas.getMax();
+        total_delta = deltas.getSum();
+      } else {
+        boolean in_place = iteration_strategy == IterationStrategy.GAUSS_SEIDEL;
+        max_delta = 0;
+        total_delta = 0;
+        for (int i = 0; i < size; i++) {
+          double diff = updateVertex(i, in_place);
+          max_delta = Math.max(max_delta, diff);
+          total_delta += diff;
+        }
+      }
+      if (iteration_strategy != IterationStrategy.GAUSS_SEIDEL) {
+        swapVectors();
+      }
+      afterUpdates();
+    }
+
+    /** Called at the start of each step, before any vertex is updated. Does nothing by default. */
+    protected void beforeUpdates() {}
+
+    /**
+     * Computes the new score of vertex <code>i</code>. For {@code PARALLEL_JACOBI} steps this is
+     * called concurrently for different vertices.
+     *
+     * @param i the index of the vertex
+     * @param in_place if true, the new score replaces the current score, and is seen by the
+     *     vertices updated after this one; otherwise it is stored apart until {@link
+     *     #swapVectors()}
+     * @return the change in the score of the vertex
+     */
+    protected abstract double updateVertex(int i, boolean in_place);
+
+    /** Makes the scores computed by a step that was not in place the current scores. */
+    protected abstract void swapVectors();
+
+    /** Called at the end of each step, after the vectors are swapped. Does nothing by default. */
+    protected void afterUpdates() {}
+
+    /** Copies the scores from the arrays to the output values of the scorer. */
+    protected abstract void copyScores();
+  }
+
   /**
    * Returns the maximum number of iterations that this instance will use.
    *
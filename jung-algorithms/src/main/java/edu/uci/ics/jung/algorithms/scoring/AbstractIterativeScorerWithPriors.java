@@ -11,6 +11,7 @@
  */
 package edu.uci.ics.jung.algorithms.scoring;
 
+import com.google.common.base.Preconditions;
 import com.google.common.graph.Network;
 import java.util.function.Function;
 
@@ -33,6 +34,16 @@ public abstract class AbstractIterativeScorerWithPriors<V, E, S>
   /** The probability of making a 'jump' at each step. */
   protected double alpha;
 
+  /** How the changes in the vertex scores are combined to decide when to stop. */
+  public enum ConvergenceNorm {
+    /** stop when no single score changed by <code>tolerance</code> or more */
+    MAX,
+    /** stop when the changes in all the scores sum to less than <code>tolerance</code> */
+    L1
+  }
+
+  protected ConvergenceNorm convergence_norm = ConvergenceNorm.MAX;
+
   /**
    * Creates an instance for the specified graph, edge weights, vertex priors, and jump probability.
    *
@@ -80,6 +91,35 @@ public abstract class AbstractIterativeScorerWithPriors<V, E, S>
     }
   }
 
+  /**
+   * Returns true if the total number of iterations is greater than or equal to <code>max_iterations
+   * </code> or if the changes in the scores during the last step, combined according to the
+   * convergence norm, are less than <code>tolerance</code>.
+   */
+  @Override
+  public boolean done() {
+    if (convergence_norm == ConvergenceNorm.L1) {
+      return total_iterations >= max_iterations || total_delta < tolerance;
+    }
+    return super.done();
+  }
+
+  /**
+   * Sets how the changes in the vertex scores are combined to test for convergence. With {@code L1}
+   * the sum of the changes, rather than the largest change, must fall below the tolerance; this is
+   * a stricter test that does not loosen as the graph grows. The default is {@code MAX}.
+   *
+   * @param convergence_norm the norm to use
+   */
+  public void setConvergenceNorm(ConvergenceNorm convergence_norm) {
+    this.convergence_norm = Preconditions.checkNotNull(convergence_norm);
+  }
+
+  /** @return the norm used to test for convergence */
+  public ConvergenceNorm getConvergenceNorm() {
+    return convergence_norm;
+  }
+
   /**
    * Returns the prior probability for <code>v</code>.
    *
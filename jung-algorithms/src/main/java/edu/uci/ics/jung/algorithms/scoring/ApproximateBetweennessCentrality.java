@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.Network;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Estimates betweenness centrality for each vertex and edge in the graph from the shortest paths
+ * that start at a random sample of source vertices (pivots). The dependencies of each pivot are
+ * scaled so that the expected value of each estimate is the exact score computed by {@link
+ * BetweennessCentrality}. The searches from the pivots run in parallel as in {@link
+ * ParallelBetweennessCentrality}.
+ *
+ * <p>Pivots are drawn with replacement, either uniformly or with probability proportional to their
+ * (out-)degree; a vertex with no outgoing edges depends on no other vertex, so degree-weighted
+ * sampling spends no searches on such vertices. The sample size may be set directly, or derived
+ * from error bounds with {@link Builder#setErrorBounds(double, double)}. A sample at least as large
+ * as the graph gives the exact scores.
+ *
+ * <pre>{@code
+ * ApproximateBetweennessCentrality<V, E> bc =
+ *     ApproximateBetweennessCentrality.<V, E>builder().setGraph(graph).setSampleSize(500).build();
+ * }</pre>
+ *
+ * @see "David A. Bader, Shiva Kintali, Kamesh Madduri, Milena Mihail: Approximating Betweenness
+ *     Centrality. WAW 2007."
+ * @see "Ulrik Brandes, Christian Pich: Centrality Estimation in Large Networks. International
+ *     Journal of Bifurcation and Chaos 17(7):2303-2318, 2007."
+ */
+public class ApproximateBetweennessCentrality<V, E> extends ParallelBetweennessCentrality<V, E> {
+
+  /** How pivots are drawn from the vertices of the graph. */
+  public enum Sampling {
+    /** every vertex is equally likely */
+    UNIFORM,
+    /** the probability of a vertex is proportional to its out-degree (degree if undirected) */
+    DEGREE
+  }
+
+  private final int sampleSize;
+
+  public static class Builder<V, E> {
+    private Network<V, E> graph;
+    private Function<? super E, ? extends Number> edgeWeights;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private Sampling sampling = Sampling.UNIFORM;
+    private Random random = new Random();
+    private int sampleSize = -1;
+    private double epsilon = 0.05;
+    private double delta = 0.1;
+
+    public Builder<V, E> setGraph(Network<V, E> graph) {
+      this.graph = graph;
+      return this;
+    }
+
+    /**
+     * @param edgeWeights the edge weights to be used in the path length calculations; if not set,
+     *     the shortest paths are unweighted
+     */
+    public Builder<V, E> setEdgeWeights(Function<? super E, ? extends Number> edgeWeights) {
+      this.edgeWeights = edgeWeights;
+      return this;
+    }
+
+    /** @param pool the pool whose threads search from the pivots */
+    public Builder<V, E> setForkJoinPool(ForkJoinPool pool) {
+      this.pool = Preconditions.checkNotNull(pool);
+      return this;
+    }
+
+    /** @param sampling how pivots are drawn; the default is {@code UNIFORM} */
+    public Builder<V, E> setSampling(Sampling sampling) {
+      this.sampling = Preconditions.checkNotNull(sampling);
+      return this;
+    }
+
+    /** @param random the source of randomness for drawing the pivots */
+    public Builder<V, E> setRandom(Random random) {
+      this.random = Preconditions.checkNotNull(random);
+      return this;
+    }
+
+    /**
+     * Sets the number of pivots to draw, overriding any error bounds.
+     *
+     * @param sampleSize the number of pivots
+     */
+    public Builder<V, E> setSampleSize(int sampleSize) {
+      Preconditions.checkArgument(sampleSize > 0, "sampleSize must be positive");
+      this.sampleSize = sampleSize;
+      return this;
+    }
+
+    /**
+     * Derives the number of pivots k from error bounds, overriding any sample size, as
+     *
+     * <pre>k = ceil(ln(2n / delta) / (2 epsilon<sup>2</sup>))</pre>
+     *
+     * where n is the number of vertices. With uniform sampling, by Hoeffding's inequality and the
+     * union bound, the estimated score of every vertex is then within {@code epsilon * n * (n - 2)}
+     * of its exact score (half that for undirected graphs) with probability at least {@code 1 -
+     * delta}. The defaults are an epsilon of 0.05 and a delta of 0.1.
+     *
+     * @param epsilon the error, as a fraction of the largest possible dependency sum
+     * @param delta the probability that the error is exceeded
+     */
+    public Builder<V, E> setErrorBounds(double epsilon, double delta) {
+      Preconditions.checkArgument(epsilon > 0 && epsilon < 1, "epsilon must be in (0, 1)");
+      Preconditions.checkArgument(delta > 0 && delta < 1, "delta must be in (0, 1)");
+      this.epsilon = epsilon;
+      this.delta = delta;
+      this.sampleSize = -1;
+      return this;
+    }
+
+    public ApproximateBetweennessCentrality<V, E> build() {
+      Preconditions.checkNotNull(graph, "graph must be set");
+      int n = graph.nodes().size();
+      int k =
+          sampleSize > 0
+              ? sampleSize
+              : (int)
+                  Math.min(
+                      Integer.MAX_VALUE,
+                      Math.ceil(Math.log(2 * Math.max(n, 1) / delta) / (2 * epsilon * epsilon)));
+      return new ApproximateBetweennessCentrality<V, E>(this, k, k >= n ? null : samplePivots(k));
+    }
+
+    /** @return each pivot drawn, with the factor by which its dependencies are multiplied */
+    private Map<V, Double> samplePivots(int k) {
+      List<V> vertices = new ArrayList<V>(graph.nodes());
+      int n = vertices.size();
+      Map<V, Double> factors = new LinkedHashMap<V, Double>();
+      if (sampling == Sampling.UNIFORM) {
+        // each draw estimates the dependency sum over all n sources, so it has weight n / k
+        for (int i = 0; i < k; i++) {
+          factors.merge(vertices.get(random.nextInt(n)), (double) n / k, Double::sum);
+        }
+        return factors;
+      }
+
+      // a draw of a vertex with probability p has weight 1 / (k p)
+      double[] cumulative = new double[n];
+      double total = 0;
+      for (int i = 0; i < n; i++) {
+        V v = vertices.get(i);
+        total += graph.isDirected() ? graph.outDegree(v) : graph.degree(v);
+        cumulative[i] = total;
+      }
+      if (total == 0) {
+        // there are no edges, so there are no paths to count
+        return factors;
+      }
+      for (int i = 0; i < k; i++) {
+        // find the first vertex whose cumulative degree exceeds r
+        double r = random.nextDouble() * total;
+        int index = Arrays.binarySearch(cumulative, r);
+        index = index < 0 ? -index - 1 : index + 1;
+        while (cumulative[index] <= r) {
+          index++;
+        }
+        double degree = cumulative[index] - (index == 0 ? 0 : cumulative[index - 1]);
+        factors.merge(vertices.get(index), total / (k * degree), Double::sum);
+      }
+      return factors;
+    }
+  }
+
+  public static <V, E> Builder<V, E> builder() {
+    return new Builder<V, E>();
+  }
+
+  protected ApproximateBetweennessCentrality(
+      Builder<V, E> builder, int sampleSize, Map<V, Double> pivotFactors) {
+    super(builder.graph, builder.edgeWeights, builder.pool, pivotFactors);
+    this.sampleSize = sampleSize;
+  }
+
+  /**
+   * @return the number of pivots drawn; if it is at least the number of vertices, every vertex was
+   *     used once and the scores are exact
+   */
+  public int getSampleSize() {
+    return sampleSize;
+  }
+}
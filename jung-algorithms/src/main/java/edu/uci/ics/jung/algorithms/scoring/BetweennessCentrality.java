@@ -151,9 +151,10 @@ public class BetweennessCentrality<V, E> implements VertexScorer<V, Double>, Edg
           // (2) x's SP count and incoming edges are updated below
           if (x_data.distance > x_potential_dist) {
             x_data.distance = x_potential_dist;
-            // invalidate previously identified incoming edges
+            // invalidate previously identified incoming edges and shortest path count
             // (we have a new shortest path distance to x)
             x_data.incomingEdges.clear();
+            x_data.numSPs = 0;
             // update x's position in queue
             ((MapBinaryHeap<V>) queue).update(x);
           }
@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.graph.event.NetworkEvent;
+import edu.uci.ics.jung.graph.event.NetworkEventListener;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the PageRank scores of a changing graph by local pushes, for graphs that are modified
+ * through an {@link edu.uci.ics.jung.graph.ObservableNetwork}. The scores are those that {@link
+ * PageRank} computes with uniform edge weights: the probability of following each outgoing edge of
+ * a vertex is the same, and the potential of vertices with no outgoing edges is spread uniformly
+ * over all vertices.
+ *
+ * <p>For each vertex this class keeps an estimate <code>p</code> of its unnormalized score (the
+ * score times the number of vertices) and a residual <code>r</code>, the amount by which the
+ * PageRank equation for the vertex is not yet satisfied by the estimates. A push moves the residual
+ * of a vertex into its estimate and passes <code>(1 - alpha)</code> of it on to its successors.
+ * When an edge is added or removed, only the residuals of the vertices whose incoming transition
+ * probabilities changed, that is the successors of the endpoints, are corrected; pushes then start
+ * from those vertices, so the work done after a small change is proportional to the part of the
+ * graph its effect reaches rather than to the size of the graph. The residuals that vertices with
+ * no outgoing edges spread over the whole graph are accumulated as a single uniform term, and are
+ * applied to every vertex only once they reach half the tolerance.
+ *
+ * <p>Pushes are deferred until scores are requested, or until {@link #propagate()} is called, so a
+ * burst of changes costs a single propagation. Once propagation finishes, every residual is at most
+ * <code>tolerance</code> in absolute value, which bounds the sum of the absolute errors of the
+ * (normalized) scores by <code>tolerance / alpha</code>.
+ *
+ * <p>To follow the changes to a graph, register the instance with {@link
+ * edu.uci.ics.jung.graph.ObservableNetwork#addGraphEventListener(NetworkEventListener)}. Changes
+ * made in a batch are handled together, when the batch is committed.
+ *
+ * @see "Hongyang Zhang, Peter Lofgren, Ashish Goel: Approximate Personalized PageRank on Dynamic
+ *     Graphs. KDD 2016."
+ */
+public class IncrementalPageRank<V, E>
+    implements VertexScorer<V, Double>, NetworkEventListener<V, E> {
+  protected final Network<V, E> graph;
+
+  /** The probability of a random jump at each step. */
+  protected final double alpha;
+
+  /** The largest residual permitted when propagation ends. */
+  protected double tolerance = 0.001;
+
+  /** The estimate and the residual of each vertex. */
+  protected final Map<V, Entry> entries = new HashMap<V, Entry>();
+
+  /** The vertices whose residual may exceed half the tolerance. */
+  protected final ArrayDeque<V> queue = new ArrayDeque<V>();
+
+  /** The sum of the estimates of the vertices with no outgoing edges. */
+  protected double sink_potential;
+
+  /**
+   * The part of the uniform residual term <code>(1 - alpha) * sink_potential / n</code> that has
+   * already been added to the residual of every vertex.
+   */
+  protected double applied_uniform_residual;
+
+  /** The estimate and residual of a vertex. */
+  protected static class Entry {
+    protected double estimate;
+    protected double residual;
+    protected boolean queued;
+  }
+
+  /**
+   * Creates an instance which computes the scores of <code>graph</code> from scratch.
+   *
+   * @param graph the graph whose vertices are to be scored
+   * @param alpha the probability of taking a random jump to an arbitrary vertex
+   */
+  public IncrementalPageRank(Network<V, E> graph, double alpha) {
+    this(graph, alpha, Collections.<V, Double>emptyMap());
+  }
+
+  /**
+   * Creates an instance which starts from previously computed scores, such as those of a {@link
+   * PageRank} instance for an earlier version of <code>graph</code>. Only the residuals that the
+   * scores leave are propagated.
+   *
+   * @param graph the graph whose vertices are to be scored
+   * @param alpha the probability of taking a random jump to an arbitrary vertex
+   * @param initial_scores the scores to start from; vertices that are missing start at 0
+   */
+  public IncrementalPageRank(
+      Network<V, E> graph, double alpha, Map<V, ? extends Number> initial_scores) {
+    Preconditions.checkArgument(alpha > 0 && alpha <= 1, "alpha must be in (0, 1]");
+    this.graph = graph;
+    this.alpha = alpha;
+    int n = graph.nodes().size();
+    for (V v : graph.nodes()) {
+      Entry entry = new Entry();
+      Number score = initial_scores.get(v);
+      entry.estimate = score == null ? 0 : score.doubleValue() * n;
+      entry.residual = alpha - entry.estimate;
+      entries.put(v, entry);
+    }
+    for (V u : graph.nodes()) {
+      double estimate = entries.get(u).estimate;
+      int degree = outDegree(u);
+      if (degree == 0) {
+        sink_potential += estimate;
+      } else {
+        for (E e : outEdges(u)) {
+          entries.get(head(u, e)).residual += (1 - alpha) * estimate / degree;
+        }
+      }
+    }
+    for (V v : graph.nodes()) {
+      enqueue(v, entries.get(v));
+    }
+  }
+
+  /**
+   * @return the largest residual permitted when propagation ends
+   * @see #setTolerance(double)
+   */
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Sets the largest residual permitted when propagation ends. The sum of the absolute errors of
+   * the scores is at most <code>tolerance / alpha</code>. The default is 0.001.
+   *
+   * @param tolerance the largest permitted residual
+   */
+  public synchronized void setTolerance(double tolerance) {
+    Preconditions.checkArgument(tolerance > 0, "tolerance must be positive");
+    this.tolerance = tolerance;
+    for (Map.Entry<V, Entry> entry : entries.entrySet()) {
+      enqueue(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /** @return the probability of a random jump at each step */
+  public double getAlpha() {
+    return alpha;
+  }
+
+  private int outDegree(V v) {
+    return graph.isDirected() ? graph.outDegree(v) : graph.degree(v);
+  }
+
+  private Set<E> outEdges(V v) {
+    return graph.isDirected() ? graph.outEdges(v) : graph.incidentEdges(v);
+  }
+
+  /** @return the vertex to which <code>e</code> leads from <code>v</code> */
+  private V head(V v, E e) {
+    return graph.incidentNodes(e).adjacentNode(v);
+  }
+
+  /** @return the residual term shared by all vertices which is not yet in their residuals */
+  private double uniformResidual() {
+    int n = entries.size();
+    return n == 0 ? 0 : (1 - alpha) * sink_potential / n - applied_uniform_residual;
+  }
+
+  private void enqueue(V v, Entry entry) {
+    if (!entry.queued && Math.abs(entry.residual) > tolerance / 2) {
+      entry.queued = true;
+      queue.add(v);
+    }
+  }
+
+  private Entry entry(V v) {
+    Entry entry = entries.get(v);
+    if (entry == null) {
+      // a vertex with no edges yet; its equation has only the jump term
+      entry = new Entry();
+      entry.residual = alpha + applied_uniform_residual;
+      entries.put(v, entry);
+      enqueue(v, entry);
+    }
+    return entry;
+  }
+
+  /**
+   * Pushes residuals until none exceeds the tolerance.
+   *
+   * @return the number of pushes performed
+   */
+  public synchronized int propagate() {
+    int pushes = 0;
+    while (true) {
+      double uniform = uniformResidual();
+      if (Math.abs(uniform) > tolerance / 2) {
+        // add the uniform term to every residual, which is the only non-local step
+        applied_uniform_residual += uniform;
+        for (Map.Entry<V, Entry> entry : entries.entrySet()) {
+          entry.getValue().residual += uniform;
+          enqueue(entry.getKey(), entry.getValue());
+        }
+        uniform = 0;
+      }
+      V u = queue.poll();
+      if (u == null) {
+        return pushes;
+      }
+      Entry entry = entries.get(u);
+      entry.queued = false;
+      double residual = entry.residual + uniform;
+      entry.estimate += residual;
+      entry.residual -= residual;
+      int degree = outDegree(u);
+      if (degree == 0) {
+        sink_potential += residual;
+      } else {
+        double share = (1 - alpha) * residual / degree;
+        for (E e : outEdges(u)) {
+          V w = head(u, e);
+          Entry target = entries.get(w);
+          target.residual += share;
+          enqueue(w, target);
+        }
+      }
+      pushes++;
+    }
+  }
+
+  @Override
+  public synchronized Double getVertexScore(V v) {
+    propagate();
+    Entry entry = entries.get(v);
+    Preconditions.checkArgument(entry != null, "%s is not a vertex of the graph", v);
+    return entry.estimate / entries.size();
+  }
+
+  @Override
+  public synchronized Map<V, Double> vertexScores() {
+    propagate();
+    Map<V, Double> scores = new HashMap<V, Double>();
+    for (Map.Entry<V, Entry> entry : entries.entrySet()) {
+      scores.put(entry.getKey(), entry.getValue().estimate / entries.size());
+    }
+    return Collections.unmodifiableMap(scores);
+  }
+
+  /**
+   * Corrects the residuals for a change, or a batch of changes, to the graph. The pushes are
+   * deferred until scores are requested.
+   *
+   * <p>A single change is applied as a correction to the residuals of the vertices it affects, so
+   * the graph must not have changed further since the event; this holds for events delivered
+   * synchronously by {@link edu.uci.ics.jung.graph.ObservableNetwork}. For a {@link
+   * NetworkEvent.Batch}, the residuals of the affected vertices are recomputed from the current
+   * state of the graph, which must be the state at the end of the batch.
+   */
+  @Override
+  public synchronized void handleGraphEvent(NetworkEvent<V, E> evt) {
+    switch (evt.getType()) {
+      case BATCH:
+        batchChanged(((NetworkEvent.Batch<V, E>) evt).getEvents());
+        break;
+      case VERTEX_ADDED:
+        entry(((NetworkEvent.Node<V, E>) evt).getNode());
+        break;
+      case VERTEX_REMOVED:
+        V v = ((NetworkEvent.Node<V, E>) evt).getNode();
+        // the incident edges have already been removed, so v was a sink
+        Entry removed = entries.remove(v);
+        if (removed != null) {
+          sink_potential -= removed.estimate;
+          queue.remove(v);
+        }
+        break;
+      case EDGE_ADDED:
+      case EDGE_REMOVED:
+        NetworkEvent.Edge<V, E> edgeEvent = (NetworkEvent.Edge<V, E>) evt;
+        E e = edgeEvent.getEdge();
+        EndpointPair<V> endpoints = edgeEvent.getEndpoints();
+        boolean added = evt.getType() == NetworkEvent.Type.EDGE_ADDED;
+        if (endpoints == null) {
+          Preconditions.checkState(added, "the endpoints of removed edge %s are unknown", e);
+          endpoints = graph.incidentNodes(e);
+        }
+        V u = endpoints.nodeU();
+        V w = endpoints.nodeV();
+        if (graph.isDirected()) {
+          edgeChanged(u, w, e, added, 1);
+        } else if (u.equals(w)) {
+          edgeChanged(u, u, e, added, 2);
+        } else {
+          edgeChanged(u, w, e, added, 1);
+          edgeChanged(w, u, e, added, 1);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("unknown event type " + evt.getType());
+    }
+  }
+
+  /**
+   * Recomputes the residuals of the vertices affected by the changes of a batch, whose successors
+   * or transition probabilities may have changed. The residual of a vertex <code>w</code> only
+   * depends on the estimates and out-degrees of its predecessors:
+   *
+   * <pre>alpha - p(w) + (1 - alpha) * sum(p(u) / outDegree(u), for each edge u to w)</pre>
+   *
+   * plus the uniform term, of which <code>applied_uniform_residual</code> has been applied.
+   */
+  private void batchChanged(List<NetworkEvent<V, E>> events) {
+    // the change in the out-degree of each vertex whose edges changed
+    Map<V, Integer> degree_changes = new LinkedHashMap<V, Integer>();
+    Set<V> affected = new LinkedHashSet<V>();
+    for (NetworkEvent<V, E> evt : events) {
+      if (evt instanceof NetworkEvent.Node) {
+        V v = ((NetworkEvent.Node<V, E>) evt).getNode();
+        degree_changes.putIfAbsent(v, 0);
+        affected.add(v);
+        continue;
+      }
+      NetworkEvent.Edge<V, E> edgeEvent = (NetworkEvent.Edge<V, E>) evt;
+      boolean added = evt.getType() == NetworkEvent.Type.EDGE_ADDED;
+      EndpointPair<V> endpoints = edgeEvent.getEndpoints();
+      Preconditions.checkState(
+          endpoints != null, "the endpoints of edge %s are unknown", edgeEvent.getEdge());
+      V u = endpoints.nodeU();
+      V w = endpoints.nodeV();
+      int change = added ? 1 : -1;
+      degree_changes.merge(u, change, Integer::sum);
+      if (!graph.isDirected()) {
+        degree_changes.merge(w, change, Integer::sum);
+      } else {
+        degree_changes.putIfAbsent(w, 0);
+      }
+      // a removed edge no longer leads to its head, which is not found below
+      affected.add(w);
+      affected.add(u);
+    }
+
+    for (Map.Entry<V, Integer> change : degree_changes.entrySet()) {
+      V v = change.getKey();
+      boolean present = graph.nodes().contains(v);
+      int degree = present ? outDegree(v) : 0;
+      Entry old = entries.get(v);
+      if (old != null && degree - change.getValue() == 0) {
+        sink_potential -= old.estimate;
+      }
+      if (!present) {
+        if (old != null) {
+          entries.remove(v);
+          queue.remove(v);
+        }
+        continue;
+      }
+      Entry entry = entry(v);
+      if (degree == 0) {
+        sink_potential += entry.estimate;
+      }
+      for (E e : outEdges(v)) {
+        affected.add(head(v, e));
+      }
+    }
+
+    for (V w : affected) {
+      Entry entry = entries.get(w);
+      if (entry == null) {
+        continue;
+      }
+      double input = 0;
+      for (E e : graph.isDirected() ? graph.inEdges(w) : graph.incidentEdges(w)) {
+        V u = head(w, e);
+        input += entries.get(u).estimate / outDegree(u);
+      }
+      entry.residual = alpha + applied_uniform_residual - entry.estimate + (1 - alpha) * input;
+      enqueue(w, entry);
+    }
+  }
+
+  /**
+   * Corrects the residuals of the successors of <code>u</code> after the edge <code>e</code> from
+   * <code>u</code> to <code>w</code> was added or removed, changing the out-degree of <code>u
+   * </code> by <code>count</code>.
+   */
+  private void edgeChanged(V u, V w, E e, boolean added, int count) {
+    Entry source = entry(u);
+    Entry target = entry(w);
+    int new_degree = outDegree(u);
+    int old_degree = added ? new_degree - count : new_degree + count;
+    double estimate = source.estimate;
+    if (old_degree == 0) {
+      sink_potential -= estimate;
+    } else if (new_degree == 0) {
+      sink_potential += estimate;
+    }
+    if (estimate == 0) {
+      return;
+    }
+    double old_share = old_degree == 0 ? 0 : (1 - alpha) * estimate / old_degree;
+    double new_share = new_degree == 0 ? 0 : (1 - alpha) * estimate / new_degree;
+    for (E f : outEdges(u)) {
+      if (!f.equals(e)) {
+        V x = head(u, f);
+        Entry entry = entries.get(x);
+        entry.residual += new_share - old_share;
+        enqueue(x, entry);
+      }
+    }
+    target.residual += added ? new_share : -old_share;
+    enqueue(w, target);
+  }
+}
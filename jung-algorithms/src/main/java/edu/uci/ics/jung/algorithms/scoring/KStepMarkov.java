@@ -132,4 +132,28 @@ public class KStepMarkov<V, E> extends PageRankWithPriors<V, E> {
 
     return Math.abs(getCurrentValue(v) - new_value);
   }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The scores of a k-step walk are only defined for steps that update every vertex from the
+   * previous scores, so {@code GAUSS_SEIDEL} is not accepted.
+   */
+  @Override
+  public void setIterationStrategy(IterationStrategy iteration_strategy) {
+    Preconditions.checkArgument(
+        iteration_strategy != IterationStrategy.GAUSS_SEIDEL,
+        "KStepMarkov does not support in-place updates");
+    super.setIterationStrategy(iteration_strategy);
+  }
+
+  @Override
+  protected CompiledScorer compile() {
+    return new CompiledPageRank() {
+      @Override
+      protected double output(int i, double new_value) {
+        return cumulative ? new_value + current[i] : new_value;
+      }
+    };
+  }
 }
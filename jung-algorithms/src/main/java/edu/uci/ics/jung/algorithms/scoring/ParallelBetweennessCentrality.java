@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.BiMap;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.util.IndexedDaryHeap;
+import edu.uci.ics.jung.algorithms.util.Indexer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Computes betweenness centrality for each vertex and edge in the graph, using Brandes' algorithm
+ * on several threads. The scores are the same as those of {@link BetweennessCentrality}, up to
+ * floating-point rounding.
+ *
+ * <p>The graph is copied into arrays indexed by vertex and by edge. The source vertices are then
+ * split into ranges which are processed as tasks of a {@link ForkJoinPool}. Each thread that runs
+ * a task accumulates the dependencies of its sources into its own <code>double[]</code> vertex and
+ * edge scores, so there is one set of arrays per thread rather than per task, and the arrays of the
+ * threads are summed once all of the tasks are done. As the sources are summed in an order that
+ * depends on the scheduling of the tasks, the scores may differ by floating-point rounding from one
+ * run to the next.
+ *
+ * @see "Ulrik Brandes: A Faster Algorithm for Betweenness Centrality. Journal of Mathematical
+ *     Sociology 25(2):163-177, 2001."
+ */
+public class ParallelBetweennessCentrality<V, E>
+    implements VertexScorer<V, Double>, EdgeScorer<E, Double> {
+  protected Network<V, E> graph;
+  protected Map<V, Double> vertex_scores;
+  protected Map<E, Double> edge_scores;
+
+  // for each vertex i, its outgoing edges (self-loops excepted) are in the range
+  // [outOffsets[i], outOffsets[i + 1]) of the out arrays, and its incoming edges in the range
+  // [inOffsets[i], inOffsets[i + 1]) of the in arrays
+  private int vertexCount;
+  private int[] outOffsets;
+  private int[] outTargets;
+  private double[] outWeights;
+  private int[] inOffsets;
+  private int[] inSources;
+  private int[] inEdges;
+  private double[] inWeights;
+  private boolean weighted;
+
+  /**
+   * Calculates betweenness scores based on the all-pairs unweighted shortest paths in the graph,
+   * using the common pool.
+   *
+   * @param graph the graph for which the scores are to be calculated
+   */
+  public ParallelBetweennessCentrality(Network<V, E> graph) {
+    this(graph, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Calculates betweenness scores based on the all-pairs unweighted shortest paths in the graph.
+   *
+   * @param graph the graph for which the scores are to be calculated
+   * @param pool the pool whose threads compute the scores
+   */
+  public ParallelBetweennessCentrality(Network<V, E> graph, ForkJoinPool pool) {
+    this(graph, null, pool);
+  }
+
+  /**
+   * Calculates betweenness scores based on the all-pairs weighted shortest paths in the graph,
+   * using the common pool.
+   *
+   * @param graph the graph for which the scores are to be calculated
+   * @param edge_weights the edge weights to be used in the path length calculations
+   */
+  public ParallelBetweennessCentrality(
+      Network<V, E> graph, Function<? super E, ? extends Number> edge_weights) {
+    this(graph, edge_weights, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Calculates betweenness scores based on the all-pairs weighted shortest paths in the graph.
+   *
+   * @param graph the graph for which the scores are to be calculated
+   * @param edge_weights the edge weights to be used in the path length calculations, or null if the
+   *     graph is unweighted
+   * @param pool the pool whose threads compute the scores
+   */
+  public ParallelBetweennessCentrality(
+      Network<V, E> graph, Function<? super E, ? extends Number> edge_weights, ForkJoinPool pool) {
+    this(graph, edge_weights, pool, null);
+  }
+
+  /**
+   * Calculates betweenness scores from the shortest paths that start at the specified source
+   * vertices. The dependencies of each source on the other vertices and the edges are multiplied by
+   * the factor of the source before they are added to the scores.
+   *
+   * @param graph the graph for which the scores are to be calculated
+   * @param edge_weights the edge weights to be used in the path length calculations, or null if the
+   *     graph is unweighted
+   * @param pool the pool whose threads compute the scores
+   * @param source_factors the source vertices and their factors, or null to use every vertex as a
+   *     source with a factor of 1
+   */
+  protected ParallelBetweennessCentrality(
+      Network<V, E> graph,
+      Function<? super E, ? extends Number> edge_weights,
+      ForkJoinPool pool,
+      Map<V, Double> source_factors) {
+    Preconditions.checkNotNull(pool);
+    this.graph = graph;
+    List<V> vertices = new ArrayList<V>(graph.nodes());
+    List<E> edges = new ArrayList<E>(graph.edges());
+    BiMap<V, Integer> vertexIndices = Indexer.create(vertices);
+    initialize(vertices, vertexIndices, edges, edge_weights);
+
+    int[] sources;
+    double[] factors;
+    if (source_factors == null) {
+      sources = new int[vertexCount];
+      factors = new double[vertexCount];
+      for (int i = 0; i < vertexCount; i++) {
+        sources[i] = i;
+      }
+      Arrays.fill(factors, 1.0);
+    } else {
+      sources = new int[source_factors.size()];
+      factors = new double[source_factors.size()];
+      int i = 0;
+      for (Map.Entry<V, Double> entry : source_factors.entrySet()) {
+        Integer source = vertexIndices.get(entry.getKey());
+        Preconditions.checkArgument(
+            source != null, "Source vertex %s is not part of graph %s", entry.getKey(), graph);
+        sources[i] = source;
+        factors[i] = entry.getValue();
+        i++;
+      }
+    }
+
+    int parallelism = pool.getParallelism();
+    int threshold = Math.max(1, sources.length / (4 * parallelism));
+    Map<Thread, Worker> workers = new ConcurrentHashMap<>();
+    if (sources.length > 0) {
+      pool.invoke(new SourceTask(sources, factors, 0, sources.length, threshold, workers));
+    }
+    Scores scores = new Scores(vertexCount, edges.size());
+    for (Worker worker : workers.values()) {
+      scores.add(worker.scores);
+    }
+
+    if (!graph.isDirected()) {
+      for (int i = 0; i < scores.vertexScores.length; i++) {
+        scores.vertexScores[i] /= 2.0;
+      }
+      for (int i = 0; i < scores.edgeScores.length; i++) {
+        scores.edgeScores[i] /= 2.0;
+      }
+    }
+    this.vertex_scores = new HashMap<V, Double>();
+    for (int i = 0; i < vertices.size(); i++) {
+      vertex_scores.put(vertices.get(i), scores.vertexScores[i]);
+    }
+    this.edge_scores = new HashMap<E, Double>();
+    for (int i = 0; i < edges.size(); i++) {
+      edge_scores.put(edges.get(i), scores.edgeScores[i]);
+    }
+  }
+
+  private void initialize(
+      List<V> vertices,
+      BiMap<V, Integer> vertexIndices,
+      List<E> edges,
+      Function<? super E, ? extends Number> edge_weights) {
+    this.weighted = edge_weights != null;
+    BiMap<E, Integer> edgeIndices = Indexer.create(edges);
+    this.vertexCount = vertexIndices.size();
+
+    double[] weights = new double[edges.size()];
+    for (int i = 0; i < weights.length; i++) {
+      // reject negative-weight edges up front
+      double e_weight = weighted ? edge_weights.apply(edges.get(i)).doubleValue() : 1;
+      Preconditions.checkArgument(
+          e_weight >= 0, "Weight for edge '%s' is < 0: %s", edges.get(i), e_weight);
+      weights[i] = e_weight;
+    }
+
+    // count the edges at each end, ignoring self-loops, which are never on a shortest path
+    outOffsets = new int[vertexCount + 1];
+    inOffsets = new int[vertexCount + 1];
+    for (int i = 0; i < vertexCount; i++) {
+      V v = vertices.get(i);
+      outOffsets[i + 1] = outOffsets[i];
+      for (E e : graph.outEdges(v)) {
+        if (!graph.incidentNodes(e).adjacentNode(v).equals(v)) {
+          outOffsets[i + 1]++;
+        }
+      }
+      inOffsets[i + 1] = inOffsets[i];
+      for (E e : graph.inEdges(v)) {
+        if (!graph.incidentNodes(e).adjacentNode(v).equals(v)) {
+          inOffsets[i + 1]++;
+        }
+      }
+    }
+    outTargets = new int[outOffsets[vertexCount]];
+    outWeights = new double[outTargets.length];
+    inSources = new int[inOffsets[vertexCount]];
+    inEdges = new int[inSources.length];
+    inWeights = new double[inSources.length];
+    for (int i = 0; i < vertexCount; i++) {
+      V v = vertices.get(i);
+      int slot = outOffsets[i];
+      for (E e : graph.outEdges(v)) {
+        V x = graph.incidentNodes(e).adjacentNode(v);
+        if (!x.equals(v)) {
+          outTargets[slot] = vertexIndices.get(x);
+          outWeights[slot] = weights[edgeIndices.get(e)];
+          slot++;
+        }
+      }
+      slot = inOffsets[i];
+      for (E e : graph.inEdges(v)) {
+        V w = graph.incidentNodes(e).adjacentNode(v);
+        if (!w.equals(v)) {
+          int edge = edgeIndices.get(e);
+          inSources[slot] = vertexIndices.get(w);
+          inEdges[slot] = edge;
+          inWeights[slot] = weights[edge];
+          slot++;
+        }
+      }
+    }
+  }
+
+  @Override
+  public Double getVertexScore(V v) {
+    return vertex_scores.get(v);
+  }
+
+  @Override
+  public Double getEdgeScore(E e) {
+    return edge_scores.get(e);
+  }
+
+  @Override
+  public Map<V, Double> vertexScores() {
+    return Collections.unmodifiableMap(vertex_scores);
+  }
+
+  @Override
+  public Map<E, Double> edgeScores() {
+    return Collections.unmodifiableMap(edge_scores);
+  }
+
+  /** The scores accumulated by one thread, indexed by vertex and by edge. */
+  private static class Scores {
+    final double[] vertexScores;
+    final double[] edgeScores;
+
+    Scores(int vertexCount, int edgeCount) {
+      vertexScores = new double[vertexCount];
+      edgeScores = new double[edgeCount];
+    }
+
+    void add(Scores other) {
+      for (int i = 0; i < vertexScores.length; i++) {
+        vertexScores[i] += other.vertexScores[i];
+      }
+      for (int i = 0; i < edgeScores.length; i++) {
+        edgeScores[i] += other.edgeScores[i];
+      }
+    }
+  }
+
+  /** The scores and working arrays of one thread, reused for each task that the thread runs. */
+  private class Worker {
+    final Scores scores = new Scores(vertexCount, graph.edges().size());
+    final SourceData sd = new SourceData();
+  }
+
+  /**
+   * Accumulates the dependencies of the sources in the range [from, to) of the source arrays into
+   * the worker of the thread that runs it.
+   */
+  private class SourceTask extends RecursiveAction {
+    private final int[] sources;
+    private final double[] factors;
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final Map<Thread, Worker> workers;
+
+    SourceTask(
+        int[] sources,
+        double[] factors,
+        int from,
+        int to,
+        int threshold,
+        Map<Thread, Worker> workers) {
+      this.sources = sources;
+      this.factors = factors;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+      this.workers = workers;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > threshold) {
+        int middle = (from + to) >>> 1;
+        invokeAll(
+            new SourceTask(sources, factors, from, middle, threshold, workers),
+            new SourceTask(sources, factors, middle, to, threshold, workers));
+        return;
+      }
+      // only this thread uses its worker, and the pool publishes its writes when the task is done
+      Worker worker = workers.computeIfAbsent(Thread.currentThread(), thread -> new Worker());
+      for (int i = from; i < to; i++) {
+        worker.sd.accumulate(sources[i], factors[i], worker.scores);
+      }
+    }
+  }
+
+  /** The working arrays of a single-source search, reused for each source of a thread. */
+  private class SourceData {
+    final double[] distance = new double[vertexCount];
+    final double[] numSPs = new double[vertexCount];
+    final double[] dependency = new double[vertexCount];
+    // the vertices in the order in which they were reached
+    final int[] stack = new int[vertexCount];
+    final IndexedDaryHeap heap = weighted ? new IndexedDaryHeap(vertexCount) : null;
+
+    void accumulate(int source, double factor, Scores scores) {
+      Arrays.fill(distance, -1);
+      Arrays.fill(numSPs, 0);
+      Arrays.fill(dependency, 0);
+      distance[source] = 0;
+      numSPs[source] = 1;
+      int size = weighted ? dijkstra(source) : breadthFirst(source);
+
+      while (size > 0) {
+        int x = stack[--size];
+        for (int slot = inOffsets[x]; slot < inOffsets[x + 1]; slot++) {
+          int w = inSources[slot];
+          if (distance[w] >= 0 && distance[w] + inWeights[slot] == distance[x]) {
+            double partialDependency = numSPs[w] / numSPs[x] * (1.0 + dependency[x]);
+            dependency[w] += partialDependency;
+            scores.edgeScores[inEdges[slot]] += factor * partialDependency;
+          }
+        }
+        if (x != source) {
+          scores.vertexScores[x] += factor * dependency[x];
+        }
+      }
+    }
+
+    /** @return the number of vertices reached */
+    private int breadthFirst(int source) {
+      int size = 0;
+      int head = 0;
+      stack[size++] = source;
+      while (head < size) {
+        int w = stack[head++];
+        for (int slot = outOffsets[w]; slot < outOffsets[w + 1]; slot++) {
+          int x = outTargets[slot];
+          if (distance[x] < 0) {
+            distance[x] = distance[w] + 1;
+            stack[size++] = x;
+          }
+          if (distance[x] == distance[w] + 1) {
+            numSPs[x] += numSPs[w];
+          }
+        }
+      }
+      return size;
+    }
+
+    /** @return the number of vertices reached */
+    private int dijkstra(int source) {
+      int size = 0;
+      heap.insert(source, 0);
+      while (!heap.isEmpty()) {
+        int w = heap.removeMin();
+        stack[size++] = w;
+        for (int slot = outOffsets[w]; slot < outOffsets[w + 1]; slot++) {
+          int x = outTargets[slot];
+          double x_potential_dist = distance[w] + outWeights[slot];
+          if (distance[x] < 0) {
+            distance[x] = x_potential_dist;
+            heap.insert(x, x_potential_dist);
+          } else if (distance[x] > x_potential_dist) {
+            // a shorter path invalidates the shortest paths counted so far
+            distance[x] = x_potential_dist;
+            numSPs[x] = 0;
+            heap.decreaseKey(x, x_potential_dist);
+          }
+          if (distance[x] == x_potential_dist) {
+            numSPs[x] += numSPs[w];
+          }
+        }
+      }
+      return size;
+    }
+  }
+}
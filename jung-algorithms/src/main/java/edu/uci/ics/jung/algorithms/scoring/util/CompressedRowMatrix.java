@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * <p>All rights reserved.
+ *
+ * <p>This software is open-source under the BSD license; see either "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring.util;
+
+import com.google.common.graph.Network;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * A square sparse matrix in compressed sparse row (CSR) form, built from the edges of a graph. Row
+ * and column <code>i</code> both stand for the vertex with index <code>i</code>; each edge incident
+ * to a row vertex contributes an entry whose column is the vertex at the other end of the edge, so
+ * parallel edges give separate entries.
+ *
+ * <p>The entries of row <code>i</code> are in the range <code>[rowStart(i), rowStart(i + 1))</code>
+ * of {@link #getColumns()} and {@link #getValues()}.
+ */
+public class CompressedRowMatrix {
+  private final int[] row_offsets;
+  private final int[] columns;
+  private final double[] values;
+
+  private CompressedRowMatrix(int[] row_offsets, int[] columns, double[] values) {
+    this.row_offsets = row_offsets;
+    this.columns = columns;
+    this.values = values;
+  }
+
+  /**
+   * Creates a matrix in which row <code>v</code> has an entry for each incoming edge <code>e</code>
+   * from <code>u</code>, with the value <code>edge_weights.apply(u, e)</code>. Multiplying a vector
+   * of vertex values by this matrix pulls the values of the predecessors of each vertex along its
+   * incoming edges.
+   *
+   * @param graph the graph whose edges are to be copied
+   * @param vertices the vertices of the graph, in index order
+   * @param indices the index of each vertex
+   * @param edge_weights the weight of an edge in the context of the vertex at the column end
+   * @return the matrix of incoming edges
+   */
+  public static <V, E> CompressedRowMatrix incoming(
+      Network<V, E> graph,
+      List<V> vertices,
+      Map<V, Integer> indices,
+      BiFunction<V, E, ? extends Number> edge_weights) {
+    return create(graph, vertices, indices, edge_weights, true);
+  }
+
+  /**
+   * Creates a matrix in which row <code>v</code> has an entry for each outgoing edge <code>e</code>
+   * to <code>w</code>, with the value <code>edge_weights.apply(w, e)</code>. Multiplying a vector
+   * of vertex values by this matrix pulls the values of the successors of each vertex back along
+   * its outgoing edges.
+   *
+   * @param graph the graph whose edges are to be copied
+   * @param vertices the vertices of the graph, in index order
+   * @param indices the index of each vertex
+   * @param edge_weights the weight of an edge in the context of the vertex at the column end
+   * @return the matrix of outgoing edges
+   */
+  public static <V, E> CompressedRowMatrix outgoing(
+      Network<V, E> graph,
+      List<V> vertices,
+      Map<V, Integer> indices,
+      BiFunction<V, E, ? extends Number> edge_weights) {
+    return create(graph, vertices, indices, edge_weights, false);
+  }
+
+  private static <V, E> CompressedRowMatrix create(
+      Network<V, E> graph,
+      List<V> vertices,
+      Map<V, Integer> indices,
+      BiFunction<V, E, ? extends Number> edge_weights,
+      boolean incoming) {
+    int size = vertices.size();
+    int[] row_offsets = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      V v = vertices.get(i);
+      row_offsets[i + 1] =
+          row_offsets[i] + (incoming ? graph.inEdges(v).size() : graph.outEdges(v).size());
+    }
+    int[] columns = new int[row_offsets[size]];
+    double[] values = new double[columns.length];
+    int k = 0;
+    for (V v : vertices) {
+      for (E e : incoming ? graph.inEdges(v) : graph.outEdges(v)) {
+        V other = graph.incidentNodes(e).adjacentNode(v);
+        columns[k] = indices.get(other);
+        values[k] = edge_weights.apply(other, e).doubleValue();
+        k++;
+      }
+    }
+    return new CompressedRowMatrix(row_offsets, columns, values);
+  }
+
+  /** @return the number of rows (and columns) */
+  public int size() {
+    return row_offsets.length - 1;
+  }
+
+  /** @return the number of entries in row <code>row</code> */
+  public int rowLength(int row) {
+    return row_offsets[row + 1] - row_offsets[row];
+  }
+
+  /** @return the position of the first entry of <code>row</code> */
+  public int rowStart(int row) {
+    return row_offsets[row];
+  }
+
+  /** @return the column of each entry; must not be modified */
+  public int[] getColumns() {
+    return columns;
+  }
+
+  /** @return the value of each entry; must not be modified */
+  public double[] getValues() {
+    return values;
+  }
+
+  /**
+   * Returns the product of row <code>row</code> and the vector <code>x</code>.
+   *
+   * @param row the row
+   * @param x a vector with an element for each column
+   * @return the sum over the entries of the row of the value times the element of its column
+   */
+  public double multiplyRow(int row, double[] x) {
+    double sum = 0;
+    for (int k = row_offsets[row]; k < row_offsets[row + 1]; k++) {
+      sum += values[k] * x[columns[k]];
+    }
+    return sum;
+  }
+}
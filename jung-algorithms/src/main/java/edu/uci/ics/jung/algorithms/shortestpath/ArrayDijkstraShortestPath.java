@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.shortestpath;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.BiMap;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.util.IndexedDaryHeap;
+import edu.uci.ics.jung.algorithms.util.Indexer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Calculates distances and shortest paths in a specified graph, using Dijkstra's
+ * single-source-shortest-path algorithm over primitive arrays. It gives the same results as {@link
+ * DijkstraShortestPath}, but is intended for large graphs, on which the maps and boxed distances of
+ * that class dominate the running time.
+ *
+ * <p>On construction the vertices are indexed once, with {@link Indexer}, and the outgoing edges of
+ * each vertex and their weights are copied into arrays. A search keeps its distances in a <code>
+ * double[]</code> and its predecessors in an <code>int[]</code>, and orders the vertices with an
+ * {@link IndexedDaryHeap}, so no objects are allocated as edges are relaxed. Maps are built only by
+ * the methods of {@link Distance} and {@link ShortestPath} that return them; {@link
+ * #getDistances(Object)} returns the distances without boxing.
+ *
+ * <p>All edge weights must be nonnegative; unlike <code>DijkstraShortestPath</code>, the weights
+ * are checked when this instance is created, and an <code>IllegalArgumentException</code> is thrown
+ * for a negative weight.
+ *
+ * <p>Results for each source vertex are optionally cached. Because the graph and the weights are
+ * copied, changes to either are not seen until <code>reset()</code> is called.
+ */
+public class ArrayDijkstraShortestPath<V, E> implements Distance<V>, ShortestPath<V, E> {
+  private static final int NONE = -1;
+
+  protected Network<V, E> g;
+  protected Function<? super E, ? extends Number> nev;
+  protected boolean cached;
+  protected Map<V, SourceData> sourceMap; // a map of source vertices to their search results
+
+  // the vertices and, for each vertex i, its outgoing edges in the range
+  // [edgeOffsets[i], edgeOffsets[i + 1]) of the edge arrays
+  private BiMap<V, Integer> vertexIndices;
+  private List<V> vertices;
+  private int[] edgeOffsets;
+  private int[] edgeTargets;
+  private double[] edgeWeights;
+  private List<E> edges;
+  private IndexedDaryHeap heap;
+
+  /**
+   * Creates an instance for the specified graph and the specified method of extracting weights from
+   * edges, which caches results locally if and only if <code>cached</code> is <code>true</code>.
+   *
+   * @param g the graph on which distances will be calculated
+   * @param nev the class responsible for returning weights for edges
+   * @param cached specifies whether the results are to be cached
+   */
+  public ArrayDijkstraShortestPath(
+      Network<V, E> g, Function<? super E, ? extends Number> nev, boolean cached) {
+    this.g = g;
+    this.nev = nev;
+    this.cached = cached;
+    reset();
+  }
+
+  /**
+   * Creates an instance for the specified graph and the specified method of extracting weights from
+   * edges, which caches results locally.
+   *
+   * @param g the graph on which distances will be calculated
+   * @param nev the class responsible for returning weights for edges
+   */
+  public ArrayDijkstraShortestPath(Network<V, E> g, Function<? super E, ? extends Number> nev) {
+    this(g, nev, true);
+  }
+
+  /**
+   * Creates an instance for the specified unweighted graph (that is, all weights 1) which caches
+   * results locally.
+   *
+   * @param g the graph on which distances will be calculated
+   */
+  public ArrayDijkstraShortestPath(Network<V, E> g) {
+    this(g, e -> 1, true);
+  }
+
+  /**
+   * Creates an instance for the specified unweighted graph (that is, all weights 1).
+   *
+   * @param g the graph on which distances will be calculated
+   * @param cached specifies whether the results are to be cached
+   */
+  public ArrayDijkstraShortestPath(Network<V, E> g, boolean cached) {
+    this(g, e -> 1, cached);
+  }
+
+  /**
+   * Copies the graph and its edge weights into the arrays used by the search, and clears all cached
+   * results. Should be called after the graph or the edge weights change.
+   */
+  public void reset() {
+    sourceMap = new HashMap<V, SourceData>();
+    vertices = new ArrayList<V>(g.nodes());
+    vertexIndices = Indexer.create(vertices);
+    int vertexCount = vertices.size();
+
+    edgeOffsets = new int[vertexCount + 1];
+    for (int i = 0; i < vertexCount; i++) {
+      edgeOffsets[i + 1] = edgeOffsets[i] + g.outEdges(vertices.get(i)).size();
+    }
+    int edgeCount = edgeOffsets[vertexCount];
+    edgeTargets = new int[edgeCount];
+    edgeWeights = new double[edgeCount];
+    edges = new ArrayList<E>(edgeCount);
+    int slot = 0;
+    for (V v : vertices) {
+      for (E e : g.outEdges(v)) {
+        double edge_weight = nev.apply(e).doubleValue();
+        Preconditions.checkArgument(
+            edge_weight >= 0, "encountered negative edge weight %s for edge %s", nev.apply(e), e);
+        edgeTargets[slot] = vertexIndices.get(g.incidentNodes(e).adjacentNode(v));
+        edgeWeights[slot] = edge_weight;
+        edges.add(e);
+        slot++;
+      }
+    }
+    heap = new IndexedDaryHeap(vertexCount);
+  }
+
+  /**
+   * Clears the cached results for <code>source</code>, without copying the graph again.
+   *
+   * @param source the vertex whose results are to be cleared
+   */
+  public void reset(V source) {
+    sourceMap.remove(source);
+  }
+
+  /**
+   * Specifies whether or not this instance should cache its results for future reference.
+   *
+   * @param enable <code>true</code> if the results are to be cached, and <code>false</code>
+   *     otherwise
+   */
+  public void enableCaching(boolean enable) {
+    this.cached = enable;
+    if (!enable) {
+      sourceMap.clear();
+    }
+  }
+
+  /**
+   * Returns the index of <code>v</code> in the arrays returned by {@link #getDistances(Object)}.
+   *
+   * @param v a vertex of the graph
+   * @return the index of {@code v}
+   */
+  public int indexOf(V v) {
+    Integer index = vertexIndices.get(v);
+    Preconditions.checkArgument(
+        index != null, "Specified vertex %s  is not part of graph %s", v, g);
+    return index;
+  }
+
+  /**
+   * Returns the length of a shortest path from the source to the target vertex, or null if the
+   * target is not reachable from the source. If either vertex is not in the graph for which this
+   * instance was created, throws <code>IllegalArgumentException</code>.
+   *
+   * <p>If results are not cached the search stops as soon as the distance to <code>target</code> is
+   * known.
+   *
+   * @param source the vertex from which the distance to {@code target} is to be measured
+   * @param target the vertex to which the distance from {@code source} is to be measured
+   * @return the distance between {@code source} and {@code target}
+   */
+  public Number getDistance(V source, V target) {
+    int t = indexOf(target);
+    double distance = getSourceData(source, t).distances[t];
+    return distance == Double.POSITIVE_INFINITY ? null : distance;
+  }
+
+  /**
+   * Returns the distance from <code>source</code> to each vertex, indexed as by {@link
+   * #indexOf(Object)}. The distance to a vertex that is not reachable is <code>
+   * Double.POSITIVE_INFINITY</code>.
+   *
+   * @param source the vertex from which distances are measured
+   * @return the distances from {@code source}, in a new array
+   */
+  public double[] getDistances(V source) {
+    return getSourceData(source, NONE).distances.clone();
+  }
+
+  /**
+   * Returns a <code>LinkedHashMap</code> which maps each vertex reachable from <code>source</code>
+   * (including <code>source</code>) to its distance from <code>source</code>. The map's iterator
+   * will return the elements in order of nondecreasing distance from <code>source</code>.
+   *
+   * @param source the vertex from which distances are measured
+   * @return a mapping from each reachable vertex to its distance from {@code source}
+   */
+  public Map<V, Number> getDistanceMap(V source) {
+    SourceData sd = getSourceData(source, NONE);
+    LinkedHashMap<V, Number> distanceMap = new LinkedHashMap<V, Number>();
+    for (int i = 0; i < sd.settledCount; i++) {
+      int v = sd.settled[i];
+      distanceMap.put(vertices.get(v), sd.distances[v]);
+    }
+    return distanceMap;
+  }
+
+  /**
+   * Returns a <code>LinkedHashMap</code> which maps each vertex reachable from <code>source</code>
+   * to the last edge on a shortest path from <code>source</code>; <code>source</code> itself maps
+   * to null. The map's iterator will return the elements in order of nondecreasing distance from
+   * <code>source</code>.
+   *
+   * @param source the vertex from which distances are measured
+   * @return a mapping from each reachable vertex to its incoming edge
+   */
+  public Map<V, E> getIncomingEdgeMap(V source) {
+    SourceData sd = getSourceData(source, NONE);
+    LinkedHashMap<V, E> incomingEdgeMap = new LinkedHashMap<V, E>();
+    for (int i = 0; i < sd.settledCount; i++) {
+      int v = sd.settled[i];
+      int slot = sd.incomingEdges[v];
+      incomingEdgeMap.put(vertices.get(v), slot == NONE ? null : edges.get(slot));
+    }
+    return incomingEdgeMap;
+  }
+
+  /**
+   * Returns the last edge on a shortest path from <code>source</code> to <code>target</code>, or
+   * null if <code>target</code> is not reachable from <code>source</code>.
+   *
+   * @param source the vertex where the shortest path starts
+   * @param target the vertex where the shortest path ends
+   * @return the last edge on a shortest path from {@code source} to {@code target}
+   */
+  public E getIncomingEdge(V source, V target) {
+    int t = indexOf(target);
+    int slot = getSourceData(source, t).incomingEdges[t];
+    return slot == NONE ? null : edges.get(slot);
+  }
+
+  /**
+   * Returns a <code>List</code> of the edges on a shortest path from <code>source</code> to <code>
+   * target</code>, in order of their occurrence on this path. The list is empty if <code>target
+   * </code> is not reachable from <code>source</code>.
+   *
+   * @param source the starting vertex for the path to generate
+   * @param target the ending vertex for the path to generate
+   * @return the edges on a shortest path from {@code source} to {@code target}
+   */
+  public List<E> getPath(V source, V target) {
+    int t = indexOf(target);
+    SourceData sd = getSourceData(source, t);
+    List<E> path = new ArrayList<E>();
+    for (int v = t; sd.incomingEdges[v] != NONE; v = sd.predecessors[v]) {
+      path.add(edges.get(sd.incomingEdges[v]));
+    }
+    Collections.reverse(path);
+    return path;
+  }
+
+  /**
+   * Returns the search results for <code>source</code>, from the cache if possible. A search that
+   * is not to be cached stops once <code>target</code> (if not <code>NONE</code>) is reached.
+   */
+  private SourceData getSourceData(V source, int target) {
+    Preconditions.checkArgument(
+        vertexIndices.containsKey(source),
+        "Specified source vertex %s  is not part of graph %s",
+        source,
+        g);
+    SourceData sd = sourceMap.get(source);
+    if (sd == null) {
+      sd = singleSourceShortestPath(vertexIndices.get(source), cached ? NONE : target);
+      if (cached) {
+        sourceMap.put(source, sd);
+      }
+    }
+    return sd;
+  }
+
+  /**
+   * Runs Dijkstra's algorithm from <code>source</code> until every reachable vertex, or <code>
+   * target</code> if it is not <code>NONE</code>, has been settled.
+   */
+  protected SourceData singleSourceShortestPath(int source, int target) {
+    SourceData sd = new SourceData(vertices.size());
+    sd.distances[source] = 0;
+    heap.insert(source, 0);
+    while (!heap.isEmpty()) {
+      int v = heap.removeMin();
+      sd.settled[sd.settledCount++] = v;
+      if (v == target) {
+        break;
+      }
+      double v_dist = sd.distances[v];
+      for (int slot = edgeOffsets[v]; slot < edgeOffsets[v + 1]; slot++) {
+        int w = edgeTargets[slot];
+        double new_dist = v_dist + edgeWeights[slot];
+        if (new_dist < sd.distances[w]) {
+          sd.distances[w] = new_dist;
+          sd.predecessors[w] = v;
+          sd.incomingEdges[w] = slot;
+          if (heap.contains(w)) {
+            heap.decreaseKey(w, new_dist);
+          } else {
+            heap.insert(w, new_dist);
+          }
+        }
+      }
+    }
+    heap.clear();
+    return sd;
+  }
+
+  /**
+   * The results of a search from one source vertex, indexed by vertex. The distance to a vertex
+   * that was not reached is <code>Double.POSITIVE_INFINITY</code> and its predecessor and incoming
+   * edge are <code>NONE</code>; so are those of the source.
+   */
+  protected static class SourceData {
+    protected final double[] distances;
+    protected final int[] predecessors;
+    protected final int[] incomingEdges; // positions in the edge arrays
+    protected final int[] settled; // the vertices in the order in which their distances were fixed
+    protected int settledCount;
+
+    protected SourceData(int vertexCount) {
+      distances = new double[vertexCount];
+      predecessors = new int[vertexCount];
+      incomingEdges = new int[vertexCount];
+      settled = new int[vertexCount];
+      Arrays.fill(distances, Double.POSITIVE_INFINITY);
+      Arrays.fill(predecessors, NONE);
+      Arrays.fill(incomingEdges, NONE);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.util;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A min-priority queue of the integers <code>0</code> to <code>capacity - 1</code>, keyed by <code>
+ * double</code> priorities and stored as an implicit d-ary tree. Like {@link MapBinaryHeap} it
+ * keeps track of the position of each element so that its key may be decreased efficiently, but it
+ * does so with primitive arrays, so no operation allocates or boxes.
+ *
+ * <p>A higher arity makes the tree shallower, which speeds up <code>decreaseKey</code> at some cost
+ * to <code>removeMin</code>; an arity of 4 is a good choice for Dijkstra-style algorithms.
+ */
+public class IndexedDaryHeap {
+  private static final int TOP = 0; // the index of the top of the heap
+  private static final int ABSENT = -1;
+
+  private final int arity;
+  private final int[] heap; // holds the elements as an implicit d-ary tree
+  private final int[] positions; // maps each element to its index in the heap, or ABSENT
+  private final double[] keys; // maps each element to its key
+  private int size;
+
+  /**
+   * Creates an empty 4-ary heap that can hold the elements <code>0</code> to <code>capacity - 1
+   * </code>.
+   *
+   * @param capacity the number of distinct elements
+   */
+  public IndexedDaryHeap(int capacity) {
+    this(capacity, 4);
+  }
+
+  /**
+   * Creates an empty heap that can hold the elements <code>0</code> to <code>capacity - 1</code>.
+   *
+   * @param capacity the number of distinct elements
+   * @param arity the number of children of each node of the tree
+   */
+  public IndexedDaryHeap(int capacity, int arity) {
+    Preconditions.checkArgument(capacity >= 0, "capacity must not be negative");
+    Preconditions.checkArgument(arity >= 2, "arity must be at least 2");
+    this.arity = arity;
+    this.heap = new int[capacity];
+    this.positions = new int[capacity];
+    this.keys = new double[capacity];
+    Arrays.fill(positions, ABSENT);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** @return true if <code>element</code> is in the heap */
+  public boolean contains(int element) {
+    return positions[element] != ABSENT;
+  }
+
+  /** @return the key of <code>element</code>, which must be in the heap */
+  public double getKey(int element) {
+    Preconditions.checkArgument(contains(element), "element %s is not in the heap", element);
+    return keys[element];
+  }
+
+  /**
+   * Adds <code>element</code> with the specified key.
+   *
+   * @throws IllegalArgumentException if <code>element</code> is already in the heap
+   */
+  public void insert(int element, double key) {
+    Preconditions.checkArgument(!contains(element), "element %s is already in the heap", element);
+    keys[element] = key;
+    heap[size] = element;
+    positions[element] = size;
+    size++;
+    percolateUp(size - 1);
+  }
+
+  /**
+   * Lowers the key of <code>element</code>, which must be in the heap, to <code>key</code>.
+   *
+   * @throws IllegalArgumentException if <code>key</code> is greater than the current key
+   */
+  public void decreaseKey(int element, double key) {
+    Preconditions.checkArgument(
+        key <= getKey(element), "new key %s is greater than current key %s", key, keys[element]);
+    keys[element] = key;
+    percolateUp(positions[element]);
+  }
+
+  /** @return the element with the smallest key, without removing it */
+  public int peek() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return heap[TOP];
+  }
+
+  /**
+   * Removes and returns the element with the smallest key.
+   *
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int removeMin() {
+    int top = peek();
+    size--;
+    positions[top] = ABSENT;
+    if (size > 0) {
+      int last = heap[size];
+      heap[TOP] = last;
+      positions[last] = TOP;
+      percolateDown(TOP);
+    }
+    return top;
+  }
+
+  /** Removes all elements from the heap. */
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      positions[heap[i]] = ABSENT;
+    }
+    size = 0;
+  }
+
+  private void percolateUp(int index) {
+    int element = heap[index];
+    double key = keys[element];
+    while (index > TOP) {
+      int parentIndex = (index - 1) / arity;
+      int parent = heap[parentIndex];
+      if (keys[parent] <= key) {
+        break;
+      }
+      heap[index] = parent;
+      positions[parent] = index;
+      index = parentIndex;
+    }
+    heap[index] = element;
+    positions[element] = index;
+  }
+
+  private void percolateDown(int index) {
+    int element = heap[index];
+    double key = keys[element];
+    while (true) {
+      int firstChild = index * arity + 1;
+      if (firstChild >= size) {
+        break;
+      }
+      int lastChild = Math.min(firstChild + arity, size);
+      int minIndex = firstChild;
+      double minKey = keys[heap[firstChild]];
+      for (int i = firstChild + 1; i < lastChild; i++) {
+        double childKey = keys[heap[i]];
+        if (childKey < minKey) {
+          minIndex = i;
+          minKey = childKey;
+        }
+      }
+      if (key <= minKey) {
+        break;
+      }
+      int child = heap[minIndex];
+      heap[index] = child;
+      positions[child] = index;
+      index = minIndex;
+    }
+    heap[index] = element;
+    positions[element] = index;
+  }
+}
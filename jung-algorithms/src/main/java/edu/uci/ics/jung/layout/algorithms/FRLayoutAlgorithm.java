@@ -15,7 +15,13 @@ import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Graph;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
 import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.util.BarnesHutQuadTree;
+import edu.uci.ics.jung.layout.util.BarnesHutRepulsion;
+import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,10 +34,22 @@ import org.slf4j.LoggerFactory;
  *   <li>attraction multiplier: how much edges try to keep their nodes together
  *   <li>repulsion multiplier: how much nodes try to push each other apart
  *   <li>maximum iterations: how many iterations this algorithm will use before stopping
+ *   <li>Barnes-Hut theta: when Barnes-Hut repulsion is enabled, how coarsely distant groups of
+ *       nodes are approximated
  * </ul>
  *
  * Each of the first two defaults to 0.75; the maximum number of iterations defaults to 700.
  *
+ * <p>By default the repulsion between every pair of nodes is computed exactly, so each step costs
+ * O(n^2). If Barnes-Hut repulsion is enabled, a quadtree of the node positions is built at the
+ * start of each step and the repulsion from distant groups of nodes is approximated by their center
+ * of mass, so each step costs O(n log n). Theta defaults to 0.5; 0 is exact.
+ *
+ * <p>If a {@code ForkJoinPool} is supplied, the repulsion and attraction passes of each step are
+ * split across its threads. In this mode every node sums the forces acting on it into its own
+ * displacement slot, in a fixed order, so the result does not depend on the number of threads. The
+ * positions are then updated on the calling thread.
+ *
  * @see "Fruchterman and Reingold, 'Graph Drawing by Force-directed Placement'"
  * @see
  *     "http://i11www.ilkd.uni-karlsruhe.de/teaching/SS_04/visualisierung/papers/fruchterman91graph.pdf"
@@ -64,6 +82,12 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
 
   private boolean initialized = false;
 
+  private boolean barnesHutEnabled = false;
+
+  private double barnesHutTheta = 0.5;
+
+  private ForkJoinPool forkJoinPool;
+
   public FRLayoutAlgorithm() {
     this.frNodeData =
         CacheBuilder.newBuilder()
@@ -90,6 +114,32 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
     this.repulsion_multiplier = repulsion;
   }
 
+  /**
+   * @param enabled if true, approximate the repulsion pass with a Barnes-Hut quadtree rather than
+   *     computing the repulsion between every pair of nodes
+   */
+  public void setBarnesHutEnabled(boolean enabled) {
+    this.barnesHutEnabled = enabled;
+  }
+
+  /**
+   * @param theta the Barnes-Hut opening criterion: a group of nodes whose extent divided by its
+   *     distance is less than theta is treated as a single body. Larger values are faster and less
+   *     accurate.
+   */
+  public void setBarnesHutTheta(double theta) {
+    Preconditions.checkArgument(theta >= 0, "theta must be non-negative");
+    this.barnesHutTheta = theta;
+  }
+
+  /**
+   * @param forkJoinPool the pool on which to compute the repulsion and attraction passes, or null
+   *     to compute them on the calling thread
+   */
+  public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
   public void reset() {
     doInit();
   }
@@ -126,12 +176,31 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
     Graph<N> graph = layoutModel.getGraph();
     currentIteration++;
 
+    if (forkJoinPool != null) {
+      while (true) {
+        try {
+          parallelStep(graph);
+          break;
+        } catch (ConcurrentModificationException cme) {
+        }
+      }
+      cool();
+      return;
+    }
+
     /** Calculate repulsion */
     while (true) {
 
       try {
-        for (N node1 : graph.nodes()) {
-          calcRepulsion(node1);
+        if (barnesHutEnabled) {
+          BarnesHutQuadTree<N> tree = buildBarnesHutTree();
+          for (N node1 : graph.nodes()) {
+            calcRepulsion(node1, tree);
+          }
+        } else {
+          for (N node1 : graph.nodes()) {
+            calcRepulsion(node1);
+          }
         }
         break;
       } catch (ConcurrentModificationException cme) {
@@ -164,6 +233,113 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
     cool();
   }
 
+  /**
+   * Computes the repulsion and attraction for every node on the {@code ForkJoinPool}, then moves
+   * the nodes on the calling thread.
+   */
+  private void parallelStep(Graph<N> graph) {
+    List<N> nodes = new ArrayList<>(graph.nodes());
+    int nodeCount = nodes.size();
+    double[] dispX = new double[nodeCount];
+    double[] dispY = new double[nodeCount];
+    BarnesHutQuadTree<N> tree = barnesHutEnabled ? buildBarnesHutTree() : null;
+
+    forkJoinPool
+        .submit(
+            () ->
+                IntStream.range(0, nodeCount)
+                    .parallel()
+                    .forEach(
+                        i -> {
+                          N node = nodes.get(i);
+                          if (layoutModel.isLocked(node)) {
+                            return;
+                          }
+                          double[] disp = new double[2];
+                          gatherRepulsion(node, nodes, tree, disp);
+                          gatherAttraction(graph, node, disp);
+                          dispX[i] = disp[0];
+                          dispY[i] = disp[1];
+                        }))
+        .join();
+
+    for (int i = 0; i < nodeCount; i++) {
+      N node = nodes.get(i);
+      if (layoutModel.isLocked(node)) {
+        continue;
+      }
+      pointModel.setLocation(getFRData(node), dispX[i], dispY[i]);
+      calcPositions(node);
+    }
+  }
+
+  private void gatherRepulsion(N node1, List<N> nodes, BarnesHutQuadTree<N> tree, double[] disp) {
+    P p1 = layoutModel.apply(node1);
+    if (p1 == null) {
+      return;
+    }
+    double x1 = pointModel.getX(p1);
+    double y1 = pointModel.getY(p1);
+    if (tree != null) {
+      BarnesHutRepulsion.addRepulsion(
+          tree, node1, x1, y1, barnesHutTheta, repulsion_constant, EPSILON, disp);
+      return;
+    }
+    double repulsionSquared = repulsion_constant * repulsion_constant;
+    for (N node2 : nodes) {
+      if (node1 == node2) {
+        continue;
+      }
+      P p2 = layoutModel.apply(node2);
+      if (p2 == null) {
+        continue;
+      }
+      double xDelta = x1 - pointModel.getX(p2);
+      double yDelta = y1 - pointModel.getY(p2);
+      double deltaLength = Math.max(EPSILON, Math.sqrt((xDelta * xDelta) + (yDelta * yDelta)));
+      double force = repulsionSquared / deltaLength;
+      disp[0] += (xDelta / deltaLength) * force;
+      disp[1] += (yDelta / deltaLength) * force;
+    }
+  }
+
+  /**
+   * Sums the attraction exerted on {@code node} by each edge incident to it. In a directed graph a
+   * pair of nodes joined in both directions attracts twice, as it does in {@link
+   * #calcAttraction(EndpointPair)}.
+   */
+  private void gatherAttraction(Graph<N> graph, N node, double[] disp) {
+    if (graph.isDirected()) {
+      for (N other : graph.successors(node)) {
+        addAttraction(node, other, disp);
+      }
+      for (N other : graph.predecessors(node)) {
+        addAttraction(node, other, disp);
+      }
+    } else {
+      for (N other : graph.adjacentNodes(node)) {
+        addAttraction(node, other, disp);
+      }
+    }
+  }
+
+  private void addAttraction(N node, N other, double[] disp) {
+    if (node == other) {
+      return;
+    }
+    P p1 = layoutModel.apply(node);
+    P p2 = layoutModel.apply(other);
+    if (p1 == null || p2 == null) {
+      return;
+    }
+    double xDelta = pointModel.getX(p1) - pointModel.getX(p2);
+    double yDelta = pointModel.getY(p1) - pointModel.getY(p2);
+    double deltaLength = Math.max(EPSILON, Math.sqrt((xDelta * xDelta) + (yDelta * yDelta)));
+    double force = (deltaLength * deltaLength) / attraction_constant;
+    disp[0] -= (xDelta / deltaLength) * force;
+    disp[1] -= (yDelta / deltaLength) * force;
+  }
+
   protected synchronized void calcPositions(N node) {
 
     P fvd = getFRData(node);
@@ -273,6 +449,43 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
     }
   }
 
+  /**
+   * Builds a quadtree holding the current location of every node, to be used for the Barnes-Hut
+   * repulsion pass of one step.
+   */
+  protected BarnesHutQuadTree<N> buildBarnesHutTree() {
+    return BarnesHutRepulsion.buildQuadTree(layoutModel);
+  }
+
+  /**
+   * Calculates the repulsion on {@code node1} using the Barnes-Hut approximation.
+   *
+   * @param node1 the node on which the repulsion acts
+   * @param tree a quadtree of the current node locations
+   */
+  protected void calcRepulsion(N node1, BarnesHutQuadTree<N> tree) {
+    P fvd1 = getFRData(node1);
+    if (fvd1 == null) {
+      return;
+    }
+    pointModel.setLocation(fvd1, 0, 0);
+    P p1 = layoutModel.apply(node1);
+    if (p1 == null) {
+      return;
+    }
+    double[] displacement = new double[2];
+    BarnesHutRepulsion.addRepulsion(
+        tree,
+        node1,
+        pointModel.getX(p1),
+        pointModel.getY(p1),
+        barnesHutTheta,
+        repulsion_constant,
+        EPSILON,
+        displacement);
+    pointModel.setLocation(fvd1, displacement[0], displacement[1]);
+  }
+
   private void cool() {
     temperature *= (1.0 - currentIteration / (double) mMaxIterations);
   }
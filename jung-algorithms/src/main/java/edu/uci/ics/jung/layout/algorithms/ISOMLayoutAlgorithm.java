@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +31,10 @@ import org.slf4j.LoggerFactory;
  * Implements a self-organizing map layout algorithm, based on Meyer's self-organizing graph
  * methods.
  *
+ * <p>Each epoch moves the neighborhood of the node closest to a random point, so the epochs
+ * themselves are inherently sequential. If a {@code ForkJoinPool} is supplied, the search for the
+ * closest node, which visits every node, is split across its threads.
+ *
  * @author Yan Biao Boey
  */
 public class ISOMLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N, P>
@@ -61,6 +67,7 @@ public class ISOMLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<
   private double coolingFactor;
 
   private List<N> queue = new ArrayList<N>();
+  private ForkJoinPool forkJoinPool;
   private String status = null;
 
   /** @return the current number of epochs and execution status, as a string. */
@@ -79,6 +86,14 @@ public class ISOMLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<
     initialize();
   }
 
+  /**
+   * @param forkJoinPool the pool on which to search for the node closest to each random point, or
+   *     null to search on the calling thread
+   */
+  public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
   public void initialize() {
     layoutModel.setInitializer(
         new RandomLocationTransformer<N, P>(
@@ -130,7 +145,10 @@ public class ISOMLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<
 
     //Get closest node to random position
     N winner =
-        elementAccessor.getNode(layoutModel, pointModel.getX(tempXYD), pointModel.getY(tempXYD));
+        forkJoinPool != null
+            ? getClosestNodeInParallel(pointModel.getX(tempXYD), pointModel.getY(tempXYD))
+            : elementAccessor.getNode(
+                layoutModel, pointModel.getX(tempXYD), pointModel.getY(tempXYD));
 
     while (true) {
       try {
@@ -146,6 +164,47 @@ public class ISOMLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<
     adjustNode(winner, tempXYD);
   }
 
+  /**
+   * @return the node closest to (x, y); ties are resolved in node iteration order, as they are by
+   *     the sequential {@code NetworkNodeAccessor}
+   */
+  private N getClosestNodeInParallel(double x, double y) {
+    List<N> nodes;
+    while (true) {
+      try {
+        nodes = new ArrayList<>(layoutModel.getGraph().nodes());
+        break;
+      } catch (ConcurrentModificationException cme) {
+      }
+    }
+    if (nodes.isEmpty()) {
+      return null;
+    }
+    List<N> snapshot = nodes;
+    double[] distances = new double[snapshot.size()];
+    int closest =
+        forkJoinPool
+            .submit(
+                () -> {
+                  IntStream.range(0, snapshot.size())
+                      .parallel()
+                      .forEach(
+                          i -> {
+                            P p = layoutModel.apply(snapshot.get(i));
+                            double dx = pointModel.getX(p) - x;
+                            double dy = pointModel.getY(p) - y;
+                            double dz = pointModel.getZ(p);
+                            distances[i] = dx * dx + dy * dy + dz * dz;
+                          });
+                  return IntStream.range(0, snapshot.size())
+                      .parallel()
+                      .reduce((i, j) -> distances[j] < distances[i] ? j : i)
+                      .getAsInt();
+                })
+            .join();
+    return snapshot.get(closest);
+  }
+
   private synchronized void updateParameters() {
     epoch++;
     double factor = Math.exp(-1 * coolingFactor * (1.0 * epoch / maxEpoch));
@@ -13,14 +13,22 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Graph;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
+import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * The SpringLayout package represents a visualization of a set of nodes. The SpringLayout, which is
  * initialized with a Graph, assigns X/Y locations to each node. When called <code>relax()</code>,
  * the SpringLayout moves the visualization forward one step.
  *
+ * <p>If a {@code ForkJoinPool} is supplied, the edge relaxation and repulsion passes of each step
+ * are split across its threads. Each node sums the forces acting on it into its own {@code
+ * SpringNodeData}, in a fixed order, so the result does not depend on the number of threads.
+ *
  * @author Danyel Fisher
  * @author Joshua O'Madadhain
  * @author Tom Nelson
@@ -32,6 +40,7 @@ public class SpringLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorith
   protected Function<? super EndpointPair<N>, Integer> lengthFunction;
   protected int repulsion_range_sq = 100 * 100;
   protected double force_multiplier = 1.0 / 3.0;
+  protected ForkJoinPool forkJoinPool;
 
   protected LoadingCache<N, SpringNodeData> springNodeData =
       CacheBuilder.newBuilder().build(CacheLoader.from(() -> new SpringNodeData()));
@@ -69,6 +78,14 @@ public class SpringLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorith
     this.force_multiplier = force;
   }
 
+  /**
+   * @param forkJoinPool the pool on which to compute the edge relaxation and repulsion passes, or
+   *     null to compute them on the calling thread
+   */
+  public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
   public void initialize() {}
 
   public void step() {
@@ -88,11 +105,118 @@ public class SpringLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorith
       step();
     }
 
-    relaxEdges();
-    calculateRepulsion();
+    if (forkJoinPool != null) {
+      calculateForcesInParallel();
+    } else {
+      relaxEdges();
+      calculateRepulsion();
+    }
     moveNodes();
   }
 
+  /**
+   * Does the work of {@link #relaxEdges()} and {@link #calculateRepulsion()} on the {@code
+   * ForkJoinPool}. Rather than scattering the force of each edge to both of its endpoints, each
+   * node gathers the forces of its incident edges, so that no two threads write to the same {@code
+   * SpringNodeData}.
+   */
+  protected void calculateForcesInParallel() {
+    Graph<N> graph = layoutModel.getGraph();
+    List<N> nodes;
+    while (true) {
+      try {
+        nodes = new ArrayList<>(graph.nodes());
+        break;
+      } catch (ConcurrentModificationException cme) {
+      }
+    }
+    List<N> snapshot = nodes;
+    forkJoinPool
+        .submit(
+            () ->
+                IntStream.range(0, snapshot.size())
+                    .parallel()
+                    .forEach(
+                        i -> {
+                          N node = snapshot.get(i);
+                          SpringNodeData svd = springNodeData.getUnchecked(node);
+                          gatherEdgeForces(graph, node, svd);
+                          if (!layoutModel.isLocked(node)) {
+                            gatherRepulsion(node, snapshot, svd);
+                          }
+                        }))
+        .join();
+  }
+
+  private void gatherEdgeForces(Graph<N> graph, N node, SpringNodeData svd) {
+    if (graph.isDirected()) {
+      for (N other : graph.successors(node)) {
+        addEdgeForce(graph, node, other, EndpointPair.ordered(node, other), svd);
+      }
+      for (N other : graph.predecessors(node)) {
+        addEdgeForce(graph, node, other, EndpointPair.ordered(other, node), svd);
+      }
+    } else {
+      for (N other : graph.adjacentNodes(node)) {
+        addEdgeForce(graph, node, other, EndpointPair.unordered(node, other), svd);
+      }
+    }
+  }
+
+  private void addEdgeForce(
+      Graph<N> graph, N node, N other, EndpointPair<N> endpoints, SpringNodeData svd) {
+    if (node == other) {
+      return;
+    }
+    P p1 = layoutModel.get(node);
+    P p2 = layoutModel.get(other);
+    if (p1 == null || p2 == null) {
+      return;
+    }
+    double vx = pointModel.getX(p1) - pointModel.getX(p2);
+    double vy = pointModel.getY(p1) - pointModel.getY(p2);
+    double len = Math.sqrt(vx * vx + vy * vy);
+    double desiredLen = lengthFunction.apply(endpoints);
+    len = (len == 0) ? .0001 : len;
+    double f = force_multiplier * (desiredLen - len) / len;
+    f = f * Math.pow(stretch, (graph.degree(node) + graph.degree(other) - 2));
+    svd.edgedx += f * vx;
+    svd.edgedy += f * vy;
+  }
+
+  private void gatherRepulsion(N node, List<N> nodes, SpringNodeData svd) {
+    P p = layoutModel.apply(node);
+    if (p == null) {
+      return;
+    }
+    double dx = 0, dy = 0;
+    for (N node2 : nodes) {
+      if (node == node2) {
+        continue;
+      }
+      P p2 = layoutModel.apply(node2);
+      if (p2 == null) {
+        continue;
+      }
+      double vx = pointModel.getX(p) - pointModel.getX(p2);
+      double vy = pointModel.getY(p) - pointModel.getY(p2);
+      double distanceSq = pointModel.distanceSquared(p, p2);
+      if (distanceSq == 0) {
+        dx += Math.random();
+        dy += Math.random();
+      } else if (distanceSq < repulsion_range_sq) {
+        dx += vx / distanceSq;
+        dy += vy / distanceSq;
+      }
+    }
+    double dlen = dx * dx + dy * dy;
+    if (dlen > 0) {
+      dlen = Math.sqrt(dlen) / 2;
+      svd.repulsiondx += dx / dlen;
+      svd.repulsiondy += dy / dlen;
+    }
+  }
+
   protected void relaxEdges() {
     Graph<N> graph = layoutModel.getGraph();
     try {
@@ -15,7 +15,10 @@ import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Graph;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
 import edu.uci.ics.jung.layout.algorithms.AbstractIterativeLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.IndexedLayoutModel;
 import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.util.BarnesHutQuadTree;
+import edu.uci.ics.jung.layout.util.BarnesHutRepulsion;
 import java.util.ConcurrentModificationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,10 +32,17 @@ import org.slf4j.LoggerFactory;
  *   <li>attraction multiplier: how much edges try to keep their nodes together
  *   <li>repulsion multiplier: how much nodes try to push each other apart
  *   <li>maximum iterations: how many iterations this algorithm will use before stopping
+ *   <li>Barnes-Hut theta: when Barnes-Hut repulsion is enabled, how coarsely distant groups of
+ *       nodes are approximated
  * </ul>
  *
  * Each of the first two defaults to 0.75; the maximum number of iterations defaults to 700.
  *
+ * <p>By default the repulsion between every pair of nodes is computed exactly, so each step costs
+ * O(n^2). If Barnes-Hut repulsion is enabled, a quadtree of the node positions is built at the
+ * start of each step and the repulsion from distant groups of nodes is approximated by their center
+ * of mass, so each step costs O(n log n). Theta defaults to 0.5; 0 is exact.
+ *
  * @see "Fruchterman and Reingold, 'Graph Drawing by Force-directed Placement'"
  * @see
  *     "http://i11www.ilkd.uni-karlsruhe.de/teaching/SS_04/visualisierung/papers/fruchterman91graph.pdf"
@@ -65,6 +75,10 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
 
   private boolean initialized = false;
 
+  private boolean barnesHutEnabled = false;
+
+  private double barnesHutTheta = 0.5;
+
   public FRLayoutAlgorithm() {
     this.frNodeData =
         CacheBuilder.newBuilder()
@@ -93,6 +107,24 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
     this.repulsion_multiplier = repulsion;
   }
 
+  /**
+   * @param enabled if true, approximate the repulsion pass with a Barnes-Hut quadtree rather than
+   *     computing the repulsion between every pair of nodes
+   */
+  public void setBarnesHutEnabled(boolean enabled) {
+    this.barnesHutEnabled = enabled;
+  }
+
+  /**
+   * @param theta the Barnes-Hut opening criterion: a group of nodes whose extent divided by its
+   *     distance is less than theta is treated as a single body. Larger values are faster and less
+   *     accurate.
+   */
+  public void setBarnesHutTheta(double theta) {
+    Preconditions.checkArgument(theta >= 0, "theta must be non-negative");
+    this.barnesHutTheta = theta;
+  }
+
   public void reset() {
     doInit();
   }
@@ -133,8 +165,17 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
     while (true) {
 
       try {
-        for (N node1 : graph.nodes()) {
-          calcRepulsion(node1);
+        if (barnesHutEnabled) {
+          BarnesHutQuadTree<N> tree = buildBarnesHutTree();
+          for (N node1 : graph.nodes()) {
+            calcRepulsion(node1, tree);
+          }
+        } else if (layoutModel instanceof IndexedLayoutModel) {
+          calcRepulsion((IndexedLayoutModel<N, P>) layoutModel);
+        } else {
+          for (N node1 : graph.nodes()) {
+            calcRepulsion(node1);
+          }
         }
         break;
       } catch (ConcurrentModificationException cme) {
@@ -282,6 +323,82 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
     }
   }
 
+  /**
+   * Calculates the repulsion on every node, reading node locations by index from {@code
+   * indexedModel} rather than through {@code apply(N)}.
+   */
+  protected void calcRepulsion(IndexedLayoutModel<N, P> indexedModel) {
+    Graph<N> graph = layoutModel.getGraph();
+    int nodeCount = graph.nodes().size();
+    Object[] nodes = new Object[nodeCount];
+    double[] xs = new double[nodeCount];
+    double[] ys = new double[nodeCount];
+    int count = 0;
+    for (N node : graph.nodes()) {
+      int index = indexedModel.indexOf(node);
+      nodes[count] = node;
+      xs[count] = indexedModel.getX(index);
+      ys[count] = indexedModel.getY(index);
+      count++;
+    }
+    double repulsionSquared = repulsion_constant * repulsion_constant;
+    for (int i = 0; i < count; i++) {
+      double dispX = 0;
+      double dispY = 0;
+      for (int j = 0; j < count; j++) {
+        if (i == j) {
+          continue;
+        }
+        double xDelta = xs[i] - xs[j];
+        double yDelta = ys[i] - ys[j];
+        double deltaLength = Math.max(EPSILON, Math.sqrt((xDelta * xDelta) + (yDelta * yDelta)));
+        double force = repulsionSquared / deltaLength;
+        dispX += (xDelta / deltaLength) * force;
+        dispY += (yDelta / deltaLength) * force;
+      }
+      @SuppressWarnings("unchecked")
+      N node = (N) nodes[i];
+      frNodeData.put(node, pointModel.newPoint(dispX, dispY));
+    }
+  }
+
+  /**
+   * Builds a quadtree holding the current location of every node, to be used for the Barnes-Hut
+   * repulsion pass of one step.
+   */
+  protected BarnesHutQuadTree<N> buildBarnesHutTree() {
+    return BarnesHutRepulsion.buildQuadTree(layoutModel);
+  }
+
+  /**
+   * Calculates the repulsion on {@code node1} using the Barnes-Hut approximation.
+   *
+   * @param node1 the node on which the repulsion acts
+   * @param tree a quadtree of the current node locations
+   */
+  protected void calcRepulsion(N node1, BarnesHutQuadTree<N> tree) {
+    P fvd1 = getFRData(node1);
+    if (fvd1 == null) {
+      return;
+    }
+    frNodeData.put(node1, pointModel.newPoint(0, 0));
+    P p1 = layoutModel.apply(node1);
+    if (p1 == null) {
+      return;
+    }
+    double[] displacement = new double[2];
+    BarnesHutRepulsion.addRepulsion(
+        tree,
+        node1,
+        pointModel.getX(p1),
+        pointModel.getY(p1),
+        barnesHutTheta,
+        repulsion_constant,
+        EPSILON,
+        displacement);
+    frNodeData.put(node1, pointModel.newPoint(displacement[0], displacement[1]));
+  }
+
   private void cool() {
     temperature *= (1.0 - currentIteration / (double) mMaxIterations);
   }
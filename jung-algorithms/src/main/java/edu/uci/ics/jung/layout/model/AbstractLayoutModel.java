@@ -4,10 +4,17 @@ import com.google.common.collect.Sets;
 import com.google.common.graph.Graph;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
+import edu.uci.ics.jung.layout.util.LayoutChangeListener;
+import edu.uci.ics.jung.layout.util.LayoutEvent;
+import edu.uci.ics.jung.layout.util.LayoutEventSupport;
+import edu.uci.ics.jung.layout.util.RelaxerScheduler;
 import edu.uci.ics.jung.layout.util.VisRunnable;
 import java.util.ConcurrentModificationException;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,7 +27,7 @@ import org.slf4j.LoggerFactory;
  * @param <P>
  */
 public abstract class AbstractLayoutModel<N, P>
-    implements LayoutModel<N, P>, LayoutModel.ChangeSupport {
+    implements LayoutModel<N, P>, LayoutModel.ChangeSupport, LayoutEventSupport<N, P> {
 
   private static final Logger log = LoggerFactory.getLogger(AbstractLayoutModel.class);
 
@@ -33,7 +40,12 @@ public abstract class AbstractLayoutModel<N, P>
   protected PointModel<P> pointModel;
   protected VisRunnable visRunnable;
   protected CompletableFuture theFuture;
+  protected RelaxerScheduler relaxerScheduler = VisRunnable.DEFAULT_SCHEDULER;
+  protected long preRelaxDuration = 500;
+  protected Executor relaxerExecutor;
   protected LayoutModel.ChangeSupport changeSupport = new DefaultLayoutModelChangeSupport();
+  private final List<LayoutChangeListener<N, P>> layoutChangeListeners =
+      new CopyOnWriteArrayList<>();
 
   protected AbstractLayoutModel(
       Graph<N> graph, PointModel<P> pointModel, int width, int height, int depth) {
@@ -52,6 +64,49 @@ public abstract class AbstractLayoutModel<N, P>
     }
   }
 
+  /**
+   * @param relaxerScheduler decides how the relaxer paces the steps of an iterative layout
+   *     algorithm. Takes effect the next time a layout algorithm is accepted.
+   */
+  public void setRelaxerScheduler(RelaxerScheduler relaxerScheduler) {
+    this.relaxerScheduler = relaxerScheduler;
+  }
+
+  /**
+   * @param preRelaxDuration how many milliseconds to spend stepping an iterative layout algorithm,
+   *     without firing change events, before its relaxer is started. 0 disables the pre-relax
+   *     phase.
+   */
+  public void setPreRelaxDuration(long preRelaxDuration) {
+    this.preRelaxDuration = preRelaxDuration;
+  }
+
+  /**
+   * @param relaxerExecutor runs the relaxers of the layout algorithms accepted from now on; if
+   *     null, the default asynchronous execution facility of {@code CompletableFuture} is used
+   */
+  public void setRelaxerExecutor(Executor relaxerExecutor) {
+    this.relaxerExecutor = relaxerExecutor;
+  }
+
+  /**
+   * accept the visit of a LayoutAlgorithm. If it is an IterativeContext, run its relaxer on the
+   * supplied executor. If there is a current VisRunner, stop it first.
+   *
+   * @param layoutAlgorithm
+   * @param executor runs the relaxer of this layout algorithm only; later layout algorithms use the
+   *     executor set with {@link #setRelaxerExecutor(Executor)}
+   */
+  public void accept(LayoutAlgorithm<N, P> layoutAlgorithm, Executor executor) {
+    Executor relaxerExecutor = this.relaxerExecutor;
+    this.relaxerExecutor = executor;
+    try {
+      accept(layoutAlgorithm);
+    } finally {
+      this.relaxerExecutor = relaxerExecutor;
+    }
+  }
+
   /**
    * accept the visit of a LayoutAlgorithm. If it is an IterativeContext, create a VisRunner to run
    * its relaxer in a new Thread. If there is a current VisRunner, stop it first.
@@ -60,7 +115,7 @@ public abstract class AbstractLayoutModel<N, P>
    */
   @Override
   public void accept(LayoutAlgorithm<N, P> layoutAlgorithm) {
-    changeSupport.setFireEvents(true);
+    setFireEvents(true);
     if (this.visRunnable != null) {
       log.trace("stopping {}", visRunnable);
       this.visRunnable.stop();
@@ -97,23 +152,26 @@ public abstract class AbstractLayoutModel<N, P>
     }
 
     // prerelax phase
-    changeSupport.setFireEvents(false);
+    setFireEvents(false);
 
     long timeNow = System.currentTimeMillis();
-    while (System.currentTimeMillis() - timeNow < 500 && !iterativeContext.done()) {
+    while (System.currentTimeMillis() - timeNow < preRelaxDuration && !iterativeContext.done()) {
       iterativeContext.step();
     }
 
-    changeSupport.setFireEvents(true);
+    setFireEvents(true);
 
-    visRunnable = new VisRunnable(iterativeContext);
+    visRunnable = new VisRunnable(iterativeContext, relaxerScheduler);
+    CompletableFuture<Void> relaxer =
+        relaxerExecutor != null
+            ? CompletableFuture.runAsync(visRunnable, relaxerExecutor)
+            : CompletableFuture.runAsync(visRunnable);
     theFuture =
-        CompletableFuture.runAsync(visRunnable)
-            .thenRun(
-                () -> {
-                  log.trace("We're done");
-                  this.fireChanged();
-                });
+        relaxer.thenRun(
+            () -> {
+              log.trace("We're done");
+              this.fireChanged();
+            });
   }
 
   /** @return the graph */
@@ -124,6 +182,7 @@ public abstract class AbstractLayoutModel<N, P>
 
   public void setGraph(Graph<N> graph) {
     this.graph = graph;
+    fireLayoutChanged(null, null);
   }
 
   /**
@@ -255,6 +314,7 @@ public abstract class AbstractLayoutModel<N, P>
   @Override
   public void set(N node, P location) {
     if (isFireEvents()) {
+      fireLayoutChanged(node, location);
       fireChanged();
     }
   }
@@ -262,6 +322,9 @@ public abstract class AbstractLayoutModel<N, P>
   @Override
   public void set(N node, double x, double y, double z) {
     if (isFireEvents()) {
+      if (hasLayoutChangeListeners()) {
+        fireLayoutChanged(node, pointModel.newPoint(x, y, z));
+      }
       fireChanged();
     }
   }
@@ -289,9 +352,17 @@ public abstract class AbstractLayoutModel<N, P>
     return changeSupport.isFireEvents();
   }
 
+  /**
+   * When events are turned back on, the layout change listeners are told that any node may have
+   * moved while they were off.
+   */
   @Override
   public void setFireEvents(boolean fireEvents) {
+    boolean missed = fireEvents && !changeSupport.isFireEvents();
     changeSupport.setFireEvents(fireEvents);
+    if (missed) {
+      fireLayoutChanged(null, null);
+    }
   }
 
   @Override
@@ -310,6 +381,36 @@ public abstract class AbstractLayoutModel<N, P>
     changeSupport.fireChanged();
   }
 
+  @Override
+  public void addLayoutChangeListener(LayoutChangeListener<N, P> listener) {
+    layoutChangeListeners.add(listener);
+  }
+
+  @Override
+  public void removeLayoutChangeListener(LayoutChangeListener<N, P> listener) {
+    layoutChangeListeners.remove(listener);
+  }
+
+  /** @return true if any listener is to be told which nodes have moved */
+  protected boolean hasLayoutChangeListeners() {
+    return !layoutChangeListeners.isEmpty();
+  }
+
+  /**
+   * Tells the layout change listeners that a node has moved, if events are being fired.
+   *
+   * @param node the node that has moved, or null if any node may have moved
+   * @param location the new location of the node, or null
+   */
+  protected void fireLayoutChanged(N node, P location) {
+    if (isFireEvents() && !layoutChangeListeners.isEmpty()) {
+      LayoutEvent<N, P> evt = new LayoutEvent<>(node, location);
+      for (LayoutChangeListener<N, P> listener : layoutChangeListeners) {
+        listener.layoutChanged(evt);
+      }
+    }
+  }
+
   @Override
   public String toString() {
     return "AbstractLayoutModel{"
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.layout.model;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.Graph;
+import edu.uci.ics.jung.layout.util.Caching;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A LayoutModel that stores node coordinates in primitive arrays, one each for x, y and z, indexed
+ * by a dense int index assigned to each node the first time it is seen, when it is also placed by
+ * the initializer. Compared with {@link
+ * LoadingCacheLayoutModel} there is no hashing on the index-based fast path, no boxed point per
+ * node, and far less garbage per layout step.
+ *
+ * <p>{@code get(N)} returns a new point holding a copy of the coordinates of the node. Changes to
+ * that point are not seen by the model until it is passed back to {@code set(N, P)}, so this model
+ * is meant for layout algorithms that write every location through {@code set}, such as those in
+ * the {@code immutable} package.
+ *
+ * <p>The coordinates may be read and written from several threads at once. Writes by index share a
+ * read lock that is held exclusively only while the arrays grow or are cleared, so that no write is
+ * lost to a copy; a new graph assigns new indices to all of the nodes.
+ *
+ * @param <N> the node type
+ * @param <P> the point type
+ */
+public class ArrayLayoutModel<N, P> extends AbstractLayoutModel<N, P>
+    implements IndexedLayoutModel<N, P>, Caching {
+
+  private static final Logger log = LoggerFactory.getLogger(ArrayLayoutModel.class);
+
+  private static final int MINIMUM_CAPACITY = 16;
+
+  private final Map<N, Integer> indices = new ConcurrentHashMap<>();
+
+  /** the arrays, which are replaced when they grow or are cleared */
+  private volatile Slots slots;
+
+  /** held shared while writing coordinates by index, and exclusively while replacing the arrays */
+  private final StampedLock slotsLock = new StampedLock();
+
+  private volatile int nodeCount;
+  private Function<N, P> initializer;
+
+  /** the nodes and their coordinates by index */
+  private static class Slots {
+    final Object[] nodes;
+    final double[] xs;
+    final double[] ys;
+    final double[] zs;
+
+    Slots(int capacity) {
+      this.nodes = new Object[capacity];
+      this.xs = new double[capacity];
+      this.ys = new double[capacity];
+      this.zs = new double[capacity];
+    }
+
+    Slots(Slots other, int capacity) {
+      this.nodes = Arrays.copyOf(other.nodes, capacity);
+      this.xs = Arrays.copyOf(other.xs, capacity);
+      this.ys = Arrays.copyOf(other.ys, capacity);
+      this.zs = Arrays.copyOf(other.zs, capacity);
+    }
+  }
+
+  public abstract static class Builder<N, P, T extends ArrayLayoutModel<N, P>> {
+    protected Graph<N> graph;
+    protected PointModel<P> pointModel;
+    protected int width;
+    protected int height;
+    protected int depth;
+    protected Function<N, P> initializer;
+
+    public ArrayLayoutModel.Builder<N, P, T> setGraph(Graph<N> graph) {
+      this.graph = graph;
+      return this;
+    }
+
+    public ArrayLayoutModel.Builder<N, P, T> setLayoutModel(LayoutModel<N, P> layoutModel) {
+      this.pointModel = layoutModel.getPointModel();
+      this.width = layoutModel.getWidth();
+      this.height = layoutModel.getHeight();
+      this.depth = layoutModel.getDepth();
+      return this;
+    }
+
+    public ArrayLayoutModel.Builder<N, P, T> setPointModel(PointModel<P> pointModel) {
+      this.pointModel = pointModel;
+      return this;
+    }
+
+    public ArrayLayoutModel.Builder<N, P, T> setSize(int width, int height, int depth) {
+      this.width = width;
+      this.height = height;
+      this.depth = depth;
+      return this;
+    }
+
+    public ArrayLayoutModel.Builder<N, P, T> setSize(int width, int height) {
+      this.width = width;
+      this.height = height;
+      return this;
+    }
+
+    public ArrayLayoutModel.Builder<N, P, T> setInitializer(Function<N, P> initializer) {
+      this.initializer = initializer;
+      return this;
+    }
+
+    public abstract T build();
+  }
+
+  public static <N, P> Builder<N, P, ?> builder() {
+    return new Builder<N, P, ArrayLayoutModel<N, P>>() {
+      @Override
+      public ArrayLayoutModel<N, P> build() {
+        return new ArrayLayoutModel<>(this);
+      }
+    };
+  }
+
+  protected ArrayLayoutModel(ArrayLayoutModel.Builder<N, P, ?> builder) {
+    super(builder.graph, builder.pointModel, builder.width, builder.height, builder.depth);
+    this.initializer = builder.initializer;
+    allocate(builder.graph == null ? 0 : builder.graph.nodes().size());
+    if (builder.graph != null) {
+      for (N node : builder.graph.nodes()) {
+        indexOf(node);
+      }
+    }
+  }
+
+  private synchronized void allocate(int capacity) {
+    long stamp = slotsLock.writeLock();
+    try {
+      this.slots = new Slots(Math.max(capacity, MINIMUM_CAPACITY));
+      this.nodeCount = 0;
+      this.indices.clear();
+    } finally {
+      slotsLock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public int indexOf(N node) {
+    Integer index = indices.get(node);
+    if (index != null) {
+      return index;
+    }
+    return assignIndex(node);
+  }
+
+  private synchronized int assignIndex(N node) {
+    Integer index = indices.get(node);
+    if (index != null) {
+      return index;
+    }
+    Slots s = slots;
+    if (nodeCount == s.nodes.length) {
+      long stamp = slotsLock.writeLock();
+      try {
+        s = new Slots(s, s.nodes.length * 2);
+        slots = s;
+      } finally {
+        slotsLock.unlockWrite(stamp);
+      }
+    }
+    int newIndex = nodeCount;
+    s.nodes[newIndex] = node;
+    // placed before the index is published, so that no write by index can precede it
+    place(s, newIndex, node);
+    nodeCount++;
+    indices.put(node, newIndex);
+    return newIndex;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public N getNode(int index) {
+    Preconditions.checkElementIndex(index, nodeCount);
+    return (N) slots.nodes[index];
+  }
+
+  @Override
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  /** Places the node with the supplied index with the initializer, if there is one. */
+  private void place(Slots s, int index, N node) {
+    if (initializer != null) {
+      P p = initializer.apply(node);
+      s.xs[index] = pointModel.getX(p);
+      s.ys[index] = pointModel.getY(p);
+      s.zs[index] = pointModel.getZ(p);
+    }
+  }
+
+  @Override
+  public double getX(int index) {
+    return slots.xs[index];
+  }
+
+  @Override
+  public double getY(int index) {
+    return slots.ys[index];
+  }
+
+  @Override
+  public double getZ(int index) {
+    return slots.zs[index];
+  }
+
+  @Override
+  public void set(int index, double x, double y) {
+    set(index, x, y, 0);
+  }
+
+  @Override
+  public void set(int index, double x, double y, double z) {
+    if (locked) {
+      return;
+    }
+    long stamp = slotsLock.readLock();
+    try {
+      Slots s = slots;
+      s.xs[index] = x;
+      s.ys[index] = y;
+      s.zs[index] = z;
+    } finally {
+      slotsLock.unlockRead(stamp);
+    }
+    if (isFireEvents()) {
+      if (hasLayoutChangeListeners()) {
+        fireLayoutChanged(getNode(index), pointModel.newPoint(x, y, z));
+      }
+      fireChanged();
+    }
+  }
+
+  @Override
+  public synchronized void setInitializer(Function<N, P> initializer) {
+    this.initializer = initializer;
+    clear();
+  }
+
+  @Override
+  public void setGraph(Graph<N> graph) {
+    super.setGraph(graph);
+    allocate(graph.nodes().size());
+    for (N node : graph.nodes()) {
+      indexOf(node);
+    }
+    changeSupport.fireChanged();
+  }
+
+  @Override
+  public void set(N node, P location) {
+    set(
+        indexOf(node),
+        pointModel.getX(location),
+        pointModel.getY(location),
+        pointModel.getZ(location));
+  }
+
+  @Override
+  public void set(N node, double x, double y, double z) {
+    set(indexOf(node), x, y, z);
+  }
+
+  @Override
+  public void set(N node, double x, double y) {
+    set(indexOf(node), x, y, 0);
+  }
+
+  @Override
+  public P get(N node) {
+    int index = indexOf(node);
+    Slots s = slots;
+    if (log.isTraceEnabled()) {
+      log.trace("({}, {}, {}) gotten for {}", s.xs[index], s.ys[index], s.zs[index], node);
+    }
+    return pointModel.newPoint(s.xs[index], s.ys[index], s.zs[index]);
+  }
+
+  @Override
+  public P apply(N node) {
+    return this.get(node);
+  }
+
+  /** Forgets the coordinates of every node, and places each again with the initializer. */
+  @Override
+  public synchronized void clear() {
+    Slots s = slots;
+    Slots placed = new Slots(s.nodes.length);
+    System.arraycopy(s.nodes, 0, placed.nodes, 0, nodeCount);
+    for (int i = 0; i < nodeCount; i++) {
+      place(placed, i, getNode(i));
+    }
+    long stamp = slotsLock.writeLock();
+    try {
+      slots = placed;
+    } finally {
+      slotsLock.unlockWrite(stamp);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.layout.model;
+
+/**
+ * A LayoutModel that assigns each node a dense int index and can read and write node coordinates by
+ * that index without creating point objects. Layout algorithms that find an IndexedLayoutModel may
+ * use these methods in their inner loops in place of {@code get(N)} and {@code set(N, P)}.
+ *
+ * <p>The index of a node does not change until a new graph is set on the model, which may assign
+ * new indices to all of the nodes.
+ *
+ * @param <N> the node type
+ * @param <P> the point type
+ */
+public interface IndexedLayoutModel<N, P> extends LayoutModel<N, P> {
+
+  /**
+   * @param node the node whose index is requested
+   * @return the index of {@code node}, assigning a new one if it has none
+   */
+  int indexOf(N node);
+
+  /**
+   * @param index an index previously returned by {@code indexOf}
+   * @return the node with the supplied index
+   */
+  N getNode(int index);
+
+  /** @return the number of nodes that have been assigned an index */
+  int getNodeCount();
+
+  double getX(int index);
+
+  double getY(int index);
+
+  double getZ(int index);
+
+  /** Changes the layout coordinates of the node with the supplied index. */
+  void set(int index, double x, double y);
+
+  /** Changes the layout coordinates of the node with the supplied index. */
+  void set(int index, double x, double y, double z);
+}
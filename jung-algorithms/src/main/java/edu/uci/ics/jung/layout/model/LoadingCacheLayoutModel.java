@@ -107,8 +107,8 @@ public class LoadingCacheLayoutModel<N, P> extends AbstractLayoutModel<N, P>
   @Override
   public void set(N node, P location) {
     if (!locked) {
-      super.set(node, location);
       this.locations.put(node, location);
+      super.set(node, location);
     }
   }
 
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.layout.util;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * The three dimensional counterpart of {@link BarnesHutQuadTree}: a region octree of node positions
+ * that accumulates the total mass and center of mass of each cell, so that the repulsion from a
+ * distant group of nodes can be approximated by a single body.
+ *
+ * @see "Barnes and Hut, 'A hierarchical O(N log N) force-calculation algorithm'"
+ * @param <N> the node type
+ */
+public class BarnesHutOctTree<N> {
+
+  /** beyond this depth, nodes that land in the same cell are merged into a single body */
+  private static final int MAX_DEPTH = 48;
+
+  /** receives the force contribution of a single body (or cluster of bodies) */
+  public interface ForceAccumulator {
+    /**
+     * @param xDelta x coordinate of the target node minus x coordinate of the body
+     * @param yDelta y coordinate of the target node minus y coordinate of the body
+     * @param zDelta z coordinate of the target node minus z coordinate of the body
+     * @param mass the number of nodes represented by the body
+     */
+    void accumulate(double xDelta, double yDelta, double zDelta, double mass);
+  }
+
+  private final Cell<N> root;
+  private int size;
+
+  /**
+   * Creates an empty tree covering the cube with minimum corner at ({@code x}, {@code y}, {@code
+   * z}) and edges of length {@code side}.
+   */
+  public BarnesHutOctTree(double x, double y, double z, double side) {
+    Preconditions.checkArgument(side > 0, "side must be positive");
+    this.root = new Cell<>(x, y, z, side, 0);
+  }
+
+  /**
+   * Creates an empty tree whose cubic bounds contain the box [minX, maxX] x [minY, maxY] x [minZ,
+   * maxZ].
+   *
+   * @return a tree that will accept points in the supplied box
+   */
+  public static <N> BarnesHutOctTree<N> forBounds(
+      double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+    double side = Math.max(Math.max(Math.max(maxX - minX, maxY - minY), maxZ - minZ), 1.0);
+    // pad slightly so that points on the max faces fall strictly inside
+    return new BarnesHutOctTree<>(minX, minY, minZ, side * 1.0001);
+  }
+
+  /** @return the number of nodes inserted into this tree */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Adds {@code node} at ({@code x}, {@code y}, {@code z}). Points outside of the bounds of the
+   * tree are clamped to its border.
+   */
+  public void insert(N node, double x, double y, double z) {
+    root.insert(
+        node,
+        clamp(x, root.x, root.side),
+        clamp(y, root.y, root.side),
+        clamp(z, root.z, root.side),
+        1);
+    size++;
+  }
+
+  /**
+   * Visits the bodies that act on {@code node} at ({@code x}, {@code y}, {@code z}). A cell whose
+   * side divided by its distance from the node is less than {@code theta} is reported as a single
+   * body at its center of mass; otherwise its children are visited.
+   *
+   * @param node the node on which forces act; it is excluded from its own sum
+   * @param theta the opening angle criterion; typical values are between 0.5 and 1.0
+   * @param accumulator receives each contribution
+   */
+  public void applyForces(
+      N node, double x, double y, double z, double theta, ForceAccumulator accumulator) {
+    root.applyForces(node, x, y, z, theta * theta, accumulator);
+  }
+
+  private static double clamp(double value, double min, double side) {
+    return Math.max(min, Math.min(value, Math.nextDown(min + side)));
+  }
+
+  private static class Cell<N> {
+    final double x;
+    final double y;
+    final double z;
+    final double side;
+    final int depth;
+
+    double mass;
+    double massX;
+    double massY;
+    double massZ;
+
+    /** the single node held by a leaf, or null for an internal or merged cell */
+    N node;
+
+    Cell<N>[] children;
+
+    Cell(double x, double y, double z, double side, int depth) {
+      this.x = x;
+      this.y = y;
+      this.z = z;
+      this.side = side;
+      this.depth = depth;
+    }
+
+    void insert(N newNode, double px, double py, double pz, double m) {
+      if (mass == 0) {
+        node = newNode;
+        addMass(px, py, pz, m);
+        return;
+      }
+      if (children == null) {
+        if (depth >= MAX_DEPTH) {
+          // coincident points; fold into this body
+          node = null;
+          addMass(px, py, pz, m);
+          return;
+        }
+        split();
+      }
+      addMass(px, py, pz, m);
+      childFor(px, py, pz).insert(newNode, px, py, pz, m);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void split() {
+      double half = side / 2;
+      children = (Cell<N>[]) new Cell[8];
+      for (int i = 0; i < 8; i++) {
+        children[i] =
+            new Cell<>(
+                x + ((i & 1) == 0 ? 0 : half),
+                y + ((i & 2) == 0 ? 0 : half),
+                z + ((i & 4) == 0 ? 0 : half),
+                half,
+                depth + 1);
+      }
+      // push the existing body down into the child that contains it
+      N existing = node;
+      node = null;
+      double cx = massX / mass;
+      double cy = massY / mass;
+      double cz = massZ / mass;
+      childFor(cx, cy, cz).insert(existing, cx, cy, cz, mass);
+    }
+
+    private Cell<N> childFor(double px, double py, double pz) {
+      double half = side / 2;
+      int index = (px < x + half ? 0 : 1) + (py < y + half ? 0 : 2) + (pz < z + half ? 0 : 4);
+      return children[index];
+    }
+
+    private boolean contains(double px, double py, double pz) {
+      return px >= x && px < x + side && py >= y && py < y + side && pz >= z && pz < z + side;
+    }
+
+    private void addMass(double px, double py, double pz, double m) {
+      mass += m;
+      massX += px * m;
+      massY += py * m;
+      massZ += pz * m;
+    }
+
+    void applyForces(
+        N target, double px, double py, double pz, double thetaSquared, ForceAccumulator acc) {
+      if (mass == 0) {
+        return;
+      }
+      double xDelta = px - massX / mass;
+      double yDelta = py - massY / mass;
+      double zDelta = pz - massZ / mass;
+      if (children == null) {
+        // a merged cell holding the target only holds bodies coincident with it, which exert no
+        // directed force
+        if (node == target || (node == null && contains(px, py, pz))) {
+          return;
+        }
+        acc.accumulate(xDelta, yDelta, zDelta, mass);
+        return;
+      }
+      double distanceSquared = xDelta * xDelta + yDelta * yDelta + zDelta * zDelta;
+      // a cell that contains the target is always opened so the target never acts on itself
+      if (!contains(px, py, pz) && side * side < thetaSquared * distanceSquared) {
+        acc.accumulate(xDelta, yDelta, zDelta, mass);
+        return;
+      }
+      for (Cell<N> child : children) {
+        child.applyForces(target, px, py, pz, thetaSquared, acc);
+      }
+    }
+  }
+}
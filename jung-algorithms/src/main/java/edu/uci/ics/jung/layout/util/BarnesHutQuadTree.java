@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.layout.util;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A region quadtree of node positions that accumulates, for each cell, the total mass and the
+ * center of mass of the nodes it contains. Force-directed layout algorithms use it to approximate
+ * the repulsion exerted on a node by a distant group of nodes with the repulsion exerted by a
+ * single body at the group's center of mass, which brings the cost of a repulsion pass down from
+ * O(n^2) to O(n log n).
+ *
+ * <p>The tree is meant to be rebuilt from the current node positions at the start of each layout
+ * step.
+ *
+ * @see "Barnes and Hut, 'A hierarchical O(N log N) force-calculation algorithm'"
+ * @see BarnesHutOctTree
+ * @param <N> the node type
+ */
+public class BarnesHutQuadTree<N> {
+
+  /** beyond this depth, nodes that land in the same cell are merged into a single body */
+  private static final int MAX_DEPTH = 48;
+
+  /** receives the force contribution of a single body (or cluster of bodies) */
+  public interface ForceAccumulator {
+    /**
+     * @param xDelta x coordinate of the target node minus x coordinate of the body
+     * @param yDelta y coordinate of the target node minus y coordinate of the body
+     * @param mass the number of nodes represented by the body
+     */
+    void accumulate(double xDelta, double yDelta, double mass);
+  }
+
+  private final Cell<N> root;
+  private int size;
+
+  /**
+   * Creates an empty tree covering the square with upper-left corner at ({@code x}, {@code y}) and
+   * sides of length {@code side}.
+   *
+   * @param x the minimum x coordinate covered by the tree
+   * @param y the minimum y coordinate covered by the tree
+   * @param side the width and height of the area covered by the tree
+   */
+  public BarnesHutQuadTree(double x, double y, double side) {
+    Preconditions.checkArgument(side > 0, "side must be positive");
+    this.root = new Cell<>(x, y, side, 0);
+  }
+
+  /**
+   * Creates an empty tree whose square bounds contain the rectangle [minX, maxX] x [minY, maxY].
+   *
+   * @return a tree that will accept points in the supplied rectangle
+   */
+  public static <N> BarnesHutQuadTree<N> forBounds(
+      double minX, double minY, double maxX, double maxY) {
+    double side = Math.max(Math.max(maxX - minX, maxY - minY), 1.0);
+    // pad slightly so that points on the max edges fall strictly inside
+    return new BarnesHutQuadTree<>(minX, minY, side * 1.0001);
+  }
+
+  /** @return the number of nodes inserted into this tree */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Adds {@code node} at ({@code x}, {@code y}). Points outside of the bounds of the tree are
+   * clamped to its border.
+   */
+  public void insert(N node, double x, double y) {
+    root.insert(node, clamp(x, root.x, root.side), clamp(y, root.y, root.side), 1);
+    size++;
+  }
+
+  /**
+   * Visits the bodies that act on {@code node} at ({@code x}, {@code y}). A cell whose side divided
+   * by its distance from the node is less than {@code theta} is reported as a single body at its
+   * center of mass; otherwise its children are visited. A {@code theta} of 0 reports every other
+   * node individually.
+   *
+   * @param node the node on which forces act; it is excluded from its own sum
+   * @param x the x coordinate of {@code node}
+   * @param y the y coordinate of {@code node}
+   * @param theta the opening angle criterion; typical values are between 0.5 and 1.0
+   * @param accumulator receives each contribution
+   */
+  public void applyForces(N node, double x, double y, double theta, ForceAccumulator accumulator) {
+    root.applyForces(node, x, y, theta * theta, accumulator);
+  }
+
+  private static double clamp(double value, double min, double side) {
+    return Math.max(min, Math.min(value, Math.nextDown(min + side)));
+  }
+
+  private static class Cell<N> {
+    final double x;
+    final double y;
+    final double side;
+    final int depth;
+
+    double mass;
+    double massX;
+    double massY;
+
+    /** the single node held by a leaf, or null for an internal or merged cell */
+    N node;
+
+    Cell<N>[] children;
+
+    Cell(double x, double y, double side, int depth) {
+      this.x = x;
+      this.y = y;
+      this.side = side;
+      this.depth = depth;
+    }
+
+    void insert(N newNode, double px, double py, double m) {
+      if (mass == 0) {
+        node = newNode;
+        addMass(px, py, m);
+        return;
+      }
+      if (children == null) {
+        if (depth >= MAX_DEPTH) {
+          // coincident points; fold into this body
+          node = null;
+          addMass(px, py, m);
+          return;
+        }
+        split();
+      }
+      addMass(px, py, m);
+      childFor(px, py).insert(newNode, px, py, m);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void split() {
+      double half = side / 2;
+      children = (Cell<N>[]) new Cell[4];
+      children[0] = new Cell<>(x, y, half, depth + 1);
+      children[1] = new Cell<>(x + half, y, half, depth + 1);
+      children[2] = new Cell<>(x, y + half, half, depth + 1);
+      children[3] = new Cell<>(x + half, y + half, half, depth + 1);
+      // push the existing body down into the child that contains it
+      N existing = node;
+      node = null;
+      double cx = massX / mass;
+      double cy = massY / mass;
+      childFor(cx, cy).insert(existing, cx, cy, mass);
+    }
+
+    private Cell<N> childFor(double px, double py) {
+      double half = side / 2;
+      int index = (px < x + half ? 0 : 1) + (py < y + half ? 0 : 2);
+      return children[index];
+    }
+
+    private boolean contains(double px, double py) {
+      return px >= x && px < x + side && py >= y && py < y + side;
+    }
+
+    private void addMass(double px, double py, double m) {
+      mass += m;
+      massX += px * m;
+      massY += py * m;
+    }
+
+    void applyForces(N target, double px, double py, double thetaSquared, ForceAccumulator acc) {
+      if (mass == 0) {
+        return;
+      }
+      double cx = massX / mass;
+      double cy = massY / mass;
+      double xDelta = px - cx;
+      double yDelta = py - cy;
+      if (children == null) {
+        // a merged cell holding the target only holds bodies coincident with it, which exert no
+        // directed force
+        if (node == target || (node == null && contains(px, py))) {
+          return;
+        }
+        acc.accumulate(xDelta, yDelta, mass);
+        return;
+      }
+      double distanceSquared = xDelta * xDelta + yDelta * yDelta;
+      // a cell that contains the target is always opened so the target never acts on itself
+      if (!contains(px, py) && side * side < thetaSquared * distanceSquared) {
+        acc.accumulate(xDelta, yDelta, mass);
+        return;
+      }
+      for (Cell<N> child : children) {
+        child.applyForces(target, px, py, thetaSquared, acc);
+      }
+    }
+  }
+}
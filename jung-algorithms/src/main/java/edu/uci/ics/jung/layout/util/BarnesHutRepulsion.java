@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.layout.util;
+
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.PointModel;
+
+/**
+ * Builds Barnes-Hut trees from the node locations of a layout model and computes the
+ * Fruchterman-Reingold repulsion on a node from them, for the layout algorithms that offer
+ * Barnes-Hut repulsion.
+ *
+ * @see BarnesHutQuadTree
+ * @see BarnesHutOctTree
+ */
+public class BarnesHutRepulsion {
+
+  private BarnesHutRepulsion() {}
+
+  /**
+   * @param layoutModel the source of the node locations
+   * @return a quadtree holding the current location of every node that has one
+   */
+  public static <N, P> BarnesHutQuadTree<N> buildQuadTree(LayoutModel<N, P> layoutModel) {
+    PointModel<P> pointModel = layoutModel.getPointModel();
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (N node : layoutModel.getGraph().nodes()) {
+      P p = layoutModel.apply(node);
+      if (p == null) {
+        continue;
+      }
+      minX = Math.min(minX, pointModel.getX(p));
+      minY = Math.min(minY, pointModel.getY(p));
+      maxX = Math.max(maxX, pointModel.getX(p));
+      maxY = Math.max(maxY, pointModel.getY(p));
+    }
+    if (minX > maxX) {
+      minX = minY = maxX = maxY = 0;
+    }
+    BarnesHutQuadTree<N> tree = BarnesHutQuadTree.forBounds(minX, minY, maxX, maxY);
+    for (N node : layoutModel.getGraph().nodes()) {
+      P p = layoutModel.apply(node);
+      if (p != null) {
+        tree.insert(node, pointModel.getX(p), pointModel.getY(p));
+      }
+    }
+    return tree;
+  }
+
+  /**
+   * @param layoutModel the source of the node locations
+   * @return an octree holding the current location of every node that has one
+   */
+  public static <N, P> BarnesHutOctTree<N> buildOctTree(LayoutModel<N, P> layoutModel) {
+    PointModel<P> pointModel = layoutModel.getPointModel();
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double minZ = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    double maxZ = Double.NEGATIVE_INFINITY;
+    for (N node : layoutModel.getGraph().nodes()) {
+      P p = layoutModel.apply(node);
+      if (p == null) {
+        continue;
+      }
+      minX = Math.min(minX, pointModel.getX(p));
+      minY = Math.min(minY, pointModel.getY(p));
+      minZ = Math.min(minZ, pointModel.getZ(p));
+      maxX = Math.max(maxX, pointModel.getX(p));
+      maxY = Math.max(maxY, pointModel.getY(p));
+      maxZ = Math.max(maxZ, pointModel.getZ(p));
+    }
+    if (minX > maxX) {
+      minX = minY = minZ = maxX = maxY = maxZ = 0;
+    }
+    BarnesHutOctTree<N> tree = BarnesHutOctTree.forBounds(minX, minY, minZ, maxX, maxY, maxZ);
+    for (N node : layoutModel.getGraph().nodes()) {
+      P p = layoutModel.apply(node);
+      if (p != null) {
+        tree.insert(node, pointModel.getX(p), pointModel.getY(p), pointModel.getZ(p));
+      }
+    }
+    return tree;
+  }
+
+  /**
+   * Adds the repulsion exerted on {@code node} by the other nodes in {@code tree} to {@code
+   * displacement}.
+   *
+   * @param tree a quadtree of the current node locations
+   * @param node the node on which the repulsion acts
+   * @param x the x coordinate of {@code node}
+   * @param y the y coordinate of {@code node}
+   * @param theta the Barnes-Hut opening criterion
+   * @param repulsionConstant the repulsion constant of the layout algorithm
+   * @param epsilon the least distance between two bodies
+   * @param displacement the x and y displacement of {@code node}, which are added to
+   */
+  public static <N> void addRepulsion(
+      BarnesHutQuadTree<N> tree,
+      N node,
+      double x,
+      double y,
+      double theta,
+      double repulsionConstant,
+      double epsilon,
+      double[] displacement) {
+    double repulsionSquared = repulsionConstant * repulsionConstant;
+    tree.applyForces(
+        node,
+        x,
+        y,
+        theta,
+        (xDelta, yDelta, mass) -> {
+          double deltaLength = Math.max(epsilon, Math.sqrt((xDelta * xDelta) + (yDelta * yDelta)));
+          double force = repulsionSquared * mass / deltaLength;
+          displacement[0] += (xDelta / deltaLength) * force;
+          displacement[1] += (yDelta / deltaLength) * force;
+        });
+  }
+
+  /**
+   * Adds the repulsion exerted on {@code node} by the other nodes in {@code tree} to {@code
+   * displacement}.
+   *
+   * @param tree an octree of the current node locations
+   * @param node the node on which the repulsion acts
+   * @param x the x coordinate of {@code node}
+   * @param y the y coordinate of {@code node}
+   * @param z the z coordinate of {@code node}
+   * @param theta the Barnes-Hut opening criterion
+   * @param repulsionConstant the repulsion constant of the layout algorithm
+   * @param epsilon the least distance between two bodies
+   * @param displacement the x, y and z displacement of {@code node}, which are added to
+   */
+  public static <N> void addRepulsion(
+      BarnesHutOctTree<N> tree,
+      N node,
+      double x,
+      double y,
+      double z,
+      double theta,
+      double repulsionConstant,
+      double epsilon,
+      double[] displacement) {
+    double repulsionSquared = repulsionConstant * repulsionConstant;
+    tree.applyForces(
+        node,
+        x,
+        y,
+        z,
+        theta,
+        (xDelta, yDelta, zDelta, mass) -> {
+          double deltaLength =
+              Math.max(
+                  epsilon, Math.sqrt((xDelta * xDelta) + (yDelta * yDelta) + (zDelta * zDelta)));
+          double force = repulsionSquared * mass / deltaLength;
+          displacement[0] += (xDelta / deltaLength) * force;
+          displacement[1] += (yDelta / deltaLength) * force;
+          displacement[2] += (zDelta / deltaLength) * force;
+        });
+  }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ *
+ *
+ */
+package edu.uci.ics.jung.layout.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import edu.uci.ics.jung.algorithms.util.IterativeContext;
+import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.PointModel;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes layouts without a visualization. Each submitted {@code LayoutAlgorithm} visits its
+ * {@code LayoutModel} on a bounded pool of threads; an algorithm that is an {@code
+ * IterativeContext} is then stepped, as fast as possible and without firing change events, until
+ * one of the following holds:
+ *
+ * <ul>
+ *   <li>no node moved farther than the maximum displacement threshold during the last step
+ *   <li>the energy of the last step, the sum of the squared displacements of the nodes, fell below
+ *       the energy threshold
+ *   <li>the algorithm reports that it is done
+ *   <li>the maximum number of steps has been taken
+ * </ul>
+ *
+ * The final node positions are returned as primitive arrays in a {@link Result}.
+ *
+ * <pre>{@code
+ * try (BatchLayoutEngine engine = BatchLayoutEngine.builder().setParallelism(8).build()) {
+ *   CompletableFuture<BatchLayoutEngine.Result<String>> future =
+ *       engine.submit(new FRLayoutAlgorithm<>(), layoutModel);
+ *   ...
+ * }
+ * }</pre>
+ */
+public class BatchLayoutEngine implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(BatchLayoutEngine.class);
+
+  private final ExecutorService executorService;
+  private final boolean ownsExecutorService;
+  private final double maxDisplacement;
+  private final double energyThreshold;
+  private final int maxSteps;
+  private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+
+  public static class Builder {
+    private ExecutorService executorService;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private double maxDisplacement = 0.1;
+    private double energyThreshold = 0;
+    private int maxSteps = 1000;
+
+    /** @param parallelism the number of layouts to compute at once */
+    public Builder setParallelism(int parallelism) {
+      Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * @param executorService runs the layouts; it is not shut down when the engine is closed. If
+     *     set, the parallelism is ignored.
+     */
+    public Builder setExecutorService(ExecutorService executorService) {
+      this.executorService = executorService;
+      return this;
+    }
+
+    /**
+     * @param maxDisplacement a layout stops once no node moves farther than this during a step; 0
+     *     disables this test
+     */
+    public Builder setMaxDisplacement(double maxDisplacement) {
+      Preconditions.checkArgument(maxDisplacement >= 0, "maxDisplacement must not be negative");
+      this.maxDisplacement = maxDisplacement;
+      return this;
+    }
+
+    /**
+     * @param energyThreshold a layout stops once the sum of the squared node displacements of a
+     *     step falls below this; 0 disables this test
+     */
+    public Builder setEnergyThreshold(double energyThreshold) {
+      Preconditions.checkArgument(energyThreshold >= 0, "energyThreshold must not be negative");
+      this.energyThreshold = energyThreshold;
+      return this;
+    }
+
+    /** @param maxSteps the most steps to take for any one layout */
+    public Builder setMaxSteps(int maxSteps) {
+      Preconditions.checkArgument(maxSteps >= 0, "maxSteps must not be negative");
+      this.maxSteps = maxSteps;
+      return this;
+    }
+
+    public BatchLayoutEngine build() {
+      return new BatchLayoutEngine(this);
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  protected BatchLayoutEngine(Builder builder) {
+    this.ownsExecutorService = builder.executorService == null;
+    this.executorService =
+        ownsExecutorService
+            ? Executors.newFixedThreadPool(builder.parallelism)
+            : builder.executorService;
+    this.maxDisplacement = builder.maxDisplacement;
+    this.energyThreshold = builder.energyThreshold;
+    this.maxSteps = builder.maxSteps;
+  }
+
+  /**
+   * Schedules {@code layoutAlgorithm} to lay out {@code layoutModel}. The model should not be
+   * shared with a visualization or with another submitted layout while the layout runs.
+   *
+   * @return a future that completes with the final positions
+   */
+  public <N, P> CompletableFuture<Result<N>> submit(
+      LayoutAlgorithm<N, P> layoutAlgorithm, LayoutModel<N, P> layoutModel) {
+    CompletableFuture<Result<N>> future =
+        CompletableFuture.supplyAsync(() -> layout(layoutAlgorithm, layoutModel), executorService);
+    pending.add(future);
+    future.whenComplete((result, throwable) -> pending.remove(future));
+    return future;
+  }
+
+  /**
+   * Lays out {@code layoutModel} with {@code layoutAlgorithm} on the calling thread.
+   *
+   * @return the final positions
+   */
+  public <N, P> Result<N> layout(
+      LayoutAlgorithm<N, P> layoutAlgorithm, LayoutModel<N, P> layoutModel) {
+    LayoutModel.ChangeSupport changeSupport =
+        layoutModel instanceof LayoutModel.ChangeSupport
+            ? (LayoutModel.ChangeSupport) layoutModel
+            : null;
+    boolean fireEvents = changeSupport != null && changeSupport.isFireEvents();
+    if (changeSupport != null) {
+      changeSupport.setFireEvents(false);
+    }
+    try {
+      List<N> nodes = ImmutableList.copyOf(layoutModel.getGraph().nodes());
+      int nodeCount = nodes.size();
+      double[] xs = new double[nodeCount];
+      double[] ys = new double[nodeCount];
+      double[] zs = new double[nodeCount];
+
+      layoutAlgorithm.visit(layoutModel);
+      int steps = 0;
+      boolean converged = true;
+      if (layoutAlgorithm instanceof IterativeContext) {
+        IterativeContext iterativeContext = (IterativeContext) layoutAlgorithm;
+        read(layoutModel, nodes, xs, ys, zs);
+        converged = false;
+        while (!iterativeContext.done() && steps < maxSteps) {
+          iterativeContext.step();
+          steps++;
+          if (hasConverged(layoutModel, nodes, xs, ys, zs)) {
+            converged = true;
+            break;
+          }
+        }
+        converged |= iterativeContext.done();
+        log.trace("{} took {} steps, converged: {}", layoutAlgorithm, steps, converged);
+      }
+      read(layoutModel, nodes, xs, ys, zs);
+      return new Result<>(nodes, xs, ys, zs, steps, converged);
+    } finally {
+      if (changeSupport != null) {
+        changeSupport.setFireEvents(fireEvents);
+      }
+    }
+  }
+
+  /**
+   * Measures the movement since the positions in the arrays were taken, and replaces them with the
+   * current positions.
+   */
+  private <N, P> boolean hasConverged(
+      LayoutModel<N, P> layoutModel, List<N> nodes, double[] xs, double[] ys, double[] zs) {
+    PointModel<P> pointModel = layoutModel.getPointModel();
+    double maxSquared = 0;
+    double energy = 0;
+    for (int i = 0; i < xs.length; i++) {
+      P p = layoutModel.apply(nodes.get(i));
+      double x = pointModel.getX(p);
+      double y = pointModel.getY(p);
+      double z = pointModel.getZ(p);
+      double dx = x - xs[i];
+      double dy = y - ys[i];
+      double dz = z - zs[i];
+      double squared = dx * dx + dy * dy + dz * dz;
+      maxSquared = Math.max(maxSquared, squared);
+      energy += squared;
+      xs[i] = x;
+      ys[i] = y;
+      zs[i] = z;
+    }
+    return (maxDisplacement > 0 && maxSquared < maxDisplacement * maxDisplacement)
+        || (energyThreshold > 0 && energy < energyThreshold);
+  }
+
+  private static <N, P> void read(
+      LayoutModel<N, P> layoutModel, List<N> nodes, double[] xs, double[] ys, double[] zs) {
+    PointModel<P> pointModel = layoutModel.getPointModel();
+    for (int i = 0; i < xs.length; i++) {
+      P p = layoutModel.apply(nodes.get(i));
+      xs[i] = pointModel.getX(p);
+      ys[i] = pointModel.getY(p);
+      zs[i] = pointModel.getZ(p);
+    }
+  }
+
+  /** Shuts down the thread pool, if it was created by this engine, after running layouts finish. */
+  @Override
+  public void close() {
+    if (ownsExecutorService) {
+      executorService.shutdown();
+    }
+  }
+
+  /**
+   * Closes the engine and waits for the layouts already submitted to finish, whether or not they
+   * succeed. An executor service set on the builder is neither shut down nor waited on, so its
+   * other tasks do not hold up the wait.
+   *
+   * @return false if the timeout elapsed first
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    close();
+    try {
+      CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).get(timeout, unit);
+    } catch (ExecutionException e) {
+      // a failed layout has finished too; its own future reports the failure
+    } catch (TimeoutException e) {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * The final positions of a layout. The position of the node at index {@code i} of {@link
+   * #getNodes()} is ({@code getX()[i]}, {@code getY()[i]}, {@code getZ()[i]}).
+   *
+   * @param <N> the node type
+   */
+  public static class Result<N> {
+    private final List<N> nodes;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final int steps;
+    private final boolean converged;
+
+    Result(List<N> nodes, double[] xs, double[] ys, double[] zs, int steps, boolean converged) {
+      this.nodes = nodes;
+      this.xs = xs;
+      this.ys = ys;
+      this.zs = zs;
+      this.steps = steps;
+      this.converged = converged;
+    }
+
+    public List<N> getNodes() {
+      return nodes;
+    }
+
+    public double[] getX() {
+      return xs;
+    }
+
+    public double[] getY() {
+      return ys;
+    }
+
+    public double[] getZ() {
+      return zs;
+    }
+
+    /** @return the number of steps taken; 0 for a layout algorithm that is not iterative */
+    public int getSteps() {
+      return steps;
+    }
+
+    /**
+     * @return true if the layout stopped because it met a threshold or was done, false if it ran
+     *     out of steps
+     */
+    public boolean isConverged() {
+      return converged;
+    }
+  }
+}
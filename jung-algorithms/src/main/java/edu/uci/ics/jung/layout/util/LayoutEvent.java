@@ -1,7 +1,9 @@
 package edu.uci.ics.jung.layout.util;
 
 /**
- * an event with information about a node and its (new?) location
+ * an event with information about a node and its new location. The node and location are null
+ * when any of the nodes may have moved, as after a new graph is set or after events were turned
+ * off.
  *
  * @author Tom Nelson
  * @param <N>
@@ -17,6 +19,7 @@ public class LayoutEvent<N, P> {
     this.location = location;
   }
 
+  /** @return the node that has moved, or null if any node may have moved */
   public N getNode() {
     return node;
   }
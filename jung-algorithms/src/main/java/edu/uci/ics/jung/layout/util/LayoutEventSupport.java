@@ -1,7 +1,11 @@
 package edu.uci.ics.jung.layout.util;
 
 /**
- * interface for support to LayoutChangeListeners
+ * interface for support to LayoutChangeListeners. A {@link LayoutEvent} is fired for each node that
+ * is set while events are on. An event whose node is null means that any node may have moved; it
+ * is fired when events are turned back on, since the moves made while they were off were not
+ * reported, and when a new graph is set. A listener that keeps state for each node should discard
+ * all of it on such an event.
  *
  * @param <V>
  * @param <P>
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ *
+ *
+ */
+package edu.uci.ics.jung.layout.util;
+
+import com.google.common.base.Preconditions;
+import edu.uci.ics.jung.algorithms.util.IterativeContext;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how a {@link VisRunnable} paces the steps of an {@code IterativeContext}. The relaxer
+ * works in frames: for each frame it asks the scheduler to take some steps, then waits for the time
+ * the scheduler returns before starting the next frame. The relaxer checks whether it has been
+ * stopped between frames.
+ *
+ * <p>Three schedulers are provided:
+ *
+ * <ul>
+ *   <li>{@link #asFastAsPossible()}: one step per frame and no pause, for headless computation
+ *   <li>{@link #stepsPerFrame(int, long)}: a fixed number of steps followed by a fixed pause
+ *   <li>{@link #frameRate(double)}: one step per frame, paced so that frames start at the target
+ *       rate
+ * </ul>
+ */
+public interface RelaxerScheduler {
+
+  /**
+   * Takes the steps of one frame, stopping early if {@code iterativeContext} is done.
+   *
+   * @param iterativeContext the process to step
+   * @return the number of nanoseconds to wait before the next frame
+   */
+  long frame(IterativeContext iterativeContext);
+
+  /** @return a scheduler that steps continuously, without pausing */
+  static RelaxerScheduler asFastAsPossible() {
+    return stepsPerFrame(1, 0);
+  }
+
+  /**
+   * @param steps the number of steps per frame
+   * @param pauseMillis how long to wait after each frame
+   * @return a scheduler that takes {@code steps} steps and then waits {@code pauseMillis}
+   */
+  static RelaxerScheduler stepsPerFrame(int steps, long pauseMillis) {
+    Preconditions.checkArgument(steps > 0, "steps must be positive");
+    Preconditions.checkArgument(pauseMillis >= 0, "pauseMillis must not be negative");
+    long pauseNanos = TimeUnit.MILLISECONDS.toNanos(pauseMillis);
+    return iterativeContext -> {
+      for (int i = 0; i < steps && !iterativeContext.done(); i++) {
+        iterativeContext.step();
+      }
+      return pauseNanos;
+    };
+  }
+
+  /**
+   * @param framesPerSecond the target frame rate
+   * @return a scheduler that takes one step per frame and waits for whatever remains of the frame
+   *     period after the step. A step that overruns the period is followed immediately by the next.
+   */
+  static RelaxerScheduler frameRate(double framesPerSecond) {
+    Preconditions.checkArgument(framesPerSecond > 0, "framesPerSecond must be positive");
+    long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / framesPerSecond);
+    return iterativeContext -> {
+      long start = System.nanoTime();
+      iterativeContext.step();
+      return Math.max(0, periodNanos - (System.nanoTime() - start));
+    };
+  }
+}
@@ -1,20 +1,35 @@
 package edu.uci.ics.jung.layout.util;
 
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** @author Tom Nelson */
+/**
+ * Steps an {@code IterativeContext} until it is done or stopped, paced by a {@link
+ * RelaxerScheduler}. The default scheduler takes one step every 100 milliseconds.
+ *
+ * @author Tom Nelson
+ */
 public class VisRunnable implements Runnable {
 
   private static final Logger log = LoggerFactory.getLogger(VisRunnable.class);
+
+  /** the scheduler used when none is supplied */
+  public static final RelaxerScheduler DEFAULT_SCHEDULER = RelaxerScheduler.stepsPerFrame(1, 100);
+
   private final IterativeContext iterativeContext;
-  private long sleepTime = 100;
-  private boolean stop = false;
+  private final RelaxerScheduler scheduler;
+  private volatile boolean stop = false;
 
   public VisRunnable(IterativeContext iterativeContext) {
+    this(iterativeContext, DEFAULT_SCHEDULER);
+  }
+
+  public VisRunnable(IterativeContext iterativeContext, RelaxerScheduler scheduler) {
     log.trace("created a VisRunnable {} for {}", hashCode(), iterativeContext);
     this.iterativeContext = iterativeContext;
+    this.scheduler = scheduler;
   }
 
   public void stop() {
@@ -26,10 +41,12 @@ public class VisRunnable implements Runnable {
   public void run() {
     while (!iterativeContext.done() && !stop) {
       try {
-        iterativeContext.step();
-        try {
-          Thread.sleep(sleepTime);
-        } catch (InterruptedException ex) {
+        long pauseNanos = scheduler.frame(iterativeContext);
+        if (pauseNanos > 0) {
+          try {
+            TimeUnit.NANOSECONDS.sleep(pauseNanos);
+          } catch (InterruptedException ex) {
+          }
         }
       } catch (Exception ex) {
         ex.printStackTrace();
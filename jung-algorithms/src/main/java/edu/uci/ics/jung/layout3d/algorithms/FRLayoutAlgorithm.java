@@ -16,6 +16,8 @@ import com.google.common.graph.Graph;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
 import edu.uci.ics.jung.layout.algorithms.AbstractIterativeLayoutAlgorithm;
 import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.util.BarnesHutOctTree;
+import edu.uci.ics.jung.layout.util.BarnesHutRepulsion;
 import edu.uci.ics.jung.layout.util.RandomLocationTransformer;
 import java.util.ConcurrentModificationException;
 import org.slf4j.Logger;
@@ -30,10 +32,16 @@ import org.slf4j.LoggerFactory;
  *   <li>attraction multiplier: how much edges try to keep their nodes together
  *   <li>repulsion multiplier: how much nodes try to push each other apart
  *   <li>maximum iterations: how many iterations this algorithm will use before stopping
+ *   <li>Barnes-Hut theta: when Barnes-Hut repulsion is enabled, how coarsely distant groups of
+ *       nodes are approximated
  * </ul>
  *
  * Each of the first two defaults to 0.75; the maximum number of iterations defaults to 700.
  *
+ * <p>If Barnes-Hut repulsion is enabled, an octree of the node positions is built at the start of
+ * each step and the repulsion from distant groups of nodes is approximated by their center of mass,
+ * so each step costs O(n log n) rather than O(n^2). Theta defaults to 0.5; 0 is exact.
+ *
  * @see "Fruchterman and Reingold, 'Graph Drawing by Force-directed Placement'"
  * @see
  *     "http://i11www.ilkd.uni-karlsruhe.de/teaching/SS_04/visualisierung/papers/fruchterman91graph.pdf"
@@ -64,6 +72,10 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
 
   private boolean initialized = false;
 
+  private boolean barnesHutEnabled = false;
+
+  private double barnesHutTheta = 0.5;
+
   private float width;
   private float height;
   private float depth;
@@ -117,6 +129,24 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
     this.repulsion_multiplier = repulsion;
   }
 
+  /**
+   * @param enabled if true, approximate the repulsion pass with a Barnes-Hut octree rather than
+   *     computing the repulsion between every pair of nodes
+   */
+  public void setBarnesHutEnabled(boolean enabled) {
+    this.barnesHutEnabled = enabled;
+  }
+
+  /**
+   * @param theta the Barnes-Hut opening criterion: a group of nodes whose extent divided by its
+   *     distance is less than theta is treated as a single body. Larger values are faster and less
+   *     accurate.
+   */
+  public void setBarnesHutTheta(double theta) {
+    Preconditions.checkArgument(theta >= 0, "theta must be non-negative");
+    this.barnesHutTheta = theta;
+  }
+
   public void reset() {
     doInit();
   }
@@ -158,8 +188,15 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
     while (true) {
 
       try {
-        for (N node1 : graph.nodes()) {
-          calcRepulsion(node1);
+        if (barnesHutEnabled) {
+          BarnesHutOctTree<N> tree = buildBarnesHutTree();
+          for (N node1 : graph.nodes()) {
+            calcRepulsion(node1, tree);
+          }
+        } else {
+          for (N node1 : graph.nodes()) {
+            calcRepulsion(node1);
+          }
         }
         break;
       } catch (ConcurrentModificationException cme) {
@@ -311,6 +348,44 @@ public class FRLayoutAlgorithm<N, P> extends AbstractIterativeLayoutAlgorithm<N,
     }
   }
 
+  /**
+   * Builds an octree holding the current location of every node, to be used for the Barnes-Hut
+   * repulsion pass of one step.
+   */
+  protected BarnesHutOctTree<N> buildBarnesHutTree() {
+    return BarnesHutRepulsion.buildOctTree(layoutModel);
+  }
+
+  /**
+   * Calculates the repulsion on {@code node1} using the Barnes-Hut approximation.
+   *
+   * @param node1 the node on which the repulsion acts
+   * @param tree an octree of the current node locations
+   */
+  protected void calcRepulsion(N node1, BarnesHutOctTree<N> tree) {
+    P fvd1 = getFRData(node1);
+    if (fvd1 == null) {
+      return;
+    }
+    pointModel.setLocation(fvd1, 0, 0, 0);
+    P p1 = layoutModel.apply(node1);
+    if (p1 == null) {
+      return;
+    }
+    double[] displacement = new double[3];
+    BarnesHutRepulsion.addRepulsion(
+        tree,
+        node1,
+        pointModel.getX(p1),
+        pointModel.getY(p1),
+        pointModel.getZ(p1),
+        barnesHutTheta,
+        repulsion_constant,
+        EPSILON,
+        displacement);
+    pointModel.setLocation(fvd1, displacement[0], displacement[1], displacement[2]);
+  }
+
   private void cool() {
     temperature *= (1.0 - currentIteration / (double) mMaxIterations);
   }
@@ -0,0 +1,97 @@
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.cluster.EdgeBetweennessClusterer;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ApproximateBetweennessCentralityTest {
+
+  private Network<Integer, Integer> randomNetwork(boolean directed) {
+    return TestGraphs.createRandomNetwork(directed, 40, 100, new Random(3));
+  }
+
+  private static double total(VertexScorer<Integer, Double> scorer) {
+    return scorer.vertexScores().values().stream().mapToDouble(Double::doubleValue).sum();
+  }
+
+  @Test
+  public void testFullSampleIsExact() {
+    Network<Integer, Integer> network = randomNetwork(true);
+    BetweennessCentrality<Integer, Integer> exact = new BetweennessCentrality<>(network);
+    ApproximateBetweennessCentrality<Integer, Integer> approximate =
+        ApproximateBetweennessCentrality.<Integer, Integer>builder()
+            .setGraph(network)
+            .setSampleSize(network.nodes().size())
+            .build();
+    for (Integer v : network.nodes()) {
+      Assert.assertEquals(exact.getVertexScore(v), approximate.getVertexScore(v), 1e-9);
+    }
+    for (Integer e : network.edges()) {
+      Assert.assertEquals(exact.getEdgeScore(e), approximate.getEdgeScore(e), 1e-9);
+    }
+  }
+
+  @Test
+  public void testErrorBoundsSampleSize() {
+    Network<Integer, Integer> network = randomNetwork(true);
+    ApproximateBetweennessCentrality<Integer, Integer> approximate =
+        ApproximateBetweennessCentrality.<Integer, Integer>builder()
+            .setGraph(network)
+            .setErrorBounds(0.5, 0.5)
+            .build();
+    // ln(2 * 40 / 0.5) / (2 * 0.25) = 10.15...
+    Assert.assertEquals(11, approximate.getSampleSize());
+  }
+
+  private void checkUnbiased(boolean directed, ApproximateBetweennessCentrality.Sampling sampling) {
+    Network<Integer, Integer> network = randomNetwork(directed);
+    double exact = total(new BetweennessCentrality<>(network));
+    Random random = new Random(4);
+    int runs = 200;
+    double sum = 0;
+    for (int i = 0; i < runs; i++) {
+      sum +=
+          total(
+              ApproximateBetweennessCentrality.<Integer, Integer>builder()
+                  .setGraph(network)
+                  .setSampling(sampling)
+                  .setSampleSize(10)
+                  .setRandom(random)
+                  .build());
+    }
+    Assert.assertEquals(1.0, sum / runs / exact, 0.05);
+  }
+
+  @Test
+  public void testUniformSampling() {
+    checkUnbiased(true, ApproximateBetweennessCentrality.Sampling.UNIFORM);
+    checkUnbiased(false, ApproximateBetweennessCentrality.Sampling.UNIFORM);
+  }
+
+  @Test
+  public void testDegreeSampling() {
+    checkUnbiased(true, ApproximateBetweennessCentrality.Sampling.DEGREE);
+    checkUnbiased(false, ApproximateBetweennessCentrality.Sampling.DEGREE);
+  }
+
+  @Test
+  public void testClusterer() {
+    Network<Integer, Integer> network = randomNetwork(false);
+    EdgeBetweennessClusterer<Integer, Integer> clusterer =
+        new EdgeBetweennessClusterer<>(
+            5,
+            graph ->
+                ApproximateBetweennessCentrality.<Integer, Integer>builder()
+                    .setGraph(graph)
+                    .setSampleSize(10)
+                    .setRandom(new Random(5))
+                    .build());
+    Set<Set<Integer>> clusters = clusterer.apply(network);
+    Assert.assertEquals(5, clusterer.getEdgesRemoved().size());
+    Assert.assertEquals(network.nodes().size(), clusters.stream().mapToInt(Set::size).sum());
+  }
+}
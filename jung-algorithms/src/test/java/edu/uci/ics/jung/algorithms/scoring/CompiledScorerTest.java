@@ -0,0 +1,170 @@
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.collect.Lists;
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.scoring.AbstractIterativeScorer.IterationStrategy;
+import edu.uci.ics.jung.algorithms.scoring.AbstractIterativeScorerWithPriors.ConvergenceNorm;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledScorerTest {
+
+  private static Network<Integer, Integer> randomNetwork(boolean directed, boolean connected) {
+    int nodeCount = 80;
+    int edgeCount = 200;
+    MutableNetwork<Integer, Integer> network =
+        TestGraphs.createRandomNetwork(directed, nodeCount, edgeCount, new Random(7));
+    if (connected) {
+      // a ring makes the graph strongly connected
+      for (int i = 0; i < nodeCount; i++) {
+        network.addEdge(i, (i + 1) % nodeCount, edgeCount + i);
+      }
+    }
+    return network;
+  }
+
+  private static <T> void assertSameScores(
+      AbstractIterativeScorer<Integer, Integer, T> expected,
+      AbstractIterativeScorer<Integer, Integer, T> actual,
+      Function<T, double[]> values) {
+    actual.setCompiled(true);
+    expected.evaluate();
+    actual.evaluate();
+    Assert.assertEquals(expected.getIterations(), actual.getIterations());
+    for (Integer v : expected.vertexScores().keySet()) {
+      Assert.assertArrayEquals(
+          values.apply(expected.getVertexScore(v)), values.apply(actual.getVertexScore(v)), 1e-9);
+    }
+  }
+
+  private static double[] value(Double score) {
+    return new double[] {score};
+  }
+
+  private static double[] value(HITS.Scores scores) {
+    return new double[] {scores.hub, scores.authority};
+  }
+
+  @Test
+  public void testPageRank() {
+    for (boolean directed : new boolean[] {true, false}) {
+      Network<Integer, Integer> network = randomNetwork(directed, false);
+      assertSameScores(
+          new PageRank<>(network, 0.15), new PageRank<>(network, 0.15), CompiledScorerTest::value);
+    }
+  }
+
+  @Test
+  public void testPageRankWithPriors() {
+    Network<Integer, Integer> network = randomNetwork(true, false);
+    Function<Integer, Double> priors = v -> v < 10 ? 0.1 : 0.0;
+    assertSameScores(
+        new PageRankWithPriors<>(
+            network, e -> 1.0 / network.outDegree(network.incidentNodes(e).source()), priors, 0.3),
+        new PageRankWithPriors<>(
+            network, e -> 1.0 / network.outDegree(network.incidentNodes(e).source()), priors, 0.3),
+        CompiledScorerTest::value);
+  }
+
+  @Test
+  public void testEigenvectorCentrality() {
+    Network<Integer, Integer> network = randomNetwork(true, true);
+    assertSameScores(
+        new EigenvectorCentrality<>(network),
+        new EigenvectorCentrality<>(network),
+        CompiledScorerTest::value);
+  }
+
+  @Test
+  public void testHITS() {
+    Network<Integer, Integer> network = randomNetwork(true, false);
+    assertSameScores(new HITS<>(network), new HITS<>(network), CompiledScorerTest::value);
+    assertSameScores(new HITS<>(network, 0.2), new HITS<>(network, 0.2), CompiledScorerTest::value);
+  }
+
+  @Test
+  public void testKStepMarkov() {
+    Network<Integer, Integer> network = randomNetwork(true, true);
+    KStepMarkov<Integer, Integer> expected = new KStepMarkov<>(network, 5);
+    KStepMarkov<Integer, Integer> actual = new KStepMarkov<>(network, 5);
+    expected.setCumulative(true);
+    actual.setCumulative(true);
+    assertSameScores(expected, actual, CompiledScorerTest::value);
+  }
+
+  @Test
+  public void testParallelJacobi() {
+    Network<Integer, Integer> network = randomNetwork(true, false);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      PageRank<Integer, Integer> pageRank = new PageRank<>(network, 0.15);
+      pageRank.setIterationStrategy(IterationStrategy.PARALLEL_JACOBI);
+      pageRank.setForkJoinPool(pool);
+      assertSameScores(new PageRank<>(network, 0.15), pageRank, CompiledScorerTest::value);
+
+      HITS<Integer, Integer> hits = new HITS<>(network, 0.2);
+      hits.setIterationStrategy(IterationStrategy.PARALLEL_JACOBI);
+      hits.setForkJoinPool(pool);
+      assertSameScores(new HITS<>(network, 0.2), hits, CompiledScorerTest::value);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testGaussSeidel() {
+    Network<Integer, Integer> network = randomNetwork(true, true);
+    PageRank<Integer, Integer> jacobi = new PageRank<>(network, 0.15);
+    PageRank<Integer, Integer> gaussSeidel = new PageRank<>(network, 0.15);
+    for (PageRank<Integer, Integer> pageRank : Lists.newArrayList(jacobi, gaussSeidel)) {
+      pageRank.setTolerance(1e-10);
+      pageRank.setMaxIterations(1000);
+      pageRank.setCompiled(true);
+    }
+    gaussSeidel.setIterationStrategy(IterationStrategy.GAUSS_SEIDEL);
+    jacobi.evaluate();
+    gaussSeidel.evaluate();
+    Assert.assertTrue(gaussSeidel.getIterations() < gaussSeidel.getMaxIterations());
+    for (Integer v : network.nodes()) {
+      Assert.assertEquals(jacobi.getVertexScore(v), gaussSeidel.getVertexScore(v), 1e-7);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testStrategyRequiresCompiled() {
+    PageRank<Integer, Integer> pageRank = new PageRank<>(randomNetwork(true, false), 0.15);
+    pageRank.setIterationStrategy(IterationStrategy.GAUSS_SEIDEL);
+    pageRank.evaluate();
+  }
+
+  @Test
+  public void testL1Convergence() {
+    Network<Integer, Integer> network = randomNetwork(true, false);
+    PageRank<Integer, Integer> max = new PageRank<>(network, 0.15);
+    PageRank<Integer, Integer> l1 = new PageRank<>(network, 0.15);
+    l1.setConvergenceNorm(ConvergenceNorm.L1);
+    max.evaluate();
+    l1.evaluate();
+    Assert.assertTrue(l1.getIterations() > max.getIterations());
+    double[] previous = new double[network.nodes().size()];
+    for (Integer v : network.nodes()) {
+      previous[v] = l1.getVertexScore(v);
+    }
+    l1.step();
+    double sum = 0;
+    for (Integer v : network.nodes()) {
+      sum += Math.abs(l1.getVertexScore(v) - previous[v]);
+    }
+    Assert.assertTrue(sum < l1.getTolerance());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testUnsupported() {
+    new VoltageScorer<Integer, Integer>(randomNetwork(true, false), 0, 1).setCompiled(true);
+  }
+}
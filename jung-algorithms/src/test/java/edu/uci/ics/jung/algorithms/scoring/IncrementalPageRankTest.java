@@ -0,0 +1,159 @@
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.graph.ObservableNetwork;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IncrementalPageRankTest {
+
+  private static final double ALPHA = 0.15;
+
+  private int nextEdge = 0;
+
+  private ObservableNetwork<Integer, Integer> randomNetwork(boolean directed, Random random) {
+    int firstEdge = nextEdge;
+    nextEdge += 150;
+    return new ObservableNetwork<>(
+        TestGraphs.createRandomNetwork(directed, 60, 150, random, i -> i, i -> firstEdge + i));
+  }
+
+  private static void assertPageRank(
+      Network<Integer, Integer> network, VertexScorer<Integer, Double> scorer) {
+    PageRank<Integer, Integer> pageRank = new PageRank<>(network, ALPHA);
+    // the changes reported by PageRank do not include the disappearing potential, so on graphs
+    // with sinks it runs until the maximum number of iterations; 300 is ample for convergence
+    pageRank.setTolerance(1e-11);
+    pageRank.setMaxIterations(300);
+    pageRank.evaluate();
+    Assert.assertEquals(network.nodes(), scorer.vertexScores().keySet());
+    for (Integer v : network.nodes()) {
+      Assert.assertEquals(pageRank.getVertexScore(v), scorer.getVertexScore(v), 1e-8);
+    }
+  }
+
+  private static IncrementalPageRank<Integer, Integer> create(
+      ObservableNetwork<Integer, Integer> network) {
+    IncrementalPageRank<Integer, Integer> pageRank = new IncrementalPageRank<>(network, ALPHA);
+    pageRank.setTolerance(1e-10);
+    network.addGraphEventListener(pageRank);
+    return pageRank;
+  }
+
+  @Test
+  public void testFromScratch() {
+    for (boolean directed : new boolean[] {true, false}) {
+      ObservableNetwork<Integer, Integer> network = randomNetwork(directed, new Random(1));
+      assertPageRank(network, create(network));
+    }
+  }
+
+  private void checkChanges(boolean directed) {
+    Random random = new Random(directed ? 2 : 3);
+    ObservableNetwork<Integer, Integer> network = randomNetwork(directed, random);
+    IncrementalPageRank<Integer, Integer> pageRank = create(network);
+    int initialPushes = pageRank.propagate();
+    int nextNode = network.nodes().size();
+    for (int round = 0; round < 20; round++) {
+      List<Integer> nodes = ImmutableList.copyOf(network.nodes());
+      List<Integer> edges = ImmutableList.copyOf(network.edges());
+      switch (round % 4) {
+        case 0:
+          network.addEdge(
+              nodes.get(random.nextInt(nodes.size())),
+              nodes.get(random.nextInt(nodes.size())),
+              nextEdge++);
+          break;
+        case 1:
+          network.removeEdge(edges.get(random.nextInt(edges.size())));
+          break;
+        case 2:
+          // a new node, which may arrive with its first edge
+          if (random.nextBoolean()) {
+            network.addNode(nextNode);
+          }
+          network.addEdge(nodes.get(random.nextInt(nodes.size())), nextNode++, nextEdge++);
+          break;
+        default:
+          network.removeNode(nodes.get(random.nextInt(nodes.size())));
+          break;
+      }
+      if (round % 4 < 2) {
+        Assert.assertTrue(pageRank.propagate() < initialPushes);
+      }
+      assertPageRank(network, pageRank);
+    }
+  }
+
+  @Test
+  public void testDirectedChanges() {
+    checkChanges(true);
+  }
+
+  @Test
+  public void testUndirectedChanges() {
+    checkChanges(false);
+  }
+
+  private void checkBatches(boolean directed) {
+    Random random = new Random(directed ? 5 : 6);
+    ObservableNetwork<Integer, Integer> network = randomNetwork(directed, random);
+    IncrementalPageRank<Integer, Integer> pageRank = create(network);
+    pageRank.propagate();
+    int nextNode = network.nodes().size();
+    for (int round = 0; round < 5; round++) {
+      network.beginBatch();
+      for (int i = 0; i < 10; i++) {
+        List<Integer> nodes = ImmutableList.copyOf(network.nodes());
+        List<Integer> edges = ImmutableList.copyOf(network.edges());
+        switch (random.nextInt(5)) {
+          case 0:
+          case 1:
+            network.addEdge(
+                nodes.get(random.nextInt(nodes.size())),
+                nodes.get(random.nextInt(nodes.size())),
+                nextEdge++);
+            break;
+          case 2:
+            network.removeEdge(edges.get(random.nextInt(edges.size())));
+            break;
+          case 3:
+            network.addEdge(nextNode++, nodes.get(random.nextInt(nodes.size())), nextEdge++);
+            break;
+          default:
+            network.removeNode(nodes.get(random.nextInt(nodes.size())));
+            break;
+        }
+      }
+      network.commitBatch();
+      assertPageRank(network, pageRank);
+    }
+  }
+
+  @Test
+  public void testDirectedBatches() {
+    checkBatches(true);
+  }
+
+  @Test
+  public void testUndirectedBatches() {
+    checkBatches(false);
+  }
+
+  @Test
+  public void testWarmStart() {
+    ObservableNetwork<Integer, Integer> network = randomNetwork(true, new Random(4));
+    IncrementalPageRank<Integer, Integer> cold = create(network);
+    int coldPushes = cold.propagate();
+
+    IncrementalPageRank<Integer, Integer> warm =
+        new IncrementalPageRank<>(network, ALPHA, cold.vertexScores());
+    warm.setTolerance(1e-10);
+    Assert.assertTrue(warm.propagate() < coldPushes / 10);
+    assertPageRank(network, warm);
+  }
+}
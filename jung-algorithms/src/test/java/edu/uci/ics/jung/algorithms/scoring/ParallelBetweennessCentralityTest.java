@@ -0,0 +1,60 @@
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelBetweennessCentralityTest {
+
+  private Map<Integer, Integer> weights = new HashMap<>();
+
+  private Network<Integer, Integer> randomNetwork(boolean directed) {
+    Random random = new Random(directed ? 1 : 2);
+    Network<Integer, Integer> network = TestGraphs.createRandomNetwork(directed, 50, 150, random);
+    for (Integer e : network.edges()) {
+      weights.put(e, 1 + random.nextInt(4));
+    }
+    return network;
+  }
+
+  private static <V, E> void assertSameScores(
+      BetweennessCentrality<V, E> expected, ParallelBetweennessCentrality<V, E> actual) {
+    Assert.assertEquals(expected.vertexScores().keySet(), actual.vertexScores().keySet());
+    for (V v : expected.vertexScores().keySet()) {
+      Assert.assertEquals(expected.getVertexScore(v), actual.getVertexScore(v), 1e-9);
+    }
+    Assert.assertEquals(expected.edgeScores().keySet(), actual.edgeScores().keySet());
+    for (E e : expected.edgeScores().keySet()) {
+      Assert.assertEquals(expected.getEdgeScore(e), actual.getEdgeScore(e), 1e-9);
+    }
+  }
+
+  private void compare(boolean directed) {
+    Network<Integer, Integer> network = randomNetwork(directed);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertSameScores(
+          new BetweennessCentrality<>(network), new ParallelBetweennessCentrality<>(network, pool));
+      assertSameScores(
+          new BetweennessCentrality<>(network, weights::get),
+          new ParallelBetweennessCentrality<>(network, weights::get, pool));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testDirected() {
+    compare(true);
+  }
+
+  @Test
+  public void testUndirected() {
+    compare(false);
+  }
+}
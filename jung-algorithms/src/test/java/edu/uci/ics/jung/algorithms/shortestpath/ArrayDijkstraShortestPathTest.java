@@ -0,0 +1,91 @@
+package edu.uci.ics.jung.algorithms.shortestpath;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArrayDijkstraShortestPathTest {
+
+  private Map<Integer, Double> weights = new HashMap<>();
+
+  private Network<Integer, Integer> randomNetwork(boolean directed, int nodeCount, int edgeCount) {
+    Random random = new Random(nodeCount);
+    Network<Integer, Integer> network =
+        TestGraphs.createRandomNetwork(directed, nodeCount, edgeCount, random);
+    for (Integer e : network.edges()) {
+      weights.put(e, (double) random.nextInt(10));
+    }
+    return network;
+  }
+
+  private void compare(Network<Integer, Integer> network, boolean cached) {
+    DijkstraShortestPath<Integer, Integer> expected =
+        new DijkstraShortestPath<>(network, weights::get);
+    ArrayDijkstraShortestPath<Integer, Integer> actual =
+        new ArrayDijkstraShortestPath<>(network, weights::get, cached);
+    for (Integer source : network.nodes()) {
+      Map<Integer, Number> expectedDistances = expected.getDistanceMap(source);
+      Map<Integer, Number> actualDistances = actual.getDistanceMap(source);
+      Assert.assertEquals(expectedDistances, actualDistances);
+      Assert.assertEquals(
+          expected.getIncomingEdgeMap(source).keySet(), actual.getIncomingEdgeMap(source).keySet());
+
+      double last = 0;
+      for (Number distance : actualDistances.values()) {
+        Assert.assertTrue(distance.doubleValue() >= last);
+        last = distance.doubleValue();
+      }
+
+      double[] distances = actual.getDistances(source);
+      for (Integer target : network.nodes()) {
+        Number distance = expectedDistances.get(target);
+        Assert.assertEquals(distance, actual.getDistance(source, target));
+        Assert.assertEquals(
+            distance == null ? Double.POSITIVE_INFINITY : distance.doubleValue(),
+            distances[actual.indexOf(target)],
+            0);
+
+        List<Integer> path = actual.getPath(source, target);
+        double length = 0;
+        Integer current = source;
+        for (Integer edge : path) {
+          current = network.incidentNodes(edge).adjacentNode(current);
+          length += weights.get(edge);
+        }
+        if (distance != null) {
+          Assert.assertEquals(target, current);
+          Assert.assertEquals(distance.doubleValue(), length, 0);
+        } else {
+          Assert.assertTrue(path.isEmpty());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDirected() {
+    compare(randomNetwork(true, 60, 150), true);
+  }
+
+  @Test
+  public void testUndirected() {
+    compare(randomNetwork(false, 60, 80), true);
+  }
+
+  @Test
+  public void testUncached() {
+    compare(randomNetwork(true, 40, 100), false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeWeight() {
+    Network<Integer, Integer> network = randomNetwork(true, 5, 5);
+    weights.put(0, -1.0);
+    new ArrayDijkstraShortestPath<>(network, weights::get);
+  }
+}
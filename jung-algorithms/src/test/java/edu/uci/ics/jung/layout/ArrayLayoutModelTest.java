@@ -0,0 +1,96 @@
+package edu.uci.ics.jung.layout;
+
+import com.google.common.collect.Sets;
+import com.google.common.graph.Graph;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import edu.uci.ics.jung.layout.algorithms.immutable.FRLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.ArrayLayoutModel;
+import edu.uci.ics.jung.layout.model.PointModel;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArrayLayoutModelTest {
+
+  Graph<String> graph;
+  ArrayLayoutModel<String, TestPointModel.Point> layoutModel;
+  PointModel<TestPointModel.Point> pointModel = new TestPointModel();
+
+  @Before
+  public void setUp() {
+    graph = TestGraphs.getDemoGraph().asGraph();
+    layoutModel =
+        ArrayLayoutModel.<String, TestPointModel.Point>builder()
+            .setGraph(graph)
+            .setPointModel(pointModel)
+            .setSize(500, 500)
+            .setInitializer(
+                node ->
+                    pointModel.newPoint(
+                        Math.floorMod(node.hashCode(), 400),
+                        Math.floorMod(node.hashCode() / 7, 400)))
+            .build();
+  }
+
+  @Test
+  public void testIndexing() {
+    Assert.assertEquals(graph.nodes().size(), layoutModel.getNodeCount());
+    for (String node : graph.nodes()) {
+      int index = layoutModel.indexOf(node);
+      Assert.assertEquals(node, layoutModel.getNode(index));
+      Assert.assertEquals(index, layoutModel.indexOf(node));
+    }
+  }
+
+  @Test
+  public void testInitializerAndSet() {
+    String node = graph.nodes().iterator().next();
+    int index = layoutModel.indexOf(node);
+    Assert.assertEquals(Math.floorMod(node.hashCode(), 400), layoutModel.getX(index), 0);
+    Assert.assertEquals(Math.floorMod(node.hashCode() / 7, 400), layoutModel.get(node).getY(), 0);
+
+    layoutModel.set(node, 12, 34);
+    Assert.assertEquals(12, layoutModel.getX(index), 0);
+    Assert.assertEquals(34, layoutModel.get(node).getY(), 0);
+
+    layoutModel.set(index, 56, 78);
+    Assert.assertEquals(56, layoutModel.get(node).getX(), 0);
+
+    layoutModel.clear();
+    Assert.assertEquals(Math.floorMod(node.hashCode(), 400), layoutModel.get(node).getX(), 0);
+  }
+
+  @Test
+  public void testPlacedWhenIndexed() {
+    AtomicInteger placements = new AtomicInteger();
+    layoutModel.setInitializer(
+        node -> {
+          placements.incrementAndGet();
+          return pointModel.newPoint(1, 2);
+        });
+    Assert.assertEquals(graph.nodes().size(), placements.get());
+
+    // a location set by index is never replaced by a later, lazy placement
+    String node = graph.nodes().iterator().next();
+    layoutModel.set(layoutModel.indexOf(node), 12, 34);
+    Assert.assertEquals(12, layoutModel.get(node).getX(), 0);
+    Assert.assertEquals(graph.nodes().size(), placements.get());
+
+    layoutModel.setGraph(graph);
+    Assert.assertEquals(2 * graph.nodes().size(), placements.get());
+    Assert.assertEquals(1, layoutModel.get(node).getX(), 0);
+  }
+
+  @Test
+  public void testImmutableFRLayout() {
+    layoutModel.accept(new FRLayoutAlgorithm<>());
+    layoutModel.stopRelaxer();
+    Set<TestPointModel.Point> locations = Sets.newHashSet();
+    for (String node : graph.nodes()) {
+      locations.add(layoutModel.get(node));
+    }
+    Assert.assertEquals(graph.nodes().size(), locations.size());
+  }
+}
@@ -1,5 +1,6 @@
 package edu.uci.ics.jung.layout;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.graph.Graph;
 import edu.uci.ics.jung.graph.CTreeNetwork;
@@ -7,14 +8,20 @@ import edu.uci.ics.jung.graph.MutableCTreeNetwork;
 import edu.uci.ics.jung.graph.TreeNetworkBuilder;
 import edu.uci.ics.jung.graph.util.TestGraphs;
 import edu.uci.ics.jung.layout.algorithms.CircleLayoutAlgorithm;
+import edu.uci.ics.jung.layout.algorithms.FRLayoutAlgorithm;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
 import edu.uci.ics.jung.layout.algorithms.SpringLayoutAlgorithm;
 import edu.uci.ics.jung.layout.algorithms.immutable.KKLayoutAlgorithm;
 import edu.uci.ics.jung.layout.algorithms.immutable.TreeLayoutAlgorithm;
 import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
 import edu.uci.ics.jung.layout.model.PointModel;
+import edu.uci.ics.jung.layout.util.RelaxerScheduler;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Assert;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -43,6 +50,9 @@ public class LayoutAlgorithmTest {
     // ISOM seems to put some nodes in the same location, so the test will fail
     //    testLayoutAlgorithm(new ISOMLayoutAlgorithm<String, TestPointModel.Point>(pointModel));
     testLayoutAlgorithm(new CircleLayoutAlgorithm<>());
+    FRLayoutAlgorithm<String, TestPointModel.Point> barnesHut = new FRLayoutAlgorithm<>();
+    barnesHut.setBarnesHutEnabled(true);
+    testLayoutAlgorithm(barnesHut);
   }
 
   @Test
@@ -57,6 +67,82 @@ public class LayoutAlgorithmTest {
     testLayoutAlgorithm(new TreeLayoutAlgorithm<>());
   }
 
+  @Test
+  public void testRelaxerRunsOnSuppliedExecutor() {
+    graph = TestGraphs.getDemoGraph().asGraph();
+    layoutModel =
+        LoadingCacheLayoutModel.<String, TestPointModel.Point>builder()
+            .setGraph(graph)
+            .setPointModel(pointModel)
+            .setSize(500, 500)
+            .build();
+    layoutModel.setPreRelaxDuration(0);
+    layoutModel.setRelaxerScheduler(RelaxerScheduler.asFastAsPossible());
+    FRLayoutAlgorithm<String, TestPointModel.Point> layoutAlgorithm = new FRLayoutAlgorithm<>();
+    layoutAlgorithm.setMaxIterations(50);
+    // a direct executor runs the whole relaxation before accept returns
+    layoutModel.accept(layoutAlgorithm, Runnable::run);
+    Assert.assertTrue(layoutAlgorithm.done());
+
+    // the executor passed to accept is used for that layout algorithm only
+    AtomicInteger executions = new AtomicInteger();
+    Executor countingExecutor =
+        runnable -> {
+          executions.incrementAndGet();
+          runnable.run();
+        };
+    layoutModel.accept(newFRLayoutAlgorithm(), countingExecutor);
+    Assert.assertEquals(1, executions.get());
+    layoutModel.accept(newFRLayoutAlgorithm(), Runnable::run);
+    Assert.assertEquals(1, executions.get());
+
+    layoutModel.setRelaxerExecutor(countingExecutor);
+    layoutModel.accept(newFRLayoutAlgorithm());
+    layoutModel.accept(newFRLayoutAlgorithm());
+    Assert.assertEquals(3, executions.get());
+  }
+
+  private static FRLayoutAlgorithm<String, TestPointModel.Point> newFRLayoutAlgorithm() {
+    FRLayoutAlgorithm<String, TestPointModel.Point> layoutAlgorithm = new FRLayoutAlgorithm<>();
+    layoutAlgorithm.setMaxIterations(50);
+    return layoutAlgorithm;
+  }
+
+  @Test
+  public void testParallelFRIsIndependentOfThreadCount() {
+    graph = TestGraphs.getDemoGraph().asGraph();
+    Map<String, TestPointModel.Point> single = stepFRInParallel(new ForkJoinPool(1));
+    Map<String, TestPointModel.Point> several = stepFRInParallel(new ForkJoinPool(4));
+    for (String node : graph.nodes()) {
+      Assert.assertEquals(single.get(node).getX(), several.get(node).getX(), 0);
+      Assert.assertEquals(single.get(node).getY(), several.get(node).getY(), 0);
+    }
+  }
+
+  private Map<String, TestPointModel.Point> stepFRInParallel(ForkJoinPool pool) {
+    layoutModel =
+        LoadingCacheLayoutModel.<String, TestPointModel.Point>builder()
+            .setGraph(graph)
+            .setPointModel(pointModel)
+            .setSize(500, 500)
+            .setInitializer(
+                node ->
+                    pointModel.newPoint(
+                        150 + Math.floorMod(node.hashCode(), 200),
+                        150 + Math.floorMod(node.hashCode() / 7, 200)))
+            .build();
+    FRLayoutAlgorithm<String, TestPointModel.Point> layoutAlgorithm = new FRLayoutAlgorithm<>();
+    layoutAlgorithm.setForkJoinPool(pool);
+    layoutAlgorithm.visit(layoutModel);
+    layoutAlgorithm.step();
+    pool.shutdown();
+    Map<String, TestPointModel.Point> locations = Maps.newHashMap();
+    for (String node : graph.nodes()) {
+      locations.put(node, layoutModel.get(node));
+    }
+    return locations;
+  }
+
   private void testLayoutAlgorithm(LayoutAlgorithm<String, TestPointModel.Point> layoutAlgorithm) {
     layoutModel.clear();
     layoutModel.accept(layoutAlgorithm);
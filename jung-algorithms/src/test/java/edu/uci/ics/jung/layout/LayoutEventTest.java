@@ -0,0 +1,92 @@
+package edu.uci.ics.jung.layout;
+
+import com.google.common.graph.Graph;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import edu.uci.ics.jung.layout.model.AbstractLayoutModel;
+import edu.uci.ics.jung.layout.model.ArrayLayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.model.PointModel;
+import edu.uci.ics.jung.layout.util.LayoutChangeListener;
+import edu.uci.ics.jung.layout.util.LayoutEvent;
+import edu.uci.ics.jung.layout.util.LayoutNetworkEvent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/** test that the layout models tell their layout change listeners which node has moved */
+public class LayoutEventTest {
+
+  Graph<String> graph;
+  PointModel<TestPointModel.Point> pointModel = new TestPointModel();
+  List<LayoutEvent<String, TestPointModel.Point>> events;
+  LayoutChangeListener<String, TestPointModel.Point> listener;
+
+  @Before
+  public void setUp() {
+    graph = TestGraphs.getDemoGraph().asGraph();
+    events = new ArrayList<>();
+    listener =
+        new LayoutChangeListener<String, TestPointModel.Point>() {
+          @Override
+          public void layoutChanged(LayoutEvent<String, TestPointModel.Point> evt) {
+            events.add(evt);
+          }
+
+          @Override
+          public void layoutChanged(LayoutNetworkEvent<String, TestPointModel.Point> evt) {
+            events.add(evt);
+          }
+        };
+  }
+
+  @Test
+  public void testLoadingCacheLayoutModel() {
+    LoadingCacheLayoutModel<String, TestPointModel.Point> layoutModel =
+        LoadingCacheLayoutModel.<String, TestPointModel.Point>builder()
+            .setGraph(graph)
+            .setPointModel(pointModel)
+            .setSize(500, 500)
+            .build();
+    assertEvents(layoutModel);
+  }
+
+  @Test
+  public void testArrayLayoutModel() {
+    ArrayLayoutModel<String, TestPointModel.Point> layoutModel =
+        ArrayLayoutModel.<String, TestPointModel.Point>builder()
+            .setGraph(graph)
+            .setPointModel(pointModel)
+            .setSize(500, 500)
+            .build();
+    assertEvents(layoutModel);
+  }
+
+  private void assertEvents(AbstractLayoutModel<String, TestPointModel.Point> layoutModel) {
+    layoutModel.addLayoutChangeListener(listener);
+    String node = graph.nodes().iterator().next();
+
+    layoutModel.set(node, 12, 34);
+    Assert.assertEquals(1, events.size());
+    Assert.assertEquals(node, events.get(0).getNode());
+    Assert.assertEquals(12, events.get(0).getLocation().getX(), 0);
+    Assert.assertEquals(34, events.get(0).getLocation().getY(), 0);
+    // the location is stored before the listeners are told
+    Assert.assertEquals(12, layoutModel.apply(node).getX(), 0);
+
+    // no events while events are off, then one for any node when they are turned back on
+    events.clear();
+    layoutModel.setFireEvents(false);
+    layoutModel.set(node, 56, 78);
+    Assert.assertTrue(events.isEmpty());
+    layoutModel.setFireEvents(true);
+    Assert.assertEquals(1, events.size());
+    Assert.assertNull(events.get(0).getNode());
+
+    events.clear();
+    layoutModel.removeLayoutChangeListener(listener);
+    layoutModel.set(node, 90, 12);
+    Assert.assertTrue(events.isEmpty());
+  }
+}
@@ -0,0 +1,80 @@
+package edu.uci.ics.jung.layout.util;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BarnesHutQuadTreeTest {
+
+  private static final int COUNT = 200;
+
+  private double[] xs = new double[COUNT];
+  private double[] ys = new double[COUNT];
+  private BarnesHutQuadTree<Integer> tree;
+
+  @Before
+  public void setUp() {
+    Random random = new Random(17);
+    tree = BarnesHutQuadTree.forBounds(0, 0, 600, 400);
+    for (int i = 0; i < COUNT; i++) {
+      xs[i] = random.nextDouble() * 600;
+      ys[i] = random.nextDouble() * 400;
+      tree.insert(i, xs[i], ys[i]);
+    }
+    // a coincident pair must not break the tree
+    tree.insert(COUNT, xs[0], ys[0]);
+  }
+
+  @Test
+  public void testZeroThetaIsExact() {
+    for (int i = 0; i < COUNT; i++) {
+      double[] approximate = sum(i, 0);
+      double[] exact = new double[2];
+      for (int j = 0; j <= COUNT; j++) {
+        if (j != i) {
+          int k = j == COUNT ? 0 : j;
+          accumulate(exact, xs[i] - xs[k], ys[i] - ys[k], 1);
+        }
+      }
+      Assert.assertEquals(exact[0], approximate[0], 1.0e-6);
+      Assert.assertEquals(exact[1], approximate[1], 1.0e-6);
+    }
+  }
+
+  @Test
+  public void testApproximationIsClose() {
+    for (int i = 1; i < COUNT; i++) {
+      double[] exact = sum(i, 0);
+      double[] approximate = sum(i, 0.5);
+      double magnitude = Math.hypot(exact[0], exact[1]);
+      double error = Math.hypot(exact[0] - approximate[0], exact[1] - approximate[1]);
+      Assert.assertTrue("error " + error + " for node " + i, error < 0.1 * magnitude + 1.0e-3);
+    }
+  }
+
+  @Test
+  public void testMassIsConserved() {
+    double[] mass = new double[1];
+    tree.applyForces(null, -1000, -1000, 1.0, (xDelta, yDelta, m) -> mass[0] += m);
+    Assert.assertEquals(COUNT + 1, mass[0], 0);
+    Assert.assertEquals(COUNT + 1, tree.size());
+  }
+
+  private double[] sum(int node, double theta) {
+    double[] result = new double[2];
+    tree.applyForces(
+        node,
+        xs[node],
+        ys[node],
+        theta,
+        (xDelta, yDelta, m) -> accumulate(result, xDelta, yDelta, m));
+    return result;
+  }
+
+  private static void accumulate(double[] result, double xDelta, double yDelta, double mass) {
+    double length = Math.max(1.0e-6, Math.hypot(xDelta, yDelta));
+    result[0] += xDelta / length * mass / length;
+    result[1] += yDelta / length * mass / length;
+  }
+}
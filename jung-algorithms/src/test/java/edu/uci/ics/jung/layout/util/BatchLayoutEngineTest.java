@@ -0,0 +1,86 @@
+package edu.uci.ics.jung.layout.util;
+
+import com.google.common.graph.Graph;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import edu.uci.ics.jung.layout.TestPointModel;
+import edu.uci.ics.jung.layout.algorithms.CircleLayoutAlgorithm;
+import edu.uci.ics.jung.layout.algorithms.FRLayoutAlgorithm;
+import edu.uci.ics.jung.layout.algorithms.SpringLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchLayoutEngineTest {
+
+  private Graph<String> graph = TestGraphs.getDemoGraph().asGraph();
+
+  @Test
+  public void testBatch() throws Exception {
+    try (BatchLayoutEngine engine =
+        BatchLayoutEngine.builder().setParallelism(2).setMaxSteps(200).build()) {
+      CompletableFuture<BatchLayoutEngine.Result<String>> fr =
+          engine.submit(new FRLayoutAlgorithm<>(), newLayoutModel());
+      CompletableFuture<BatchLayoutEngine.Result<String>> spring =
+          engine.submit(new SpringLayoutAlgorithm<>(), newLayoutModel());
+      CompletableFuture<BatchLayoutEngine.Result<String>> circle =
+          engine.submit(new CircleLayoutAlgorithm<>(), newLayoutModel());
+
+      checkResult(fr.get());
+      Assert.assertTrue(fr.get().getSteps() > 0);
+
+      // spring layout is never done, so it stops on displacement or on the step limit
+      checkResult(spring.get());
+      Assert.assertTrue(spring.get().getSteps() <= 200);
+      Assert.assertEquals(spring.get().isConverged(), spring.get().getSteps() < 200);
+
+      checkResult(circle.get());
+      Assert.assertEquals(0, circle.get().getSteps());
+    }
+  }
+
+  @Test
+  public void testAwaitTerminationWithExecutorService() throws Exception {
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    try {
+      BatchLayoutEngine engine =
+          BatchLayoutEngine.builder()
+              .setExecutorService(executorService)
+              .setMaxSteps(100)
+              .build();
+      CompletableFuture<BatchLayoutEngine.Result<String>> fr =
+          engine.submit(new FRLayoutAlgorithm<>(), newLayoutModel());
+
+      // waits for the submitted layout, not for the executor service to terminate
+      long start = System.nanoTime();
+      Assert.assertTrue(engine.awaitTermination(1, TimeUnit.MINUTES));
+      Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30));
+      Assert.assertTrue(fr.isDone());
+      checkResult(fr.get());
+      Assert.assertFalse(executorService.isShutdown());
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private void checkResult(BatchLayoutEngine.Result<String> result) {
+    Assert.assertEquals(graph.nodes().size(), result.getNodes().size());
+    Assert.assertEquals(graph.nodes().size(), result.getX().length);
+    Assert.assertEquals(graph.nodes().size(), result.getY().length);
+    for (int i = 0; i < result.getX().length; i++) {
+      Assert.assertTrue(result.getX()[i] >= 0 && result.getX()[i] <= 500);
+      Assert.assertTrue(result.getY()[i] >= 0 && result.getY()[i] <= 500);
+    }
+  }
+
+  private LoadingCacheLayoutModel<String, TestPointModel.Point> newLayoutModel() {
+    return LoadingCacheLayoutModel.<String, TestPointModel.Point>builder()
+        .setGraph(graph)
+        .setPointModel(new TestPointModel())
+        .setSize(500, 500)
+        .build();
+  }
+}
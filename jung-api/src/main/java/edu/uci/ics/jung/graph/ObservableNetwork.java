@@ -2,6 +2,7 @@ package edu.uci.ics.jung.graph;
 
 import static java.util.Collections.synchronizedList;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.graph.ElementOrder;
 import com.google.common.graph.EndpointPair;
@@ -10,12 +11,22 @@ import com.google.common.graph.MutableNetwork;
 import edu.uci.ics.jung.graph.event.NetworkEvent;
 import edu.uci.ics.jung.graph.event.NetworkEventListener;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * A decorator class for graphs which generates events
  *
+ * <p>By default each change is reported to the listeners as it is made, on the thread that made it.
+ * Changes made between {@link #beginBatch()} and {@link #commitBatch()} are instead reported
+ * together, as a single {@link NetworkEvent.Batch} per commit, from which changes that were undone
+ * within the batch have been removed. Events may also be delivered asynchronously, by setting an
+ * {@link Executor}.
+ *
  * @author Joshua O'Madadhain
  */
 public class ObservableNetwork<V, E>
@@ -25,6 +36,12 @@ public class ObservableNetwork<V, E>
       synchronizedList(new ArrayList<NetworkEventListener<V, E>>());
   MutableNetwork<V, E> delegate;
 
+  private Executor executor;
+  private int batchDepth;
+  private final Set<NetworkEvent<V, E>> batchEvents = new LinkedHashSet<NetworkEvent<V, E>>();
+  private final Map<V, NetworkEvent<V, E>> batchAddedNodes = new HashMap<V, NetworkEvent<V, E>>();
+  private final Map<E, NetworkEvent<V, E>> batchAddedEdges = new HashMap<E, NetworkEvent<V, E>>();
+
   /**
    * Creates a new instance based on the provided {@code delegate}.
    *
@@ -52,18 +69,126 @@ public class ObservableNetwork<V, E>
     listenerList.remove(l);
   }
 
+  /**
+   * Sets the executor on which events are delivered to the listeners. If it is null (the default),
+   * events are delivered on the thread that changed the graph before the change method returns.
+   * Otherwise the listeners may run after further changes have been made, so they should not assume
+   * that the graph is still in the state the event describes; an executor that runs tasks one at a
+   * time, in order, preserves the order of the events.
+   *
+   * @param executor the executor for event delivery, or null to deliver events synchronously
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  /** @return the executor on which events are delivered, or null if they are delivered directly */
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Starts a batch of changes. Until the matching call to {@link #commitBatch()} no events are
+   * delivered; the changes are then reported together as one {@link NetworkEvent.Batch}. Batches
+   * may be nested, in which case the changes are reported when the outermost batch is committed.
+   */
+  public void beginBatch() {
+    batchDepth++;
+  }
+
+  /**
+   * Ends the batch of changes started by the matching call to {@link #beginBatch()}. If it is the
+   * outermost batch, and any of its changes were not undone within it, a {@link NetworkEvent.Batch}
+   * carrying those changes is delivered to the listeners.
+   *
+   * @throws IllegalStateException if no batch has been started
+   */
+  public void commitBatch() {
+    Preconditions.checkState(batchDepth > 0, "no batch has been started");
+    if (--batchDepth > 0) {
+      return;
+    }
+    List<NetworkEvent<V, E>> events = ImmutableList.copyOf(batchEvents);
+    batchEvents.clear();
+    batchAddedNodes.clear();
+    batchAddedEdges.clear();
+    if (!events.isEmpty()) {
+      deliver(new NetworkEvent.Batch<V, E>(delegate, events));
+    }
+  }
+
+  /** @return true if a batch has been started and not yet committed */
+  public boolean isBatching() {
+    return batchDepth > 0;
+  }
+
   protected void fireGraphEvent(NetworkEvent<V, E> evt) {
-    for (NetworkEventListener<V, E> listener : listenerList) {
+    if (batchDepth > 0) {
+      addToBatch(evt);
+    } else {
+      deliver(evt);
+    }
+  }
+
+  /** Records {@code evt} in the current batch, cancelling it against the change it undoes. */
+  private void addToBatch(NetworkEvent<V, E> evt) {
+    switch (evt.getType()) {
+      case VERTEX_ADDED:
+        batchAddedNodes.put(((NetworkEvent.Node<V, E>) evt).getNode(), evt);
+        break;
+      case VERTEX_REMOVED:
+        if (batchEvents.remove(batchAddedNodes.remove(((NetworkEvent.Node<V, E>) evt).getNode()))) {
+          return;
+        }
+        break;
+      case EDGE_ADDED:
+        batchAddedEdges.put(((NetworkEvent.Edge<V, E>) evt).getEdge(), evt);
+        break;
+      case EDGE_REMOVED:
+        if (batchEvents.remove(batchAddedEdges.remove(((NetworkEvent.Edge<V, E>) evt).getEdge()))) {
+          return;
+        }
+        break;
+      default:
+        break;
+    }
+    batchEvents.add(evt);
+  }
+
+  private void deliver(NetworkEvent<V, E> evt) {
+    if (executor == null) {
+      notifyListeners(evt);
+    } else {
+      executor.execute(() -> notifyListeners(evt));
+    }
+  }
+
+  private void notifyListeners(NetworkEvent<V, E> evt) {
+    List<NetworkEventListener<V, E>> listeners;
+    synchronized (listenerList) {
+      listeners = ImmutableList.copyOf(listenerList);
+    }
+    for (NetworkEventListener<V, E> listener : listeners) {
       listener.handleGraphEvent(evt);
     }
   }
 
   @Override
   public boolean addEdge(V v1, V v2, E e) {
+    // endpoints that are not yet in the graph are added by the delegate, and reported first
+    boolean new_v1 = !delegate.nodes().contains(v1);
+    boolean new_v2 = !delegate.nodes().contains(v2) && !v2.equals(v1);
     boolean state = delegate.addEdge(v1, v2, e);
     if (state) {
+      if (new_v1) {
+        fireGraphEvent(new NetworkEvent.Node<V, E>(delegate, NetworkEvent.Type.VERTEX_ADDED, v1));
+      }
+      if (new_v2) {
+        fireGraphEvent(new NetworkEvent.Node<V, E>(delegate, NetworkEvent.Type.VERTEX_ADDED, v2));
+      }
       NetworkEvent<V, E> evt =
-          new NetworkEvent.Edge<V, E>(delegate, NetworkEvent.Type.EDGE_ADDED, e);
+          new NetworkEvent.Edge<V, E>(
+              delegate, NetworkEvent.Type.EDGE_ADDED, e, delegate.incidentNodes(e));
       fireGraphEvent(evt);
     }
     return state;
@@ -82,10 +207,14 @@ public class ObservableNetwork<V, E>
 
   @Override
   public boolean removeEdge(E edge) {
+    if (!delegate.edges().contains(edge)) {
+      return false;
+    }
+    EndpointPair<V> endpoints = delegate.incidentNodes(edge);
     boolean state = delegate.removeEdge(edge);
     if (state) {
       NetworkEvent<V, E> evt =
-          new NetworkEvent.Edge<V, E>(delegate, NetworkEvent.Type.EDGE_REMOVED, (E) edge);
+          new NetworkEvent.Edge<V, E>(delegate, NetworkEvent.Type.EDGE_REMOVED, edge, endpoints);
       fireGraphEvent(evt);
     }
     return state;
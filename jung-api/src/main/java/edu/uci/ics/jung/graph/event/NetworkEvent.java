@@ -1,6 +1,9 @@
 package edu.uci.ics.jung.graph.event;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Network;
+import java.util.List;
 
 /**
  * @author tom nelson
@@ -29,7 +32,8 @@ public abstract class NetworkEvent<V, E> {
     VERTEX_ADDED,
     VERTEX_REMOVED,
     EDGE_ADDED,
-    EDGE_REMOVED
+    EDGE_REMOVED,
+    BATCH
   }
 
   /** An event type pertaining to graph vertices. */
@@ -62,6 +66,7 @@ public abstract class NetworkEvent<V, E> {
   /** An event type pertaining to graph edges. */
   public static class Edge<V, E> extends NetworkEvent<V, E> {
     protected E edge;
+    protected EndpointPair<V> endpoints;
 
     /**
      * Creates a graph event for the specified graph, edge, and type.
@@ -71,8 +76,21 @@ public abstract class NetworkEvent<V, E> {
      * @param edge the edge involved in this event
      */
     public Edge(Network<V, E> source, Type type, E edge) {
+      this(source, type, edge, null);
+    }
+
+    /**
+     * Creates a graph event for the specified graph, edge, endpoints, and type.
+     *
+     * @param source the graph whose event this is
+     * @param type the type of event this is
+     * @param edge the edge involved in this event
+     * @param endpoints the nodes incident to {@code edge}
+     */
+    public Edge(Network<V, E> source, Type type, E edge, EndpointPair<V> endpoints) {
       super(source, type);
       this.edge = edge;
+      this.endpoints = endpoints;
     }
 
     /** @return the edge associated with this event. */
@@ -80,12 +98,52 @@ public abstract class NetworkEvent<V, E> {
       return edge;
     }
 
+    /**
+     * Returns the nodes incident to the edge. Once an edge has been removed its endpoints can no
+     * longer be found from the source graph, so listeners that need them should use this method.
+     *
+     * @return the endpoints of the edge, or null if they were not supplied with this event
+     */
+    public EndpointPair<V> getEndpoints() {
+      return endpoints;
+    }
+
     @Override
     public String toString() {
       return "GraphEvent type:" + type + " for " + edge;
     }
   }
 
+  /**
+   * An event that carries the changes made to a graph during a batch, in the order they were made.
+   * A change that was undone later in the same batch, such as an edge added and then removed, is
+   * left out together with the change that undid it.
+   */
+  public static class Batch<V, E> extends NetworkEvent<V, E> {
+    protected List<NetworkEvent<V, E>> events;
+
+    /**
+     * Creates a batch event for the specified graph and changes.
+     *
+     * @param source the graph whose event this is
+     * @param events the events of the batch, none of which is itself a batch
+     */
+    public Batch(Network<V, E> source, List<? extends NetworkEvent<V, E>> events) {
+      super(source, Type.BATCH);
+      this.events = ImmutableList.copyOf(events);
+    }
+
+    /** @return the events of the batch, in the order the changes were made */
+    public List<NetworkEvent<V, E>> getEvents() {
+      return events;
+    }
+
+    @Override
+    public String toString() {
+      return "GraphEvent type:" + type + " of " + events.size() + " events";
+    }
+  }
+
   /** @return the source */
   public Network<V, E> getSource() {
     return source;
@@ -13,8 +13,8 @@ package edu.uci.ics.jung.graph.util;
 
 import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Network;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A class which creates and maintains indices for parallel edges. Parallel edges are defined here
@@ -22,13 +22,14 @@ import java.util.Map;
  * some <code>v</code> and <code>w</code>.
  *
  * <p>At this time, users are responsible for resetting the indices (by calling <code>reset()</code>
- * ) if changes to the graph make it appropriate.
+ * ) if changes to the graph make it appropriate. The indices may be requested from several threads
+ * at once.
  *
  * @author Joshua O'Madadhain
  * @author Tom Nelson
  */
 public class ParallelEdgeIndexFunction<V, E> implements EdgeIndexFunction<E> {
-  protected Map<E, Integer> edge_index = new HashMap<E, Integer>();
+  protected Map<E, Integer> edge_index = new ConcurrentHashMap<E, Integer>();
   protected Network<V, E> graph;
 
   /** @param graph the graph for which this index function is defined */
@@ -44,9 +45,11 @@ public class ParallelEdgeIndexFunction<V, E> implements EdgeIndexFunction<E> {
       V v = endpoints.nodeV();
       int count = 0;
       for (E connectingEdge : graph.edgesConnecting(u, v)) {
+        if (connectingEdge.equals(edge)) {
+          index = count;
+        }
         edge_index.put(connectingEdge, count++);
       }
-      return edge_index.get(edge);
     }
     return index;
   }
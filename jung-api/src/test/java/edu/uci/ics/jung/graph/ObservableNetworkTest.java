@@ -0,0 +1,104 @@
+package edu.uci.ics.jung.graph;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.graph.event.NetworkEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ObservableNetworkTest {
+
+  private final List<NetworkEvent<String, Integer>> events = new ArrayList<>();
+
+  private ObservableNetwork<String, Integer> createNetwork() {
+    ObservableNetwork<String, Integer> network =
+        new ObservableNetwork<>(NetworkBuilder.directed().<String, Integer>build());
+    network.addGraphEventListener(events::add);
+    return network;
+  }
+
+  @Test
+  public void testUnbatched() {
+    ObservableNetwork<String, Integer> network = createNetwork();
+    network.addNode("a");
+    network.addEdge("a", "b", 1);
+    network.removeNode("a");
+    // the edge adds node "b" too
+    Assert.assertEquals(5, events.size());
+    Assert.assertEquals("b", ((NetworkEvent.Node<String, Integer>) events.get(1)).getNode());
+    Assert.assertEquals(NetworkEvent.Type.EDGE_REMOVED, events.get(3).getType());
+    Assert.assertEquals(
+        EndpointPair.ordered("a", "b"),
+        ((NetworkEvent.Edge<String, Integer>) events.get(3)).getEndpoints());
+  }
+
+  @Test
+  public void testBatch() {
+    ObservableNetwork<String, Integer> network = createNetwork();
+    network.addNode("x");
+    events.clear();
+
+    network.beginBatch();
+    network.addEdge("a", "b", 1);
+    network.addEdge("b", "c", 2);
+    network.beginBatch();
+    network.addNode("d");
+    network.removeEdge(1);
+    network.commitBatch();
+    network.removeNode("x");
+    Assert.assertTrue(events.isEmpty());
+    network.commitBatch();
+    Assert.assertFalse(network.isBatching());
+
+    Assert.assertEquals(1, events.size());
+    NetworkEvent.Batch<String, Integer> batch = (NetworkEvent.Batch<String, Integer>) events.get(0);
+    Assert.assertEquals(NetworkEvent.Type.BATCH, batch.getType());
+    // the addition and removal of edge 1 cancel out
+    List<NetworkEvent<String, Integer>> changes = batch.getEvents();
+    Assert.assertEquals(6, changes.size());
+    Assert.assertEquals("a", ((NetworkEvent.Node<String, Integer>) changes.get(0)).getNode());
+    Assert.assertEquals("b", ((NetworkEvent.Node<String, Integer>) changes.get(1)).getNode());
+    Assert.assertEquals("c", ((NetworkEvent.Node<String, Integer>) changes.get(2)).getNode());
+    Assert.assertEquals(
+        Integer.valueOf(2), ((NetworkEvent.Edge<String, Integer>) changes.get(3)).getEdge());
+    Assert.assertEquals("d", ((NetworkEvent.Node<String, Integer>) changes.get(4)).getNode());
+    Assert.assertEquals(NetworkEvent.Type.VERTEX_REMOVED, changes.get(5).getType());
+  }
+
+  @Test
+  public void testCancelledBatch() {
+    ObservableNetwork<String, Integer> network = createNetwork();
+    network.beginBatch();
+    network.addEdge("a", "b", 1);
+    network.removeNode("a");
+    network.removeNode("b");
+    network.commitBatch();
+    Assert.assertTrue(events.isEmpty());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCommitWithoutBegin() {
+    createNetwork().commitBatch();
+  }
+
+  @Test
+  public void testExecutor() throws InterruptedException {
+    ObservableNetwork<String, Integer> network = createNetwork();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    List<Thread> threads = new ArrayList<>();
+    network.addGraphEventListener(evt -> threads.add(Thread.currentThread()));
+    network.setExecutor(executor);
+    network.beginBatch();
+    network.addEdge("a", "b", 1);
+    network.commitBatch();
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    Assert.assertEquals(1, events.size());
+    Assert.assertNotEquals(Thread.currentThread(), threads.get(0));
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.graph;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+
+/**
+ * An immutable {@link Network} that stores its nodes and edges in dense arrays, indexed by int,
+ * rather than in per-node maps of edge sets.
+ *
+ * <p>Each node and edge is assigned the index of its position in the iteration order of the network
+ * it was copied from. The endpoints of edge <code>e</code> are stored as the node indices <code>
+ * source[e]</code> and <code>target[e]</code>, and the edges incident to each node are stored in
+ * compressed sparse row (CSR) form: the outgoing edges of node <code>n</code> are in the range
+ * <code>[outOffsets[n], outOffsets[n + 1])</code> of a single array, sorted by the index of the
+ * node at their other end, alongside the indices of those nodes. Directed networks keep a second
+ * set of rows for the incoming edges; in undirected networks a single set of rows holds the
+ * incident edges of each node, and a self-loop appears once in the row of its node. Nodes and edges
+ * are found by their index in open-addressed hash tables of int.
+ *
+ * <p>The sets returned by the accessors are views over these arrays, so no collections are
+ * allocated per node; {@code edgesConnecting} and the membership tests of the neighbor sets are
+ * binary searches within a row. Iterating over the neighbors or edges of a node reads consecutive
+ * array elements.
+ *
+ * <p>Instances are created with {@link #copyOf(Network)}. Nodes and edges must not change their
+ * {@code hashCode()} while they are in the network.
+ *
+ * @param <N> the node type
+ * @param <E> the edge type
+ */
+public final class CompactNetwork<N, E> extends CsrNetwork<N, E> {
+
+  /** The node index of the source (or first endpoint) of each edge. */
+  private final int[] sources;
+
+  /** The node index of the target (or second endpoint) of each edge. */
+  private final int[] targets;
+
+  /** The outgoing (if undirected, incident) edges of each node, and the nodes at their far end. */
+  private final int[] outOffsets;
+
+  private final int[] outEdges;
+  private final int[] outNeighbors;
+
+  /** The incoming edges of each node, and their sources; the same arrays as above if undirected. */
+  private final int[] inOffsets;
+
+  private final int[] inEdges;
+  private final int[] inNeighbors;
+
+  private CompactNetwork(
+      Network<N, E> network,
+      ElementIndex<N> nodeIndex,
+      ElementIndex<E> edgeIndex,
+      int[] sources,
+      int[] targets,
+      Rows out,
+      Rows in) {
+    super(
+        network.isDirected(),
+        network.allowsParallelEdges(),
+        network.allowsSelfLoops(),
+        nodeIndex,
+        edgeIndex);
+    this.sources = sources;
+    this.targets = targets;
+    this.outOffsets = out.offsets;
+    this.outEdges = out.edges;
+    this.outNeighbors = out.neighbors;
+    this.inOffsets = in.offsets;
+    this.inEdges = in.edges;
+    this.inNeighbors = in.neighbors;
+  }
+
+  /**
+   * Returns an immutable copy of <code>network</code>, with the same nodes, edges, and incidence
+   * relations. The nodes and edges keep the iteration order they have in <code>network</code>.
+   *
+   * @param network the network to copy
+   * @return a compact copy of the network, or <code>network</code> itself if it is a {@code
+   *     CompactNetwork}
+   */
+  public static <N, E> CompactNetwork<N, E> copyOf(Network<N, E> network) {
+    if (network instanceof CompactNetwork) {
+      return (CompactNetwork<N, E>) network;
+    }
+    ElementIndex<N> nodeIndex = new ElementIndex<>(network.nodes().toArray());
+    ElementIndex<E> edgeIndex = new ElementIndex<>(network.edges().toArray());
+    int edgeCount = edgeIndex.size();
+    int[] sources = new int[edgeCount];
+    int[] targets = new int[edgeCount];
+    for (int e = 0; e < edgeCount; e++) {
+      EndpointPair<N> endpoints = network.incidentNodes(edgeIndex.get(e));
+      sources[e] = nodeIndex.indexOf(endpoints.nodeU());
+      targets[e] = nodeIndex.indexOf(endpoints.nodeV());
+    }
+    int nodeCount = nodeIndex.size();
+    boolean directed = network.isDirected();
+    Rows out = Rows.of(sources, targets, !directed, nodeCount);
+    Rows in = directed ? Rows.of(targets, sources, false, nodeCount) : out;
+    return new CompactNetwork<>(network, nodeIndex, edgeIndex, sources, targets, out, in);
+  }
+
+  @Override
+  int source(int e) {
+    return sources[e];
+  }
+
+  @Override
+  int target(int e) {
+    return targets[e];
+  }
+
+  @Override
+  int outOffset(int n) {
+    return outOffsets[n];
+  }
+
+  @Override
+  int outEdge(int position) {
+    return outEdges[position];
+  }
+
+  @Override
+  int outNeighbor(int position) {
+    return outNeighbors[position];
+  }
+
+  @Override
+  int inOffset(int n) {
+    return inOffsets[n];
+  }
+
+  @Override
+  int inEdge(int position) {
+    return inEdges[position];
+  }
+
+  @Override
+  int inNeighbor(int position) {
+    return inNeighbors[position];
+  }
+
+  /**
+   * An array of distinct elements, with an open-addressed hash table from each element to its
+   * position in the array.
+   */
+  private static final class ElementIndex<T> implements Elements<T> {
+    private final Object[] elements;
+
+    /** The index of each element plus one, at the slot its hash probes to; zero if empty. */
+    private final int[] slots;
+
+    private final int mask;
+
+    ElementIndex(Object[] elements) {
+      this.elements = elements;
+      int capacity = Integer.highestOneBit(Math.max(2 * elements.length, 2) - 1) << 1;
+      this.slots = new int[capacity];
+      this.mask = capacity - 1;
+      for (int i = 0; i < elements.length; i++) {
+        int slot = smear(elements[i].hashCode()) & mask;
+        while (slots[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        slots[slot] = i + 1;
+      }
+    }
+
+    private static int smear(int hashCode) {
+      // the multiplier is the same as that used by Guava's Hashing.smear()
+      return 0x1b873593 * Integer.rotateLeft(hashCode * 0xcc9e2d51, 15);
+    }
+
+    @Override
+    public int size() {
+      return elements.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+      return (T) elements[index];
+    }
+
+    @Override
+    public int indexOf(Object o) {
+      if (o == null) {
+        return -1;
+      }
+      int slot = smear(o.hashCode()) & mask;
+      for (int index = slots[slot]; index != 0; index = slots[slot]) {
+        if (o.equals(elements[index - 1])) {
+          return index - 1;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,574 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.graph;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
+import com.google.common.graph.AbstractNetwork;
+import com.google.common.graph.ElementOrder;
+import com.google.common.graph.EndpointPair;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The accessors of a read-only network stored in compressed sparse row (CSR) form, shared by {@link
+ * CompactNetwork}, which holds its arrays on the heap, and {@link MappedNetwork}, which reads them
+ * from a mapped file.
+ *
+ * <p>Nodes and edges are identified by their int index. The endpoints of edge <code>e</code> are
+ * the nodes <code>sources[e]</code> and <code>targets[e]</code>. The outgoing edges of node <code>
+ * n</code> are in positions <code>[outOffsets[n], outOffsets[n + 1])</code> of <code>outEdges
+ * </code>, sorted by the node at their far end, which is held at the same position of <code>
+ * outNeighbors</code>. Directed networks keep a second set of rows for the incoming edges; in
+ * undirected networks the <code>in</code> arrays are the <code>out</code> arrays, whose rows hold
+ * the incident edges of each node, and a self-loop appears once in the row of its node.
+ *
+ * <p>The sets returned are views over the arrays; {@code edgesConnecting} and the membership tests
+ * of the neighbor sets are binary searches within a row.
+ *
+ * @param <N> the node type
+ * @param <E> the edge type
+ */
+abstract class CsrNetwork<N, E> extends AbstractNetwork<N, E> {
+
+  /** The node or edge at each index, and the index of each node or edge. */
+  interface Elements<T> {
+    int size();
+
+    T get(int index);
+
+    /** @return the index of <code>o</code>, or -1 if it is not an element */
+    int indexOf(Object o);
+  }
+
+  private final boolean directed;
+  private final boolean allowsParallelEdges;
+  private final boolean allowsSelfLoops;
+  private final Elements<N> nodes;
+  private final Elements<E> edges;
+
+  CsrNetwork(
+      boolean directed,
+      boolean allowsParallelEdges,
+      boolean allowsSelfLoops,
+      Elements<N> nodes,
+      Elements<E> edges) {
+    this.directed = directed;
+    this.allowsParallelEdges = allowsParallelEdges;
+    this.allowsSelfLoops = allowsSelfLoops;
+    this.nodes = nodes;
+    this.edges = edges;
+  }
+
+  /**
+   * The CSR rows of the edges, as parallel arrays: the edges in row <code>n</code> are in positions
+   * <code>[offsets[n], offsets[n + 1])</code> of <code>edges</code>, and the nodes at their far end
+   * in the same positions of <code>neighbors</code>.
+   */
+  static final class Rows {
+    final int[] offsets;
+    final int[] edges;
+    final int[] neighbors;
+
+    private Rows(int nodeCount, int entries) {
+      this.offsets = new int[nodeCount + 1];
+      this.edges = new int[entries];
+      this.neighbors = new int[entries];
+    }
+
+    /**
+     * @return the rows of the edges from <code>rows</code> to <code>columns</code>, and if <code>
+     *     symmetric</code> also those in the opposite direction, with each row sorted by column
+     */
+    static Rows of(int[] rows, int[] columns, boolean symmetric, int nodeCount) {
+      int entryCount = rows.length;
+      if (symmetric) {
+        for (int e = 0; e < rows.length; e++) {
+          if (rows[e] != columns[e]) {
+            entryCount++;
+          }
+        }
+      }
+      Rows result = new Rows(nodeCount, entryCount);
+      int[] offsets = result.offsets;
+      for (int e = 0; e < rows.length; e++) {
+        offsets[rows[e] + 1]++;
+        if (symmetric && rows[e] != columns[e]) {
+          offsets[columns[e] + 1]++;
+        }
+      }
+      for (int n = 0; n < nodeCount; n++) {
+        offsets[n + 1] += offsets[n];
+      }
+
+      // each entry is packed as (column, edge) so that sorting orders a row by column, then edge
+      long[] entries = new long[entryCount];
+      int[] next = Arrays.copyOf(offsets, nodeCount);
+      for (int e = 0; e < rows.length; e++) {
+        entries[next[rows[e]]++] = ((long) columns[e] << 32) | e;
+        if (symmetric && rows[e] != columns[e]) {
+          entries[next[columns[e]]++] = ((long) rows[e] << 32) | e;
+        }
+      }
+      for (int n = 0; n < nodeCount; n++) {
+        Arrays.sort(entries, offsets[n], offsets[n + 1]);
+      }
+      for (int i = 0; i < entries.length; i++) {
+        result.neighbors[i] = (int) (entries[i] >>> 32);
+        result.edges[i] = (int) entries[i];
+      }
+      return result;
+    }
+  }
+
+  // The arrays are read through these methods, which each network implements over its own
+  // storage, rather than through a shared interface, so that the reads in the loops below stay
+  // calls that the JIT can inline.
+
+  /** @return the node index of the source (or first endpoint) of edge <code>e</code> */
+  abstract int source(int e);
+
+  /** @return the node index of the target (or second endpoint) of edge <code>e</code> */
+  abstract int target(int e);
+
+  /** @return <code>outOffsets[n]</code> */
+  abstract int outOffset(int n);
+
+  /** @return <code>outEdges[position]</code> */
+  abstract int outEdge(int position);
+
+  /** @return <code>outNeighbors[position]</code> */
+  abstract int outNeighbor(int position);
+
+  /** @return <code>inOffsets[n]</code> */
+  abstract int inOffset(int n);
+
+  /** @return <code>inEdges[position]</code> */
+  abstract int inEdge(int position);
+
+  /** @return <code>inNeighbors[position]</code> */
+  abstract int inNeighbor(int position);
+
+  /** @return the start of the outgoing (or incoming) row of node <code>n</code> */
+  private int offset(boolean out, int n) {
+    return out ? outOffset(n) : inOffset(n);
+  }
+
+  /** @return the edge at <code>position</code> of the outgoing (or incoming) rows */
+  private int rowEdge(boolean out, int position) {
+    return out ? outEdge(position) : inEdge(position);
+  }
+
+  /** @return the node at the far end of the edge at <code>position</code> */
+  private int neighbor(boolean out, int position) {
+    return out ? outNeighbor(position) : inNeighbor(position);
+  }
+
+  /**
+   * @return the first position in <code>[from, to)</code> whose neighbor is at least <code>key
+   *     </code>
+   */
+  private int lowerBound(boolean out, int from, int to, int key) {
+    while (from < to) {
+      int mid = (from + to) >>> 1;
+      if (neighbor(out, mid) < key) {
+        from = mid + 1;
+      } else {
+        to = mid;
+      }
+    }
+    return from;
+  }
+
+  /** @return the first position after <code>position</code> with a different neighbor */
+  private int nextDistinct(boolean out, int position, int end) {
+    int neighbor = neighbor(out, position);
+    while (position < end && neighbor(out, position) == neighbor) {
+      position++;
+    }
+    return position;
+  }
+
+  private int rowSize(boolean out, int n) {
+    return offset(out, n + 1) - offset(out, n);
+  }
+
+  /** @return the number of self-loops incident to node <code>n</code> */
+  private int selfLoops(int n) {
+    int end = offset(true, n + 1);
+    int from = lowerBound(true, offset(true, n), end, n);
+    return lowerBound(true, from, end, n + 1) - from;
+  }
+
+  private int checkedNodeIndex(Object node) {
+    int index = nodes.indexOf(node);
+    Preconditions.checkArgument(index >= 0, "Node %s is not an element of this graph.", node);
+    return index;
+  }
+
+  private int checkedEdgeIndex(Object edge) {
+    int index = edges.indexOf(edge);
+    Preconditions.checkArgument(index >= 0, "Edge %s is not an element of this graph.", edge);
+    return index;
+  }
+
+  @Override
+  public Set<N> nodes() {
+    return new AllElementsSet<>(nodes);
+  }
+
+  @Override
+  public Set<E> edges() {
+    return new AllElementsSet<>(edges);
+  }
+
+  @Override
+  public boolean isDirected() {
+    return directed;
+  }
+
+  @Override
+  public boolean allowsParallelEdges() {
+    return allowsParallelEdges;
+  }
+
+  @Override
+  public boolean allowsSelfLoops() {
+    return allowsSelfLoops;
+  }
+
+  @Override
+  public ElementOrder<N> nodeOrder() {
+    return ElementOrder.insertion();
+  }
+
+  @Override
+  public ElementOrder<E> edgeOrder() {
+    return ElementOrder.insertion();
+  }
+
+  @Override
+  public Set<N> adjacentNodes(N node) {
+    int n = checkedNodeIndex(node);
+    if (!directed) {
+      return new NeighborSet(true, n);
+    }
+    Set<N> successors = new NeighborSet(true, n);
+    Set<N> predecessors = new NeighborSet(false, n);
+    return new AbstractSet<N>() {
+      @Override
+      public int size() {
+        return Iterators.size(iterator());
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return successors.contains(o) || predecessors.contains(o);
+      }
+
+      @Override
+      public Iterator<N> iterator() {
+        // the successors, then the predecessors that are not also successors
+        return Iterators.concat(
+            successors.iterator(),
+            Iterators.filter(predecessors.iterator(), p -> !successors.contains(p)));
+      }
+    };
+  }
+
+  @Override
+  public Set<N> predecessors(N node) {
+    return new NeighborSet(false, checkedNodeIndex(node));
+  }
+
+  @Override
+  public Set<N> successors(N node) {
+    return new NeighborSet(true, checkedNodeIndex(node));
+  }
+
+  @Override
+  public Set<E> incidentEdges(N node) {
+    int n = checkedNodeIndex(node);
+    if (!directed) {
+      return new RowEdgeSet(true, n, true, true);
+    }
+    int outStart = offset(true, n);
+    int outEnd = offset(true, n + 1);
+    int inStart = offset(false, n);
+    int inEnd = offset(false, n + 1);
+    int size = outEnd - outStart + inEnd - inStart - selfLoops(n);
+    return new AbstractSet<E>() {
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        int e = edges.indexOf(o);
+        return e >= 0 && (source(e) == n || target(e) == n);
+      }
+
+      @Override
+      public Iterator<E> iterator() {
+        // the outgoing edges, then the incoming edges that are not self-loops
+        return new Iterator<E>() {
+          private int outPosition = outStart;
+          private int inPosition = inStart;
+          private int remaining = size;
+
+          @Override
+          public boolean hasNext() {
+            return remaining > 0;
+          }
+
+          @Override
+          public E next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            remaining--;
+            if (outPosition < outEnd) {
+              return edges.get(rowEdge(true, outPosition++));
+            }
+            while (neighbor(false, inPosition) == n) {
+              inPosition++;
+            }
+            return edges.get(rowEdge(false, inPosition++));
+          }
+        };
+      }
+    };
+  }
+
+  @Override
+  public Set<E> inEdges(N node) {
+    return new RowEdgeSet(false, checkedNodeIndex(node), !directed, true);
+  }
+
+  @Override
+  public Set<E> outEdges(N node) {
+    return new RowEdgeSet(true, checkedNodeIndex(node), true, !directed);
+  }
+
+  @Override
+  public int degree(N node) {
+    int n = checkedNodeIndex(node);
+    if (directed) {
+      return rowSize(true, n) + rowSize(false, n);
+    }
+    // a self-loop is stored once, but counts twice
+    return rowSize(true, n) + selfLoops(n);
+  }
+
+  @Override
+  public int inDegree(N node) {
+    return directed ? rowSize(false, checkedNodeIndex(node)) : degree(node);
+  }
+
+  @Override
+  public int outDegree(N node) {
+    return directed ? rowSize(true, checkedNodeIndex(node)) : degree(node);
+  }
+
+  @Override
+  public EndpointPair<N> incidentNodes(E edge) {
+    int e = checkedEdgeIndex(edge);
+    N source = nodes.get(source(e));
+    N target = nodes.get(target(e));
+    return directed ? EndpointPair.ordered(source, target) : EndpointPair.unordered(source, target);
+  }
+
+  @Override
+  public Set<E> edgesConnecting(N nodeU, N nodeV) {
+    int u = checkedNodeIndex(nodeU);
+    int v = checkedNodeIndex(nodeV);
+    // the edges from u to v are found in the outgoing row of u
+    int end = offset(true, u + 1);
+    int from = lowerBound(true, offset(true, u), end, v);
+    int to = lowerBound(true, from, end, v + 1);
+    return new RowEdgeSet(true, u, from, to, true, !directed) {
+      @Override
+      public boolean contains(Object o) {
+        int e = edges.indexOf(o);
+        return e >= 0
+            && ((source(e) == u && target(e) == v)
+                || (!directed && source(e) == v && target(e) == u));
+      }
+    };
+  }
+
+  /** An unmodifiable set view whose elements are identified by an int index, listed by position. */
+  private abstract static class IndexSet<T> extends AbstractSet<T> {
+    /** @return the index of the element at <code>position</code> */
+    abstract int index(int position);
+
+    abstract T element(int index);
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Iterator<T>() {
+        private int position = 0;
+
+        @Override
+        public boolean hasNext() {
+          return position < size();
+        }
+
+        @Override
+        public T next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return element(index(position++));
+        }
+      };
+    }
+  }
+
+  /** All of the nodes or all of the edges, in index order. */
+  private static final class AllElementsSet<T> extends IndexSet<T> {
+    private final Elements<T> elements;
+
+    AllElementsSet(Elements<T> elements) {
+      this.elements = elements;
+    }
+
+    @Override
+    public int size() {
+      return elements.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return elements.indexOf(o) >= 0;
+    }
+
+    @Override
+    int index(int position) {
+      return position;
+    }
+
+    @Override
+    T element(int index) {
+      return elements.get(index);
+    }
+  }
+
+  /**
+   * The edges in positions <code>[from, to)</code> of the outgoing (or incoming) rows, which are in
+   * the row of node <code>n</code>, and so have it as their source if <code>asSource</code> or as
+   * their target if <code>asTarget</code>.
+   */
+  private class RowEdgeSet extends IndexSet<E> {
+    private final boolean out;
+    private final int from;
+    private final int to;
+    private final int n;
+    private final boolean asSource;
+    private final boolean asTarget;
+
+    /** The edges in the whole row of node <code>n</code>. */
+    RowEdgeSet(boolean out, int n, boolean asSource, boolean asTarget) {
+      this(out, n, offset(out, n), offset(out, n + 1), asSource, asTarget);
+    }
+
+    RowEdgeSet(boolean out, int n, int from, int to, boolean asSource, boolean asTarget) {
+      this.out = out;
+      this.from = from;
+      this.to = to;
+      this.n = n;
+      this.asSource = asSource;
+      this.asTarget = asTarget;
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      int e = edges.indexOf(o);
+      return e >= 0 && ((asSource && source(e) == n) || (asTarget && target(e) == n));
+    }
+
+    @Override
+    int index(int position) {
+      return rowEdge(out, from + position);
+    }
+
+    @Override
+    E element(int index) {
+      return edges.get(index);
+    }
+  }
+
+  /** The distinct nodes at the far end of the edges in the outgoing (or incoming) row of a node. */
+  private final class NeighborSet extends AbstractSet<N> {
+    private final boolean out;
+    private final int n;
+
+    NeighborSet(boolean out, int n) {
+      this.out = out;
+      this.n = n;
+    }
+
+    @Override
+    public int size() {
+      if (!allowsParallelEdges) {
+        return rowSize(out, n);
+      }
+      int end = offset(out, n + 1);
+      int size = 0;
+      for (int i = offset(out, n); i < end; i = nextDistinct(out, i, end)) {
+        size++;
+      }
+      return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      int other = nodes.indexOf(o);
+      if (other < 0) {
+        return false;
+      }
+      int end = offset(out, n + 1);
+      int position = lowerBound(out, offset(out, n), end, other);
+      return position < end && neighbor(out, position) == other;
+    }
+
+    @Override
+    public Iterator<N> iterator() {
+      int end = offset(out, n + 1);
+      return new Iterator<N>() {
+        private int position = offset(out, n);
+
+        @Override
+        public boolean hasNext() {
+          return position < end;
+        }
+
+        @Override
+        public N next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          int other = neighbor(out, position);
+          position = nextDistinct(out, position, end);
+          return nodes.get(other);
+        }
+      };
+    }
+  }
+}
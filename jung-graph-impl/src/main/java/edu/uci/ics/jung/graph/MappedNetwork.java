@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.graph;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A read-only {@link Network} whose adjacency is read directly from a file mapped into memory, so
+ * that opening it copies nothing onto the heap. The mapped pages are shared, through the operating
+ * system's page cache, by every process that maps the same file.
+ *
+ * <p>The nodes and edges are the <code>Integer</code> indices <code>0 .. n-1</code> and <code>
+ * 0 .. m-1</code>, assigned by {@link #write(Network, Path)} in the iteration order of the network
+ * that was written. The file holds the same arrays as a {@link CompactNetwork}: the endpoints of
+ * each edge, and the edges incident to each node in compressed sparse row form, sorted by the node
+ * at their other end. Since the arrays are fixed-width, every accessor reads the mapping in place;
+ * the sets returned are views, and membership tests in neighbor sets are binary searches.
+ *
+ * <p>Files larger than 2 GB are mapped in several segments. The indices are ints, so a network may
+ * have at most <code>Integer.MAX_VALUE</code> nodes, and (if undirected) at most <code>
+ * Integer.MAX_VALUE / 2</code> edges.
+ */
+public final class MappedNetwork extends CsrNetwork<Integer, Integer> {
+  private static final int MAGIC = 0x4A4D_4746; // "JMGF"
+  private static final int VERSION = 1;
+  private static final int HEADER_INTS = 6;
+
+  private static final int FLAG_DIRECTED = 1;
+  private static final int FLAG_PARALLEL_EDGES = 1 << 1;
+  private static final int FLAG_SELF_LOOPS = 1 << 2;
+
+  private final MappedIntArray sources;
+  private final MappedIntArray targets;
+  private final MappedIntArray outOffsets;
+  private final MappedIntArray outEdges;
+  private final MappedIntArray outNeighbors;
+  private final MappedIntArray inOffsets;
+  private final MappedIntArray inEdges;
+  private final MappedIntArray inNeighbors;
+
+  private MappedNetwork(
+      int flags,
+      int nodeCount,
+      int edgeCount,
+      MappedIntArray sources,
+      MappedIntArray targets,
+      MappedIntArray outOffsets,
+      MappedIntArray outEdges,
+      MappedIntArray outNeighbors,
+      MappedIntArray inOffsets,
+      MappedIntArray inEdges,
+      MappedIntArray inNeighbors) {
+    super(
+        (flags & FLAG_DIRECTED) != 0,
+        (flags & FLAG_PARALLEL_EDGES) != 0,
+        (flags & FLAG_SELF_LOOPS) != 0,
+        new IndexRange(nodeCount),
+        new IndexRange(edgeCount));
+    this.sources = sources;
+    this.targets = targets;
+    this.outOffsets = outOffsets;
+    this.outEdges = outEdges;
+    this.outNeighbors = outNeighbors;
+    this.inOffsets = inOffsets;
+    this.inEdges = inEdges;
+    this.inNeighbors = inNeighbors;
+  }
+
+  /** Checks the header of the file open on <code>channel</code>, then maps its arrays. */
+  private static MappedNetwork map(FileChannel channel) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+    while (header.hasRemaining()) {
+      if (channel.read(header) < 0) {
+        throw new IOException("Truncated header");
+      }
+    }
+    header.flip();
+    if (header.getInt() != MAGIC) {
+      throw new IOException("Not a mapped network file");
+    }
+    int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported mapped network version: " + version);
+    }
+    int flags = header.getInt();
+    boolean directed = (flags & FLAG_DIRECTED) != 0;
+    int nodeCount = header.getInt();
+    int edgeCount = header.getInt();
+    int entries = header.getInt();
+
+    long expected =
+        4L
+            * (HEADER_INTS
+                + 2L * edgeCount
+                + (nodeCount + 1L + 2L * entries)
+                + (directed ? nodeCount + 1L + 2L * edgeCount : 0));
+    if (nodeCount < 0 || edgeCount < 0 || entries < 0 || channel.size() != expected) {
+      throw new IOException("Mapped network file has the wrong size: " + channel.size());
+    }
+
+    long position = 4L * HEADER_INTS;
+    MappedIntArray sources = new MappedIntArray(channel, position, edgeCount);
+    MappedIntArray targets = new MappedIntArray(channel, position += 4L * edgeCount, edgeCount);
+    MappedIntArray outOffsets =
+        new MappedIntArray(channel, position += 4L * edgeCount, nodeCount + 1);
+    MappedIntArray outEdges =
+        new MappedIntArray(channel, position += 4L * (nodeCount + 1), entries);
+    MappedIntArray outNeighbors = new MappedIntArray(channel, position += 4L * entries, entries);
+    if (!directed) {
+      return new MappedNetwork(
+          flags,
+          nodeCount,
+          edgeCount,
+          sources,
+          targets,
+          outOffsets,
+          outEdges,
+          outNeighbors,
+          outOffsets,
+          outEdges,
+          outNeighbors);
+    }
+    position += 4L * entries;
+    MappedIntArray inOffsets = new MappedIntArray(channel, position, nodeCount + 1);
+    MappedIntArray inEdges =
+        new MappedIntArray(channel, position += 4L * (nodeCount + 1), edgeCount);
+    MappedIntArray inNeighbors = new MappedIntArray(channel, position += 4L * edgeCount, edgeCount);
+    return new MappedNetwork(
+        flags,
+        nodeCount,
+        edgeCount,
+        sources,
+        targets,
+        outOffsets,
+        outEdges,
+        outNeighbors,
+        inOffsets,
+        inEdges,
+        inNeighbors);
+  }
+
+  /**
+   * Maps the network in <code>file</code>, which must have been written by {@link #write(Network,
+   * Path)}. The file must not be modified while the network is in use.
+   *
+   * @param file the file to map
+   * @return a network backed by the mapped file
+   * @throws IOException if the file cannot be mapped, or is not a mapped network file
+   */
+  public static MappedNetwork open(Path file) throws IOException {
+    // the mappings remain valid after the channel is closed
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return map(channel);
+    }
+  }
+
+  /**
+   * Writes <code>network</code> to <code>file</code> in the form read by {@link #open(Path)}. Node
+   * <code>i</code> of the mapped network is the <code>i</code>th node, and edge <code>j</code> the
+   * <code>j</code>th edge, in the iteration order of <code>network</code>.
+   *
+   * @param network the network to write
+   * @param file the file to write it to
+   * @throws IOException if the file cannot be written
+   */
+  public static <N, E> void write(Network<N, E> network, Path file) throws IOException {
+    Map<N, Integer> nodeIndex = new HashMap<>();
+    for (N node : network.nodes()) {
+      nodeIndex.put(node, nodeIndex.size());
+    }
+    int nodeCount = nodeIndex.size();
+    int edgeCount = network.edges().size();
+    int[] sources = new int[edgeCount];
+    int[] targets = new int[edgeCount];
+    int e = 0;
+    for (E edge : network.edges()) {
+      EndpointPair<N> endpoints = network.incidentNodes(edge);
+      sources[e] = nodeIndex.get(endpoints.nodeU());
+      targets[e] = nodeIndex.get(endpoints.nodeV());
+      e++;
+    }
+
+    boolean directed = network.isDirected();
+    Rows out = Rows.of(sources, targets, !directed, nodeCount);
+    int flags =
+        (directed ? FLAG_DIRECTED : 0)
+            | (network.allowsParallelEdges() ? FLAG_PARALLEL_EDGES : 0)
+            | (network.allowsSelfLoops() ? FLAG_SELF_LOOPS : 0);
+
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      IntWriter writer = new IntWriter(channel);
+      writer.write(new int[] {MAGIC, VERSION, flags, nodeCount, edgeCount, out.edges.length});
+      writer.write(sources);
+      writer.write(targets);
+
+      writer.write(out.offsets);
+      writer.write(out.edges);
+      writer.write(out.neighbors);
+      if (directed) {
+        Rows in = Rows.of(targets, sources, false, nodeCount);
+        writer.write(in.offsets);
+        writer.write(in.edges);
+        writer.write(in.neighbors);
+      }
+      writer.flush();
+    }
+  }
+
+  @Override
+  int source(int e) {
+    return sources.get(e);
+  }
+
+  @Override
+  int target(int e) {
+    return targets.get(e);
+  }
+
+  @Override
+  int outOffset(int n) {
+    return outOffsets.get(n);
+  }
+
+  @Override
+  int outEdge(int position) {
+    return outEdges.get(position);
+  }
+
+  @Override
+  int outNeighbor(int position) {
+    return outNeighbors.get(position);
+  }
+
+  @Override
+  int inOffset(int n) {
+    return inOffsets.get(n);
+  }
+
+  @Override
+  int inEdge(int position) {
+    return inEdges.get(position);
+  }
+
+  @Override
+  int inNeighbor(int position) {
+    return inNeighbors.get(position);
+  }
+
+  /** The integers in <code>[0, size)</code>, each of which is its own index. */
+  private static final class IndexRange implements Elements<Integer> {
+    private final int size;
+
+    IndexRange(int size) {
+      this.size = size;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Integer get(int index) {
+      return index;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+      return o instanceof Integer && (Integer) o >= 0 && (Integer) o < size ? (Integer) o : -1;
+    }
+  }
+
+  /**
+   * A read-only array of little-endian ints in a region of a file, mapped in segments of at most
+   * 2^28 ints (1 GB) since a single mapping is limited to 2 GB.
+   */
+  private static final class MappedIntArray {
+    private static final int SEGMENT_SHIFT = 28;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private final IntBuffer[] segments;
+
+    MappedIntArray(FileChannel channel, long position, int length) throws IOException {
+      int segmentCount = (int) (((long) length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+      this.segments = new IntBuffer[segmentCount];
+      for (int s = 0; s < segmentCount; s++) {
+        long start = (long) s << SEGMENT_SHIFT;
+        long size = Math.min(length - start, 1L << SEGMENT_SHIFT);
+        segments[s] =
+            channel
+                .map(FileChannel.MapMode.READ_ONLY, position + 4 * start, 4 * size)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asIntBuffer();
+      }
+    }
+
+    int get(int index) {
+      // absolute gets do not change the buffer's position, so they are safe to share across threads
+      return segments[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+    }
+  }
+
+  /** Writes arrays of ints to a channel through a buffer, in the byte order of the mapping. */
+  private static final class IntWriter {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    IntWriter(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    void write(int[] values) throws IOException {
+      for (int value : values) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        buffer.putInt(value);
+      }
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
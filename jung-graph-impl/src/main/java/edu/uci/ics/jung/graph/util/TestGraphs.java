@@ -16,7 +16,9 @@ import com.google.common.graph.Network;
 import com.google.common.graph.NetworkBuilder;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Random;
 import java.util.Set;
+import java.util.function.IntFunction;
 
 /** Provides generators for several different test graphs. */
 public class TestGraphs {
@@ -125,6 +127,58 @@ public class TestGraphs {
     return dag;
   }
 
+  /**
+   * Creates a random network whose nodes are the integers in [0, nodeCount) and whose edges are
+   * the integers in [0, edgeCount). Each edge joins two nodes chosen uniformly at random, so the
+   * network may have parallel edges and self-loops.
+   *
+   * @param directed true iff the network created is to have directed edges
+   * @param nodeCount the number of nodes
+   * @param edgeCount the number of edges
+   * @param random the source of the endpoints; a seeded instance gives the same network every time
+   * @return the created network
+   */
+  public static MutableNetwork<Integer, Integer> createRandomNetwork(
+      boolean directed, int nodeCount, int edgeCount, Random random) {
+    return createRandomNetwork(directed, nodeCount, edgeCount, random, i -> i, i -> i);
+  }
+
+  /**
+   * Creates a random network as {@link #createRandomNetwork(boolean, int, int, Random)} does, with
+   * the node and edge numbers mapped to nodes and edges by the specified functions.
+   *
+   * @param directed true iff the network created is to have directed edges
+   * @param nodeCount the number of nodes
+   * @param edgeCount the number of edges
+   * @param random the source of the endpoints; a seeded instance gives the same network every time
+   * @param nodes the node for each node number
+   * @param edges the edge for each edge number
+   * @return the created network
+   */
+  public static <N, E> MutableNetwork<N, E> createRandomNetwork(
+      boolean directed,
+      int nodeCount,
+      int edgeCount,
+      Random random,
+      IntFunction<N> nodes,
+      IntFunction<E> edges) {
+    MutableNetwork<N, E> network =
+        (directed ? NetworkBuilder.directed() : NetworkBuilder.undirected())
+            .allowsParallelEdges(true)
+            .allowsSelfLoops(true)
+            .build();
+    for (int i = 0; i < nodeCount; i++) {
+      network.addNode(nodes.apply(i));
+    }
+    for (int i = 0; i < edgeCount; i++) {
+      network.addEdge(
+          nodes.apply(random.nextInt(nodeCount)),
+          nodes.apply(random.nextInt(nodeCount)),
+          edges.apply(i));
+    }
+    return network;
+  }
+
   private static void createEdge(
       MutableNetwork<String, Number> g, String v1Label, String v2Label, int weight) {
     g.addEdge(v1Label, v2Label, new Double(Math.random()));
@@ -0,0 +1,87 @@
+package edu.uci.ics.jung.graph;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactNetworkTest {
+
+  private static Network<Integer, String> randomNetwork(boolean directed) {
+    return TestGraphs.createRandomNetwork(
+        directed, 30, 120, new Random(directed ? 11 : 12), i -> i, i -> "e" + i);
+  }
+
+  static <N, E> void assertSameNetwork(Network<N, E> expected, Network<N, E> actual) {
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(expected.isDirected(), actual.isDirected());
+    Assert.assertEquals(expected.allowsParallelEdges(), actual.allowsParallelEdges());
+    Assert.assertEquals(expected.allowsSelfLoops(), actual.allowsSelfLoops());
+    Assert.assertEquals(expected.asGraph(), actual.asGraph());
+    for (N n : expected.nodes()) {
+      Assert.assertEquals(expected.adjacentNodes(n), actual.adjacentNodes(n));
+      Assert.assertEquals(
+          expected.adjacentNodes(n).size(), ImmutableSet.copyOf(actual.adjacentNodes(n)).size());
+      Assert.assertEquals(expected.predecessors(n), actual.predecessors(n));
+      Assert.assertEquals(expected.successors(n), actual.successors(n));
+      Assert.assertEquals(expected.incidentEdges(n), actual.incidentEdges(n));
+      Assert.assertEquals(
+          expected.incidentEdges(n).size(), ImmutableSet.copyOf(actual.incidentEdges(n)).size());
+      Assert.assertEquals(expected.inEdges(n), actual.inEdges(n));
+      Assert.assertEquals(expected.outEdges(n), actual.outEdges(n));
+      Assert.assertEquals(expected.degree(n), actual.degree(n));
+      Assert.assertEquals(expected.inDegree(n), actual.inDegree(n));
+      Assert.assertEquals(expected.outDegree(n), actual.outDegree(n));
+      for (N m : expected.nodes()) {
+        Assert.assertEquals(expected.edgesConnecting(n, m), actual.edgesConnecting(n, m));
+      }
+    }
+    for (E e : expected.edges()) {
+      Assert.assertEquals(expected.incidentNodes(e), actual.incidentNodes(e));
+      Assert.assertEquals(expected.adjacentEdges(e), actual.adjacentEdges(e));
+    }
+  }
+
+  @Test
+  public void testDirected() {
+    Network<Integer, String> network = randomNetwork(true);
+    assertSameNetwork(network, CompactNetwork.copyOf(network));
+  }
+
+  @Test
+  public void testUndirected() {
+    Network<Integer, String> network = randomNetwork(false);
+    assertSameNetwork(network, CompactNetwork.copyOf(network));
+  }
+
+  @Test
+  public void testTestGraphs() {
+    for (boolean directed : new boolean[] {true, false}) {
+      Network<String, Number> network = TestGraphs.createTestGraph(directed);
+      assertSameNetwork(network, CompactNetwork.copyOf(network));
+    }
+    Network<String, Number> network = TestGraphs.getDemoGraph();
+    assertSameNetwork(network, CompactNetwork.copyOf(network));
+  }
+
+  @Test
+  public void testIterationOrder() {
+    Network<Integer, String> network = randomNetwork(true);
+    CompactNetwork<Integer, String> compact = CompactNetwork.copyOf(network);
+    Assert.assertArrayEquals(network.nodes().toArray(), compact.nodes().toArray());
+    Assert.assertArrayEquals(network.edges().toArray(), compact.edges().toArray());
+    Assert.assertSame(compact, CompactNetwork.copyOf(compact));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingNode() {
+    CompactNetwork.copyOf(randomNetwork(true)).successors(-1);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testImmutable() {
+    CompactNetwork.copyOf(randomNetwork(true)).nodes().remove(0);
+  }
+}
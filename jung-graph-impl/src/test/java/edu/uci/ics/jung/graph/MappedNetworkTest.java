@@ -0,0 +1,58 @@
+package edu.uci.ics.jung.graph;
+
+import com.google.common.graph.Network;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedNetworkTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  /** A random network whose nodes and edges are already numbered in iteration order. */
+  private static Network<Integer, Integer> randomNetwork(boolean directed) {
+    return TestGraphs.createRandomNetwork(directed, 30, 120, new Random(directed ? 21 : 22));
+  }
+
+  private MappedNetwork roundTrip(Network<Integer, Integer> network) throws IOException {
+    Path file = folder.newFile().toPath();
+    MappedNetwork.write(network, file);
+    return MappedNetwork.open(file);
+  }
+
+  @Test
+  public void testDirected() throws IOException {
+    Network<Integer, Integer> network = randomNetwork(true);
+    CompactNetworkTest.assertSameNetwork(network, roundTrip(network));
+  }
+
+  @Test
+  public void testUndirected() throws IOException {
+    Network<Integer, Integer> network = randomNetwork(false);
+    CompactNetworkTest.assertSameNetwork(network, roundTrip(network));
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    Network<Integer, Integer> network = NetworkBuilder.directed().build();
+    CompactNetworkTest.assertSameNetwork(network, roundTrip(network));
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotMapped() throws IOException {
+    Path file = folder.newFile().toPath();
+    Files.write(file, new byte[64]);
+    MappedNetwork.open(file);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingNode() throws IOException {
+    roundTrip(randomNetwork(true)).successors(30);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.io;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and primitive encodings shared by {@link BinaryGraphWriter} and {@link
+ * BinaryGraphReader}.
+ *
+ * <p>A graph is stored as:
+ *
+ * <ul>
+ *   <li>a header: the magic number, the format version, a byte of flags (directed, parallel edges,
+ *       self-loops, layout), and the vertex and edge counts
+ *   <li>the vertex ID table, in vertex index order
+ *   <li>the adjacency, in compressed sparse row form: for each vertex, its out-degree followed by
+ *       the indices of the targets of its outgoing edges in ascending order, each encoded as the
+ *       difference from the previous one (an undirected edge is stored once, from its first
+ *       endpoint)
+ *   <li>the edge ID table, in the order in which the edges appear in the adjacency
+ *   <li>the attribute columns, each with a name, an element kind (vertex or edge), a value type and
+ *       one value per element
+ *   <li>if the layout flag is set, the x and y coordinates of each vertex
+ * </ul>
+ *
+ * <p>Counts, degrees and deltas are unsigned variable-length integers; long values are zigzag
+ * encoded variable-length integers; strings are UTF-8, preceded by their length plus one, so that a
+ * length of zero denotes null.
+ */
+final class BinaryGraphFormat {
+  static final int MAGIC = 0x4A42_4746; // "JBGF"
+  static final int VERSION = 1;
+
+  static final int FLAG_DIRECTED = 1;
+  static final int FLAG_PARALLEL_EDGES = 1 << 1;
+  static final int FLAG_SELF_LOOPS = 1 << 2;
+  static final int FLAG_LAYOUT = 1 << 3;
+
+  static final int VERTEX_COLUMN = 0;
+  static final int EDGE_COLUMN = 1;
+
+  /** The types of values that an attribute column may hold. */
+  enum ColumnType {
+    DOUBLE,
+    LONG,
+    STRING
+  }
+
+  private BinaryGraphFormat() {}
+
+  static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    writeVarLong(out, value & 0xFFFF_FFFFL);
+  }
+
+  static void writeVarLong(DataOutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  static void writeZigZag(DataOutputStream out, long value) throws IOException {
+    writeVarLong(out, (value << 1) ^ (value >> 63));
+  }
+
+  static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      writeVarInt(out, 0);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(out, bytes.length + 1);
+    out.write(bytes);
+  }
+
+  static int readVarInt(DataInputStream in) throws IOException {
+    long value = readVarLong(in);
+    if ((value >>> 32) != 0) {
+      throw new IOException("Variable-length integer out of range: " + value);
+    }
+    return (int) value;
+  }
+
+  static long readVarLong(DataInputStream in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.read();
+      if (b < 0) {
+        throw new EOFException();
+      }
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable-length integer");
+  }
+
+  static long readZigZag(DataInputStream in) throws IOException {
+    long value = readVarLong(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  static String readString(DataInputStream in) throws IOException {
+    int length = readVarInt(in);
+    if (length == 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length - 1];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
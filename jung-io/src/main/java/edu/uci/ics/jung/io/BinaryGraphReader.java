@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.io;
+
+import static edu.uci.ics.jung.io.BinaryGraphFormat.readString;
+import static edu.uci.ics.jung.io.BinaryGraphFormat.readVarInt;
+import static edu.uci.ics.jung.io.BinaryGraphFormat.readZigZag;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.MutableNetwork;
+import edu.uci.ics.jung.io.BinaryGraphFormat.ColumnType;
+import java.awt.geom.Point2D;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reads graphs written by {@link BinaryGraphWriter}.
+ *
+ * <p>The vertex and edge objects are created from the IDs that were written, by the vertex and edge
+ * transformers. The attribute columns and vertex locations of the most recently read graph are
+ * available, as functions backed by the column arrays, from {@link #getVertexData()}, {@link
+ * #getEdgeData()} and {@link #getVertexLocations()}; double values are returned as {@code Double},
+ * long values as {@code Long} and string values as {@code String}.
+ *
+ * @param <G> the graph type
+ * @param <V> the vertex type
+ * @param <E> the edge type
+ */
+public class BinaryGraphReader<G extends MutableNetwork<V, E>, V, E>
+    implements GraphReader<G, V, E> {
+  protected final DataInputStream in;
+  protected final Supplier<? extends G> graph_factory;
+  protected final Function<String, V> vertex_transformer;
+  protected final Function<String, E> edge_transformer;
+
+  protected Map<String, Function<V, Object>> vertex_data = Collections.emptyMap();
+  protected Map<String, Function<E, Object>> edge_data = Collections.emptyMap();
+  protected Function<V, Point2D> vertex_locations;
+
+  /**
+   * Creates a reader for the graphs in {@code input}.
+   *
+   * @param input the stream from which the graphs are to be read
+   * @param graph_factory used to provide a graph instance for each graph read; its directedness
+   *     must match that of the graph that was written
+   * @param vertex_transformer creates a vertex from its ID
+   * @param edge_transformer creates an edge from its ID (which may be null)
+   */
+  public BinaryGraphReader(
+      InputStream input,
+      Supplier<? extends G> graph_factory,
+      Function<String, V> vertex_transformer,
+      Function<String, E> edge_transformer) {
+    this.in =
+        new DataInputStream(new BufferedInputStream(Preconditions.checkNotNull(input), 1 << 16));
+    this.graph_factory = Preconditions.checkNotNull(graph_factory);
+    this.vertex_transformer = Preconditions.checkNotNull(vertex_transformer);
+    this.edge_transformer = Preconditions.checkNotNull(edge_transformer);
+  }
+
+  /**
+   * Reads the next graph from the stream.
+   *
+   * @return the next graph, or null if the end of the stream has been reached
+   * @throws GraphIOException if the stream is not in the expected format, or cannot be read
+   */
+  @Override
+  public G readGraph() throws GraphIOException {
+    try {
+      int first = in.read();
+      if (first < 0) {
+        return null;
+      }
+      int magic = (first << 24) | (in.readUnsignedByte() << 16) | in.readUnsignedShort();
+      if (magic != BinaryGraphFormat.MAGIC) {
+        throw new GraphIOException("Not a binary graph stream");
+      }
+      int version = in.readUnsignedByte();
+      if (version != BinaryGraphFormat.VERSION) {
+        throw new GraphIOException("Unsupported binary graph format version: " + version);
+      }
+      int flags = in.readUnsignedByte();
+      int vertex_count = readVarInt(in);
+      int edge_count = readVarInt(in);
+
+      G graph = graph_factory.get();
+      boolean directed = (flags & BinaryGraphFormat.FLAG_DIRECTED) != 0;
+      if (graph.isDirected() != directed) {
+        throw new GraphIOException(
+            "Supplied "
+                + (graph.isDirected() ? "directed" : "undirected")
+                + " graph cannot be populated with "
+                + (directed ? "directed" : "undirected")
+                + " edges");
+      }
+
+      Object[] vertices = new Object[vertex_count];
+      for (int i = 0; i < vertex_count; i++) {
+        V vertex = vertex_transformer.apply(readString(in));
+        vertices[i] = vertex;
+        graph.addNode(vertex);
+      }
+
+      int[] sources = new int[edge_count];
+      int[] targets = new int[edge_count];
+      int e = 0;
+      for (int i = 0; i < vertex_count; i++) {
+        int degree = readVarInt(in);
+        if (degree > edge_count - e) {
+          throw new GraphIOException("Adjacency of vertex " + i + " exceeds the edge count");
+        }
+        int target = 0;
+        for (int j = 0; j < degree; j++, e++) {
+          target += readVarInt(in);
+          if (target < 0 || target >= vertex_count) {
+            throw new GraphIOException("Edge target out of range: " + target);
+          }
+          sources[e] = i;
+          targets[e] = target;
+        }
+      }
+      if (e != edge_count) {
+        throw new GraphIOException("Expected " + edge_count + " edges, found " + e);
+      }
+
+      Object[] edges = new Object[edge_count];
+      for (int i = 0; i < edge_count; i++) {
+        @SuppressWarnings("unchecked")
+        V source = (V) vertices[sources[i]];
+        @SuppressWarnings("unchecked")
+        V target = (V) vertices[targets[i]];
+        E edge = edge_transformer.apply(readString(in));
+        edges[i] = edge;
+        graph.addEdge(source, target, edge);
+      }
+
+      Map<Object, Integer> vertex_index = null;
+      Map<Object, Integer> edge_index = null;
+      vertex_data = new LinkedHashMap<>();
+      edge_data = new LinkedHashMap<>();
+      int column_count = readVarInt(in);
+      for (int c = 0; c < column_count; c++) {
+        String name = readString(in);
+        int kind = in.readUnsignedByte();
+        int type = in.readUnsignedByte();
+        if (type >= ColumnType.values().length) {
+          throw new GraphIOException("Unknown column type: " + type);
+        }
+        if (kind == BinaryGraphFormat.VERTEX_COLUMN) {
+          if (vertex_index == null) {
+            vertex_index = indexOf(vertices);
+          }
+          vertex_data.put(
+              name,
+              columnFunction(readColumn(ColumnType.values()[type], vertex_count), vertex_index));
+        } else if (kind == BinaryGraphFormat.EDGE_COLUMN) {
+          if (edge_index == null) {
+            edge_index = indexOf(edges);
+          }
+          edge_data.put(
+              name, columnFunction(readColumn(ColumnType.values()[type], edge_count), edge_index));
+        } else {
+          throw new GraphIOException("Unknown column kind: " + kind);
+        }
+      }
+
+      vertex_locations = null;
+      if ((flags & BinaryGraphFormat.FLAG_LAYOUT) != 0) {
+        if (vertex_index == null) {
+          vertex_index = indexOf(vertices);
+        }
+        double[] coordinates = new double[2 * vertex_count];
+        for (int i = 0; i < coordinates.length; i++) {
+          coordinates[i] = in.readDouble();
+        }
+        Map<Object, Integer> index = vertex_index;
+        vertex_locations =
+            v -> {
+              Integer i = index.get(v);
+              return i == null || Double.isNaN(coordinates[2 * i])
+                  ? null
+                  : new Point2D.Double(coordinates[2 * i], coordinates[2 * i + 1]);
+            };
+      }
+      return graph;
+    } catch (IOException ex) {
+      throw new GraphIOException(ex);
+    }
+  }
+
+  private Object readColumn(ColumnType type, int size) throws IOException {
+    switch (type) {
+      case DOUBLE:
+        double[] doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+          doubles[i] = in.readDouble();
+        }
+        return doubles;
+      case LONG:
+        long[] longs = new long[size];
+        for (int i = 0; i < size; i++) {
+          longs[i] = readZigZag(in);
+        }
+        return longs;
+      default:
+        String[] strings = new String[size];
+        for (int i = 0; i < size; i++) {
+          strings[i] = readString(in);
+        }
+        return strings;
+    }
+  }
+
+  private static <T> Function<T, Object> columnFunction(Object column, Map<Object, Integer> index) {
+    if (column instanceof double[]) {
+      double[] values = (double[]) column;
+      return t -> {
+        Integer i = index.get(t);
+        return i == null ? null : values[i];
+      };
+    } else if (column instanceof long[]) {
+      long[] values = (long[]) column;
+      return t -> {
+        Integer i = index.get(t);
+        return i == null ? null : values[i];
+      };
+    } else {
+      String[] values = (String[]) column;
+      return t -> {
+        Integer i = index.get(t);
+        return i == null ? null : values[i];
+      };
+    }
+  }
+
+  private static Map<Object, Integer> indexOf(Object[] elements) {
+    Map<Object, Integer> index = new HashMap<>(elements.length * 2);
+    for (int i = 0; i < elements.length; i++) {
+      index.put(elements[i], i);
+    }
+    return index;
+  }
+
+  /**
+   * Returns the vertex attribute columns of the most recently read graph, by name.
+   *
+   * @return a map from column name to a function from vertex to value
+   */
+  public Map<String, Function<V, Object>> getVertexData() {
+    return Collections.unmodifiableMap(vertex_data);
+  }
+
+  /**
+   * Returns the edge attribute columns of the most recently read graph, by name.
+   *
+   * @return a map from column name to a function from edge to value
+   */
+  public Map<String, Function<E, Object>> getEdgeData() {
+    return Collections.unmodifiableMap(edge_data);
+  }
+
+  /**
+   * Returns the vertex locations of the most recently read graph, if any were written.
+   *
+   * @return a function from vertex to location, or null if no locations were written
+   */
+  public Function<V, Point2D> getVertexLocations() {
+    return vertex_locations;
+  }
+
+  @Override
+  public void close() throws GraphIOException {
+    try {
+      in.close();
+    } catch (IOException e) {
+      throw new GraphIOException(e);
+    }
+  }
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Reads a Pajek NET file through a {@code FileChannel} for {@link PajekNetReader}, splitting the
+ * arc and edge sections into byte ranges that are tokenized in parallel.
+ *
+ * <p>The lines before the first arc or edge section are read in order by {@link #readLine()}. The
+ * rest of the file is split into ranges of about {@link #CHUNK_SIZE} bytes, each ending at a line
+ * break. Each range is read with a positional read and its vertex indices and weights are parsed
+ * directly from the bytes, so no {@code String} is created per line. The parsed ranges are handed
+ * back in file order, so that the edges can be created in the same order as by the serial reader.
+ */
+final class PajekChunkParser {
+  static final int CHUNK_SIZE = 1 << 22;
+
+  private static final float[] POWERS_OF_TEN = {
+    1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+  };
+
+  private final FileChannel channel;
+  private final ForkJoinPool pool;
+  private final Charset charset;
+  private final long size;
+
+  // state of readLine()
+  private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+  private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+  private long position;
+  private long filled;
+
+  PajekChunkParser(FileChannel channel, ForkJoinPool pool, Charset charset) throws IOException {
+    this.channel = channel;
+    this.pool = pool;
+    this.charset = charset;
+    this.size = channel.size();
+    buffer.flip();
+  }
+
+  long size() {
+    return size;
+  }
+
+  /** @return the offset of the start of the line that the next call to readLine() will return */
+  long position() {
+    return position;
+  }
+
+  /** @return the next line, without its line terminator, or null at the end of the file */
+  String readLine() throws IOException {
+    line.reset();
+    boolean any = false;
+    while (true) {
+      if (!buffer.hasRemaining()) {
+        buffer.clear();
+        int n = channel.read(buffer, filled);
+        buffer.flip();
+        if (n <= 0) {
+          return any ? decode(line) : null;
+        }
+        filled += n;
+      }
+      any = true;
+      byte b = buffer.get();
+      position++;
+      if (b == '\n') {
+        return decode(line);
+      }
+      line.write(b);
+    }
+  }
+
+  private String decode(ByteArrayOutputStream bytes) {
+    String s = new String(bytes.toByteArray(), charset);
+    return s.endsWith("\r") ? s.substring(0, s.length() - 1) : s;
+  }
+
+  /** @return the line that starts at <code>offset</code>, without its line terminator */
+  String lineAt(long offset) throws IOException {
+    byte[] bytes = read(offset, nextLine(offset));
+    int length = bytes.length;
+    while (length > 0 && (bytes[length - 1] == '\n' || bytes[length - 1] == '\r')) {
+      length--;
+    }
+    return new String(bytes, 0, length, charset);
+  }
+
+  /** @return the offset of the start of the line after the one containing <code>offset</code> */
+  long nextLine(long offset) throws IOException {
+    ByteBuffer scan = ByteBuffer.allocate(1 << 13);
+    for (long p = offset; p < size; ) {
+      scan.clear();
+      int n = channel.read(scan, p);
+      if (n <= 0) {
+        break;
+      }
+      for (int i = 0; i < n; i++) {
+        if (scan.get(i) == '\n') {
+          return p + i + 1;
+        }
+      }
+      p += n;
+    }
+    return size;
+  }
+
+  /**
+   * Returns the offsets at which to split <code>[from, to)</code>, which must start at the start of
+   * a line: <code>from</code>, the starts of the lines nearest to every {@link #CHUNK_SIZE} bytes,
+   * and <code>to</code>.
+   */
+  private long[] boundaries(long from, long to) throws IOException {
+    long[] bounds = new long[(int) ((to - from) / CHUNK_SIZE) + 2];
+    int count = 0;
+    bounds[count++] = from;
+    for (long p = from + CHUNK_SIZE; p < to; p += CHUNK_SIZE) {
+      long start = Math.min(nextLine(p - 1), to);
+      if (start > bounds[count - 1] && start < to) {
+        bounds[count++] = start;
+      }
+    }
+    bounds[count++] = to;
+    return Arrays.copyOf(bounds, count);
+  }
+
+  private byte[] read(long from, long to) throws IOException {
+    byte[] bytes = new byte[(int) (to - from)];
+    ByteBuffer target = ByteBuffer.wrap(bytes);
+    while (target.hasRemaining()) {
+      if (channel.read(target, from + target.position()) < 0) {
+        throw new EOFException();
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * @return the offsets of the lines from <code>from</code> to the end of the file that start with
+   *     '*', in order
+   */
+  long[] findTags(long from) throws IOException {
+    long[] bounds = boundaries(from, size);
+    List<ForkJoinTask<long[]>> tasks = new ArrayList<>();
+    for (int i = 0; i < bounds.length - 1; i++) {
+      long start = bounds[i];
+      long end = bounds[i + 1];
+      tasks.add(pool.submit(() -> findTags(start, end)));
+    }
+    long[] tags = new long[0];
+    for (ForkJoinTask<long[]> task : tasks) {
+      long[] found = join(task);
+      int length = tags.length;
+      tags = Arrays.copyOf(tags, length + found.length);
+      System.arraycopy(found, 0, tags, length, found.length);
+    }
+    return tags;
+  }
+
+  private long[] findTags(long from, long to) {
+    byte[] bytes = readUnchecked(from, to);
+    long[] tags = new long[4];
+    int count = 0;
+    for (int p = 0; p < bytes.length; p = lineEnd(bytes, p) + 1) {
+      if (bytes[p] == '*') {
+        if (count == tags.length) {
+          tags = Arrays.copyOf(tags, 2 * count);
+        }
+        tags[count++] = from + p;
+      }
+    }
+    return Arrays.copyOf(tags, count);
+  }
+
+  /**
+   * Parses the arcs or edges in the lines in <code>[from, to)</code>, and passes them to <code>
+   * sink</code> in file order.
+   *
+   * @param list if true, each line is a source followed by any number of targets; otherwise each
+   *     line is a source, a target, and optionally a weight
+   * @param weighted whether to parse the weights
+   */
+  void parseArcs(long from, long to, boolean list, boolean weighted, Consumer<Arcs> sink)
+      throws IOException {
+    long[] bounds = boundaries(from, to);
+    // bounds the number of parsed chunks held in memory at once
+    int window = 2 * pool.getParallelism();
+    Deque<ForkJoinTask<Arcs>> pending = new ArrayDeque<>();
+    int next = 0;
+    try {
+      while (next < bounds.length - 1 || !pending.isEmpty()) {
+        while (next < bounds.length - 1 && pending.size() < window) {
+          long start = bounds[next];
+          long end = bounds[++next];
+          pending.add(pool.submit(() -> parseArcs(start, end, list, weighted)));
+        }
+        sink.accept(join(pending.remove()));
+      }
+    } finally {
+      for (ForkJoinTask<Arcs> task : pending) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  private Arcs parseArcs(long from, long to, boolean list, boolean weighted) {
+    byte[] bytes = readUnchecked(from, to);
+    Arcs arcs = new Arcs(Math.max(16, bytes.length / 8), weighted && !list);
+    Tokenizer tokens = new Tokenizer(bytes, from);
+    for (int p = 0; p < bytes.length; p = tokens.end + 1) {
+      tokens.setLine(p, lineEnd(bytes, p));
+      if (!tokens.hasNext()) { // skip blank lines
+        continue;
+      }
+      int source = tokens.nextInt() - 1;
+      if (list) { // one source, multiple destinations
+        do {
+          arcs.add(source, tokens.nextInt() - 1);
+        } while (tokens.hasNext());
+      } else { // one source, one destination, at most one weight
+        arcs.add(source, tokens.nextInt() - 1);
+        if (arcs.weights != null && tokens.hasNext()) {
+          arcs.setWeight(tokens.nextFloat());
+        }
+      }
+    }
+    return arcs;
+  }
+
+  /** @return the position of the next '\n' at or after <code>p</code>, or the length */
+  private static int lineEnd(byte[] bytes, int p) {
+    while (p < bytes.length && bytes[p] != '\n') {
+      p++;
+    }
+    return p;
+  }
+
+  private byte[] readUnchecked(long from, long to) {
+    try {
+      return read(from, to);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T join(ForkJoinTask<T> task) throws IOException {
+    try {
+      return task.join();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /** The arcs parsed from one range of lines, as 0-based vertex indices, in file order. */
+  static final class Arcs {
+    int size;
+    int[] sources;
+    int[] targets;
+
+    /** The weight of each arc, if weights are being read; set only if <code>hasWeight</code>. */
+    float[] weights;
+
+    final BitSet hasWeight = new BitSet();
+
+    Arcs(int capacity, boolean weighted) {
+      this.sources = new int[capacity];
+      this.targets = new int[capacity];
+      this.weights = weighted ? new float[capacity] : null;
+    }
+
+    void add(int source, int target) {
+      if (size == sources.length) {
+        sources = Arrays.copyOf(sources, 2 * size);
+        targets = Arrays.copyOf(targets, 2 * size);
+        if (weights != null) {
+          weights = Arrays.copyOf(weights, 2 * size);
+        }
+      }
+      sources[size] = source;
+      targets[size] = target;
+      size++;
+    }
+
+    /** Sets the weight of the most recently added arc. */
+    void setWeight(float weight) {
+      weights[size - 1] = weight;
+      hasWeight.set(size - 1);
+    }
+  }
+
+  /**
+   * Splits one line of a byte array into tokens separated by the same whitespace as a {@code
+   * StringTokenizer}, and parses them without creating strings.
+   */
+  private static final class Tokenizer {
+    private final byte[] bytes;
+    private final long offset;
+    private int position;
+    private int end;
+
+    Tokenizer(byte[] bytes, long offset) {
+      this.bytes = bytes;
+      this.offset = offset;
+    }
+
+    void setLine(int start, int end) {
+      this.position = start;
+      this.end = end;
+    }
+
+    private static boolean isDelimiter(byte b) {
+      return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+    }
+
+    boolean hasNext() {
+      while (position < end && isDelimiter(bytes[position])) {
+        position++;
+      }
+      return position < end;
+    }
+
+    /** @return the end of the token starting at the current position */
+    private int tokenEnd() {
+      if (!hasNext()) {
+        throw new IllegalArgumentException(
+            "Missing vertex index in line at offset " + (offset + position));
+      }
+      int p = position;
+      while (p < end && !isDelimiter(bytes[p])) {
+        p++;
+      }
+      return p;
+    }
+
+    /** Parses the next token as {@code Integer.parseInt} would. */
+    int nextInt() {
+      int to = tokenEnd();
+      int p = position;
+      boolean negative = bytes[p] == '-';
+      if (negative || bytes[p] == '+') {
+        p++;
+      }
+      if (p == to) {
+        throw numberFormatException(to);
+      }
+      long value = 0;
+      for (; p < to; p++) {
+        int digit = bytes[p] - '0';
+        if (digit < 0 || digit > 9) {
+          throw numberFormatException(to);
+        }
+        value = 10 * value + digit;
+        if (value > (long) Integer.MAX_VALUE + 1) {
+          throw numberFormatException(to);
+        }
+      }
+      value = negative ? -value : value;
+      if (value > Integer.MAX_VALUE) {
+        throw numberFormatException(to);
+      }
+      position = to;
+      return (int) value;
+    }
+
+    /**
+     * Parses the next token as {@code Float.parseFloat} would. A plain decimal with at most seven
+     * digits, and at most ten of them after the point, is a single correctly rounded division of
+     * exact floats; anything else is passed to {@code Float.parseFloat}.
+     */
+    float nextFloat() {
+      int to = tokenEnd();
+      int p = position;
+      boolean negative = bytes[p] == '-';
+      if (negative || bytes[p] == '+') {
+        p++;
+      }
+      int mantissa = 0;
+      int digits = 0;
+      int fraction = -1;
+      boolean simple = p < to;
+      for (; p < to && simple; p++) {
+        byte b = bytes[p];
+        if (b == '.' && fraction < 0) {
+          fraction = 0;
+        } else if (b >= '0' && b <= '9' && digits < 7) {
+          mantissa = 10 * mantissa + (b - '0');
+          digits++;
+          if (fraction >= 0) {
+            fraction++;
+          }
+        } else {
+          simple = false;
+        }
+      }
+      float value;
+      if (simple && digits > 0 && fraction < POWERS_OF_TEN.length) {
+        value = fraction > 0 ? mantissa / POWERS_OF_TEN[fraction] : mantissa;
+        value = negative ? -value : value;
+      } else {
+        value =
+            Float.parseFloat(
+                new String(bytes, position, to - position, StandardCharsets.US_ASCII));
+      }
+      position = to;
+      return value;
+    }
+
+    private NumberFormatException numberFormatException(int to) {
+      return new NumberFormatException(
+          "For input string: \""
+              + new String(bytes, position, to - position, StandardCharsets.US_ASCII)
+              + "\" at offset "
+              + (offset + position));
+    }
+  }
+}
@@ -20,10 +20,15 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -80,6 +85,14 @@ import java.util.function.Supplier;
  * 2 3 1.0
  * </pre>
  *
+ * <p>If a {@code ForkJoinPool} is supplied, graphs loaded from a file name have their arc and edge
+ * sections split into chunks of lines that are tokenized in parallel on the pool, directly from the
+ * bytes of the file. The vertex section is still read in order, and the edges are created and added
+ * to the graph on the calling thread in file order, so the result is the same as that of the serial
+ * reader. In this mode section tags must begin their line and blank lines are skipped. Subclasses
+ * that override {@link #createAddEdge} are always read serially, so that every edge goes through
+ * it.
+ *
  * @author Joshua O'Madadhain
  * @see "'Pajek - Program for Analysis and Visualization of Large Networks', Vladimir Batagelj and
  *     Andrej Mrvar, http://vlado.fmf.uni-lj.si/pub/networks/pajek/doc/pajekman.pdf"
@@ -109,6 +122,8 @@ public class PajekNetReader<G extends MutableNetwork<V, E>, V, E> {
   private static final Predicate<String> c_pred = a_pred.or(e_pred);
   protected static final Predicate<String> l_pred = ListTagPred.getInstance();
 
+  private ForkJoinPool forkJoinPool;
+
   /**
    * Creates a PajekNetReader instance with the specified vertex and edge factories.
    *
@@ -140,7 +155,7 @@ public class PajekNetReader<G extends MutableNetwork<V, E>, V, E> {
    * @throws IOException if the graph cannot be loaded
    */
   public G load(String filename, Supplier<? extends G> graph_factory) throws IOException {
-    return load(new FileReader(filename), graph_factory.get());
+    return load(filename, graph_factory.get());
   }
 
   /**
@@ -165,9 +180,21 @@ public class PajekNetReader<G extends MutableNetwork<V, E>, V, E> {
    * @throws IOException if the graph cannot be loaded
    */
   public G load(String filename, G g) throws IOException {
+    if (forkJoinPool != null && !overridesCreateAddEdge()) {
+      return loadChunked(filename, g);
+    }
     return load(new FileReader(filename), g);
   }
 
+  /**
+   * @param forkJoinPool the pool on which to parse the arc and edge sections of files loaded by
+   *     name, or null to parse them on the calling thread. It is not used if {@link
+   *     #createAddEdge} is overridden.
+   */
+  public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
   /**
    * Populates the graph <code>g</code> with the graph represented by the Pajek-format data supplied
    * by <code>reader</code>. Stores edge weights, if any, according to <code>nev</code> (if
@@ -240,6 +267,122 @@ public class PajekNetReader<G extends MutableNetwork<V, E>, V, E> {
     return g;
   }
 
+  /** @return true if a subclass overrides {@link #createAddEdge}, which loadChunked bypasses */
+  private boolean overridesCreateAddEdge() {
+    for (Class<?> c = getClass(); c != PajekNetReader.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod(
+            "createAddEdge",
+            StringTokenizer.class,
+            Object.class,
+            MutableNetwork.class,
+            List.class,
+            Supplier.class);
+        return true;
+      } catch (NoSuchMethodException ex) {
+        // not declared here; look further up
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Populates <code>g</code> from the file <code>filename</code> as {@link #load(Reader,
+   * MutableNetwork)} does, tokenizing the arc and edge sections on the fork-join pool.
+   */
+  @SuppressWarnings("unchecked")
+  private G loadChunked(String filename, G g) throws IOException {
+    Preconditions.checkNotNull(g);
+    try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+      // decoded as FileReader would
+      PajekChunkParser parser =
+          new PajekChunkParser(channel, forkJoinPool, Charset.defaultCharset());
+
+      // ignore everything until we see '*Vertices'
+      String curLine;
+      do {
+        curLine = parser.readLine();
+      } while (curLine != null && !v_pred.test(curLine.trim()));
+
+      if (curLine == null) { // no vertices in the graph; return empty graph
+        return g;
+      }
+
+      StringTokenizer st = new StringTokenizer(curLine.trim());
+      st.nextToken(); // skip past "*vertices";
+      int num_vertices = Integer.parseInt(st.nextToken());
+      List<V> id = null;
+      if (vertex_factory != null) {
+        for (int i = 1; i <= num_vertices; i++) {
+          g.addNode(vertex_factory.get());
+        }
+        id = new ArrayList<V>(g.nodes());
+      }
+
+      // read vertices until we see any Pajek format tag ('*...')
+      long position = parser.position();
+      for (curLine = parser.readLine(); curLine != null; curLine = parser.readLine()) {
+        if (t_pred.test(curLine)) {
+          break;
+        }
+        if (!curLine.trim().isEmpty()) {
+          readVertex(curLine, id, num_vertices);
+        }
+        position = parser.position();
+      }
+      if (curLine == null) {
+        return g;
+      }
+
+      // as in the serial reader, read the next two arcs/edges sections, skipping anything else
+      long[] tags = parser.findTags(position);
+      int t = 0;
+      for (int section = 0; section < 2; section++, t++) {
+        String tag = null;
+        for (; t < tags.length; t++) {
+          tag = parser.lineAt(tags[t]).trim();
+          if (c_pred.test(tag)) {
+            break;
+          }
+        }
+        if (t == tags.length) {
+          break;
+        }
+        if (a_pred.test(tag)) {
+          Preconditions.checkState(
+              g.isDirected(),
+              "Supplied undirected-only graph cannot be populated with directed edges");
+        } else {
+          Preconditions.checkState(
+              !g.isDirected(),
+              "Supplied directed-only graph cannot be populated with undirected edges");
+        }
+
+        List<V> vertices = id;
+        long end = t + 1 < tags.length ? tags[t + 1] : parser.size();
+        parser.parseArcs(
+            parser.nextLine(tags[t]),
+            end,
+            l_pred.test(tag),
+            edge_weights != null,
+            arcs -> {
+              for (int i = 0; i < arcs.size; i++) {
+                int vid1 = arcs.sources[i];
+                int vid2 = arcs.targets[i];
+                V v1 = vertices != null ? vertices.get(vid1) : (V) Integer.valueOf(vid1);
+                V v2 = vertices != null ? vertices.get(vid2) : (V) Integer.valueOf(vid2);
+                E e = edge_factory.get();
+                g.addEdge(v1, v2, e);
+                if (arcs.hasWeight.get(i)) {
+                  edge_weights.set(e, arcs.weights[i]);
+                }
+              }
+            });
+      }
+    }
+    return g;
+  }
+
   /**
    * Parses <code>curLine</code> as a reference to a vertex, and optionally assigns label and
    * location information.
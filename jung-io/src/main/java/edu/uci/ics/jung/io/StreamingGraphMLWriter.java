@@ -0,0 +1,465 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.io;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes a graph in GraphML format through an {@link XMLStreamWriter}, one element at a time, so
+ * that a graph can be written as its nodes and edges are produced without ever being held in
+ * memory.
+ *
+ * <p>The data keys, vertex IDs and edge IDs are specified before the graph is started. A graph is
+ * then written by {@link #startGraph(boolean)}, any number of calls to the node and edge writing
+ * methods, and {@link #endGraph()}; {@link #save(Network)} does all of these for a {@code Network}.
+ * As GraphML requires, every node should be written before any edge that refers to it is read
+ * back, but the writer does not check this.
+ *
+ * <p>The values of the data functions are written as element text directly: {@code CharSequence}
+ * values are written without conversion, and integral {@code Number} values are formatted into a
+ * reused character buffer. Other values are written as their {@code toString()}.
+ *
+ * <p>The output is encoded as UTF-8, buffered, and optionally compressed with gzip; {@link
+ * #close()} finishes the compressed stream and closes the underlying output.
+ *
+ * @param <V> the vertex type
+ * @param <E> the edge type
+ */
+public class StreamingGraphMLWriter<V, E> implements Closeable {
+  /** The buffer size used if none is specified. */
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  private static final String GRAPHML_NAMESPACE = "http://graphml.graphdrawing.org/xmlns/graphml";
+  private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+
+  protected final XMLStreamWriter xml;
+  protected final Closeable output;
+
+  protected Function<? super V, String> vertex_ids = String::valueOf;
+  protected Function<? super E, String> edge_ids = e -> null;
+  protected Function<? super V, String> vertex_desc = v -> null;
+  protected Function<? super E, String> edge_desc = e -> null;
+  protected final Map<String, DataKey<V>> vertex_data = new LinkedHashMap<>();
+  protected final Map<String, DataKey<E>> edge_data = new LinkedHashMap<>();
+
+  private boolean started;
+  private boolean inGraph;
+
+  /** Holds the characters of integral and {@code CharSequence} values while they are written. */
+  private final char[] digits = new char[20];
+
+  /**
+   * Creates a writer of uncompressed GraphML to {@code out}, with the default buffer size.
+   *
+   * @param out the stream to which the graph is written
+   * @throws IOException if the XML writer cannot be created
+   */
+  public StreamingGraphMLWriter(OutputStream out) throws IOException {
+    this(out, DEFAULT_BUFFER_SIZE, false);
+  }
+
+  /**
+   * Creates a writer of GraphML to {@code out}.
+   *
+   * @param out the stream to which the graph is written
+   * @param bufferSize the size in bytes of the buffer between the XML writer and {@code out}, and
+   *     of the compressor's buffer if {@code gzip} is set
+   * @param gzip whether to compress the output with gzip
+   * @throws IOException if the XML writer cannot be created
+   */
+  public StreamingGraphMLWriter(OutputStream out, int bufferSize, boolean gzip)
+      throws IOException {
+    Preconditions.checkNotNull(out);
+    Preconditions.checkArgument(bufferSize > 0, "bufferSize must be positive");
+    OutputStream stream = gzip ? new GZIPOutputStream(out, bufferSize) : out;
+    stream = new BufferedOutputStream(stream, bufferSize);
+    this.output = stream;
+    try {
+      this.xml = XMLOutputFactory.newInstance().createXMLStreamWriter(stream, "UTF-8");
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Creates a writer of GraphML to {@code w}, which is responsible for its own buffering and
+   * encoding.
+   *
+   * @param w the writer to which the graph is written
+   * @throws IOException if the XML writer cannot be created
+   */
+  public StreamingGraphMLWriter(Writer w) throws IOException {
+    Preconditions.checkNotNull(w);
+    this.output = w;
+    try {
+      this.xml = XMLOutputFactory.newInstance().createXMLStreamWriter(w);
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Provides an ID that will be used to identify a vertex in the output. If the vertex IDs are not
+   * set, the ID for each vertex will default to the output of <code>toString</code> (and thus not
+   * guaranteed to be unique).
+   *
+   * @param vertex_ids a mapping from vertex to ID
+   */
+  public void setVertexIDs(Function<? super V, String> vertex_ids) {
+    this.vertex_ids = Preconditions.checkNotNull(vertex_ids);
+  }
+
+  /**
+   * Provides an ID that will be used to identify an edge in the output. If any edge ID is missing,
+   * no ID will be written out for the corresponding edge.
+   *
+   * @param edge_ids a mapping from edge to ID
+   */
+  public void setEdgeIDs(Function<? super E, String> edge_ids) {
+    this.edge_ids = Preconditions.checkNotNull(edge_ids);
+  }
+
+  /**
+   * Provides vertex descriptions.
+   *
+   * @param vertex_desc a mapping from vertices to their descriptions
+   */
+  public void setVertexDescriptions(Function<? super V, String> vertex_desc) {
+    this.vertex_desc = Preconditions.checkNotNull(vertex_desc);
+  }
+
+  /**
+   * Provides edge descriptions.
+   *
+   * @param edge_desc a mapping from edges to their descriptions
+   */
+  public void setEdgeDescriptions(Function<? super E, String> edge_desc) {
+    this.edge_desc = Preconditions.checkNotNull(edge_desc);
+  }
+
+  /**
+   * Adds a new vertex data specification; must be called before the graph is started.
+   *
+   * @param id the ID of the data to add
+   * @param description a description of the data to add, or null
+   * @param default_value a default value for the data type, or null
+   * @param vertex_function a mapping from vertices to their values; null values are not written
+   */
+  public void addVertexData(
+      String id, String description, String default_value, Function<? super V, ?> vertex_function) {
+    Preconditions.checkState(!started, "data must be specified before the graph is started");
+    vertex_data.put(id, new DataKey<V>(description, default_value, vertex_function));
+  }
+
+  /**
+   * Adds a new edge data specification; must be called before the graph is started.
+   *
+   * @param id the ID of the data to add
+   * @param description a description of the data to add, or null
+   * @param default_value a default value for the data type, or null
+   * @param edge_function a mapping from edges to their values; null values are not written
+   */
+  public void addEdgeData(
+      String id, String description, String default_value, Function<? super E, ?> edge_function) {
+    Preconditions.checkState(!started, "data must be specified before the graph is started");
+    edge_data.put(id, new DataKey<E>(description, default_value, edge_function));
+  }
+
+  /**
+   * Writes the document header and key specifications, if they have not yet been written, and
+   * opens a graph element.
+   *
+   * @param directed whether the graph's edges are directed by default
+   * @throws IOException if writing fails
+   */
+  public void startGraph(boolean directed) throws IOException {
+    Preconditions.checkState(!inGraph, "the previous graph has not been ended");
+    try {
+      if (!started) {
+        started = true;
+        xml.writeStartDocument("UTF-8", "1.0");
+        newLine();
+        xml.writeStartElement("graphml");
+        xml.writeDefaultNamespace(GRAPHML_NAMESPACE);
+        xml.writeNamespace("xsi", XSI_NAMESPACE);
+        xml.writeAttribute("xsi", XSI_NAMESPACE, "schemaLocation", GRAPHML_NAMESPACE);
+        newLine();
+        for (Map.Entry<String, DataKey<V>> entry : vertex_data.entrySet()) {
+          writeKeySpecification(entry.getKey(), "node", entry.getValue());
+        }
+        for (Map.Entry<String, DataKey<E>> entry : edge_data.entrySet()) {
+          writeKeySpecification(entry.getKey(), "edge", entry.getValue());
+        }
+      }
+      xml.writeStartElement("graph");
+      xml.writeAttribute("edgedefault", directed ? "directed" : "undirected");
+      newLine();
+      inGraph = true;
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Writes a node element for {@code v}.
+   *
+   * @param v the vertex to write
+   * @throws IOException if writing fails
+   */
+  public void writeNode(V v) throws IOException {
+    Preconditions.checkState(inGraph, "no graph has been started");
+    try {
+      xml.writeStartElement("node");
+      xml.writeAttribute("id", vertex_ids.apply(v));
+      writeContents(v, vertex_desc, vertex_data);
+      xml.writeEndElement();
+      newLine();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Writes a node element for each of the vertices returned by {@code vertices}, as they are
+   * returned.
+   *
+   * @param vertices the vertices to write
+   * @throws IOException if writing fails
+   */
+  public void writeNodes(Iterator<? extends V> vertices) throws IOException {
+    while (vertices.hasNext()) {
+      writeNode(vertices.next());
+    }
+  }
+
+  /**
+   * Writes an edge element for {@code e}.
+   *
+   * @param e the edge to write
+   * @param source the source (or first endpoint) of {@code e}
+   * @param target the target (or second endpoint) of {@code e}
+   * @throws IOException if writing fails
+   */
+  public void writeEdge(E e, V source, V target) throws IOException {
+    Preconditions.checkState(inGraph, "no graph has been started");
+    try {
+      xml.writeStartElement("edge");
+      String id = edge_ids.apply(e);
+      if (id != null) {
+        xml.writeAttribute("id", id);
+      }
+      xml.writeAttribute("source", vertex_ids.apply(source));
+      xml.writeAttribute("target", vertex_ids.apply(target));
+      writeContents(e, edge_desc, edge_data);
+      xml.writeEndElement();
+      newLine();
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+
+  /**
+   * Writes an edge element for each of the edges returned by {@code edges}, as they are returned.
+   *
+   * @param edges the edges to write
+   * @param endpoints a mapping from each edge to its endpoints
+   * @throws IOException if writing fails
+   */
+  public void writeEdges(
+      Iterator<? extends E> edges, Function<? super E, EndpointPair<? extends V>> endpoints)
+      throws IOException {
+    while (edges.hasNext()) {
+      E e = edges.next();
+      EndpointPair<? extends V> pair = endpoints.apply(e);
+      writeEdge(e, pair.nodeU(), pair.nodeV());
+    }
+  }
+
+  /**
+   * Closes the current graph element.
+   *
+   * @throws IOException if writing fails
+   */
+  public void endGraph() throws IOException {
+    Preconditions.checkState(inGraph, "no graph has been started");
+    try {
+      xml.writeEndElement();
+      newLine();
+      inGraph = false;
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Writes {@code g} as one graph element.
+   *
+   * @param g the graph to write
+   * @throws IOException if writing fails
+   */
+  public void save(Network<V, E> g) throws IOException {
+    startGraph(g.isDirected());
+    writeNodes(g.nodes().iterator());
+    for (E e : g.edges()) {
+      EndpointPair<V> endpoints = g.incidentNodes(e);
+      writeEdge(e, endpoints.nodeU(), endpoints.nodeV());
+    }
+    endGraph();
+  }
+
+  /**
+   * Ends the document, and flushes and closes the output.
+   *
+   * @throws IOException if writing or closing fails
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      if (inGraph) {
+        endGraph();
+      }
+      if (started) {
+        xml.writeEndDocument();
+        newLine();
+      }
+      xml.flush();
+      xml.close();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    } finally {
+      output.close();
+    }
+  }
+
+  private <T> void writeContents(
+      T element, Function<? super T, String> descriptions, Map<String, DataKey<T>> data)
+      throws XMLStreamException {
+    String desc = descriptions.apply(element);
+    if (desc != null) {
+      newLine();
+      xml.writeStartElement("desc");
+      xml.writeCharacters(desc);
+      xml.writeEndElement();
+    }
+    boolean wroteData = desc != null;
+    for (Map.Entry<String, DataKey<T>> entry : data.entrySet()) {
+      Object value = entry.getValue().function.apply(element);
+      if (value != null) {
+        newLine();
+        xml.writeStartElement("data");
+        xml.writeAttribute("key", entry.getKey());
+        writeValue(value);
+        xml.writeEndElement();
+        wroteData = true;
+      }
+    }
+    if (wroteData) {
+      newLine();
+    }
+  }
+
+  /** Writes <code>value</code> as element text, without converting it to a string if possible. */
+  private void writeValue(Object value) throws XMLStreamException {
+    if (value instanceof String) {
+      xml.writeCharacters((String) value);
+    } else if (value instanceof CharSequence) {
+      // copied through the digit buffer, a piece at a time
+      CharSequence chars = (CharSequence) value;
+      for (int from = 0; from < chars.length(); from += digits.length) {
+        int length = Math.min(digits.length, chars.length() - from);
+        for (int i = 0; i < length; i++) {
+          digits[i] = chars.charAt(from + i);
+        }
+        xml.writeCharacters(digits, 0, length);
+      }
+    } else if (value instanceof Integer
+        || value instanceof Long
+        || value instanceof Short
+        || value instanceof Byte) {
+      writeLong(((Number) value).longValue());
+    } else {
+      xml.writeCharacters(value.toString());
+    }
+  }
+
+  private void writeLong(long value) throws XMLStreamException {
+    if (value == Long.MIN_VALUE) {
+      xml.writeCharacters(Long.toString(value));
+      return;
+    }
+    boolean negative = value < 0;
+    long remaining = negative ? -value : value;
+    int start = digits.length;
+    do {
+      digits[--start] = (char) ('0' + remaining % 10);
+      remaining /= 10;
+    } while (remaining != 0);
+    if (negative) {
+      digits[--start] = '-';
+    }
+    xml.writeCharacters(digits, start, digits.length - start);
+  }
+
+  private void writeKeySpecification(String key, String type, DataKey<?> ds)
+      throws XMLStreamException {
+    xml.writeStartElement("key");
+    xml.writeAttribute("id", key);
+    xml.writeAttribute("for", type);
+    if (ds.description != null) {
+      newLine();
+      xml.writeStartElement("desc");
+      xml.writeCharacters(ds.description);
+      xml.writeEndElement();
+    }
+    if (ds.default_value != null) {
+      newLine();
+      xml.writeStartElement("default");
+      xml.writeCharacters(ds.default_value);
+      xml.writeEndElement();
+    }
+    if (ds.description != null || ds.default_value != null) {
+      newLine();
+    }
+    xml.writeEndElement();
+    newLine();
+  }
+
+  private void newLine() throws XMLStreamException {
+    xml.writeCharacters("\n");
+  }
+
+  /** A data key specification, with the function from elements to their values. */
+  protected static class DataKey<T> {
+    protected final String description;
+    protected final String default_value;
+    protected final Function<? super T, ?> function;
+
+    protected DataKey(String description, String default_value, Function<? super T, ?> function) {
+      this.description = description;
+      this.default_value = default_value;
+      this.function = Preconditions.checkNotNull(function);
+    }
+  }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+
+package edu.uci.ics.jung.io.graphml;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.MutableNetwork;
+import edu.uci.ics.jung.io.GraphIOException;
+import edu.uci.ics.jung.io.graphml.GraphMetadata.EdgeDefault;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.EndElement;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+/**
+ * A GraphML reader that adds each node and edge to the graph as soon as it has been parsed, and
+ * passes it with its metadata to a {@link Handler}, instead of collecting the metadata of the whole
+ * graph in the {@link GraphMLDocument}. Once the handler returns, the metadata of a node or edge is
+ * no longer referenced, so the memory used while reading is bounded by the size of the graph (and
+ * the map from node ids to vertices) rather than by the size of the document.
+ *
+ * <p>The graph object is created, by the graph transformer, when the first node or edge of the
+ * graph is reached; the {@link GraphMetadata} passed to the transformer holds the attributes of the
+ * graph and any data elements that precede its first node or edge. Edges that refer to nodes which
+ * have not yet been read are held until those nodes are read.
+ *
+ * <p>After {@link #readGraph()} returns, {@link #getGraphMLDocument()} holds the keys that were
+ * read, but no graph metadata.
+ *
+ * @param <G> The graph type to be read from the GraphML file
+ * @param <V> the vertex type
+ * @param <E> the edge type
+ * @see "http://graphml.graphdrawing.org/specification.html"
+ */
+public class StreamingGraphMLReader<G extends MutableNetwork<V, E>, V, E>
+    extends GraphMLReader2<G, V, E> {
+
+  /**
+   * Receives the elements of a graph as they are read. The metadata objects passed to the handler
+   * are not retained by the reader.
+   */
+  public interface Handler<G, V, E> {
+    /**
+     * Called when the graph object has been created, before any of its vertices or edges is added.
+     *
+     * @param graph the graph
+     * @param metadata the attributes of the graph and the data read so far
+     */
+    default void handleGraph(G graph, GraphMetadata metadata) {}
+
+    /**
+     * Called after a vertex has been added to the graph.
+     *
+     * @param vertex the vertex
+     * @param metadata the metadata of the node, including its data values
+     */
+    default void handleNode(V vertex, NodeMetadata metadata) {}
+
+    /**
+     * Called after an edge has been added to the graph.
+     *
+     * @param edge the edge
+     * @param metadata the metadata of the edge, including its data values
+     */
+    default void handleEdge(E edge, EdgeMetadata metadata) {}
+
+    /**
+     * Called when the end of the graph element is reached.
+     *
+     * @param graph the graph
+     * @param metadata the attributes and data of the graph, without node or edge metadata
+     */
+    default void handleGraphEnd(G graph, GraphMetadata metadata) {}
+  }
+
+  protected final Handler<? super G, ? super V, ? super E> handler;
+
+  /**
+   * Constructs a streaming GraphML reader around the given reader.
+   *
+   * @param fileReader the reader for the input GraphML document.
+   * @param graphTransformer Transformation function to convert from GraphML GraphMetadata to graph
+   *     objects. This must be non-null.
+   * @param vertexTransformer Transformation function to convert from GraphML NodeMetadata to vertex
+   *     objects. This must be non-null.
+   * @param edgeTransformer Transformation function to convert from GraphML EdgeMetadata to edge
+   *     objects. This must be non-null.
+   * @param handler the handler to receive the elements as they are read. This must be non-null.
+   * @throws NullPointerException thrown if any of the arguments are null.
+   */
+  public StreamingGraphMLReader(
+      Reader fileReader,
+      Function<GraphMetadata, G> graphTransformer,
+      Function<NodeMetadata, V> vertexTransformer,
+      Function<EdgeMetadata, E> edgeTransformer,
+      Handler<? super G, ? super V, ? super E> handler) {
+    super(fileReader, graphTransformer, vertexTransformer, edgeTransformer);
+    this.handler = Preconditions.checkNotNull(handler);
+  }
+
+  /**
+   * Constructs a streaming GraphML reader around the given input stream.
+   *
+   * @param inputStream the inputstream for the input GraphML document.
+   * @param graphTransformer Transformation function to convert from GraphML GraphMetadata to graph
+   *     objects. This must be non-null.
+   * @param vertexTransformer Transformation function to convert from GraphML NodeMetadata to vertex
+   *     objects. This must be non-null.
+   * @param edgeTransformer Transformation function to convert from GraphML EdgeMetadata to edge
+   *     objects. This must be non-null.
+   * @param handler the handler to receive the elements as they are read. This must be non-null.
+   * @throws NullPointerException thrown if any of the arguments are null.
+   */
+  public StreamingGraphMLReader(
+      InputStream inputStream,
+      Function<GraphMetadata, G> graphTransformer,
+      Function<NodeMetadata, V> vertexTransformer,
+      Function<EdgeMetadata, E> edgeTransformer,
+      Handler<? super G, ? super V, ? super E> handler) {
+    super(inputStream, graphTransformer, vertexTransformer, edgeTransformer);
+    this.handler = Preconditions.checkNotNull(handler);
+  }
+
+  /**
+   * Reads the next graph from the GraphML document, streaming its elements to the handler.
+   * Automatically calls <code>init</code> to initialize the state of the reader.
+   *
+   * @return the graph that was read
+   */
+  @Override
+  public G readGraph() throws GraphIOException {
+
+    try {
+
+      // Initialize if not already.
+      init();
+
+      while (xmlEventReader.hasNext()) {
+
+        XMLEvent event = xmlEventReader.nextEvent();
+        if (event.isStartElement()) {
+          StartElement element = (StartElement) event;
+          String name = element.getName().getLocalPart();
+
+          if (GraphMLConstants.KEY_NAME.equals(name)) {
+            Key key = (Key) parserRegistry.getParser(name).parse(xmlEventReader, element);
+            document.getKeyMap().addKey(key);
+          } else if (GraphMLConstants.GRAPH_NAME.equals(name)) {
+            return new GraphStream(element).read();
+          } else if (!GraphMLConstants.GRAPHML_NAME.equals(name)) {
+            // Encountered an unknown element - just skip by it.
+            parserRegistry.getUnknownElementParser().parse(xmlEventReader, element);
+          }
+
+        } else if (event.isEndDocument()) {
+          break;
+        }
+      }
+
+    } catch (Exception e) {
+      ExceptionConverter.convert(e);
+    }
+
+    // We didn't read anything from the document.
+    throw new GraphIOException("Unable to read Graph from document - the document could be empty");
+  }
+
+  /** The state of reading a single graph element. */
+  private class GraphStream {
+    private final StartElement start;
+    private final GraphMetadata graphMetadata = new GraphMetadata();
+    private final Map<String, V> idToVertexMap = new HashMap<String, V>();
+
+    /** The edges that refer to a node which has not been read, by the id of that node. */
+    private final Map<String, List<EdgeMetadata>> pendingEdges =
+        new HashMap<String, List<EdgeMetadata>>();
+
+    private G graph;
+
+    GraphStream(StartElement start) {
+      this.start = start;
+    }
+
+    G read() throws Exception {
+      @SuppressWarnings("unchecked")
+      Iterator<Attribute> iterator = start.getAttributes();
+      while (iterator.hasNext()) {
+        Attribute attribute = iterator.next();
+        String name = attribute.getName().getLocalPart();
+        String value = attribute.getValue();
+        if (graphMetadata.getId() == null && GraphMLConstants.ID_NAME.equals(name)) {
+          graphMetadata.setId(value);
+        } else if (graphMetadata.getEdgeDefault() == null
+            && GraphMLConstants.EDGEDEFAULT_NAME.equals(name)) {
+          graphMetadata.setEdgeDefault(
+              GraphMLConstants.DIRECTED_NAME.equals(value)
+                  ? EdgeDefault.DIRECTED
+                  : EdgeDefault.UNDIRECTED);
+        } else {
+          graphMetadata.setProperty(name, value);
+        }
+      }
+      if (graphMetadata.getEdgeDefault() == null) {
+        throw new GraphIOException("Element 'graph' is missing attribute 'edgedefault'");
+      }
+
+      while (xmlEventReader.hasNext()) {
+        XMLEvent event = xmlEventReader.nextEvent();
+        if (event.isStartElement()) {
+          StartElement element = (StartElement) event;
+          String name = element.getName().getLocalPart();
+          if (GraphMLConstants.DESC_NAME.equals(name)) {
+            String desc = (String) parserRegistry.getParser(name).parse(xmlEventReader, element);
+            graphMetadata.setDescription(desc);
+          } else if (GraphMLConstants.DATA_NAME.equals(name)) {
+            DataMetadata data =
+                (DataMetadata) parserRegistry.getParser(name).parse(xmlEventReader, element);
+            graphMetadata.addData(data);
+          } else if (GraphMLConstants.NODE_NAME.equals(name)) {
+            NodeMetadata metadata =
+                (NodeMetadata) parserRegistry.getParser(name).parse(xmlEventReader, element);
+            addNode(metadata);
+          } else if (GraphMLConstants.EDGE_NAME.equals(name)) {
+            EdgeMetadata metadata =
+                (EdgeMetadata) parserRegistry.getParser(name).parse(xmlEventReader, element);
+            if (metadata.isDirected() == null) {
+              metadata.setDirected(graphMetadata.getEdgeDefault() == EdgeDefault.DIRECTED);
+            }
+            metadata.setEdge(edgeTransformer.apply(metadata));
+            addEdge(metadata);
+          } else {
+            // Treat anything else as unknown
+            parserRegistry.getUnknownElementParser().parse(xmlEventReader, element);
+          }
+        }
+        if (event.isEndElement()) {
+          EndElement end = (EndElement) event;
+          String startName = start.getName().getLocalPart();
+          String endName = end.getName().getLocalPart();
+          if (!startName.equals(endName)) {
+            throw new GraphIOException(
+                "Failed parsing document: Start/end tag mismatch! "
+                    + "StartTag:"
+                    + startName
+                    + ", EndTag: "
+                    + endName);
+          }
+          break;
+        }
+      }
+
+      if (!pendingEdges.isEmpty()) {
+        EdgeMetadata emd = pendingEdges.values().iterator().next().get(0);
+        throw new GraphIOException(
+            "edge references undefined source or target vertex. "
+                + "Source: "
+                + emd.getSource()
+                + ", Target: "
+                + emd.getTarget());
+      }
+      createGraph();
+      handler.handleGraphEnd(graph, graphMetadata);
+      return graph;
+    }
+
+    private void createGraph() {
+      if (graph == null) {
+        document.getKeyMap().applyKeys(graphMetadata);
+        graph = graphTransformer.apply(graphMetadata);
+        graphMetadata.setGraph(graph);
+        handler.handleGraph(graph, graphMetadata);
+      }
+    }
+
+    private void addNode(NodeMetadata metadata) {
+      createGraph();
+      V vertex = vertexTransformer.apply(metadata);
+      metadata.setVertex(vertex);
+      idToVertexMap.put(metadata.getId(), vertex);
+      graph.addNode(vertex);
+      handler.handleNode(vertex, metadata);
+
+      List<EdgeMetadata> waiting = pendingEdges.remove(metadata.getId());
+      if (waiting != null) {
+        for (EdgeMetadata edge : waiting) {
+          addEdge(edge);
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addEdge(EdgeMetadata metadata) {
+      createGraph();
+      V source = idToVertexMap.get(metadata.getSource());
+      V target = idToVertexMap.get(metadata.getTarget());
+      if (source == null || target == null) {
+        String missing = source == null ? metadata.getSource() : metadata.getTarget();
+        pendingEdges.computeIfAbsent(missing, id -> new ArrayList<EdgeMetadata>()).add(metadata);
+        return;
+      }
+      E edge = (E) metadata.getEdge();
+      graph.addEdge(source, target, edge);
+      handler.handleEdge(edge, metadata);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package edu.uci.ics.jung.io;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.Network;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import java.awt.geom.Point2D;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinaryGraphIOTest {
+
+  private static MutableNetwork<String, String> randomNetwork(boolean directed, Random random) {
+    return TestGraphs.createRandomNetwork(directed, 200, 1000, random, i -> "v" + i, i -> "e" + i);
+  }
+
+  private static Supplier<MutableNetwork<String, String>> factory(boolean directed) {
+    return () ->
+        (directed ? NetworkBuilder.directed() : NetworkBuilder.undirected())
+            .allowsParallelEdges(true)
+            .allowsSelfLoops(true)
+            .build();
+  }
+
+  private static void assertSameGraph(
+      Network<String, String> expected, Network<String, String> actual) {
+    Assert.assertEquals(expected.nodes(), actual.nodes());
+    Assert.assertEquals(expected.edges(), actual.edges());
+    for (String e : expected.edges()) {
+      EndpointPair<String> endpoints = expected.incidentNodes(e);
+      Assert.assertEquals(endpoints, actual.incidentNodes(e));
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    for (boolean directed : new boolean[] {true, false}) {
+      MutableNetwork<String, String> network = randomNetwork(directed, new Random(1));
+
+      BinaryGraphWriter<String, String> writer = new BinaryGraphWriter<>();
+      writer.setEdgeIDs(e -> e);
+      writer.addEdgeDoubles("weight", e -> e.length() * 0.5);
+      writer.addEdgeLongs("id", e -> -Long.parseLong(e.substring(1)));
+      writer.addVertexStrings("label", v -> v.equals("v3") ? null : v.toUpperCase());
+      writer.setVertexLocations(v -> new Point2D.Double(v.length(), -v.length()));
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      writer.save(network, out);
+      // a second graph in the same stream
+      writer.save(network, out);
+
+      BinaryGraphReader<MutableNetwork<String, String>, String, String> reader =
+          new BinaryGraphReader<>(
+              new ByteArrayInputStream(out.toByteArray()), factory(directed), v -> v, e -> e);
+      for (int i = 0; i < 2; i++) {
+        MutableNetwork<String, String> read = reader.readGraph();
+        assertSameGraph(network, read);
+        Assert.assertEquals(2.0, reader.getEdgeData().get("weight").apply("e123"));
+        Assert.assertEquals(-123L, reader.getEdgeData().get("id").apply("e123"));
+        Assert.assertEquals("V12", reader.getVertexData().get("label").apply("v12"));
+        Assert.assertNull(reader.getVertexData().get("label").apply("v3"));
+        Assert.assertEquals(new Point2D.Double(3, -3), reader.getVertexLocations().apply("v12"));
+      }
+      Assert.assertNull(reader.readGraph());
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testCompactAdjacency() throws IOException {
+    MutableNetwork<String, String> network = randomNetwork(true, new Random(2));
+    BinaryGraphWriter<String, String> writer = new BinaryGraphWriter<>();
+    writer.setVertexIDs(v -> null);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.save(network, out);
+    // header, one byte per null ID, a degree per vertex and at most two bytes per edge
+    Assert.assertTrue(out.size() < 16 + 2 * 200 + 1 + 3 * 1000);
+  }
+
+  @Test(expected = GraphIOException.class)
+  public void testDirectednessMismatch() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BinaryGraphWriter<String, String>().save(randomNetwork(true, new Random(3)), out);
+    new BinaryGraphReader<MutableNetwork<String, String>, String, String>(
+            new ByteArrayInputStream(out.toByteArray()), factory(false), v -> v, e -> e)
+        .readGraph();
+  }
+
+  @Test(expected = GraphIOException.class)
+  public void testNotBinary() throws Exception {
+    new BinaryGraphReader<MutableNetwork<String, String>, String, String>(
+            new ByteArrayInputStream("*Vertices 3\n".getBytes("UTF-8")),
+            factory(true),
+            v -> v,
+            e -> e)
+        .readGraph();
+  }
+}
@@ -17,11 +17,15 @@ import com.google.common.graph.NetworkBuilder;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.StringTokenizer;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import junit.framework.Assert;
@@ -185,6 +189,84 @@ public class PajekNetIOTest extends TestCase {
     file2.delete();
   }
 
+  public void testChunkedLoad() throws IOException {
+    String testFilename = "ctest.net";
+    try (PrintWriter writer = new PrintWriter(testFilename)) {
+      writer.println("*Vertices 4");
+      writer.println("1 \"alpha\" 0.1 0.2");
+      writer.println("2 \"beta\"");
+      writer.println("3");
+      writer.println("4 delta");
+      writer.println("*Arcs");
+      writer.println("1 2 0.5");
+      writer.println("2 3");
+      writer.println("3 3 -1.25e1");
+      writer.println("*Comment");
+      writer.println("ignored");
+      writer.print("*Arcslist\r\n");
+      writer.print("4  1\t2 3\r\n");
+      writer.print("1 4\r\n");
+    }
+
+    MutableNetwork<Number, Number> graph1 = pnr.load(testFilename, directedGraphFactory);
+    PajekNetReader<MutableNetwork<Number, Number>, Number, Number> chunked =
+        new PajekNetReader<MutableNetwork<Number, Number>, Number, Number>(
+            new Supplier<Number>() {
+              int n = 0;
+
+              public Number get() {
+                return n++;
+              }
+            },
+            new Supplier<Number>() {
+              int n = 0;
+
+              public Number get() {
+                return n++;
+              }
+            });
+    chunked.setForkJoinPool(ForkJoinPool.commonPool());
+    MutableNetwork<Number, Number> graph2 = chunked.load(testFilename, directedGraphFactory);
+
+    // a reader that overrides createAddEdge is read serially, so that every edge goes through it
+    List<Number> created = new ArrayList<Number>();
+    PajekNetReader<MutableNetwork<Number, Number>, Number, Number> overriding =
+        new PajekNetReader<MutableNetwork<Number, Number>, Number, Number>(
+            vertexFactory, edgeFactory) {
+          @Override
+          protected Number createAddEdge(
+              StringTokenizer st,
+              Number v1,
+              MutableNetwork<Number, Number> g,
+              List<Number> id,
+              Supplier<Number> edge_factory) {
+            Number e = super.createAddEdge(st, v1, g, id, edge_factory);
+            created.add(e);
+            return e;
+          }
+        };
+    overriding.setForkJoinPool(ForkJoinPool.commonPool());
+    MutableNetwork<Number, Number> graph3 = overriding.load(testFilename, directedGraphFactory);
+    new File(testFilename).delete();
+
+    assertEquals(graph1.edges(), graph2.edges());
+    assertEquals(graph1.nodes(), graph2.nodes());
+    assertEquals(graph3.edges(), new HashSet<Number>(created));
+    assertEquals(graph1.edges().size(), created.size());
+    for (Number e : graph1.edges()) {
+      assertEquals(graph1.incidentNodes(e), graph2.incidentNodes(e));
+      assertEquals(
+          pnr.getEdgeWeightTransformer().apply(e), chunked.getEdgeWeightTransformer().apply(e));
+    }
+    for (Number v : graph1.nodes()) {
+      assertEquals(pnr.getVertexLabeller().apply(v), chunked.getVertexLabeller().apply(v));
+      assertEquals(
+          pnr.getVertexLocationTransformer().apply(v),
+          chunked.getVertexLocationTransformer().apply(v));
+    }
+    assertEquals(-12.5f, chunked.getEdgeWeightTransformer().apply(2));
+  }
+
   /**
    * Tests to see whether these two graphs are structurally equivalent, based on the connectivity of
    * the vertices with matching indices in each graph. Assumes a 0-based index.
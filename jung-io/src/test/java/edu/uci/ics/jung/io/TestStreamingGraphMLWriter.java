@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.io;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.Network;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import javax.xml.parsers.ParserConfigurationException;
+import junit.framework.TestCase;
+import org.xml.sax.SAXException;
+
+public class TestStreamingGraphMLWriter extends TestCase {
+
+  private MutableNetwork<String, Object> roundTrip(Network<String, Number> g, boolean gzip)
+      throws IOException, ParserConfigurationException, SAXException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (StreamingGraphMLWriter<String, Number> writer =
+        new StreamingGraphMLWriter<String, Number>(bytes, 256, gzip)) {
+      writer.addVertexData("name", "identifier for the vertex", null, v -> new StringBuilder(v));
+      writer.addEdgeData("weight", "integer value for the edge", "-1", Number::intValue);
+      writer.setEdgeIDs(e -> String.valueOf(e.intValue()));
+      writer.save(g);
+    }
+
+    InputStream in = new ByteArrayInputStream(bytes.toByteArray());
+    if (gzip) {
+      in = new GZIPInputStream(in);
+    }
+    GraphMLReader<MutableNetwork<String, Object>, String, Object> reader =
+        new GraphMLReader<MutableNetwork<String, Object>, String, Object>();
+    MutableNetwork<String, Object> g2 = NetworkBuilder.directed().allowsSelfLoops(true).build();
+    reader.load(new InputStreamReader(in, "UTF-8"), g2);
+
+    Function<Object, String> weights = reader.getEdgeMetadata().get("weight").transformer;
+    Function<String, String> names = reader.getVertexMetadata().get("name").transformer;
+    for (Object e : g2.edges()) {
+      assertEquals(reader.getEdgeIDs().get(e), weights.apply(e));
+    }
+    for (String v : g2.nodes()) {
+      assertEquals(v, names.apply(v));
+    }
+    return g2;
+  }
+
+  public void testRoundTrip() throws IOException, ParserConfigurationException, SAXException {
+    Network<String, Number> g = TestGraphs.createTestGraph(true);
+    MutableNetwork<String, Object> g2 = roundTrip(g, false);
+    assertEquals(g.nodes(), g2.nodes());
+    assertEquals(g.edges().size(), g2.edges().size());
+  }
+
+  public void testGzipRoundTrip()
+      throws IOException, ParserConfigurationException, SAXException {
+    Network<String, Number> g = TestGraphs.createTestGraph(true);
+    MutableNetwork<String, Object> g2 = roundTrip(g, true);
+    assertEquals(g.nodes(), g2.nodes());
+    assertEquals(g.edges().size(), g2.edges().size());
+  }
+
+  public void testDataAfterStart() throws IOException {
+    StreamingGraphMLWriter<String, Number> writer =
+        new StreamingGraphMLWriter<String, Number>(new ByteArrayOutputStream());
+    writer.startGraph(true);
+    try {
+      writer.addVertexData("name", null, null, v -> v);
+      fail("data added after the graph was started");
+    } catch (IllegalStateException expected) {
+    }
+    writer.close();
+  }
+}
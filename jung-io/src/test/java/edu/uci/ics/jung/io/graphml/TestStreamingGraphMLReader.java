@@ -0,0 +1,131 @@
+package edu.uci.ics.jung.io.graphml;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.io.GraphIOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestStreamingGraphMLReader {
+
+  private StreamingGraphMLReader<MutableNetwork<DummyVertex, DummyEdge>, DummyVertex, DummyEdge>
+      reader;
+
+  private final List<String> calls = new ArrayList<String>();
+
+  private final StreamingGraphMLReader.Handler<Object, DummyVertex, DummyEdge> handler =
+      new StreamingGraphMLReader.Handler<Object, DummyVertex, DummyEdge>() {
+        @Override
+        public void handleGraph(Object graph, GraphMetadata metadata) {
+          calls.add("graph " + metadata.getId() + " " + metadata.getProperty("d2"));
+        }
+
+        @Override
+        public void handleNode(DummyVertex vertex, NodeMetadata metadata) {
+          calls.add("node " + metadata.getId() + " " + metadata.getProperty("d0"));
+        }
+
+        @Override
+        public void handleEdge(DummyEdge edge, EdgeMetadata metadata) {
+          calls.add("edge " + metadata.getId() + " " + metadata.getProperty("d1"));
+        }
+
+        @Override
+        public void handleGraphEnd(Object graph, GraphMetadata metadata) {
+          calls.add("end " + metadata.getNodeMap().size());
+        }
+      };
+
+  @After
+  public void tearDown() throws Exception {
+    if (reader != null) {
+      reader.close();
+    }
+    reader = null;
+  }
+
+  private Network<DummyVertex, DummyEdge> readGraph(String xml) throws GraphIOException {
+    reader =
+        new StreamingGraphMLReader<MutableNetwork<DummyVertex, DummyEdge>, DummyVertex, DummyEdge>(
+            new StringReader(xml),
+            new DummyGraphObjectBase.UndirectedNetworkFactory(),
+            new DummyVertex.Factory(),
+            new DummyEdge.EdgeFactory(),
+            handler);
+    return reader.readGraph();
+  }
+
+  @Test
+  public void testStreaming() throws Exception {
+    String xml =
+        TestGraphMLReader2.graphMLDocStart
+            + "<key id=\"d0\" for=\"node\" attr.name=\"color\" attr.type=\"string\">"
+            + "<default>yellow</default>"
+            + "</key>"
+            + "<key id=\"d1\" for=\"edge\" attr.name=\"weight\" attr.type=\"double\"/>"
+            + "<key id=\"d2\" for=\"graph\" attr.name=\"name\" attr.type=\"string\"/>"
+            + "<graph id=\"G\" edgedefault=\"undirected\">"
+            + "<data key=\"d2\">test</data>"
+            + "<node id=\"n0\">"
+            + "<data key=\"d0\">green</data>"
+            + "</node>"
+            + "<node id=\"n1\"/>"
+            + "<edge id=\"e0\" source=\"n0\" target=\"n1\">"
+            + "<data key=\"d1\">1.0</data>"
+            + "</edge>"
+            + "</graph>"
+            + "</graphml>";
+
+    Network<DummyVertex, DummyEdge> graph = readGraph(xml);
+    Assert.assertEquals(2, graph.nodes().size());
+    Assert.assertEquals(1, graph.edges().size());
+    Assert.assertEquals(
+        Arrays.asList("graph G test", "node n0 green", "node n1 yellow", "edge e0 1.0", "end 0"),
+        calls);
+    // no metadata is retained
+    Assert.assertTrue(reader.getGraphMLDocument().getGraphMetadata().isEmpty());
+  }
+
+  @Test
+  public void testForwardReference() throws Exception {
+    String xml =
+        TestGraphMLReader2.graphMLDocStart
+            + "<graph id=\"G\" edgedefault=\"undirected\">"
+            + "<edge id=\"e0\" source=\"n0\" target=\"n1\"/>"
+            + "<node id=\"n0\"/>"
+            + "<edge id=\"e1\" source=\"n0\" target=\"n0\"/>"
+            + "<node id=\"n1\"/>"
+            + "</graph>"
+            + "</graphml>";
+
+    Network<DummyVertex, DummyEdge> graph = readGraph(xml);
+    Assert.assertEquals(2, graph.nodes().size());
+    Assert.assertEquals(2, graph.edges().size());
+    Assert.assertEquals(
+        Arrays.asList(
+            "graph G null",
+            "node n0 null",
+            "edge e1 null",
+            "node n1 null",
+            "edge e0 null",
+            "end 0"),
+        calls);
+  }
+
+  @Test(expected = GraphIOException.class)
+  public void testUndefinedNode() throws Exception {
+    String xml =
+        TestGraphMLReader2.graphMLDocStart
+            + "<graph id=\"G\" edgedefault=\"undirected\">"
+            + "<node id=\"n0\"/>"
+            + "<edge id=\"e0\" source=\"n0\" target=\"n1\"/>"
+            + "</graph>"
+            + "</graphml>";
+    readGraph(xml);
+  }
+}
@@ -12,8 +12,10 @@ package edu.uci.ics.jung.visualization;
 
 import static edu.uci.ics.jung.visualization.layout.AWT.POINT_MODEL;
 
-import com.google.common.collect.Lists;
 import com.google.common.graph.Network;
+import edu.uci.ics.jung.graph.ObservableNetwork;
+import edu.uci.ics.jung.graph.event.NetworkEvent;
+import edu.uci.ics.jung.graph.event.NetworkEventListener;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.util.LayoutChangeListener;
@@ -22,12 +24,16 @@ import edu.uci.ics.jung.layout.util.LayoutEventSupport;
 import edu.uci.ics.jung.layout.util.LayoutNetworkEvent;
 import edu.uci.ics.jung.visualization.layout.SpatialGridLayoutModel;
 import edu.uci.ics.jung.visualization.layout.SpatialQuadTreeLayoutModel;
+import edu.uci.ics.jung.visualization.layout.SpatialRTreeLayoutModel;
+import edu.uci.ics.jung.visualization.spatial.EdgeRTree;
+import edu.uci.ics.jung.visualization.spatial.EdgeSpatial;
 import edu.uci.ics.jung.visualization.spatial.Spatial;
 import edu.uci.ics.jung.visualization.util.ChangeEventSupport;
 import edu.uci.ics.jung.visualization.util.DefaultChangeEventSupport;
 import java.awt.Dimension;
 import java.awt.geom.Point2D;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -39,6 +45,8 @@ public class BaseVisualizationModel<N, E>
     implements VisualizationModel<N, E, Point2D>,
         ChangeEventSupport,
         LayoutEventSupport<N, Point2D>,
+        LayoutChangeListener<N, Point2D>,
+        NetworkEventListener<N, E>,
         ChangeListener,
         LayoutModel.ChangeListener {
 
@@ -50,8 +58,11 @@ public class BaseVisualizationModel<N, E>
 
   protected LayoutAlgorithm<N, Point2D> layoutAlgorithm;
 
+  protected EdgeSpatial<N, E> edgeSpatial;
+
   protected ChangeEventSupport changeSupport = new DefaultChangeEventSupport(this);
-  private List<LayoutChangeListener<N, Point2D>> layoutChangeListeners = Lists.newArrayList();
+  private List<LayoutChangeListener<N, Point2D>> layoutChangeListeners =
+      new CopyOnWriteArrayList<>();
 
   public BaseVisualizationModel(VisualizationModel<N, E, Point2D> other) {
     this(other.getNetwork(), other.getLayoutAlgorithm(), null, other.getLayoutSize());
@@ -103,6 +114,13 @@ public class BaseVisualizationModel<N, E>
         //                            .setSize(layoutSize.width, layoutSize.height)
         //                            .build();
 
+        // spatial R-tree
+        //                    SpatialRTreeLayoutModel.<N, Point2D>builder()
+        //                            .setGraph(network.asGraph())
+        //                            .setPointModel(POINT_MODEL)
+        //                            .setSize(layoutSize.width, layoutSize.height)
+        //                            .build();
+
         //spatial quadtree
         SpatialQuadTreeLayoutModel.<N, Point2D>builder()
             .setGraph(network.asGraph())
@@ -124,6 +142,9 @@ public class BaseVisualizationModel<N, E>
     if (initializer != null) {
       this.layoutModel.setInitializer(initializer);
     }
+    attachLayoutChangeListener(null);
+    attachNetworkListener(null);
+    attachEdgeSpatial();
 
     if (layoutAlgorithm != null) {
       this.layoutModel.accept(layoutAlgorithm);
@@ -139,6 +160,9 @@ public class BaseVisualizationModel<N, E>
       ((ChangeEventSupport) layoutModel).addChangeListener(this);
     }
     this.network = network;
+    attachLayoutChangeListener(null);
+    attachNetworkListener(null);
+    attachEdgeSpatial();
     //    if (initializer != null) {
     //      this.layoutModel.setInitializer(initializer);
     //    }
@@ -156,7 +180,65 @@ public class BaseVisualizationModel<N, E>
     if (this.layoutModel != null) {
       this.layoutModel.stopRelaxer();
     }
+    LayoutModel<N, Point2D> previous = this.layoutModel;
     this.layoutModel = layoutModel;
+    attachLayoutChangeListener(previous);
+    attachEdgeSpatial();
+  }
+
+  /**
+   * Listens for the moves of single nodes in the current layout model instead of the previous one,
+   * so that they can be passed on to the layout change listeners of this model.
+   */
+  @SuppressWarnings("unchecked")
+  private void attachLayoutChangeListener(LayoutModel<N, Point2D> previous) {
+    if (previous instanceof LayoutEventSupport) {
+      ((LayoutEventSupport<N, Point2D>) previous).removeLayoutChangeListener(this);
+    }
+    if (layoutModel instanceof LayoutEventSupport) {
+      ((LayoutEventSupport<N, Point2D>) layoutModel).addLayoutChangeListener(this);
+    }
+  }
+
+  /**
+   * Listens for the edges added to and removed from the current network instead of the previous
+   * one, if it is an {@link ObservableNetwork}, so that the spatial structure for the edges stays
+   * current. Other networks get no spatial structure for the edges.
+   */
+  private void attachNetworkListener(Network<N, E> previous) {
+    if (previous == network) {
+      return;
+    }
+    if (previous instanceof ObservableNetwork) {
+      ((ObservableNetwork<N, E>) previous).removeGraphEventListener(this);
+    }
+    if (network instanceof ObservableNetwork) {
+      ((ObservableNetwork<N, E>) network).addGraphEventListener(this);
+    }
+  }
+
+  /**
+   * updates the spatial structure for the edges when a node or an edge is added or removed, alone
+   * or in a batch
+   */
+  @Override
+  public void handleGraphEvent(NetworkEvent<N, E> evt) {
+    EdgeSpatial<N, E> edgeSpatial = this.edgeSpatial;
+    if (edgeSpatial != null) {
+      updateEdgeSpatial(edgeSpatial, evt);
+    }
+  }
+
+  private void updateEdgeSpatial(EdgeSpatial<N, E> edgeSpatial, NetworkEvent<N, E> evt) {
+    if (evt instanceof NetworkEvent.Batch) {
+      for (NetworkEvent<N, E> event : ((NetworkEvent.Batch<N, E>) evt).getEvents()) {
+        updateEdgeSpatial(edgeSpatial, event);
+      }
+    } else if (evt instanceof NetworkEvent.Edge) {
+      edgeSpatial.updateEdge(((NetworkEvent.Edge<N, E>) evt).getEdge());
+    } else if (evt instanceof NetworkEvent.Node) {
+      edgeSpatial.update(((NetworkEvent.Node<N, E>) evt).getNode());
+    }
   }
 
   public void setLayoutAlgorithm(LayoutAlgorithm<N, Point2D> layoutAlgorithm) {
@@ -188,8 +270,11 @@ public class BaseVisualizationModel<N, E>
   }
 
   public void setNetwork(Network<N, E> network, boolean forceUpdate) {
+    Network<N, E> previous = this.network;
     this.network = network;
     this.layoutModel.setGraph(network.asGraph());
+    attachNetworkListener(previous);
+    attachEdgeSpatial();
     if (forceUpdate && this.layoutAlgorithm != null) {
       layoutModel.accept(this.layoutAlgorithm);
       changeSupport.fireStateChanged();
@@ -204,9 +289,41 @@ public class BaseVisualizationModel<N, E>
     if (layoutModel instanceof SpatialQuadTreeLayoutModel) {
       return ((SpatialQuadTreeLayoutModel) layoutModel).getSpatial();
     }
+    if (layoutModel instanceof SpatialRTreeLayoutModel) {
+      return ((SpatialRTreeLayoutModel) layoutModel).getSpatial();
+    }
     return null;
   }
 
+  @Override
+  public EdgeSpatial<N, E> getEdgeSpatial() {
+    return edgeSpatial;
+  }
+
+  /**
+   * Creates the spatial structure for the edges of the current network and hands it to the layout
+   * model, which keeps it current as nodes move. Only an {@link ObservableNetwork} gets one, since
+   * the edges added to any other network could not be found; layout models without spatial support
+   * get none either. Without one, all of the edges are painted and tested for picking.
+   */
+  protected void attachEdgeSpatial() {
+    boolean spatialLayout =
+        layoutModel instanceof SpatialQuadTreeLayoutModel
+            || layoutModel instanceof SpatialGridLayoutModel
+            || layoutModel instanceof SpatialRTreeLayoutModel;
+    edgeSpatial =
+        network instanceof ObservableNetwork && spatialLayout
+            ? new EdgeRTree<>(network, layoutModel)
+            : null;
+    if (layoutModel instanceof SpatialQuadTreeLayoutModel) {
+      ((SpatialQuadTreeLayoutModel<N, Point2D>) layoutModel).setEdgeSpatial(edgeSpatial);
+    } else if (layoutModel instanceof SpatialGridLayoutModel) {
+      ((SpatialGridLayoutModel<N, Point2D>) layoutModel).setEdgeSpatial(edgeSpatial);
+    } else if (layoutModel instanceof SpatialRTreeLayoutModel) {
+      ((SpatialRTreeLayoutModel<N, Point2D>) layoutModel).setEdgeSpatial(edgeSpatial);
+    }
+  }
+
   public LayoutAlgorithm<N, Point2D> getLayoutAlgorithm() {
     return layoutAlgorithm;
   }
@@ -247,13 +364,24 @@ public class BaseVisualizationModel<N, E>
 
   private void fireLayoutChanged(LayoutEvent<N, Point2D> layoutEvent, Network<N, E> network) {
     if (!layoutChangeListeners.isEmpty()) {
-      LayoutEvent<N, Point2D> evt = new LayoutNetworkEvent<N, Point2D>(layoutEvent, network);
+      LayoutNetworkEvent<N, Point2D> evt = new LayoutNetworkEvent<N, Point2D>(layoutEvent, network);
       for (LayoutChangeListener<N, Point2D> listener : layoutChangeListeners) {
         listener.layoutChanged(evt);
       }
     }
   }
 
+  /** this is the event from the LayoutModel for a node that has moved */
+  @Override
+  public void layoutChanged(LayoutEvent<N, Point2D> evt) {
+    fireLayoutChanged(evt, network);
+  }
+
+  @Override
+  public void layoutChanged(LayoutNetworkEvent<N, Point2D> evt) {
+    fireLayoutChanged(evt, network);
+  }
+
   /** this is the event from the LayoutModel */
   @Override
   public void changed() {
@@ -9,6 +9,7 @@
 */
 package edu.uci.ics.jung.visualization;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.graph.Network;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
@@ -47,6 +48,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -113,6 +116,28 @@ public class BasicVisualizationServer<N, E> extends JPanel
 
   protected RenderContext<N, E> renderContext;
 
+  /** the tiles of the view when it is rendered in tiles, or null */
+  private OffscreenTiles<N, E> tiles;
+
+  /** the width and height, in pixels, of each tile, or 0 to render the view as a whole */
+  private int tileSize;
+
+  /** how far node and edge shapes may reach into a tile from outside of it */
+  private double tileMargin = 20;
+
+  /** the pool on which the tiles are rendered, or null */
+  private ForkJoinPool forkJoinPool;
+
+  /** the state of the graph as it is rendered over several frames */
+  private final ProgressiveRendering<N, E> progressiveRendering = new ProgressiveRendering<>(this);
+
+  /** the time in milliseconds to spend rendering the graph in each frame, or 0 for no limit */
+  private long frameBudget;
+
+  /** the priority of each node when the graph is rendered over several frames */
+  private Function<? super N, ? extends Number> renderPriority =
+      node -> model.getNetwork().degree(node);
+
   /**
    * Create an instance with the specified Layout.
    *
@@ -220,15 +245,128 @@ public class BasicVisualizationServer<N, E> extends JPanel
 
   public void setModel(VisualizationModel<N, E, Point2D> model) {
     this.model = model;
+    clearTiles();
   }
 
   public void stateChanged(ChangeEvent e) {
+    progressiveRendering.invalidate();
     repaint();
     fireStateChanged();
   }
 
   public void setRenderer(Renderer<N, E> r) {
     this.renderer = r;
+    clearTiles();
+  }
+
+  /**
+   * Sets the size of the tiles in which the graph is rendered. Each tile is painted into its own
+   * image from the nodes and edges found near it by the spatial structures of the model, and tiles
+   * whose nodes and edges have not moved or changed their picked state since the last rendering are
+   * drawn from their images without being painted again. Labels are painted over the tiles on the
+   * rendering thread.
+   *
+   * <p>Tiles are used only with a {@link BasicRenderer}, a node and an edge spatial structure, and
+   * no lens; otherwise the view is rendered as a whole. Call {@link #clearTiles()} after changing
+   * how elements are painted, for instance their shapes or paints.
+   *
+   * @param tileSize the width and height of each tile in pixels, or 0 to render the view as a whole
+   */
+  public void setTileSize(int tileSize) {
+    Preconditions.checkArgument(tileSize >= 0, "tileSize must be non-negative");
+    this.tileSize = tileSize;
+    this.tiles = tileSize > 0 ? new OffscreenTiles<>(this, tileSize, tileMargin) : null;
+    repaint();
+  }
+
+  public int getTileSize() {
+    return tileSize;
+  }
+
+  /**
+   * @param tileMargin how far, in view coordinates before the view transform is applied, the shapes
+   *     of nodes and edges may reach beyond their locations and the bounds of their edges; shapes
+   *     reaching further may be cut off at the edges of tiles
+   */
+  public void setTileMargin(double tileMargin) {
+    this.tileMargin = tileMargin;
+    setTileSize(tileSize);
+  }
+
+  public double getTileMargin() {
+    return tileMargin;
+  }
+
+  /**
+   * Sets the pool on which tiles are rendered in parallel. The vertex and edge renderers and the
+   * functions of the render context are then called from several threads at once, so they must not
+   * share mutable state between calls. The default renderers and functions, {@code EdgeShape},
+   * {@code VertexShapeFactory} and {@code ParallelEdgeIndexFunction} allow this.
+   *
+   * @param forkJoinPool the pool on which to render tiles in parallel, or null to render them on
+   *     the calling thread
+   */
+  public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
+  public ForkJoinPool getForkJoinPool() {
+    return forkJoinPool;
+  }
+
+  /**
+   * Sets a time budget for each frame. With a budget, the visible nodes are rendered into an
+   * offscreen image in order of decreasing {@link #setRenderPriority priority}, each with the edges
+   * that join it to nodes already rendered, until the budget is spent; the image is then drawn and
+   * another frame is requested to continue. Labels are rendered once all of the shapes have been.
+   * The rendering starts over at once whenever the transforms change, so that panning and zooming
+   * are never held up by the rest of a frame. When the layout or the picked states change, the
+   * rendering in progress is completed first and then started over, drawing the complete image
+   * meanwhile, so that a layout that changes in every frame is still rendered in full.
+   *
+   * <p>The budget applies only with a {@link BasicRenderer}, a node spatial structure, and no lens;
+   * otherwise the graph is rendered in full in each frame. It takes precedence over {@link
+   * #setTileSize tiles}. Call {@link #clearTiles()} after changing how elements are painted.
+   *
+   * @param frameBudget the time in milliseconds to spend rendering in each frame, or 0 to render
+   *     the whole graph in each frame
+   */
+  public void setFrameBudget(long frameBudget) {
+    Preconditions.checkArgument(frameBudget >= 0, "frameBudget must be non-negative");
+    this.frameBudget = frameBudget;
+    progressiveRendering.restart();
+    repaint();
+  }
+
+  public long getFrameBudget() {
+    return frameBudget;
+  }
+
+  /**
+   * @param renderPriority the priority of each node when the graph is rendered within a {@link
+   *     #setFrameBudget frame budget}; nodes with higher priorities are rendered first. By default
+   *     this is the degree of the node.
+   */
+  public void setRenderPriority(Function<? super N, ? extends Number> renderPriority) {
+    this.renderPriority = Preconditions.checkNotNull(renderPriority);
+    progressiveRendering.restart();
+    repaint();
+  }
+
+  public Function<? super N, ? extends Number> getRenderPriority() {
+    return renderPriority;
+  }
+
+  /**
+   * Discards the images of the tiles and of the progressive rendering, so that the whole view is
+   * painted again when next rendered. Call this after changing the render context in a way that
+   * changes how elements are painted.
+   */
+  public void clearTiles() {
+    if (tiles != null) {
+      tiles.clear();
+    }
+    progressiveRendering.restart();
     repaint();
   }
 
@@ -330,7 +468,13 @@ public class BasicVisualizationServer<N, E> extends JPanel
       ((Caching) model).clear();
     }
 
-    renderer.render(renderContext, model, spatial);
+    if (frameBudget > 0 && progressiveRendering.canRender()) {
+      progressiveRendering.render(g2d, oldXform, renderPriority, frameBudget);
+    } else if (tiles != null && tiles.canRender()) {
+      tiles.render(g2d, oldXform, forkJoinPool);
+    } else {
+      renderer.render(renderContext, model, spatial);
+    }
 
     // if there are postRenderers set, do it
     for (Paintable paintable : postRenderers) {
@@ -446,6 +590,7 @@ public class BasicVisualizationServer<N, E> extends JPanel
           new ItemListener() {
 
             public void itemStateChanged(ItemEvent e) {
+              progressiveRendering.invalidate();
               repaint();
             }
           };
@@ -460,7 +605,11 @@ public class BasicVisualizationServer<N, E> extends JPanel
     this.pickedEdgeState = pickedEdgeState;
     this.renderContext.setPickedEdgeState(pickedEdgeState);
     if (pickEventListener == null) {
-      pickEventListener = e -> repaint();
+      pickEventListener =
+          e -> {
+            progressiveRendering.invalidate();
+            repaint();
+          };
     }
     pickedEdgeState.addItemListener(pickEventListener);
   }
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.visualization;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.visualization.renderers.BasicRenderer;
+import edu.uci.ics.jung.visualization.spatial.EdgeSpatial;
+import edu.uci.ics.jung.visualization.spatial.Spatial;
+import edu.uci.ics.jung.visualization.transform.LensTransformer;
+import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
+import java.awt.AlphaComposite;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Renders the graph of a {@link BasicVisualizationServer} as a grid of square tiles, each painted
+ * into its own image from the nodes and edges that the spatial structures of the model find near
+ * it. The tiles that need painting are painted in parallel on a {@link ForkJoinPool}, and the
+ * images are then drawn on the calling thread, followed by the labels, which are painted by Swing
+ * components and so stay on that thread.
+ *
+ * <p>Each tile keeps a signature of the identities, locations and picked states of the elements it
+ * painted. A tile whose signature is unchanged is drawn from its image without painting it again,
+ * so when a few nodes move, only the tiles around them are painted. A change in the transforms or
+ * in the size of the view discards all of the images.
+ *
+ * @param <N> the node type
+ * @param <E> the edge type
+ */
+class OffscreenTiles<N, E> {
+
+  private final BasicVisualizationServer<N, E> vv;
+
+  private final int tileSize;
+
+  /** how far, in view coordinates before the view transform, elements may reach into a tile */
+  private final double margin;
+
+  private List<Tile> tiles = new ArrayList<>();
+
+  /** the state for which the tiles were painted */
+  private Dimension size;
+
+  private AffineTransform layoutTransform;
+  private AffineTransform viewTransform;
+  private double deviceScaleX;
+  private double deviceScaleY;
+
+  /**
+   * @param vv the server whose graph is to be painted
+   * @param tileSize the width and height of each tile, in pixels
+   * @param margin how far node and edge shapes may reach beyond their locations, in view
+   *     coordinates before the view transform
+   */
+  OffscreenTiles(BasicVisualizationServer<N, E> vv, int tileSize, double margin) {
+    this.vv = vv;
+    this.tileSize = tileSize;
+    this.margin = margin;
+  }
+
+  /**
+   * @return true if the current state of the server can be painted in tiles: the renderer is a
+   *     {@link BasicRenderer}, both spatial structures are present, and there is no lens
+   */
+  boolean canRender() {
+    RenderContext<N, E> renderContext = vv.getRenderContext();
+    VisualizationModel<N, E, Point2D> model = vv.getModel();
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    GraphicsDecorator graphicsContext = renderContext.getGraphicsContext();
+    return vv.getRenderer() instanceof BasicRenderer
+        && renderContext instanceof PluggableRenderContext
+        && graphicsContext != null
+        && graphicsContext.getClass() == GraphicsDecorator.class
+        && !(multiLayerTransformer.getTransformer(Layer.LAYOUT) instanceof LensTransformer)
+        && !(multiLayerTransformer.getTransformer(Layer.VIEW) instanceof LensTransformer)
+        && model.getSpatial() != null
+        && model.getEdgeSpatial() != null;
+  }
+
+  /** discards the images of all of the tiles */
+  void clear() {
+    size = null;
+    tiles = new ArrayList<>();
+  }
+
+  /**
+   * Paints the tiles whose contents have changed, draws all of the tiles, and paints the labels.
+   *
+   * @param g2d the graphics context of the view, with the view transform applied
+   * @param deviceTransform the transform of <code>g2d</code> before the view transform was applied
+   * @param forkJoinPool the pool on which to paint the tiles, or null to paint them on the calling
+   *     thread
+   */
+  void render(Graphics2D g2d, AffineTransform deviceTransform, ForkJoinPool forkJoinPool) {
+    RenderContext<N, E> renderContext = vv.getRenderContext();
+    VisualizationModel<N, E, Point2D> model = vv.getModel();
+    BasicRenderer<N, E> renderer = (BasicRenderer<N, E>) vv.getRenderer();
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    Spatial<N> spatial = model.getSpatial();
+    EdgeSpatial<N, E> edgeSpatial = model.getEdgeSpatial();
+
+    layout(vv.getSize(), multiLayerTransformer, deviceTransform);
+
+    // find the contents of each tile, and which tiles have changed
+    double viewScale = multiLayerTransformer.getTransformer(Layer.VIEW).getScale();
+    List<Tile> changed = new ArrayList<>();
+    try {
+      for (Tile tile : tiles) {
+        Shape grown = grow(tile.bounds, margin * viewScale);
+        Rectangle2D area = multiLayerTransformer.inverseTransform(grown).getBounds2D();
+        tile.nodes = spatial.getVisibleNodes(area);
+        tile.edges = edgeSpatial.getVisibleEdges(area);
+        long signature = signature(tile.nodes, tile.edges);
+        if (tile.image == null || tile.signature != signature) {
+          tile.signature = signature;
+          changed.add(tile);
+        }
+      }
+    } catch (ConcurrentModificationException ex) {
+      // skip rendering until graph node index is stable
+      return;
+    }
+
+    if (forkJoinPool == null) {
+      for (Tile tile : changed) {
+        paint(tile, renderer, model);
+      }
+    } else {
+      List<ForkJoinTask<?>> tasks = new ArrayList<>(changed.size());
+      for (Tile tile : changed) {
+        tasks.add(forkJoinPool.submit(() -> paint(tile, renderer, model)));
+      }
+      for (ForkJoinTask<?> task : tasks) {
+        task.join();
+      }
+    }
+
+    // draw the tiles at device resolution
+    AffineTransform viewXform = g2d.getTransform();
+    g2d.setTransform(deviceTransform);
+    for (Tile tile : tiles) {
+      AffineTransform xform =
+          AffineTransform.getTranslateInstance(tile.bounds.getX(), tile.bounds.getY());
+      xform.scale(1 / deviceScaleX, 1 / deviceScaleY);
+      g2d.drawImage(tile.image, xform, null);
+    }
+    g2d.setTransform(viewXform);
+
+    Shape viewOnLayout = vv.viewOnLayout();
+    Collection<N> nodes;
+    Collection<E> edges;
+    try {
+      nodes = spatial.getVisibleNodes(viewOnLayout);
+      edges = edgeSpatial.getVisibleEdges(viewOnLayout);
+    } catch (ConcurrentModificationException ex) {
+      return;
+    }
+    renderer.renderLabels(renderContext, model, nodes, edges);
+  }
+
+  /** divides the view into tiles, discarding the images if the view has changed */
+  private void layout(
+      Dimension d, MultiLayerTransformer multiLayerTransformer, AffineTransform deviceTransform) {
+    AffineTransform layoutTransform =
+        multiLayerTransformer.getTransformer(Layer.LAYOUT).getTransform();
+    AffineTransform viewTransform = multiLayerTransformer.getTransformer(Layer.VIEW).getTransform();
+    if (d.equals(size)
+        && layoutTransform.equals(this.layoutTransform)
+        && viewTransform.equals(this.viewTransform)
+        && deviceTransform.getScaleX() == deviceScaleX
+        && deviceTransform.getScaleY() == deviceScaleY) {
+      return;
+    }
+    size = new Dimension(d);
+    this.layoutTransform = new AffineTransform(layoutTransform);
+    this.viewTransform = new AffineTransform(viewTransform);
+    deviceScaleX = deviceTransform.getScaleX();
+    deviceScaleY = deviceTransform.getScaleY();
+    tiles = new ArrayList<>();
+    for (int y = 0; y < d.height; y += tileSize) {
+      for (int x = 0; x < d.width; x += tileSize) {
+        tiles.add(
+            new Tile(
+                new Rectangle(
+                    x, y, Math.min(tileSize, d.width - x), Math.min(tileSize, d.height - y))));
+      }
+    }
+  }
+
+  /** paints the nodes and edges of <code>tile</code> into its image */
+  private void paint(
+      Tile tile, BasicRenderer<N, E> renderer, VisualizationModel<N, E, Point2D> model) {
+    int width = (int) Math.ceil(tile.bounds.width * deviceScaleX);
+    int height = (int) Math.ceil(tile.bounds.height * deviceScaleY);
+    if (tile.image == null) {
+      tile.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+    Graphics2D g2d = tile.image.createGraphics();
+    try {
+      g2d.setComposite(AlphaComposite.Clear);
+      g2d.fillRect(0, 0, width, height);
+      g2d.setComposite(AlphaComposite.SrcOver);
+      g2d.setRenderingHints(vv.getRenderingHints());
+      g2d.scale(deviceScaleX, deviceScaleY);
+      g2d.translate(-tile.bounds.x, -tile.bounds.y);
+      g2d.transform(viewTransform);
+
+      PluggableRenderContext<N, E> renderContext =
+          ((PluggableRenderContext<N, E>) vv.getRenderContext()).copy();
+      renderContext.setGraphicsContext(new GraphicsDecorator(g2d));
+      renderer.renderShapes(renderContext, model, tile.nodes, tile.edges);
+    } catch (ConcurrentModificationException ex) {
+      // the layout changed while painting; paint this tile again next time
+      tile.signature = 0;
+      vv.repaint();
+    } finally {
+      g2d.dispose();
+    }
+  }
+
+  /**
+   * @return a hash of the identities, locations and picked states of the passed elements, which
+   *     does not depend on their order
+   */
+  private long signature(Collection<N> nodes, Collection<E> edges) {
+    RenderContext<N, E> renderContext = vv.getRenderContext();
+    LayoutModel<N, Point2D> layoutModel = vv.getModel().getLayoutModel();
+    Network<N, E> network = vv.getModel().getNetwork();
+    long signature = 1;
+    for (N node : nodes) {
+      long hash = node.hashCode();
+      hash = hash(hash, layoutModel.apply(node));
+      hash = hash * 31 + (renderContext.getPickedVertexState().isPicked(node) ? 1 : 0);
+      signature += mix(hash);
+    }
+    for (E edge : edges) {
+      EndpointPair<N> endpoints = network.incidentNodes(edge);
+      long hash = edge.hashCode();
+      hash = hash(hash, layoutModel.apply(endpoints.nodeU()));
+      hash = hash(hash, layoutModel.apply(endpoints.nodeV()));
+      hash = hash * 31 + (renderContext.getPickedEdgeState().isPicked(edge) ? 1 : 0);
+      signature += mix(hash ^ 0x5DEECE66DL);
+    }
+    return signature;
+  }
+
+  private static long hash(long hash, Point2D p) {
+    if (p == null) {
+      return hash * 31;
+    }
+    hash = hash * 31 + Double.doubleToLongBits(p.getX());
+    return hash * 31 + Double.doubleToLongBits(p.getY());
+  }
+
+  /** the finalizer of MurmurHash3, so that sums of hashes rarely collide */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private static Rectangle2D grow(Rectangle2D r, double d) {
+    return new Rectangle2D.Double(
+        r.getX() - d, r.getY() - d, r.getWidth() + 2 * d, r.getHeight() + 2 * d);
+  }
+
+  /** a square of the view, with its image and the elements that were painted into it */
+  private class Tile {
+    final Rectangle bounds;
+    BufferedImage image;
+    long signature;
+    Collection<N> nodes;
+    Collection<E> edges;
+
+    Tile(Rectangle bounds) {
+      this.bounds = bounds;
+    }
+  }
+}
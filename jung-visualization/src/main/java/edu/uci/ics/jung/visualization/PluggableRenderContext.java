@@ -34,7 +34,7 @@ import javax.swing.CellRendererPane;
 import javax.swing.Icon;
 import javax.swing.JComponent;
 
-public class PluggableRenderContext<N, E> implements RenderContext<N, E> {
+public class PluggableRenderContext<N, E> implements RenderContext<N, E>, Cloneable {
 
   protected float arrowPlacementTolerance = 1;
   protected Predicate<N> vertexIncludePredicate = n -> true;
@@ -120,6 +120,23 @@ public class PluggableRenderContext<N, E> implements RenderContext<N, E> {
     }
   }
 
+  /**
+   * Returns a copy of this context that shares its functions, renderers and state, but has no
+   * graphics context of its own, so that it may paint on another thread into another image.
+   *
+   * @return the copy
+   */
+  @SuppressWarnings("unchecked")
+  public PluggableRenderContext<N, E> copy() {
+    try {
+      PluggableRenderContext<N, E> copy = (PluggableRenderContext<N, E>) super.clone();
+      copy.graphicsContext = null;
+      return copy;
+    } catch (CloneNotSupportedException e) {
+      throw new AssertionError(e);
+    }
+  }
+
   /** @return the vertexShapeTransformer */
   public Function<? super N, Shape> getVertexShapeTransformer() {
     return vertexShapeTransformer;
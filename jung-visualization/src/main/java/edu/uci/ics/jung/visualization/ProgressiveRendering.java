@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2017, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.visualization;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.visualization.renderers.BasicRenderer;
+import edu.uci.ics.jung.visualization.spatial.EdgeSpatial;
+import edu.uci.ics.jung.visualization.spatial.Spatial;
+import edu.uci.ics.jung.visualization.transform.LensTransformer;
+import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
+import java.awt.AlphaComposite;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Renders the graph of a {@link BasicVisualizationServer} over several frames, painting into an
+ * offscreen image for no longer than a time budget in each frame and then drawing the image. The
+ * visible nodes are painted in order of decreasing priority, each with the edges that join it to
+ * nodes already painted, so that the most important parts of the graph appear first. The labels are
+ * painted once all of the shapes have been painted. Unlike a full rendering, which paints all of
+ * the edges below all of the nodes, an edge may be painted over a node of higher priority.
+ *
+ * <p>The painting starts over at once whenever the size or the transforms of the view change, and
+ * whenever {@link #restart()} is called, so that a pan or zoom never waits for the rest of the
+ * previous frame to be painted. Changes to the layout or to the picked states only {@link
+ * #invalidate() invalidate} the painting: it starts over once the current pass is complete, and
+ * the image of that pass is drawn until the next one is complete. A layout that changes in every
+ * frame, as it does while a relaxer runs, is therefore still painted in full, every few frames.
+ *
+ * @param <N> the node type
+ * @param <E> the edge type
+ */
+class ProgressiveRendering<N, E> {
+
+  /** the most nodes painted between two checks of the time */
+  private static final int CHUNK_SIZE = 64;
+
+  private final BasicVisualizationServer<N, E> vv;
+
+  /** the nodes in the order in which they are painted */
+  private List<N> nodes;
+
+  /** the edges in the order in which they are painted */
+  private List<E> edges;
+
+  /** the number of edges to paint before the node with the same index has been painted */
+  private int[] edgeCounts;
+
+  /** the nodes and edges painted so far in the current phase */
+  private int nodeIndex;
+
+  private int edgeIndex;
+
+  /** false while painting shapes, true while painting labels */
+  private boolean labels;
+
+  private BufferedImage image;
+
+  /** the image of the last complete pass, drawn while the image of the next pass is painted */
+  private BufferedImage previous;
+
+  /** true if the layout or the picked states have changed since the current pass started */
+  private boolean invalid;
+
+  /** the state for which the image is being painted, or null to start over */
+  private Dimension size;
+
+  private AffineTransform layoutTransform;
+  private AffineTransform viewTransform;
+  private double deviceScaleX;
+  private double deviceScaleY;
+
+  ProgressiveRendering(BasicVisualizationServer<N, E> vv) {
+    this.vv = vv;
+  }
+
+  /**
+   * @return true if the current state of the server can be painted progressively: the renderer is a
+   *     {@link BasicRenderer}, the model has a node spatial structure, and there is no lens
+   */
+  boolean canRender() {
+    RenderContext<N, E> renderContext = vv.getRenderContext();
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    GraphicsDecorator graphicsContext = renderContext.getGraphicsContext();
+    return vv.getRenderer() instanceof BasicRenderer
+        && renderContext instanceof PluggableRenderContext
+        && graphicsContext != null
+        && graphicsContext.getClass() == GraphicsDecorator.class
+        && !(multiLayerTransformer.getTransformer(Layer.LAYOUT) instanceof LensTransformer)
+        && !(multiLayerTransformer.getTransformer(Layer.VIEW) instanceof LensTransformer)
+        && vv.getModel().getSpatial() != null;
+  }
+
+  /** discards what has been painted, so that the next frame starts painting again */
+  void restart() {
+    size = null;
+  }
+
+  /**
+   * Requests that the painting start over once the current pass is complete. Until then the
+   * current pass is continued, so that changes in every frame do not keep it from completing.
+   */
+  void invalidate() {
+    invalid = true;
+  }
+
+  /** @return true if everything visible has been painted */
+  boolean isComplete() {
+    return size != null && labels && nodeIndex == nodes.size() && edgeIndex == edges.size();
+  }
+
+  /**
+   * Paints for no longer than <code>budget</code> milliseconds, then draws what has been painted so
+   * far. If there is more to paint, a repaint of the server is requested to continue it.
+   *
+   * @param g2d the graphics context of the view, with the view transform applied
+   * @param deviceTransform the transform of <code>g2d</code> before the view transform was applied
+   * @param priority the priority of each node; higher priorities are painted first
+   * @param budget the time in milliseconds to spend painting in this frame
+   */
+  void render(
+      Graphics2D g2d,
+      AffineTransform deviceTransform,
+      Function<? super N, ? extends Number> priority,
+      long budget) {
+    long deadline = System.nanoTime() + budget * 1000000;
+    boolean current = isCurrent(vv.getSize(), deviceTransform);
+    if (!current || (invalid && isComplete())) {
+      try {
+        // for an unchanged view, keep drawing the complete image until the next one is complete
+        start(vv.getSize(), deviceTransform, priority, current);
+      } catch (ConcurrentModificationException ex) {
+        // skip rendering until graph node index is stable, showing what was painted before
+        if (image != null) {
+          drawImage(g2d, deviceTransform);
+        }
+        vv.repaint();
+        return;
+      }
+    }
+
+    BasicRenderer<N, E> renderer = (BasicRenderer<N, E>) vv.getRenderer();
+    VisualizationModel<N, E, Point2D> model = vv.getModel();
+    Graphics2D imageGraphics = image.createGraphics();
+    try {
+      imageGraphics.setRenderingHints(vv.getRenderingHints());
+      imageGraphics.scale(deviceScaleX, deviceScaleY);
+      imageGraphics.transform(viewTransform);
+      PluggableRenderContext<N, E> renderContext =
+          ((PluggableRenderContext<N, E>) vv.getRenderContext()).copy();
+      renderContext.setGraphicsContext(new GraphicsDecorator(imageGraphics));
+
+      while (!isComplete() && System.nanoTime() < deadline) {
+        int nodeEnd = Math.min(nodeIndex + CHUNK_SIZE, nodes.size());
+        int edgeEnd = nodeEnd < nodes.size() ? edgeCounts[nodeEnd] : edges.size();
+        List<N> nodeChunk = nodes.subList(nodeIndex, nodeEnd);
+        List<E> edgeChunk = edges.subList(edgeIndex, edgeEnd);
+        if (labels) {
+          renderer.renderLabels(renderContext, model, nodeChunk, edgeChunk);
+        } else {
+          renderer.renderShapes(renderContext, model, nodeChunk, edgeChunk);
+        }
+        nodeIndex = nodeEnd;
+        edgeIndex = edgeEnd;
+        if (!labels && nodeIndex == nodes.size() && edgeIndex == edges.size()) {
+          labels = true;
+          nodeIndex = 0;
+          edgeIndex = 0;
+        }
+      }
+    } catch (ConcurrentModificationException ex) {
+      // the layout changed while painting; paint the chunk again next time, then start over
+      invalid = true;
+    } finally {
+      imageGraphics.dispose();
+    }
+
+    drawImage(g2d, deviceTransform);
+
+    if (!isComplete() || invalid) {
+      vv.repaint();
+    }
+  }
+
+  /**
+   * draws the image of the current pass, or that of the last complete pass until the current one is
+   * complete; the images are in device pixels
+   */
+  private void drawImage(Graphics2D g2d, AffineTransform deviceTransform) {
+    BufferedImage drawn = previous != null && !isComplete() ? previous : image;
+    AffineTransform viewXform = g2d.getTransform();
+    g2d.setTransform(deviceTransform);
+    g2d.drawImage(
+        drawn, AffineTransform.getScaleInstance(1 / deviceScaleX, 1 / deviceScaleY), null);
+    g2d.setTransform(viewXform);
+  }
+
+  /** @return true if the image is being painted for the current size and transforms */
+  private boolean isCurrent(Dimension d, AffineTransform deviceTransform) {
+    MultiLayerTransformer multiLayerTransformer = vv.getRenderContext().getMultiLayerTransformer();
+    return d.equals(size)
+        && multiLayerTransformer.getTransformer(Layer.LAYOUT).getTransform().equals(layoutTransform)
+        && multiLayerTransformer.getTransformer(Layer.VIEW).getTransform().equals(viewTransform)
+        && deviceTransform.getScaleX() == deviceScaleX
+        && deviceTransform.getScaleY() == deviceScaleY;
+  }
+
+  /**
+   * clears the image and orders the visible nodes and edges for painting
+   *
+   * @param keep true to keep the image of the complete pass to draw until the new one is complete
+   */
+  private void start(
+      Dimension d,
+      AffineTransform deviceTransform,
+      Function<? super N, ? extends Number> priority,
+      boolean keep) {
+    MultiLayerTransformer multiLayerTransformer = vv.getRenderContext().getMultiLayerTransformer();
+    Network<N, E> network = vv.getModel().getNetwork();
+    Spatial<N> spatial = vv.getModel().getSpatial();
+    EdgeSpatial<N, E> edgeSpatial = vv.getModel().getEdgeSpatial();
+
+    Shape viewOnLayout = vv.viewOnLayout();
+    Collection<N> visibleNodes = spatial.getVisibleNodes(viewOnLayout);
+    Set<E> visibleEdges =
+        new HashSet<>(
+            edgeSpatial != null ? edgeSpatial.getVisibleEdges(viewOnLayout) : network.edges());
+
+    // order the nodes by decreasing priority
+    Map<N, Double> priorities = new HashMap<>();
+    for (N node : visibleNodes) {
+      priorities.put(node, priority.apply(node).doubleValue());
+    }
+    List<N> nodes = new ArrayList<>(visibleNodes);
+    nodes.sort(Comparator.comparing(priorities::get, Comparator.reverseOrder()));
+
+    // each edge is painted just before the later of its visible endpoints
+    List<E> edges = new ArrayList<>(visibleEdges.size());
+    int[] edgeCounts = new int[nodes.size()];
+    Set<N> painted = new HashSet<>();
+    for (int i = 0; i < nodes.size(); i++) {
+      N node = nodes.get(i);
+      painted.add(node);
+      for (E edge : network.incidentEdges(node)) {
+        if (visibleEdges.contains(edge)) {
+          N other = network.incidentNodes(edge).adjacentNode(node);
+          if (painted.contains(other) || !priorities.containsKey(other)) {
+            edges.add(edge);
+          }
+        }
+      }
+      edgeCounts[i] = edges.size();
+    }
+    // then the edges that cross the view without a visible endpoint
+    for (E edge : visibleEdges) {
+      EndpointPair<N> endpoints = network.incidentNodes(edge);
+      if (!priorities.containsKey(endpoints.nodeU())
+          && !priorities.containsKey(endpoints.nodeV())) {
+        edges.add(edge);
+      }
+    }
+    // shift the counts so that edgeCounts[i] is the number of edges before node i is painted
+    System.arraycopy(edgeCounts, 0, edgeCounts, 1, Math.max(0, edgeCounts.length - 1));
+    if (edgeCounts.length > 0) {
+      edgeCounts[0] = 0;
+    }
+    this.nodes = nodes;
+    this.edges = edges;
+    this.edgeCounts = edgeCounts;
+    nodeIndex = 0;
+    edgeIndex = 0;
+    labels = false;
+    invalid = false;
+
+    size = new Dimension(d);
+    layoutTransform =
+        new AffineTransform(multiLayerTransformer.getTransformer(Layer.LAYOUT).getTransform());
+    viewTransform =
+        new AffineTransform(multiLayerTransformer.getTransformer(Layer.VIEW).getTransform());
+    deviceScaleX = deviceTransform.getScaleX();
+    deviceScaleY = deviceTransform.getScaleY();
+
+    int width = Math.max(1, (int) Math.ceil(d.width * deviceScaleX));
+    int height = Math.max(1, (int) Math.ceil(d.height * deviceScaleY));
+    // paint into the image of the pass before the complete one, if it is kept
+    BufferedImage next = keep ? previous : image;
+    previous = keep ? image : null;
+    image = next;
+    if (image == null || image.getWidth() != width || image.getHeight() != height) {
+      image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    } else {
+      Graphics2D imageGraphics = image.createGraphics();
+      imageGraphics.setComposite(AlphaComposite.Clear);
+      imageGraphics.fillRect(0, 0, width, height);
+      imageGraphics.dispose();
+    }
+  }
+}
@@ -13,6 +13,7 @@ import com.google.common.graph.Network;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.LayoutModelAware;
+import edu.uci.ics.jung.visualization.spatial.EdgeSpatial;
 import edu.uci.ics.jung.visualization.spatial.Spatial;
 import java.awt.Dimension;
 import javax.swing.event.ChangeListener;
@@ -44,5 +45,10 @@ public interface VisualizationModel<N, E, P> extends LayoutModelAware<N, E, P> {
 
   Spatial<N> getSpatial();
 
+  /** @return the spatial structure for the edges, or null if the edges are not indexed */
+  default EdgeSpatial<N, E> getEdgeSpatial() {
+    return null;
+  }
+
   void addChangeListener(ChangeListener changeListener);
 }
@@ -10,19 +10,38 @@
 
 package edu.uci.ics.jung.visualization.control;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.graph.Network;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.visualization.Layer;
+import edu.uci.ics.jung.visualization.MultiLayerTransformer;
+import edu.uci.ics.jung.visualization.PluggableRenderContext;
 import edu.uci.ics.jung.visualization.VisualizationViewer;
+import edu.uci.ics.jung.visualization.renderers.BasicRenderer;
 import edu.uci.ics.jung.visualization.transform.MutableAffineTransformer;
 import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
 import edu.uci.ics.jung.visualization.transform.shape.ShapeTransformer;
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.RenderingHints.Key;
 import java.awt.Shape;
+import java.awt.event.ItemListener;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
 
 /**
  * A VisualizationViewer that can act as a satellite view for another (master) VisualizationViewer.
@@ -31,6 +50,11 @@ import java.awt.geom.Point2D;
  *
  * <p>A rectangular shape in the satellite view shows the visible bounds of the master view.
  *
+ * <p>With {@link #setThumbnailRendering(boolean) thumbnail rendering}, the graph is drawn from an
+ * image that is rendered on another thread, and rendered again only when the layout or the picked
+ * states change, or when the size or transforms of this view change. Panning and zooming the
+ * master view then only redraws the image and the outline of the visible bounds.
+ *
  * @author Tom Nelson
  */
 @SuppressWarnings("serial")
@@ -39,6 +63,21 @@ public class SatelliteVisualizationViewer<N, E> extends VisualizationViewer<N, E
   /** the master VisualizationViewer that this is a satellite view for */
   protected VisualizationViewer<N, E> master;
 
+  /** whether the graph is drawn from a thumbnail image rather than rendered on each repaint */
+  protected boolean thumbnailRendering;
+
+  /** runs the rendering of the thumbnail, or null for the default of {@code CompletableFuture} */
+  protected Executor thumbnailExecutor;
+
+  /** the latest thumbnail of the graph, or null */
+  private Thumbnail thumbnail;
+
+  /** whether the graph has changed since the latest thumbnail was requested */
+  private final AtomicBoolean thumbnailDirty = new AtomicBoolean(true);
+
+  /** whether a thumbnail is being rendered */
+  private boolean thumbnailRequested;
+
   /**
    * @param master the master VisualizationViewer for which this is a satellite view
    * @param preferredSize the specified layoutSize of the component
@@ -76,6 +115,63 @@ public class SatelliteVisualizationViewer<N, E> extends VisualizationViewer<N, E
     // share the picked state of the master
     setPickedVertexState(master.getPickedVertexState());
     setPickedEdgeState(master.getPickedEdgeState());
+
+    // the thumbnail shows the picked states
+    ItemListener pickListener = e -> invalidateThumbnail();
+    master.getPickedVertexState().addItemListener(pickListener);
+    master.getPickedEdgeState().addItemListener(pickListener);
+  }
+
+  /**
+   * Sets whether to draw the graph from a thumbnail image. The thumbnail is rendered on another
+   * thread with the renderer of this view and a copy of its render context that shares the
+   * functions of the render context, so these are called on that thread while the views may call
+   * them on the event dispatch thread. The default renderers and functions, {@code EdgeShape},
+   * {@code VertexShapeFactory} and {@code ParallelEdgeIndexFunction} allow this; other functions
+   * must not share mutable state between calls.
+   *
+   * @param thumbnailRendering whether to draw the graph from a thumbnail image that is rendered on
+   *     another thread when the graph changes, rather than rendering it on each repaint. This
+   *     applies only with a {@link BasicRenderer}; the labels are not drawn in the thumbnail.
+   */
+  public void setThumbnailRendering(boolean thumbnailRendering) {
+    this.thumbnailRendering = thumbnailRendering;
+    invalidateThumbnail();
+  }
+
+  public boolean isThumbnailRendering() {
+    return thumbnailRendering;
+  }
+
+  /**
+   * @param thumbnailExecutor runs the rendering of the thumbnail; if null, the default asynchronous
+   *     execution facility of {@code CompletableFuture} is used. If the executor rejects the
+   *     rendering, the graph is rendered on each repaint until it accepts it.
+   */
+  public void setThumbnailExecutor(Executor thumbnailExecutor) {
+    this.thumbnailExecutor = thumbnailExecutor;
+  }
+
+  public Executor getThumbnailExecutor() {
+    return thumbnailExecutor;
+  }
+
+  /**
+   * Renders the thumbnail again when this view is next painted, for changes that are not seen by
+   * this view, such as changes to the shapes or paints of the nodes and edges.
+   */
+  public void invalidateThumbnail() {
+    thumbnailDirty.set(true);
+    repaint();
+  }
+
+  /** renders the thumbnail again when the layout model of the shared model changes */
+  @Override
+  public void stateChanged(ChangeEvent e) {
+    if (e.getSource() == getModel()) {
+      thumbnailDirty.set(true);
+    }
+    super.stateChanged(e);
   }
 
   /**
@@ -121,7 +217,13 @@ public class SatelliteVisualizationViewer<N, E> extends VisualizationViewer<N, E
       }
     }
 
-    renderer.render(renderContext, model);
+    if (thumbnailRendering
+        && renderer instanceof BasicRenderer
+        && renderContext instanceof PluggableRenderContext) {
+      drawThumbnail(g2d, oldXform);
+    } else {
+      renderer.render(renderContext, model);
+    }
 
     // if there are postRenderers set, do it
     for (Paintable paintable : postRenderers) {
@@ -137,11 +239,150 @@ public class SatelliteVisualizationViewer<N, E> extends VisualizationViewer<N, E
     g2d.setTransform(oldXform);
   }
 
+  /**
+   * Draws the latest thumbnail, moved to where the graph is now if this view has been transformed
+   * since it was rendered, and requests a new thumbnail if the graph or the view has changed.
+   *
+   * @param g2d the graphics context of this view, with the view transform applied
+   * @param deviceTransform the transform of <code>g2d</code> before the view transform was applied
+   */
+  private void drawThumbnail(Graphics2D g2d, AffineTransform deviceTransform) {
+    // the transform from layout coordinates to the pixels of a thumbnail of this view
+    double deviceScaleX = deviceTransform.getScaleX();
+    double deviceScaleY = deviceTransform.getScaleY();
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    AffineTransform viewTransform = multiLayerTransformer.getTransformer(Layer.VIEW).getTransform();
+    AffineTransform transform = AffineTransform.getScaleInstance(deviceScaleX, deviceScaleY);
+    transform.concatenate(viewTransform);
+    transform.concatenate(multiLayerTransformer.getTransformer(Layer.LAYOUT).getTransform());
+    Dimension size =
+        new Dimension(
+            Math.max(1, (int) Math.ceil(getWidth() * deviceScaleX)),
+            Math.max(1, (int) Math.ceil(getHeight() * deviceScaleY)));
+
+    Thumbnail current = thumbnail;
+    if (current == null || !current.size.equals(size) || !current.transform.equals(transform)) {
+      thumbnailDirty.set(true);
+    }
+    if (thumbnailDirty.get()
+        && !thumbnailRequested
+        && !requestThumbnail(size, transform, deviceScaleX, deviceScaleY, viewTransform)) {
+      // the executor rejected the rendering, so render the graph in this view instead
+      renderer.render(renderContext, model);
+      return;
+    }
+    if (current == null) {
+      return;
+    }
+    try {
+      // from the pixels of the thumbnail to layout coordinates to the pixels of this view
+      AffineTransform xform = new AffineTransform(transform);
+      xform.concatenate(current.transform.createInverse());
+      xform.preConcatenate(AffineTransform.getScaleInstance(1 / deviceScaleX, 1 / deviceScaleY));
+      AffineTransform viewXform = g2d.getTransform();
+      g2d.setTransform(deviceTransform);
+      g2d.drawImage(current.image, xform, null);
+      g2d.setTransform(viewXform);
+    } catch (NoninvertibleTransformException ex) {
+      // a thumbnail of a degenerate view shows nothing
+    }
+  }
+
+  /**
+   * Renders a thumbnail of the whole graph on the thumbnail executor. The nodes and edges to render
+   * are copied here, on the event dispatch thread; their locations are read while rendering.
+   *
+   * @return false if the executor rejected the rendering
+   */
+  private boolean requestThumbnail(
+      Dimension size,
+      AffineTransform transform,
+      double deviceScaleX,
+      double deviceScaleY,
+      AffineTransform viewTransform) {
+    thumbnailRequested = true;
+    thumbnailDirty.set(false);
+    @SuppressWarnings("unchecked")
+    BasicRenderer<N, E> basicRenderer = (BasicRenderer<N, E>) renderer;
+    PluggableRenderContext<N, E> copy = ((PluggableRenderContext<N, E>) renderContext).copy();
+    AffineTransform graphicsTransform =
+        AffineTransform.getScaleInstance(deviceScaleX, deviceScaleY);
+    graphicsTransform.concatenate(viewTransform);
+    Map<Key, Object> hints = new HashMap<>(renderingHints);
+    Network<N, E> network = model.getNetwork();
+    List<N> nodes = ImmutableList.copyOf(network.nodes());
+    List<E> edges = ImmutableList.copyOf(network.edges());
+
+    Runnable render =
+        () -> {
+          BufferedImage image =
+              new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB_PRE);
+          Graphics2D g2d = image.createGraphics();
+          try {
+            g2d.setComposite(AlphaComposite.Src);
+            g2d.setRenderingHints(hints);
+            g2d.setTransform(graphicsTransform);
+            copy.setGraphicsContext(new GraphicsDecorator(g2d));
+            basicRenderer.renderShapes(copy, model, nodes, edges);
+            Thumbnail rendered = new Thumbnail(image, size, transform);
+            SwingUtilities.invokeLater(() -> thumbnailRendered(rendered));
+          } catch (RuntimeException ex) {
+            // the graph or the layout changed while rendering, or a function of the render
+            // context failed on this thread; render it again when next painted
+            thumbnailDirty.set(true);
+            SwingUtilities.invokeLater(() -> thumbnailRendered(null));
+          } finally {
+            g2d.dispose();
+          }
+        };
+    CompletableFuture<Void> future;
+    try {
+      future =
+          thumbnailExecutor != null
+              ? CompletableFuture.runAsync(render, thumbnailExecutor)
+              : CompletableFuture.runAsync(render);
+    } catch (RejectedExecutionException ex) {
+      thumbnailRequested = false;
+      thumbnailDirty.set(true);
+      return false;
+    }
+    future.exceptionally(
+        ex -> {
+          // the graph has not been rendered, so render it again when next painted
+          thumbnailDirty.set(true);
+          SwingUtilities.invokeLater(() -> thumbnailRendered(null));
+          return null;
+        });
+    return true;
+  }
+
+  /** called on the event dispatch thread when a requested thumbnail has been rendered */
+  private void thumbnailRendered(Thumbnail rendered) {
+    thumbnailRequested = false;
+    if (rendered != null) {
+      thumbnail = rendered;
+    }
+    repaint();
+  }
+
   /** @return Returns the master. */
   public VisualizationViewer<N, E> getMaster() {
     return master;
   }
 
+  /** an image of the graph, with the transform from layout coordinates to its pixels */
+  private static class Thumbnail {
+    final BufferedImage image;
+    final Dimension size;
+    final AffineTransform transform;
+
+    Thumbnail(BufferedImage image, Dimension size, AffineTransform transform) {
+      this.image = image;
+      this.size = size;
+      this.transform = transform;
+    }
+  }
+
   /**
    * A four-sided shape that represents the visible part of the master view and is drawn in the
    * satellite view
@@ -20,6 +20,7 @@ import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
 import java.awt.Point;
 import java.awt.RenderingHints;
 import java.awt.Toolkit;
@@ -59,6 +60,11 @@ public class ShearingGraphMousePlugin extends AbstractGraphMousePlugin
    */
   public ShearingGraphMousePlugin(int modifiers) {
     super(modifiers);
+    if (GraphicsEnvironment.isHeadless()) {
+      // there is no mouse to show a custom cursor for
+      cursor = Cursor.getDefaultCursor();
+      return;
+    }
     Dimension cd = Toolkit.getDefaultToolkit().getBestCursorSize(16, 16);
     BufferedImage cursorImage = new BufferedImage(cd.width, cd.height, BufferedImage.TYPE_INT_ARGB);
     Graphics g = cursorImage.createGraphics();
@@ -34,20 +34,16 @@ import java.util.function.Function;
  * <p>All edge shapes must be defined so that their endpoints are at (0,0) and (1,0). They will be
  * scaled, rotated and translated into position by the PluggableRenderer.
  *
+ * <p>The shapes that depend on the edge are created anew for each call, and the shared ones are
+ * never changed, so that these functions may be called from several rendering threads at once.
+ *
  * @author Joshua O'Madadhain
  * @author Tom Nelson
  * @param <E> the edge type
  */
 public class EdgeShape<E> {
   private static final Line2D LINE = new Line2D.Float(0.0f, 0.0f, 1.0f, 0.0f);
-  private static final GeneralPath BENT_LINE = new GeneralPath();
-  private static final QuadCurve2D QUAD_CURVE = new QuadCurve2D.Float();
-  private static final CubicCurve2D CUBIC_CURVE = new CubicCurve2D.Float();
   private static final Ellipse2D ELLIPSE = new Ellipse2D.Float(-.5f, -.5f, 1, 1);
-  private static final Rectangle2D BOX = new Rectangle2D.Float();
-  private static final GeneralPath BOW_TIE = new GeneralPath(GeneralPath.WIND_EVEN_ODD);
-
-  private static GeneralPath triangle;
 
   /**
    * A convenience instance for other edge shapes to use for self-loop edges where parallel
@@ -107,8 +103,8 @@ public class EdgeShape<E> {
     }
 
     /**
-     * Get the shape for this edge, returning either the shared instance or, in the case of
-     * self-loop edges, the Loop shared instance.
+     * Get the shape for this edge, returning either a new instance or, in the case of self-loop
+     * edges, the shape of the Loop shared instance.
      */
     public Shape apply(Context<Network, E> context) {
       Network graph = context.graph;
@@ -119,11 +115,11 @@ public class EdgeShape<E> {
 
       int index = getIndex(e, edgeIndexFunction);
       float controlY = control_offset_increment + control_offset_increment * index;
-      BENT_LINE.reset();
-      BENT_LINE.moveTo(0.0f, 0.0f);
-      BENT_LINE.lineTo(0.5f, controlY);
-      BENT_LINE.lineTo(1.0f, 1.0f);
-      return BENT_LINE;
+      GeneralPath bentLine = new GeneralPath();
+      bentLine.moveTo(0.0f, 0.0f);
+      bentLine.lineTo(0.5f, controlY);
+      bentLine.lineTo(1.0f, 1.0f);
+      return bentLine;
     }
   }
 
@@ -136,8 +132,8 @@ public class EdgeShape<E> {
     }
 
     /**
-     * Get the shape for this edge, returning either the shared instance or, in the case of
-     * self-loop edges, the Loop shared instance.
+     * Get the shape for this edge, returning either a new instance or, in the case of self-loop
+     * edges, the shape of the Loop shared instance.
      */
     public Shape apply(Context<Network, E> context) {
       Network graph = context.graph;
@@ -149,8 +145,7 @@ public class EdgeShape<E> {
       int index = getIndex(e, edgeIndexFunction);
 
       float controlY = control_offset_increment + control_offset_increment * index;
-      QUAD_CURVE.setCurve(0.0f, 0.0f, 0.5f, controlY, 1.0f, 0.0f);
-      return QUAD_CURVE;
+      return new QuadCurve2D.Float(0.0f, 0.0f, 0.5f, controlY, 1.0f, 0.0f);
     }
   }
 
@@ -165,8 +160,8 @@ public class EdgeShape<E> {
     }
 
     /**
-     * Get the shape for this edge, returning either the shared instance or, in the case of
-     * self-loop edges, the Loop shared instance.
+     * Get the shape for this edge, returning either a new instance or, in the case of self-loop
+     * edges, the shape of the Loop shared instance.
      */
     public Shape apply(Context<Network, E> context) {
       Network graph = context.graph;
@@ -178,8 +173,7 @@ public class EdgeShape<E> {
       int index = getIndex(e, edgeIndexFunction);
 
       float controlY = control_offset_increment + control_offset_increment * index;
-      CUBIC_CURVE.setCurve(0.0f, 0.0f, 0.33f, 2 * controlY, .66f, -controlY, 1.0f, 0.0f);
-      return CUBIC_CURVE;
+      return new CubicCurve2D.Float(0.0f, 0.0f, 0.33f, 2 * controlY, .66f, -controlY, 1.0f, 0.0f);
     }
   }
 
@@ -216,7 +210,7 @@ public class EdgeShape<E> {
     public Shape apply(Context<Network, E> context) {
       Network graph = context.graph;
       E e = context.element;
-      return buildFrame(ELLIPSE, getIndex(e, edgeIndexFunction));
+      return buildFrame(new Ellipse2D.Float(), getIndex(e, edgeIndexFunction));
     }
   }
 
@@ -227,14 +221,17 @@ public class EdgeShape<E> {
    * @author Joshua O'Madadhain
    */
   public static class Wedge<E> extends ParallelEdgeShapeTransformer<E> {
+    private final GeneralPath triangle;
+    private final GeneralPath bowTie = new GeneralPath(GeneralPath.WIND_EVEN_ODD);
+
     public Wedge(int width) {
       triangle = ArrowFactory.getWedgeArrow(width, 1);
       triangle.transform(AffineTransform.getTranslateInstance(1, 0));
-      BOW_TIE.moveTo(0, width / 2);
-      BOW_TIE.lineTo(1, -width / 2);
-      BOW_TIE.lineTo(1, width / 2);
-      BOW_TIE.lineTo(0, -width / 2);
-      BOW_TIE.closePath();
+      bowTie.moveTo(0, width / 2);
+      bowTie.lineTo(1, -width / 2);
+      bowTie.lineTo(1, width / 2);
+      bowTie.lineTo(0, -width / 2);
+      bowTie.closePath();
     }
 
     public Shape apply(Context<Network, E> context) {
@@ -243,7 +240,7 @@ public class EdgeShape<E> {
       if (isLoop(graph, e)) {
         return loop.apply(context);
       }
-      return graph.isDirected() ? triangle : BOW_TIE;
+      return graph.isDirected() ? triangle : bowTie;
     }
   }
 
@@ -255,7 +252,7 @@ public class EdgeShape<E> {
     public Shape apply(Context<Network, E> context) {
       Network graph = context.graph;
       E e = context.element;
-      return buildFrame(BOX, getIndex(e, edgeIndexFunction));
+      return buildFrame(new Rectangle2D.Float(), getIndex(e, edgeIndexFunction));
     }
   }
 
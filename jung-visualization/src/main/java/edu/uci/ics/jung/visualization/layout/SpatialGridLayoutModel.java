@@ -4,6 +4,7 @@ import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
 import edu.uci.ics.jung.layout.util.Caching;
+import edu.uci.ics.jung.visualization.spatial.EdgeSpatial;
 import edu.uci.ics.jung.visualization.spatial.Spatial;
 import edu.uci.ics.jung.visualization.spatial.SpatialGrid;
 import java.awt.*;
@@ -23,6 +24,9 @@ public class SpatialGridLayoutModel<N, P> extends LoadingCacheLayoutModel<N, P>
 
   protected Spatial<N> spatial;
 
+  /** the spatial structure for the edges, if any */
+  protected EdgeSpatial<N, ?> edgeSpatial;
+
   public static <N, P> Builder<N, P, ?> builder() {
 
     return new Builder<N, P, SpatialGridLayoutModel<N, P>>() {
@@ -42,6 +46,9 @@ public class SpatialGridLayoutModel<N, P> extends LoadingCacheLayoutModel<N, P>
   public void accept(LayoutAlgorithm<N, P> layoutAlgorithm) {
     super.accept(layoutAlgorithm);
     spatial.recalculate(graph.nodes());
+    if (edgeSpatial != null) {
+      edgeSpatial.recalculate();
+    }
   }
 
   public void setSpatial(Spatial<N> spatial) {
@@ -81,6 +88,9 @@ public class SpatialGridLayoutModel<N, P> extends LoadingCacheLayoutModel<N, P>
     super.set(node, location);
     if (isFireEvents()) {
       spatial.update(node);
+      if (edgeSpatial != null) {
+        edgeSpatial.update(node);
+      }
     }
   }
 
@@ -89,10 +99,33 @@ public class SpatialGridLayoutModel<N, P> extends LoadingCacheLayoutModel<N, P>
     super.set(node, x, y);
     if (isFireEvents()) {
       spatial.update(node);
+      if (edgeSpatial != null) {
+        edgeSpatial.update(node);
+      }
     }
   }
 
   public Spatial<N> getSpatial() {
     return this.spatial;
   }
+
+  /**
+   * Sets the spatial structure for the edges, which is rebuilt now and whenever a layout algorithm
+   * visits this model, and updated whenever a node is moved. It is not told about edges added to or
+   * removed from the graph: {@code BaseVisualizationModel} sets one only when its network is an
+   * {@code ObservableNetwork}, and passes those changes on. Other callers must call {@link
+   * EdgeSpatial#updateEdge} or {@link EdgeSpatial#recalculate()} after the graph changes.
+   *
+   * @param edgeSpatial the spatial structure for the edges; may be null
+   */
+  public void setEdgeSpatial(EdgeSpatial<N, ?> edgeSpatial) {
+    this.edgeSpatial = edgeSpatial;
+    if (edgeSpatial != null) {
+      edgeSpatial.recalculate();
+    }
+  }
+
+  public EdgeSpatial<N, ?> getEdgeSpatial() {
+    return this.edgeSpatial;
+  }
 }
@@ -4,6 +4,7 @@ import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
 import edu.uci.ics.jung.layout.util.Caching;
+import edu.uci.ics.jung.visualization.spatial.EdgeSpatial;
 import edu.uci.ics.jung.visualization.spatial.Spatial;
 import edu.uci.ics.jung.visualization.spatial.SpatialQuadTree;
 import java.awt.*;
@@ -26,6 +27,9 @@ public class SpatialQuadTreeLayoutModel<N, P> extends LoadingCacheLayoutModel<N,
   /** the spatial structure to use */
   protected Spatial<N> spatial;
 
+  /** the spatial structure for the edges, if any */
+  protected EdgeSpatial<N, ?> edgeSpatial;
+
   public static <N, P> Builder<N, P, ?> builder() {
     return new Builder<N, P, SpatialQuadTreeLayoutModel<N, P>>() {
       @Override
@@ -49,6 +53,9 @@ public class SpatialQuadTreeLayoutModel<N, P> extends LoadingCacheLayoutModel<N,
   public void accept(LayoutAlgorithm<N, P> layoutAlgorithm) {
     super.accept(layoutAlgorithm);
     spatial.recalculate(graph.nodes());
+    if (edgeSpatial != null) {
+      edgeSpatial.recalculate();
+    }
   }
 
   public void setSpatial(Spatial<N> spatial) {
@@ -78,6 +85,9 @@ public class SpatialQuadTreeLayoutModel<N, P> extends LoadingCacheLayoutModel<N,
     if (this.isFireEvents()) {
       log.trace("put {} in {}", node, location);
       spatial.update(node);
+      if (edgeSpatial != null) {
+        edgeSpatial.update(node);
+      }
     }
   }
 
@@ -87,6 +97,9 @@ public class SpatialQuadTreeLayoutModel<N, P> extends LoadingCacheLayoutModel<N,
     if (this.isFireEvents()) {
       log.trace("put {} in {},{}", node, x, y);
       spatial.update(node);
+      if (edgeSpatial != null) {
+        edgeSpatial.update(node);
+      }
     }
   }
 
@@ -94,6 +107,26 @@ public class SpatialQuadTreeLayoutModel<N, P> extends LoadingCacheLayoutModel<N,
     return this.spatial;
   }
 
+  /**
+   * Sets the spatial structure for the edges, which is rebuilt now and whenever a layout algorithm
+   * visits this model, and updated whenever a node is moved. It is not told about edges added to or
+   * removed from the graph: {@code BaseVisualizationModel} sets one only when its network is an
+   * {@code ObservableNetwork}, and passes those changes on. Other callers must call {@link
+   * EdgeSpatial#updateEdge} or {@link EdgeSpatial#recalculate()} after the graph changes.
+   *
+   * @param edgeSpatial the spatial structure for the edges; may be null
+   */
+  public void setEdgeSpatial(EdgeSpatial<N, ?> edgeSpatial) {
+    this.edgeSpatial = edgeSpatial;
+    if (edgeSpatial != null) {
+      edgeSpatial.recalculate();
+    }
+  }
+
+  public EdgeSpatial<N, ?> getEdgeSpatial() {
+    return this.edgeSpatial;
+  }
+
   public void showLocations(String what) {
     log.info("{} locations {}", what, locations.asMap());
   }
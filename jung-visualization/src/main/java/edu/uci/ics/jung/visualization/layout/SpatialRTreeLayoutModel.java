@@ -0,0 +1,138 @@
+package edu.uci.ics.jung.visualization.layout;
+
+import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.util.Caching;
+import edu.uci.ics.jung.visualization.spatial.EdgeSpatial;
+import edu.uci.ics.jung.visualization.spatial.Spatial;
+import edu.uci.ics.jung.visualization.spatial.SpatialRTree;
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A LayoutModel that includes a SpatialRTree data structure. The R-tree is bulk loaded when a
+ * layout algorithm visits this model, and updated in place as nodes are moved.
+ *
+ * @param <N> the node type
+ */
+public class SpatialRTreeLayoutModel<N, P> extends LoadingCacheLayoutModel<N, P>
+    implements LayoutModel<N, P>, Caching {
+
+  private static final Logger log = LoggerFactory.getLogger(SpatialRTreeLayoutModel.class);
+
+  /** the spatial structure to use */
+  protected Spatial<N> spatial;
+
+  /** the spatial structure for the edges, if any */
+  protected EdgeSpatial<N, ?> edgeSpatial;
+
+  public static <N, P> Builder<N, P, ?> builder() {
+    return new Builder<N, P, SpatialRTreeLayoutModel<N, P>>() {
+      @Override
+      public SpatialRTreeLayoutModel<N, P> build() {
+        return new SpatialRTreeLayoutModel<>(this);
+      }
+    };
+  }
+
+  protected SpatialRTreeLayoutModel(SpatialRTreeLayoutModel.Builder<N, P, ?> builder) {
+    super(builder);
+    setupSpatial(new Dimension(width, height));
+  }
+
+  /**
+   * allow the passed layoutAlgorithm to visit this
+   *
+   * @param layoutAlgorithm the layoutAlgorithm visitor
+   */
+  @Override
+  public void accept(LayoutAlgorithm<N, P> layoutAlgorithm) {
+    super.accept(layoutAlgorithm);
+    spatial.recalculate(graph.nodes());
+    if (edgeSpatial != null) {
+      edgeSpatial.recalculate();
+    }
+  }
+
+  public void setSpatial(Spatial<N> spatial) {
+    this.spatial = spatial;
+  }
+
+  /**
+   * The R-tree does not depend on the layout size, so a resize only enlarges its layout area and
+   * repacks it with the adjusted node locations.
+   */
+  @Override
+  public void setSize(int width, int height) {
+    super.setSize(width, height);
+    if (spatial == null) {
+      setupSpatial(new Dimension(width, height));
+    } else {
+      spatial.setBounds(
+          spatial.getLayoutArea().createUnion(new Rectangle2D.Double(0, 0, width, height)));
+      spatial.recalculate(this.graph.nodes());
+      if (edgeSpatial != null) {
+        edgeSpatial.recalculate();
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected void setupSpatial(Dimension delegateSize) {
+    this.spatial =
+        new SpatialRTree<>(
+            (LayoutModel<N, Point2D>) this, delegateSize.getWidth(), delegateSize.getHeight());
+  }
+
+  @Override
+  public void set(N node, P location) {
+    super.set(node, location);
+    if (this.isFireEvents()) {
+      log.trace("put {} in {}", node, location);
+      spatial.update(node);
+      if (edgeSpatial != null) {
+        edgeSpatial.update(node);
+      }
+    }
+  }
+
+  @Override
+  public void set(N node, double x, double y) {
+    super.set(node, x, y);
+    if (this.isFireEvents()) {
+      log.trace("put {} in {},{}", node, x, y);
+      spatial.update(node);
+      if (edgeSpatial != null) {
+        edgeSpatial.update(node);
+      }
+    }
+  }
+
+  public Spatial<N> getSpatial() {
+    return this.spatial;
+  }
+
+  /**
+   * Sets the spatial structure for the edges, which is rebuilt now and whenever a layout algorithm
+   * visits this model, and updated whenever a node is moved. It is not told about edges added to or
+   * removed from the graph: {@code BaseVisualizationModel} sets one only when its network is an
+   * {@code ObservableNetwork}, and passes those changes on. Other callers must call {@link
+   * EdgeSpatial#updateEdge} or {@link EdgeSpatial#recalculate()} after the graph changes.
+   *
+   * @param edgeSpatial the spatial structure for the edges; may be null
+   */
+  public void setEdgeSpatial(EdgeSpatial<N, ?> edgeSpatial) {
+    this.edgeSpatial = edgeSpatial;
+    if (edgeSpatial != null) {
+      edgeSpatial.recalculate();
+    }
+  }
+
+  public EdgeSpatial<N, ?> getEdgeSpatial() {
+    return this.edgeSpatial;
+  }
+}
@@ -11,6 +11,7 @@
  */
 package edu.uci.ics.jung.visualization.picking;
 
+import com.google.common.collect.Collections2;
 import com.google.common.collect.Sets;
 import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Network;
@@ -18,7 +19,11 @@ import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.visualization.VisualizationServer;
 import edu.uci.ics.jung.visualization.layout.NetworkElementAccessor;
 import edu.uci.ics.jung.visualization.layout.SpatialQuadTreeLayoutModel;
+import edu.uci.ics.jung.visualization.layout.SpatialRTreeLayoutModel;
+import edu.uci.ics.jung.visualization.spatial.EdgeSpatial;
+import edu.uci.ics.jung.visualization.spatial.Spatial;
 import edu.uci.ics.jung.visualization.spatial.SpatialQuadTree;
+import edu.uci.ics.jung.visualization.spatial.SpatialRTree;
 import edu.uci.ics.jung.visualization.util.Context;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
@@ -32,6 +37,7 @@ import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,6 +83,13 @@ public class ShapePickSupport<V, E> implements NetworkElementAccessor<V, E> {
   /** The current picking heuristic for this instance. Defaults to <code>CENTERED</code>. */
   protected Style style = Style.CENTERED;
 
+  /** the farthest any vertex shape reaches from its vertex location, with what it was found for */
+  private double maxNodeExtent;
+
+  private Function<? super V, Shape> maxNodeExtentShapes;
+  private Network<V, E> maxNodeExtentNetwork;
+  private int maxNodeExtentNodeCount;
+
   /**
    * Creates a <code>ShapePickSupport</code> for the <code>vv</code> VisualizationServer, with the
    * specified pick footprint and the default pick style. The <code>VisualizationServer</code> is
@@ -172,6 +185,11 @@ public class ShapePickSupport<V, E> implements NetworkElementAccessor<V, E> {
           (SpatialQuadTree<V>) ((SpatialQuadTreeLayoutModel) layoutModel).getSpatial();
       return getNode(tree, layoutModel, pickPoint.getX(), pickPoint.getY());
     }
+    if (layoutModel instanceof SpatialRTreeLayoutModel) {
+      SpatialRTree<V> tree =
+          (SpatialRTree<V>) ((SpatialRTreeLayoutModel) layoutModel).getSpatial();
+      return getNode(tree, layoutModel, pickPoint.getX(), pickPoint.getY());
+    }
 
     // fall back on checking every node
     while (true) {
@@ -258,17 +276,93 @@ public class ShapePickSupport<V, E> implements NetworkElementAccessor<V, E> {
       log.trace("target is {}", target);
     }
 
-    double minDistance = Double.MAX_VALUE;
-
-    // will be the picked node
-    V closest = null;
-
     // get the all nodes from any leafs that intersect the target
     Collection<V> nodes = spatial.getVisibleNodes(target);
     if (log.isTraceEnabled()) {
       log.trace("instead of checking all nodes: {}", getFilteredVertices());
       log.trace("out of these candidates: {}...", nodes);
     }
+    V closest = getContainingNode(nodes, layoutModel, x, y);
+    if (log.isTraceEnabled()) {
+      log.trace("picked {} with spatial quadtree", closest);
+    }
+    return closest;
+  }
+
+  /**
+   * uses the spatial R-tree to find the closest node to the points. The nodes near enough to (x,y)
+   * for their shapes to contain it are found by a search with a radius of the farthest that any
+   * vertex shape reaches from its vertex location.
+   *
+   * @param spatial the R-tree of the node locations
+   * @param layoutModel
+   * @param x in the layout coordinate system
+   * @param y in the layout coordinate system
+   * @return the picked node
+   */
+  protected V getNode(
+      SpatialRTree<V> spatial, LayoutModel<V, Point2D> layoutModel, double x, double y) {
+    double radius = getMaxNodeExtent();
+    double diameter = radius * 2;
+    Ellipse2D target = new Ellipse2D.Double(x - radius, y - radius, diameter, diameter);
+    V closest = getContainingNode(spatial.getVisibleNodes(target), layoutModel, x, y);
+    if (log.isTraceEnabled()) {
+      log.trace("picked {} with spatial R-tree", closest);
+    }
+    return closest;
+  }
+
+  /**
+   * Returns the farthest that the shape of any vertex reaches from the vertex location. It is
+   * measured again when the vertex shape function, the network or its number of vertices changes;
+   * call {@link #clearMaxNodeExtent()} when the shapes change otherwise.
+   */
+  protected double getMaxNodeExtent() {
+    Function<? super V, Shape> shapes = vv.getRenderContext().getVertexShapeTransformer();
+    Network<V, E> network = vv.getModel().getNetwork();
+    // the vertices that are filtered out are measured too, so that the filter may change freely
+    Set<V> nodes = network.nodes();
+    if (shapes == maxNodeExtentShapes
+        && network == maxNodeExtentNetwork
+        && nodes.size() == maxNodeExtentNodeCount) {
+      return maxNodeExtent;
+    }
+    double extent = 0;
+    for (V node : nodes) {
+      Rectangle2D bounds = shapes.apply(node).getBounds2D();
+      double dx = Math.max(Math.abs(bounds.getMinX()), Math.abs(bounds.getMaxX()));
+      double dy = Math.max(Math.abs(bounds.getMinY()), Math.abs(bounds.getMaxY()));
+      extent = Math.max(extent, Math.sqrt(dx * dx + dy * dy));
+    }
+    maxNodeExtent = extent;
+    maxNodeExtentShapes = shapes;
+    maxNodeExtentNetwork = network;
+    maxNodeExtentNodeCount = nodes.size();
+    return extent;
+  }
+
+  /** Forgets the measured vertex shape extent, so that it is measured again at the next pick. */
+  public void clearMaxNodeExtent() {
+    maxNodeExtentNetwork = null;
+  }
+
+  /**
+   * Returns the node of <code>nodes</code> whose shape contains (x,y), chosen according to the
+   * pick style when there are more than one.
+   *
+   * @param nodes the candidate nodes
+   * @param layoutModel
+   * @param x in the layout coordinate system
+   * @param y in the layout coordinate system
+   * @return the picked node, or null if no shape contains (x,y)
+   */
+  private V getContainingNode(
+      Collection<V> nodes, LayoutModel<V, Point2D> layoutModel, double x, double y) {
+    double minDistance = Double.MAX_VALUE;
+
+    // will be the picked node
+    V closest = null;
+
     // Check the (smaller) set of eligible nodes
     // to return the one that contains the (x,y)
     for (V node : nodes) {
@@ -306,9 +400,6 @@ public class ShapePickSupport<V, E> implements NetworkElementAccessor<V, E> {
         }
       }
     }
-    if (log.isTraceEnabled()) {
-      log.trace("picked {} with spatial quadtree", closest);
-    }
     return closest;
   }
   /**
@@ -331,6 +422,10 @@ public class ShapePickSupport<V, E> implements NetworkElementAccessor<V, E> {
           (SpatialQuadTree) ((SpatialQuadTreeLayoutModel) layoutModel).getSpatial();
       return getContained(spatial, layoutModel, shape);
     }
+    if (layoutModel instanceof SpatialRTreeLayoutModel) {
+      Spatial<V> spatial = ((SpatialRTreeLayoutModel) layoutModel).getSpatial();
+      return getContained(spatial, layoutModel, shape);
+    }
 
     // fall back on checking every node
     while (true) {
@@ -352,7 +447,7 @@ public class ShapePickSupport<V, E> implements NetworkElementAccessor<V, E> {
   }
 
   /**
-   * use the spatial quad tree to find nodes inside the passed shape
+   * use the spatial structure to find nodes inside the passed shape
    *
    * @param spatial
    * @param layoutModel
@@ -360,7 +455,7 @@ public class ShapePickSupport<V, E> implements NetworkElementAccessor<V, E> {
    * @return the nodes contained in the target shape
    */
   protected Collection<V> getContained(
-      SpatialQuadTree<V> spatial, LayoutModel<V, Point2D> layoutModel, Shape shape) {
+      Spatial<V> spatial, LayoutModel<V, Point2D> layoutModel, Shape shape) {
 
     Collection<V> visible = spatial.getVisibleNodes(shape);
     if (log.isTraceEnabled()) {
@@ -406,8 +501,8 @@ public class ShapePickSupport<V, E> implements NetworkElementAccessor<V, E> {
     double minDistance = Double.MAX_VALUE;
     while (true) {
       try {
-        // this checks every edge.
-        for (E e : getFilteredEdges()) {
+        // this checks every edge near the pick area, or every edge if they are not indexed
+        for (E e : getFilteredEdges(pickArea)) {
 
           Shape edgeShape = getTransformedEdgeShape(e);
           if (edgeShape == null) {
@@ -520,6 +615,25 @@ public class ShapePickSupport<V, E> implements NetworkElementAccessor<V, E> {
         : edges;
   }
 
+  /**
+   * Returns the edges that may intersect <code>area</code> and that satisfy the edge include
+   * predicate. Uses the model's edge spatial structure when there is one, otherwise returns all of
+   * {@link #getFilteredEdges()}.
+   *
+   * @param area the area of interest, in layout coordinates
+   * @return the candidate edges
+   */
+  protected Collection<E> getFilteredEdges(Shape area) {
+    EdgeSpatial<V, E> edgeSpatial = vv.getModel().getEdgeSpatial();
+    if (edgeSpatial == null) {
+      return getFilteredEdges();
+    }
+    Collection<E> edges = edgeSpatial.getVisibleEdges(area);
+    return edgesAreFiltered()
+        ? Collections2.filter(edges, vv.getRenderContext().getEdgeIncludePredicate()::test)
+        : edges;
+  }
+
   /**
    * Quick test to allow optimization of <code>getFilteredVertices()</code>.
    *
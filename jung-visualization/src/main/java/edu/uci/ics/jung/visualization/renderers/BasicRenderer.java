@@ -10,13 +10,27 @@ package edu.uci.ics.jung.visualization.renderers;
 import com.google.common.collect.Sets;
 import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Network;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.visualization.Layer;
+import edu.uci.ics.jung.visualization.MultiLayerTransformer;
 import edu.uci.ics.jung.visualization.RenderContext;
 import edu.uci.ics.jung.visualization.VisualizationModel;
 import edu.uci.ics.jung.visualization.VisualizationServer;
+import edu.uci.ics.jung.visualization.spatial.EdgeSpatial;
 import edu.uci.ics.jung.visualization.spatial.Spatial;
+import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
+import java.awt.Paint;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +40,11 @@ import org.slf4j.LoggerFactory;
  * used in the renderVertex and renderEdge methods, which are called in the render loop of the
  * VisualizationViewer.
  *
+ * <p>The level of detail follows the scale from layout to view coordinates. Below the label scale
+ * threshold, labels and edge arrows are skipped. Below the outline scale threshold, edges are
+ * painted as straight lines and nodes as filled squares of a few pixels, batched into one path for
+ * each paint. Both thresholds default to 0, which always paints everything.
+ *
  * @author Tom Nelson
  */
 public class BasicRenderer<V, E> implements Renderer<V, E> {
@@ -36,6 +55,13 @@ public class BasicRenderer<V, E> implements Renderer<V, E> {
   protected Renderer.Edge<V, E> edgeRenderer = new BasicEdgeRenderer<V, E>();
   protected Renderer.EdgeLabel<V, E> edgeLabelRenderer = new BasicEdgeLabelRenderer<V, E>();
 
+  /** the scale below which labels and edge arrows are not painted */
+  protected double labelScaleThreshold = 0;
+  /** the scale below which edges are painted as lines and nodes as squares */
+  protected double outlineScaleThreshold = 0;
+  /** the side, in pixels, of the square painted for each node below the outline threshold */
+  protected double outlineNodeSize = 2;
+
   public void render(
       RenderContext<V, E> renderContext,
       VisualizationModel<V, E, Point2D> visualizationModel,
@@ -44,12 +70,10 @@ public class BasicRenderer<V, E> implements Renderer<V, E> {
       render(renderContext, visualizationModel);
       return;
     }
-    Set<V> visibleNodes = null;
+    Shape viewOnLayout = ((VisualizationServer) renderContext.getScreenDevice()).viewOnLayout();
+    Collection<V> visibleNodes = null;
     try {
-      visibleNodes =
-          (Set)
-              spatial.getVisibleNodes(
-                  ((VisualizationServer) renderContext.getScreenDevice()).viewOnLayout());
+      visibleNodes = spatial.getVisibleNodes(viewOnLayout);
     } catch (ConcurrentModificationException ex) {
       // skip rendering until graph node index is stable,
       // this can happen if the layout relax thread is changing locations while the
@@ -57,32 +81,144 @@ public class BasicRenderer<V, E> implements Renderer<V, E> {
       return;
     }
 
+    Collection<E> visibleEdges;
+    EdgeSpatial<V, E> edgeSpatial = visualizationModel.getEdgeSpatial();
+    if (edgeSpatial != null) {
+      // the edge index also finds edges that cross the view with both endpoints outside it
+      visibleEdges = edgeSpatial.getVisibleEdges(viewOnLayout);
+    } else {
+      Network<V, E> network = visualizationModel.getNetwork();
+      Set<V> visibleNodeSet =
+          visibleNodes instanceof Set ? (Set<V>) visibleNodes : Sets.newHashSet(visibleNodes);
+      visibleEdges = Sets.newHashSet(network.edges());
+      for (E edge : network.edges()) {
+        EndpointPair<V> endpoints = network.incidentNodes(edge);
+        boolean keep = false;
+        for (V v : endpoints) {
+          keep |= visibleNodeSet.contains(v);
+        }
+        if (!keep) {
+          visibleEdges.remove(edge);
+        }
+      }
+    }
+    render(renderContext, visualizationModel, visibleNodes, visibleEdges);
+  }
+
+  @Override
+  public void render(
+      RenderContext<V, E> renderContext, VisualizationModel<V, E, Point2D> visualizationModel) {
     Network<V, E> network = visualizationModel.getNetwork();
-    Set<E> visibleEdges = Sets.newHashSet(network.edges());
-    for (E edge : network.edges()) {
-      EndpointPair<V> endpoints = network.incidentNodes(edge);
-      boolean keep = false;
-      for (V v : endpoints) {
-        keep |= visibleNodes.contains(v);
+    render(renderContext, visualizationModel, network.nodes(), network.edges());
+  }
+
+  /**
+   * Paints the passed edges and then the passed nodes, at the level of detail chosen by the current
+   * scale from layout to view coordinates.
+   *
+   * @param nodes the nodes to paint
+   * @param edges the edges to paint
+   */
+  protected void render(
+      RenderContext<V, E> renderContext,
+      VisualizationModel<V, E, Point2D> visualizationModel,
+      Collection<V> nodes,
+      Collection<E> edges) {
+    double scale = getScale(renderContext);
+    if (scale < outlineScaleThreshold) {
+      renderOutline(renderContext, visualizationModel, nodes, edges);
+      return;
+    }
+    boolean labels = scale >= labelScaleThreshold;
+    boolean renderEdgeArrow = renderContext.renderEdgeArrow();
+    if (!labels) {
+      renderContext.setRenderEdgeArrow(false);
+    }
+    try {
+      // paint all the edges
+      try {
+        for (E e : edges) {
+          renderEdge(renderContext, visualizationModel, e);
+          if (labels) {
+            renderEdgeLabel(renderContext, visualizationModel, e);
+          }
+        }
+      } catch (ConcurrentModificationException cme) {
+        renderContext.getScreenDevice().repaint();
       }
-      if (!keep) {
-        visibleEdges.remove(edge);
+
+      // paint all the vertices
+      try {
+        for (V v : nodes) {
+          renderVertex(renderContext, visualizationModel, v);
+          if (labels) {
+            renderVertexLabel(renderContext, visualizationModel, v);
+          }
+        }
+      } catch (ConcurrentModificationException cme) {
+        renderContext.getScreenDevice().repaint();
       }
+    } finally {
+      renderContext.setRenderEdgeArrow(renderEdgeArrow);
+    }
+  }
+
+  /**
+   * Paints the passed edges and then the passed nodes at the current level of detail, without their
+   * labels. Used with {@link #renderLabels} when the shapes are painted apart from the labels, as
+   * in tiled or progressive rendering. A {@link ConcurrentModificationException} from a layout that
+   * changes while painting is passed on to the caller.
+   *
+   * @param nodes the nodes to paint
+   * @param edges the edges to paint
+   */
+  public void renderShapes(
+      RenderContext<V, E> renderContext,
+      VisualizationModel<V, E, Point2D> visualizationModel,
+      Collection<V> nodes,
+      Collection<E> edges) {
+    double scale = getScale(renderContext);
+    if (scale < outlineScaleThreshold) {
+      renderOutline(renderContext, visualizationModel, nodes, edges);
+      return;
+    }
+    boolean renderEdgeArrow = renderContext.renderEdgeArrow();
+    if (scale < labelScaleThreshold) {
+      renderContext.setRenderEdgeArrow(false);
     }
-    // paint all the edges
     try {
-      for (E e : visibleEdges) {
+      for (E e : edges) {
         renderEdge(renderContext, visualizationModel, e);
-        renderEdgeLabel(renderContext, visualizationModel, e);
       }
-    } catch (ConcurrentModificationException cme) {
-      renderContext.getScreenDevice().repaint();
+      for (V v : nodes) {
+        renderVertex(renderContext, visualizationModel, v);
+      }
+    } finally {
+      renderContext.setRenderEdgeArrow(renderEdgeArrow);
     }
+  }
 
-    // paint all the vertices
+  /**
+   * Paints the labels of the passed edges and then of the passed nodes, unless the current scale is
+   * below the label scale threshold.
+   *
+   * @param nodes the nodes whose labels are to be painted
+   * @param edges the edges whose labels are to be painted
+   */
+  public void renderLabels(
+      RenderContext<V, E> renderContext,
+      VisualizationModel<V, E, Point2D> visualizationModel,
+      Collection<V> nodes,
+      Collection<E> edges) {
+    double scale = getScale(renderContext);
+    if (scale < outlineScaleThreshold || scale < labelScaleThreshold) {
+      return;
+    }
     try {
-      for (V v : visibleNodes) {
-        renderVertex(renderContext, visualizationModel, v);
+      for (E e : edges) {
+        renderEdgeLabel(renderContext, visualizationModel, e);
+      }
+      for (V v : nodes) {
         renderVertexLabel(renderContext, visualizationModel, v);
       }
     } catch (ConcurrentModificationException cme) {
@@ -90,31 +226,99 @@ public class BasicRenderer<V, E> implements Renderer<V, E> {
     }
   }
 
-  @Override
-  public void render(
-      RenderContext<V, E> renderContext, VisualizationModel<V, E, Point2D> visualizationModel) {
+  /**
+   * Paints the passed edges as straight lines and the passed nodes as filled squares of {@code
+   * outlineNodeSize} pixels, without arrows, labels or antialiasing. The edges and nodes are
+   * gathered into one path for each paint, so that each paint is drawn with a single call.
+   *
+   * @param nodes the nodes to paint
+   * @param edges the edges to paint
+   */
+  protected void renderOutline(
+      RenderContext<V, E> renderContext,
+      VisualizationModel<V, E, Point2D> visualizationModel,
+      Collection<V> nodes,
+      Collection<E> edges) {
+    GraphicsDecorator g = renderContext.getGraphicsContext();
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    LayoutModel<V, Point2D> layoutModel = visualizationModel.getLayoutModel();
     Network<V, E> network = visualizationModel.getNetwork();
-    // paint all the edges
+    Predicate<V> vertexIncludePredicate = renderContext.getVertexIncludePredicate();
+    Predicate<E> edgeIncludePredicate = renderContext.getEdgeIncludePredicate();
+    Paint oldPaint = g.getPaint();
+    Object antialiasing = g.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+    // antialiasing a path of many crossing lines costs far more than drawing them one at a time,
+    // and gains nothing at this scale
+    g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
     try {
-      for (E e : network.edges()) {
-        renderEdge(renderContext, visualizationModel, e);
-        renderEdgeLabel(renderContext, visualizationModel, e);
+      Map<Paint, Path2D> edgePaths = new LinkedHashMap<>();
+      for (E e : edges) {
+        if (!edgeIncludePredicate.test(e)) {
+          continue;
+        }
+        EndpointPair<V> endpoints = network.incidentNodes(e);
+        if (!vertexIncludePredicate.test(endpoints.nodeU())
+            || !vertexIncludePredicate.test(endpoints.nodeV())) {
+          continue;
+        }
+        Paint paint = renderContext.getEdgeDrawPaintTransformer().apply(e);
+        Point2D p1 = layoutModel.apply(endpoints.nodeU());
+        Point2D p2 = layoutModel.apply(endpoints.nodeV());
+        if (paint == null || p1 == null || p2 == null) {
+          continue;
+        }
+        p1 = multiLayerTransformer.transform(Layer.LAYOUT, p1);
+        p2 = multiLayerTransformer.transform(Layer.LAYOUT, p2);
+        Path2D path = edgePaths.computeIfAbsent(paint, k -> new Path2D.Float());
+        path.moveTo(p1.getX(), p1.getY());
+        path.lineTo(p2.getX(), p2.getY());
+      }
+      for (Map.Entry<Paint, Path2D> entry : edgePaths.entrySet()) {
+        g.setPaint(entry.getKey());
+        g.draw(entry.getValue());
       }
-    } catch (ConcurrentModificationException cme) {
-      renderContext.getScreenDevice().repaint();
-    }
 
-    // paint all the vertices
-    try {
-      for (V v : network.nodes()) {
-        renderVertex(renderContext, visualizationModel, v);
-        renderVertexLabel(renderContext, visualizationModel, v);
+      // the graphics context is already scaled by the view transform
+      double side = outlineNodeSize / Math.sqrt(Math.abs(g.getTransform().getDeterminant()));
+      Map<Paint, Path2D> nodePaths = new LinkedHashMap<>();
+      for (V v : nodes) {
+        if (!vertexIncludePredicate.test(v)) {
+          continue;
+        }
+        Paint paint = renderContext.getVertexFillPaintTransformer().apply(v);
+        Point2D p = layoutModel.apply(v);
+        if (paint == null || p == null) {
+          continue;
+        }
+        p = multiLayerTransformer.transform(Layer.LAYOUT, p);
+        Path2D path = nodePaths.computeIfAbsent(paint, k -> new Path2D.Float());
+        path.append(
+            new Rectangle2D.Double(p.getX() - side / 2, p.getY() - side / 2, side, side), false);
+      }
+      for (Map.Entry<Paint, Path2D> entry : nodePaths.entrySet()) {
+        g.setPaint(entry.getKey());
+        g.fill(entry.getValue());
       }
     } catch (ConcurrentModificationException cme) {
       renderContext.getScreenDevice().repaint();
+    } finally {
+      g.setPaint(oldPaint);
+      if (antialiasing != null) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing);
+      }
     }
   }
 
+  /**
+   * @return the combined scale of the layout and view transforms, which is the number of pixels
+   *     for each unit of layout distance
+   */
+  protected double getScale(RenderContext<V, E> renderContext) {
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    return multiLayerTransformer.getTransformer(Layer.LAYOUT).getScale()
+        * multiLayerTransformer.getTransformer(Layer.VIEW).getScale();
+  }
+
   public void renderVertex(
       RenderContext<V, E> renderContext,
       VisualizationModel<V, E, Point2D> visualizationModel,
@@ -145,6 +349,44 @@ public class BasicRenderer<V, E> implements Renderer<V, E> {
         renderContext, visualizationModel, e, renderContext.getEdgeLabelTransformer().apply(e));
   }
 
+  /**
+   * Below this scale, labels and edge arrows are not painted. The scale is the number of pixels for
+   * each unit of layout distance. The default of 0 always paints them.
+   *
+   * @param labelScaleThreshold the scale below which labels and arrows are skipped
+   */
+  public void setLabelScaleThreshold(double labelScaleThreshold) {
+    this.labelScaleThreshold = labelScaleThreshold;
+  }
+
+  public double getLabelScaleThreshold() {
+    return labelScaleThreshold;
+  }
+
+  /**
+   * Below this scale, edges are painted as straight lines and nodes as filled squares, without
+   * arrows or labels. The scale is the number of pixels for each unit of layout distance. The
+   * default of 0 always paints the full shapes.
+   *
+   * @param outlineScaleThreshold the scale below which only an outline of the graph is painted
+   */
+  public void setOutlineScaleThreshold(double outlineScaleThreshold) {
+    this.outlineScaleThreshold = outlineScaleThreshold;
+  }
+
+  public double getOutlineScaleThreshold() {
+    return outlineScaleThreshold;
+  }
+
+  /** @param outlineNodeSize the side, in pixels, of the square painted for each outlined node */
+  public void setOutlineNodeSize(double outlineNodeSize) {
+    this.outlineNodeSize = outlineNodeSize;
+  }
+
+  public double getOutlineNodeSize() {
+    return outlineNodeSize;
+  }
+
   public void setVertexRenderer(Renderer.Vertex<V, E> r) {
     this.vertexRenderer = r;
   }
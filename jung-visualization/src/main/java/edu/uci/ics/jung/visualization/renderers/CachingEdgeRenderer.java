@@ -1,12 +1,15 @@
 package edu.uci.ics.jung.visualization.renderers;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Network;
-import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.util.LayoutChangeListener;
 import edu.uci.ics.jung.layout.util.LayoutEvent;
 import edu.uci.ics.jung.layout.util.LayoutEventSupport;
 import edu.uci.ics.jung.layout.util.LayoutNetworkEvent;
 import edu.uci.ics.jung.visualization.BasicVisualizationServer;
+import edu.uci.ics.jung.visualization.Layer;
 import edu.uci.ics.jung.visualization.RenderContext;
 import edu.uci.ics.jung.visualization.VisualizationModel;
 import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
@@ -15,25 +18,60 @@ import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+/**
+ * An edge renderer that keeps the shape of each edge until one of its endpoints moves. Only the
+ * shapes of the edges incident to a moved node are evicted, and the least recently drawn shapes
+ * are evicted once there are more than the maximum size, so that the cache does not grow without
+ * bound on very large graphs. All of the shapes are evicted when the layout or view transform
+ * changes.
+ *
+ * @param <N> the node type
+ * @param <E> the edge type
+ */
 public class CachingEdgeRenderer<N, E> extends BasicEdgeRenderer<N, E>
     implements ChangeListener, LayoutChangeListener<N, Point2D> {
 
-  protected Map<E, Shape> edgeShapeMap = new HashMap<E, Shape>();
-  protected Set dirtyEdges = new HashSet<>();
+  /** the most edge shapes kept when no maximum size is given */
+  public static final long DEFAULT_MAXIMUM_SIZE = 100000;
+
+  /** the shapes kept, with the endpoint locations for which they were prepared */
+  private final Map<E, CachedShape> cachedShapes;
+
+  /**
+   * @deprecated a read-only view of the shapes kept; removing an entry or clearing the map still
+   *     evicts those shapes.
+   */
+  @Deprecated protected Map<E, Shape> edgeShapeMap;
+
+  /**
+   * @deprecated the shapes of the edges of a moved node are now evicted when the layout reports the
+   *     move. An edge added to this set still has its shape prepared again when it is next drawn.
+   */
+  @Deprecated protected Set dirtyEdges = ConcurrentHashMap.newKeySet();
 
-  @SuppressWarnings({"rawtypes", "unchecked"})
   public CachingEdgeRenderer(BasicVisualizationServer<N, E> vv) {
+    this(vv, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * @param vv the server whose edges are rendered
+   * @param maximumSize the most edge shapes to keep
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public CachingEdgeRenderer(BasicVisualizationServer<N, E> vv, long maximumSize) {
+    cachedShapes =
+        CacheBuilder.newBuilder().maximumSize(maximumSize).<E, CachedShape>build().asMap();
+    edgeShapeMap = Maps.transformValues(cachedShapes, cached -> cached.shape);
     vv.getRenderContext().getMultiLayerTransformer().addChangeListener(this);
-    LayoutModel<N, Point2D> layoutModel = vv.getModel().getLayoutModel();
-    if (layoutModel instanceof LayoutEventSupport) {
-      ((LayoutEventSupport) layoutModel).addLayoutChangeListener(this);
+    VisualizationModel<N, E, Point2D> visualizationModel = vv.getModel();
+    if (visualizationModel instanceof LayoutEventSupport) {
+      ((LayoutEventSupport) visualizationModel).addLayoutChangeListener(this);
     }
   }
   /**
@@ -51,11 +89,29 @@ public class CachingEdgeRenderer<N, E> extends BasicEdgeRenderer<N, E>
     int[] coords = new int[4];
     boolean[] loop = new boolean[1];
 
-    Shape edgeShape = edgeShapeMap.get(e);
-    if (edgeShape == null || dirtyEdges.contains(e)) {
+    // the locations are compared as well, in case a node moved while its shape was prepared
+    EndpointPair<N> endpoints = visualizationModel.getNetwork().incidentNodes(e);
+    Point2D p1 = visualizationModel.getLayoutModel().apply(endpoints.nodeU());
+    Point2D p2 = visualizationModel.getLayoutModel().apply(endpoints.nodeV());
+    double ux = p1.getX();
+    double uy = p1.getY();
+    double vx = p2.getX();
+    double vy = p2.getY();
+    CachedShape cached = cachedShapes.get(e);
+    boolean dirty = !dirtyEdges.isEmpty() && dirtyEdges.remove(e);
+    Shape edgeShape;
+    if (cached != null && !dirty && cached.isAt(ux, uy, vx, vy)) {
+      edgeShape = cached.shape;
+      Point2D v1 = renderContext.getMultiLayerTransformer().transform(Layer.LAYOUT, p1);
+      Point2D v2 = renderContext.getMultiLayerTransformer().transform(Layer.LAYOUT, p2);
+      coords[0] = (int) (float) v1.getX();
+      coords[1] = (int) (float) v1.getY();
+      coords[2] = (int) (float) v2.getX();
+      coords[3] = (int) (float) v2.getY();
+      loop[0] = endpoints.nodeU().equals(endpoints.nodeV());
+    } else {
       edgeShape = prepareFinalEdgeShape(renderContext, visualizationModel, e, coords, loop);
-      edgeShapeMap.put(e, edgeShape);
-      dirtyEdges.remove(e);
+      cachedShapes.put(e, new CachedShape(edgeShape, ux, uy, vx, vy));
     }
 
     int x1 = coords[0];
@@ -146,17 +202,47 @@ public class CachingEdgeRenderer<N, E> extends BasicEdgeRenderer<N, E>
 
   @Override
   public void stateChanged(ChangeEvent evt) {
-    edgeShapeMap.clear();
+    cachedShapes.clear();
   }
 
-  //  @Override
+  /** evicts the shapes of the edges incident to the moved node */
+  @Override
   public void layoutChanged(LayoutNetworkEvent<N, Point2D> evt) {
     N node = evt.getNode();
     Network<N, ?> network = evt.getNetwork();
-    dirtyEdges.addAll(network.incidentEdges(node));
+    if (node == null || network == null || !network.nodes().contains(node)) {
+      cachedShapes.clear();
+      return;
+    }
+    for (Object edge : network.incidentEdges(node)) {
+      cachedShapes.remove(edge);
+    }
   }
 
+  /** without the network, the incident edges are unknown, so all of the shapes are evicted */
+  @Override
   public void layoutChanged(LayoutEvent<N, Point2D> evt) {
-    System.err.println("FIX ME");
+    cachedShapes.clear();
+  }
+
+  /** an edge shape with the endpoint locations for which it was prepared */
+  private static class CachedShape {
+    final Shape shape;
+    final double ux;
+    final double uy;
+    final double vx;
+    final double vy;
+
+    CachedShape(Shape shape, double ux, double uy, double vx, double vy) {
+      this.shape = shape;
+      this.ux = ux;
+      this.uy = uy;
+      this.vx = vx;
+      this.vy = vy;
+    }
+
+    boolean isAt(double ux, double uy, double vx, double vy) {
+      return this.ux == ux && this.uy == uy && this.vx == vx && this.vy == vy;
+    }
   }
 }
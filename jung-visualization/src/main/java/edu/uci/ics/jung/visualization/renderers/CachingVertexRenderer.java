@@ -1,32 +1,67 @@
 package edu.uci.ics.jung.visualization.renderers;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
 import edu.uci.ics.jung.layout.util.LayoutChangeListener;
 import edu.uci.ics.jung.layout.util.LayoutEvent;
 import edu.uci.ics.jung.layout.util.LayoutEventSupport;
 import edu.uci.ics.jung.layout.util.LayoutNetworkEvent;
 import edu.uci.ics.jung.visualization.BasicVisualizationServer;
+import edu.uci.ics.jung.visualization.Layer;
 import edu.uci.ics.jung.visualization.RenderContext;
 import edu.uci.ics.jung.visualization.VisualizationModel;
 import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
 import java.awt.Shape;
 import java.awt.geom.Point2D;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.Icon;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+/**
+ * A vertex renderer that keeps the shape of each vertex until it moves. Only the shape of a moved
+ * node is evicted, and the least recently drawn shapes are evicted once there are more than the
+ * maximum size. All of the shapes are evicted when the layout or view transform changes.
+ *
+ * @param <N> the node type
+ * @param <E> the edge type
+ */
 public class CachingVertexRenderer<N, E> extends BasicVertexRenderer<N, E>
     implements ChangeListener, LayoutChangeListener<N, Point2D> {
 
-  protected Map<N, Shape> vertexShapeMap = new HashMap<>();
+  /** the most vertex shapes kept when no maximum size is given */
+  public static final long DEFAULT_MAXIMUM_SIZE = 100000;
 
-  protected Set<N> dirtyVertices = new HashSet<>();
+  /** the shapes kept, with the locations for which they were prepared */
+  private final Map<N, CachedShape> cachedShapes;
+
+  /**
+   * @deprecated a read-only view of the shapes kept; removing an entry or clearing the map still
+   *     evicts those shapes.
+   */
+  @Deprecated protected Map<N, Shape> vertexShapeMap;
+
+  /**
+   * @deprecated the shape of a moved node is now evicted when the layout reports the move. A node
+   *     added to this set still has its shape prepared again when it is next drawn.
+   */
+  @Deprecated protected Set<N> dirtyVertices = ConcurrentHashMap.newKeySet();
 
-  @SuppressWarnings({"rawtypes", "unchecked"})
   public CachingVertexRenderer(BasicVisualizationServer<N, E> vv) {
+    this(vv, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * @param vv the server whose vertices are rendered
+   * @param maximumSize the most vertex shapes to keep
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public CachingVertexRenderer(BasicVisualizationServer<N, E> vv, long maximumSize) {
+    cachedShapes =
+        CacheBuilder.newBuilder().maximumSize(maximumSize).<N, CachedShape>build().asMap();
+    vertexShapeMap = Maps.transformValues(cachedShapes, cached -> cached.shape);
     vv.getRenderContext().getMultiLayerTransformer().addChangeListener(this);
     VisualizationModel<N, E, Point2D> visualizationModel = vv.getModel();
     if (visualizationModel instanceof LayoutEventSupport) {
@@ -42,11 +77,21 @@ public class CachingVertexRenderer<N, E> extends BasicVertexRenderer<N, E>
     GraphicsDecorator g = renderContext.getGraphicsContext();
 
     int[] coords = new int[2];
-    Shape shape = vertexShapeMap.get(v);
-    if (shape == null || dirtyVertices.contains(v)) {
+    // the location is compared as well, in case the node moved while its shape was prepared
+    Point2D p = visualizationModel.getLayoutModel().apply(v);
+    double x = p.getX();
+    double y = p.getY();
+    CachedShape cached = cachedShapes.get(v);
+    boolean dirty = !dirtyVertices.isEmpty() && dirtyVertices.remove(v);
+    Shape shape;
+    if (cached != null && !dirty && cached.x == x && cached.y == y) {
+      shape = cached.shape;
+      p = renderContext.getMultiLayerTransformer().transform(Layer.LAYOUT, p);
+      coords[0] = (int) (float) p.getX();
+      coords[1] = (int) (float) p.getY();
+    } else {
       shape = prepareFinalVertexShape(renderContext, visualizationModel, v, coords);
-      vertexShapeMap.put(v, shape);
-      dirtyVertices.remove(v);
+      cachedShapes.put(v, new CachedShape(shape, x, y));
     }
     if (renderContext.getVertexIconTransformer() != null) {
       Icon icon = renderContext.getVertexIconTransformer().apply(v);
@@ -63,14 +108,35 @@ public class CachingVertexRenderer<N, E> extends BasicVertexRenderer<N, E>
   }
 
   public void stateChanged(ChangeEvent evt) {
-    vertexShapeMap.clear();
+    cachedShapes.clear();
   }
 
+  /** evicts the shape of the moved node, or all of the shapes if any node may have moved */
+  @Override
   public void layoutChanged(LayoutEvent<N, Point2D> evt) {
-    this.dirtyVertices.add(evt.getNode());
+    N node = evt.getNode();
+    if (node == null) {
+      cachedShapes.clear();
+    } else {
+      cachedShapes.remove(node);
+    }
   }
 
+  @Override
   public void layoutChanged(LayoutNetworkEvent<N, Point2D> evt) {
-    this.dirtyVertices.add(evt.getNode());
+    layoutChanged((LayoutEvent<N, Point2D>) evt);
+  }
+
+  /** a vertex shape with the location for which it was prepared */
+  private static class CachedShape {
+    final Shape shape;
+    final double x;
+    final double y;
+
+    CachedShape(Shape shape, double x, double y) {
+      this.shape = shape;
+      this.x = x;
+      this.y = y;
+    }
   }
 }
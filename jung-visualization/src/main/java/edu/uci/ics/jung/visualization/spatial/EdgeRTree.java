@@ -0,0 +1,126 @@
+package edu.uci.ics.jung.visualization.spatial;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Collection;
+
+/**
+ * An {@link EdgeSpatial} that keeps the bounds of each edge in an {@link RTree}.
+ *
+ * <p>The bounds of an edge are the rectangle spanned by the locations of its endpoints, grown on
+ * every side by a margin that allows for curved edge shapes, self-loops and the pick footprint. The
+ * margin defaults to 20, which covers the default quad-curve shape of an edge with at most one
+ * parallel edge; an edge whose rendered shape extends further than the margin may be missed by a
+ * search. When a node moves, only the bounds of its incident edges are updated. Edges added to the
+ * network are not found until {@link #updateEdge} or {@link #recalculate()} is called; edges
+ * removed from it are never returned by a search, though their bounds stay in the tree until then.
+ *
+ * @param <N> the node type
+ * @param <E> the edge type
+ */
+public class EdgeRTree<N, E> implements EdgeSpatial<N, E> {
+
+  private final Network<N, E> network;
+  private final LayoutModel<N, Point2D> layoutModel;
+  private final RTree<E> tree = new RTree<>();
+  private double margin = 20;
+
+  /**
+   * @param network the network whose edges are to be indexed
+   * @param layoutModel the source of the node locations
+   */
+  public EdgeRTree(Network<N, E> network, LayoutModel<N, Point2D> layoutModel) {
+    this.network = Preconditions.checkNotNull(network);
+    this.layoutModel = Preconditions.checkNotNull(layoutModel);
+  }
+
+  /**
+   * sets the distance by which the bounds of each edge extend beyond its endpoints, and rebuilds
+   * the structure
+   *
+   * @param margin the margin, in layout coordinates
+   */
+  public void setMargin(double margin) {
+    Preconditions.checkArgument(margin >= 0, "margin must be non-negative");
+    this.margin = margin;
+    recalculate();
+  }
+
+  public double getMargin() {
+    return margin;
+  }
+
+  /** @return the R-tree of the edge bounds */
+  public RTree<E> getTree() {
+    return tree;
+  }
+
+  /** @return the current bounds of <code>edge</code>, or null if an endpoint has no location */
+  protected Rectangle2D getBounds(E edge) {
+    EndpointPair<N> endpoints = network.incidentNodes(edge);
+    Point2D p1 = layoutModel.apply(endpoints.nodeU());
+    Point2D p2 = layoutModel.apply(endpoints.nodeV());
+    if (p1 == null || p2 == null) {
+      return null;
+    }
+    double minX = Math.min(p1.getX(), p2.getX()) - margin;
+    double minY = Math.min(p1.getY(), p2.getY()) - margin;
+    double maxX = Math.max(p1.getX(), p2.getX()) + margin;
+    double maxY = Math.max(p1.getY(), p2.getY()) + margin;
+    return new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+  }
+
+  @Override
+  public Collection<E> getVisibleEdges(Shape shape) {
+    Collection<E> edges = tree.search(shape);
+    edges.removeIf(edge -> !network.edges().contains(edge));
+    return edges;
+  }
+
+  @Override
+  public void recalculate() {
+    tree.bulkLoad(network.edges(), this::getBounds);
+  }
+
+  @Override
+  public void update(N node) {
+    if (!network.nodes().contains(node)) {
+      // the edges of a removed node can no longer be found from it
+      synchronized (tree) {
+        for (E edge : tree.getItems()) {
+          if (!network.edges().contains(edge)) {
+            tree.remove(edge);
+          }
+        }
+      }
+      return;
+    }
+    synchronized (tree) {
+      for (E edge : network.incidentEdges(node)) {
+        Rectangle2D bounds = getBounds(edge);
+        if (bounds == null) {
+          tree.remove(edge);
+        } else {
+          tree.update(edge, bounds);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void updateEdge(E edge) {
+    synchronized (tree) {
+      Rectangle2D bounds = network.edges().contains(edge) ? getBounds(edge) : null;
+      if (bounds == null) {
+        tree.remove(edge);
+      } else {
+        tree.update(edge, bounds);
+      }
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package edu.uci.ics.jung.visualization.spatial;
+
+import java.awt.*;
+import java.util.Collection;
+
+/**
+ * Basic interface for spatial data about edges, whose extent depends on the locations of both of
+ * their endpoints
+ *
+ * @param <N> the node type
+ * @param <E> the edge type
+ */
+public interface EdgeSpatial<N, E> {
+
+  /**
+   * @param shape the possibly non-rectangular area of interest
+   * @return the edges whose bounds intersect the passed Shape
+   */
+  Collection<E> getVisibleEdges(Shape shape);
+
+  /** rebuild the data structure from the current edges and node locations */
+  void recalculate();
+
+  /**
+   * update the bounds of the edges incident to the passed node, which has moved
+   *
+   * @param node the node that has moved
+   */
+  void update(N node);
+
+  /**
+   * add, update or remove the bounds of the passed edge, according to whether it is still in the
+   * network
+   *
+   * @param edge the edge that has been added to or removed from the network
+   */
+  void updateEdge(E edge);
+}
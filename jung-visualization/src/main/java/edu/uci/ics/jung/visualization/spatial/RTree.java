@@ -0,0 +1,578 @@
+package edu.uci.ics.jung.visualization.spatial;
+
+import com.google.common.base.Preconditions;
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * An R-tree of items, each stored with an axis-aligned bounding rectangle. Items are inserted by
+ * Guttman's algorithm with quadratic splits, and may also be bulk loaded by Sort-Tile-Recursive
+ * packing. Each item's leaf is kept in a map, so that an item can be removed or moved without
+ * searching for it.
+ *
+ * <p>Searches visit only the subtrees whose bounds intersect the area of interest, so a query that
+ * finds k items in a tree of n items costs about O(log n + k), and so does a search for the k
+ * items nearest to a point. All methods are synchronized, so that a layout thread may update the
+ * tree while it is searched by the rendering thread.
+ *
+ * @param <T> the item type
+ */
+@SuppressWarnings("unchecked")
+public class RTree<T> {
+
+  /** the smallest extent given to a degenerate rectangle when it is tested against a shape */
+  private static final double MIN_EXTENT = 1e-6;
+
+  private final int maxEntries;
+  private final int minEntries;
+
+  private Node root = new Node(true);
+  private final Map<T, Node> leaves = new HashMap<>();
+
+  /** Creates a tree with at most 16 entries per node. */
+  public RTree() {
+    this(16);
+  }
+
+  /** @param maxEntries the most entries a node may hold; at least 4 */
+  public RTree(int maxEntries) {
+    Preconditions.checkArgument(maxEntries >= 4, "maxEntries must be at least 4");
+    this.maxEntries = maxEntries;
+    this.minEntries = Math.max(2, (int) (maxEntries * 0.4));
+  }
+
+  /** @return the number of items in the tree */
+  public synchronized int size() {
+    return leaves.size();
+  }
+
+  /** @return the bounds of all of the items in the tree, or null if it is empty */
+  public synchronized Rectangle2D getBounds() {
+    return leaves.isEmpty() ? null : root.toRectangle();
+  }
+
+  public synchronized boolean contains(T item) {
+    return leaves.containsKey(item);
+  }
+
+  /** @return a copy of the items in the tree */
+  public synchronized List<T> getItems() {
+    return new ArrayList<>(leaves.keySet());
+  }
+
+  /** removes all of the items */
+  public synchronized void clear() {
+    root = new Node(true);
+    leaves.clear();
+  }
+
+  /**
+   * Replaces the contents of the tree with <code>items</code>, packed bottom-up by the
+   * Sort-Tile-Recursive algorithm: the items are sorted into vertical slices by the x of their
+   * centers, and each slice into leaves by the y of their centers.
+   *
+   * @param items the items to load
+   * @param bounds the bounds of each item; items whose bounds are null are left out
+   */
+  public synchronized void bulkLoad(Collection<T> items, Function<? super T, Rectangle2D> bounds) {
+    clear();
+    List<Rect> level = new ArrayList<>(items.size());
+    for (T item : items) {
+      Rectangle2D r = leaves.containsKey(item) ? null : bounds.apply(item);
+      if (r != null) {
+        leaves.put(item, null);
+        level.add(new Entry<T>(item, r));
+      }
+    }
+    if (level.isEmpty()) {
+      return;
+    }
+    boolean leaf = true;
+    do {
+      level = pack(level, leaf);
+      leaf = false;
+    } while (level.size() > 1);
+    root = (Node) level.get(0);
+    root.parent = null;
+  }
+
+  /** @return the nodes that hold the packed <code>rects</code>, in order */
+  private List<Rect> pack(List<Rect> rects, boolean leaf) {
+    int nodeCount = (rects.size() + maxEntries - 1) / maxEntries;
+    int sliceCount = (int) Math.ceil(Math.sqrt(nodeCount));
+    int sliceSize = sliceCount * maxEntries;
+    rects.sort(Comparator.comparingDouble(Rect::centerX));
+    List<Rect> nodes = new ArrayList<>(nodeCount);
+    for (int s = 0; s < rects.size(); s += sliceSize) {
+      List<Rect> slice = rects.subList(s, Math.min(s + sliceSize, rects.size()));
+      slice.sort(Comparator.comparingDouble(Rect::centerY));
+      for (int i = 0; i < slice.size(); i += maxEntries) {
+        Node node = new Node(leaf);
+        for (Rect child : slice.subList(i, Math.min(i + maxEntries, slice.size()))) {
+          node.add(child);
+          if (leaf) {
+            leaves.put(((Entry<T>) child).item, node);
+          }
+        }
+        nodes.add(node);
+      }
+    }
+    return nodes;
+  }
+
+  /**
+   * Adds <code>item</code> with <code>bounds</code>, or moves it if it is already in the tree.
+   *
+   * @param item the item to add
+   * @param bounds the bounds of the item
+   */
+  public synchronized void insert(T item, Rectangle2D bounds) {
+    if (leaves.containsKey(item)) {
+      update(item, bounds);
+      return;
+    }
+    insert(new Entry<T>(item, bounds));
+  }
+
+  private void insert(Entry<T> entry) {
+    Node node = root;
+    while (!node.leaf) {
+      node = node.chooseChild(entry);
+    }
+    node.add(entry);
+    leaves.put(entry.item, node);
+    node.enlargeAncestors(entry);
+    if (node.children.size() > maxEntries) {
+      split(node);
+    }
+  }
+
+  /**
+   * Changes the bounds of <code>item</code>. If the new bounds are within those of its leaf, only
+   * the bounds of the leaf's ancestors are recomputed; otherwise the item is reinserted.
+   *
+   * @param item the item to move
+   * @param bounds its new bounds
+   */
+  public synchronized void update(T item, Rectangle2D bounds) {
+    Node leaf = leaves.get(item);
+    if (leaf == null) {
+      insert(new Entry<T>(item, bounds));
+      return;
+    }
+    Entry<T> entry = leaf.entry(item);
+    entry.set(bounds);
+    if (leaf.contains(entry)) {
+      for (Node node = leaf; node != null; node = node.parent) {
+        node.recomputeBounds();
+      }
+    } else {
+      remove(item);
+      insert(entry);
+    }
+  }
+
+  /**
+   * @param item the item to remove
+   * @return true if it was in the tree
+   */
+  public synchronized boolean remove(T item) {
+    Node leaf = leaves.remove(item);
+    if (leaf == null) {
+      return false;
+    }
+    leaf.children.remove(leaf.entry(item));
+    condense(leaf);
+    return true;
+  }
+
+  /**
+   * Removes the nodes on the path up from <code>leaf</code> that have too few entries, reinserting
+   * their items, and recomputes the bounds of the others.
+   */
+  private void condense(Node leaf) {
+    List<Entry<T>> orphans = new ArrayList<>();
+    for (Node node = leaf; node != root; ) {
+      Node parent = node.parent;
+      if (node.children.size() < minEntries) {
+        parent.children.remove(node);
+        node.collectEntries(orphans);
+      } else {
+        node.recomputeBounds();
+      }
+      node = parent;
+    }
+    root.recomputeBounds();
+    while (!root.leaf && root.children.size() == 1) {
+      root = (Node) root.children.get(0);
+      root.parent = null;
+    }
+    if (!root.leaf && root.children.isEmpty()) {
+      root = new Node(true);
+    }
+    for (Entry<T> orphan : orphans) {
+      leaves.remove(orphan.item);
+      insert(orphan);
+    }
+  }
+
+  /** Splits an overfull node by the quadratic method, splitting its ancestors as needed. */
+  private void split(Node node) {
+    List<Rect> children = new ArrayList<>(node.children);
+    // pick as seeds the pair that would waste the most area if put together
+    int seedA = 0;
+    int seedB = 1;
+    double worst = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < children.size(); i++) {
+      for (int j = i + 1; j < children.size(); j++) {
+        Rect a = children.get(i);
+        Rect b = children.get(j);
+        double waste = a.unionArea(b) - a.area() - b.area();
+        if (waste > worst) {
+          worst = waste;
+          seedA = i;
+          seedB = j;
+        }
+      }
+    }
+    Node first = new Node(node.leaf);
+    Node second = new Node(node.leaf);
+    first.add(children.get(seedA));
+    second.add(children.get(seedB));
+    children.remove(seedB);
+    children.remove(seedA);
+
+    while (!children.isEmpty()) {
+      // if one group needs all of the rest to reach the minimum, give them to it
+      if (first.children.size() + children.size() == minEntries) {
+        children.forEach(first::add);
+        break;
+      }
+      if (second.children.size() + children.size() == minEntries) {
+        children.forEach(second::add);
+        break;
+      }
+      // assign next the entry with the greatest preference for one group
+      int next = 0;
+      double greatest = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < children.size(); i++) {
+        double preference =
+            Math.abs(first.enlargement(children.get(i)) - second.enlargement(children.get(i)));
+        if (preference > greatest) {
+          greatest = preference;
+          next = i;
+        }
+      }
+      Rect child = children.remove(next);
+      double d1 = first.enlargement(child);
+      double d2 = second.enlargement(child);
+      if (d1 < d2
+          || (d1 == d2 && first.area() < second.area())
+          || (d1 == d2
+              && first.area() == second.area()
+              && first.children.size() <= second.children.size())) {
+        first.add(child);
+      } else {
+        second.add(child);
+      }
+    }
+
+    if (node.leaf) {
+      for (Node half : Arrays.asList(first, second)) {
+        for (Rect child : half.children) {
+          leaves.put(((Entry<T>) child).item, half);
+        }
+      }
+    }
+    Node parent = node.parent;
+    if (parent == null) {
+      root = new Node(false);
+      root.add(first);
+      root.add(second);
+    } else {
+      parent.children.remove(node);
+      parent.add(first);
+      parent.add(second);
+      parent.recomputeBounds();
+      if (parent.children.size() > maxEntries) {
+        split(parent);
+      }
+    }
+  }
+
+  /**
+   * @param area the area of interest
+   * @return the items whose bounds intersect <code>area</code>
+   */
+  public synchronized Collection<T> search(Rectangle2D area) {
+    List<T> found = new ArrayList<>();
+    if (!leaves.isEmpty()) {
+      search(root, area, found);
+    }
+    return found;
+  }
+
+  private void search(Node node, Rectangle2D area, List<T> found) {
+    for (Rect child : node.children) {
+      if (child.intersects(area)) {
+        if (node.leaf) {
+          found.add(((Entry<T>) child).item);
+        } else {
+          search((Node) child, area, found);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param shape the possibly non-rectangular area of interest
+   * @return the items whose bounds intersect <code>shape</code>
+   */
+  public synchronized Collection<T> search(Shape shape) {
+    List<T> found = new ArrayList<>();
+    if (!leaves.isEmpty()) {
+      search(root, shape, shape.getBounds2D(), found);
+    }
+    return found;
+  }
+
+  private void search(Node node, Shape shape, Rectangle2D shapeBounds, List<T> found) {
+    for (Rect child : node.children) {
+      if (child.intersects(shapeBounds) && child.intersects(shape)) {
+        if (node.leaf) {
+          found.add(((Entry<T>) child).item);
+        } else {
+          search((Node) child, shape, shapeBounds, found);
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the <code>k</code> items nearest to (x, y) by a best-first search, which visits the
+   * entries and nodes of the tree in order of the distance from (x, y) to their bounds.
+   *
+   * @param x the x coordinate of the point of interest
+   * @param y the y coordinate of the point of interest
+   * @param k the most items to return
+   * @return up to <code>k</code> items, nearest first, measured to the nearest point of their
+   *     bounds
+   */
+  public synchronized List<T> nearest(double x, double y, int k) {
+    List<T> found = new ArrayList<>();
+    if (k <= 0 || leaves.isEmpty()) {
+      return found;
+    }
+    PriorityQueue<Candidate> queue = new PriorityQueue<>();
+    queue.add(new Candidate(root, root.distanceSq(x, y)));
+    while (!queue.isEmpty() && found.size() < k) {
+      Rect rect = queue.poll().rect;
+      if (rect instanceof Entry) {
+        found.add(((Entry<T>) rect).item);
+      } else {
+        for (Rect child : ((Node) rect).children) {
+          queue.add(new Candidate(child, child.distanceSq(x, y)));
+        }
+      }
+    }
+    return found;
+  }
+
+  /** @return the bounds of every node in the tree, for display */
+  public synchronized List<Rectangle2D> getGrid() {
+    List<Rectangle2D> grid = new ArrayList<>();
+    if (!leaves.isEmpty()) {
+      collectGrid(root, grid);
+    }
+    return grid;
+  }
+
+  private void collectGrid(Node node, List<Rectangle2D> grid) {
+    grid.add(node.toRectangle());
+    if (!node.leaf) {
+      for (Rect child : node.children) {
+        collectGrid((Node) child, grid);
+      }
+    }
+  }
+
+  /** An axis-aligned rectangle, stored as its extremes. */
+  static class Rect {
+    double minX;
+    double minY;
+    double maxX;
+    double maxY;
+
+    void set(Rectangle2D r) {
+      minX = r.getMinX();
+      minY = r.getMinY();
+      maxX = r.getMaxX();
+      maxY = r.getMaxY();
+    }
+
+    double area() {
+      return (maxX - minX) * (maxY - minY);
+    }
+
+    double centerX() {
+      return (minX + maxX) / 2;
+    }
+
+    double centerY() {
+      return (minY + maxY) / 2;
+    }
+
+    double unionArea(Rect r) {
+      return (Math.max(maxX, r.maxX) - Math.min(minX, r.minX))
+          * (Math.max(maxY, r.maxY) - Math.min(minY, r.minY));
+    }
+
+    /** @return how much the area would grow to include <code>r</code> */
+    double enlargement(Rect r) {
+      return unionArea(r) - area();
+    }
+
+    /** @return the square of the distance from (x, y) to the nearest point of this rectangle */
+    double distanceSq(double x, double y) {
+      double dx = Math.max(0, Math.max(minX - x, x - maxX));
+      double dy = Math.max(0, Math.max(minY - y, y - maxY));
+      return dx * dx + dy * dy;
+    }
+
+    boolean contains(Rect r) {
+      return minX <= r.minX && minY <= r.minY && maxX >= r.maxX && maxY >= r.maxY;
+    }
+
+    boolean intersects(Rectangle2D r) {
+      return minX <= r.getMaxX()
+          && maxX >= r.getMinX()
+          && minY <= r.getMaxY()
+          && maxY >= r.getMinY();
+    }
+
+    boolean intersects(Shape shape) {
+      // Shape.intersects is false for rectangles with no area, so give them a minimal extent
+      return shape.intersects(
+          minX, minY, Math.max(maxX - minX, MIN_EXTENT), Math.max(maxY - minY, MIN_EXTENT));
+    }
+
+    Rectangle2D toRectangle() {
+      return new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+    }
+  }
+
+  /** an entry or node waiting in the queue of a nearest-neighbor search */
+  private static class Candidate implements Comparable<Candidate> {
+    final Rect rect;
+    final double distanceSq;
+
+    Candidate(Rect rect, double distanceSq) {
+      this.rect = rect;
+      this.distanceSq = distanceSq;
+    }
+
+    @Override
+    public int compareTo(Candidate other) {
+      return Double.compare(distanceSq, other.distanceSq);
+    }
+  }
+
+  /** an item in a leaf, with its bounds */
+  static class Entry<T> extends Rect {
+    final T item;
+
+    Entry(T item, Rectangle2D bounds) {
+      this.item = item;
+      set(bounds);
+    }
+  }
+
+  /** a node of the tree, whose children are entries if it is a leaf and nodes otherwise */
+  class Node extends Rect {
+    final boolean leaf;
+    Node parent;
+    final List<Rect> children = new ArrayList<>(maxEntries + 1);
+
+    Node(boolean leaf) {
+      this.leaf = leaf;
+      minX = minY = Double.POSITIVE_INFINITY;
+      maxX = maxY = Double.NEGATIVE_INFINITY;
+    }
+
+    void add(Rect child) {
+      children.add(child);
+      if (child instanceof RTree.Node) {
+        ((Node) child).parent = this;
+      }
+      include(child);
+    }
+
+    private void include(Rect r) {
+      minX = Math.min(minX, r.minX);
+      minY = Math.min(minY, r.minY);
+      maxX = Math.max(maxX, r.maxX);
+      maxY = Math.max(maxY, r.maxY);
+    }
+
+    void enlargeAncestors(Rect r) {
+      for (Node node = parent; node != null; node = node.parent) {
+        node.include(r);
+      }
+    }
+
+    void recomputeBounds() {
+      minX = minY = Double.POSITIVE_INFINITY;
+      maxX = maxY = Double.NEGATIVE_INFINITY;
+      for (Rect child : children) {
+        include(child);
+      }
+    }
+
+    /** @return the child needing the least enlargement to include r, then the smallest */
+    Node chooseChild(Rect r) {
+      Node best = null;
+      double bestEnlargement = Double.POSITIVE_INFINITY;
+      double bestArea = Double.POSITIVE_INFINITY;
+      for (Rect child : children) {
+        double enlargement = child.enlargement(r);
+        double area = child.area();
+        if (enlargement < bestEnlargement
+            || (enlargement == bestEnlargement && area < bestArea)) {
+          best = (Node) child;
+          bestEnlargement = enlargement;
+          bestArea = area;
+        }
+      }
+      return best;
+    }
+
+    Entry<T> entry(T item) {
+      for (Rect child : children) {
+        Entry<T> entry = (Entry<T>) child;
+        if (entry.item.equals(item)) {
+          return entry;
+        }
+      }
+      throw new IllegalStateException(item + " is not in its leaf");
+    }
+
+    void collectEntries(List<Entry<T>> entries) {
+      for (Rect child : children) {
+        if (leaf) {
+          entries.add((Entry<T>) child);
+        } else {
+          ((Node) child).collectEntries(entries);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package edu.uci.ics.jung.visualization.spatial;
+
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A spatial data structure that keeps the node locations in an {@link RTree}. Unlike the cells of
+ * a {@link SpatialGrid} or a {@link SpatialQuadTree}, the nodes of an R-tree adapt to clustered
+ * layouts, and a moved node is updated in place rather than by rebuilding the structure.
+ *
+ * @param <N> the node type
+ */
+public class SpatialRTree<N> extends AbstractSpatial<N> implements Spatial<N> {
+
+  private static final Logger log = LoggerFactory.getLogger(SpatialRTree.class);
+
+  private final RTree<N> tree;
+
+  /** the area for this structure */
+  private Rectangle2D area;
+
+  /**
+   * @param layoutModel the source of the node locations
+   * @param width the width of the layout area
+   * @param height the height of the layout area
+   */
+  public SpatialRTree(LayoutModel<N, Point2D> layoutModel, double width, double height) {
+    this(layoutModel, new Rectangle2D.Double(0, 0, width, height), 16);
+  }
+
+  /**
+   * @param layoutModel the source of the node locations
+   * @param area the layout area
+   * @param maxEntries the most entries a node of the R-tree may hold
+   */
+  public SpatialRTree(LayoutModel<N, Point2D> layoutModel, Rectangle2D area, int maxEntries) {
+    super(layoutModel);
+    this.area = area;
+    this.tree = new RTree<>(maxEntries);
+  }
+
+  /** @return the R-tree of the node locations */
+  public RTree<N> getTree() {
+    return tree;
+  }
+
+  /** @return the location of <code>node</code> as a rectangle with no area, or null */
+  private Rectangle2D getBounds(N node) {
+    Point2D p = layoutModel.apply(node);
+    return p == null ? null : new Rectangle2D.Double(p.getX(), p.getY(), 0, 0);
+  }
+
+  /**
+   * @param shape the possibly non-rectangular area of interest
+   * @return the nodes whose locations are in the passed shape
+   */
+  @Override
+  public Collection<N> getVisibleNodes(Shape shape) {
+    pickShapes.add(shape);
+    Collection<N> visibleNodes = tree.search(shape);
+    if (log.isDebugEnabled()) {
+      log.debug("visibleNodes:{}", visibleNodes);
+    }
+    return visibleNodes;
+  }
+
+  /**
+   * @param r the area of interest
+   * @return the nodes whose locations are in the passed rectangle
+   */
+  public Collection<N> getVisibleNodes(Rectangle2D r) {
+    Collection<N> visibleNodes = tree.search(r);
+    if (log.isDebugEnabled()) {
+      log.debug("visibleNodes:{}", visibleNodes);
+    }
+    return visibleNodes;
+  }
+
+  @Override
+  public Rectangle2D getLayoutArea() {
+    return area;
+  }
+
+  /**
+   * rebuild the structure by bulk loading the locations of the passed nodes
+   *
+   * @param nodes the nodes to insert into the data structure
+   */
+  @Override
+  public void recalculate(Collection<N> nodes) {
+    while (true) {
+      try {
+        tree.bulkLoad(nodes, this::getBounds);
+        break;
+      } catch (ConcurrentModificationException ex) {
+        // ignore
+      }
+    }
+  }
+
+  @Override
+  public void setBounds(Rectangle2D bounds) {
+    this.area = bounds;
+  }
+
+  /**
+   * Move the passed node to its current location. Only the path from its leaf to the root is
+   * changed, unless the leaf has to be split or merged.
+   *
+   * @param node the node to update in the structure
+   */
+  @Override
+  public void update(N node) {
+    Rectangle2D bounds = getBounds(node);
+    if (bounds == null) {
+      tree.remove(node);
+      return;
+    }
+    if (!area.contains(bounds.getX(), bounds.getY())) {
+      log.trace("{} outside of spatial {}", bounds, area);
+      setBounds(getUnion(area, new Point2D.Double(bounds.getX(), bounds.getY())));
+    }
+    tree.update(node, bounds);
+  }
+
+  /**
+   * @param x the x coordinate of the point of interest
+   * @param y the y coordinate of the point of interest
+   * @return the node closest to (x, y), or null if there are none
+   */
+  public N getClosestNode(double x, double y) {
+    List<N> closest = tree.nearest(x, y, 1);
+    return closest.isEmpty() ? null : closest.get(0);
+  }
+
+  /**
+   * @param x the x coordinate of the point of interest
+   * @param y the y coordinate of the point of interest
+   * @param k the most nodes to return
+   * @return the <code>k</code> nodes closest to (x, y), closest first
+   */
+  public List<N> getClosestNodes(double x, double y, int k) {
+    return tree.nearest(x, y, k);
+  }
+
+  /** @return the bounds of the nodes of the R-tree, for display */
+  public List<Rectangle2D> getGrid() {
+    return tree.getGrid();
+  }
+
+  @Override
+  public String toString() {
+    return "SpatialRTree{" + "area=" + area + ", size=" + tree.size() + '}';
+  }
+}
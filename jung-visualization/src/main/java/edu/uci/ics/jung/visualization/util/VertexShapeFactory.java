@@ -26,7 +26,8 @@ import java.util.function.Function;
  * (specified by a {@code Function<? super V, Integer>}) and vertex aspect ratio function (specified
  * by a {@code Function<? super V, Float>}) implementations: the width of the bounding box of the
  * shape is given by the vertex layoutSize, and the height is given by the layoutSize multiplied by
- * the vertex's aspect ratio.
+ * the vertex's aspect ratio. Each call returns a new shape, so that shapes may be requested from
+ * several rendering threads at once.
  *
  * @author Joshua O'Madadhain
  */
@@ -53,8 +54,6 @@ public class VertexShapeFactory<V> {
     this(n -> 10, n -> 1.0f);
   }
 
-  private static final Rectangle2D theRectangle = new Rectangle2D.Float();
-
   /**
    * Returns a <code>Rectangle2D</code> whose width and height are defined by this instance's
    * layoutSize and aspect ratio functions for this vertex.
@@ -67,12 +66,9 @@ public class VertexShapeFactory<V> {
     float height = width * varf.apply(v);
     float h_offset = -(width / 2);
     float v_offset = -(height / 2);
-    theRectangle.setFrame(h_offset, v_offset, width, height);
-    return theRectangle;
+    return new Rectangle2D.Float(h_offset, v_offset, width, height);
   }
 
-  private static final Ellipse2D theEllipse = new Ellipse2D.Float();
-
   /**
    * Returns a <code>Ellipse2D</code> whose width and height are defined by this instance's
    * layoutSize and aspect ratio functions for this vertex.
@@ -81,11 +77,11 @@ public class VertexShapeFactory<V> {
    * @return an ellipse for this vertex
    */
   public Ellipse2D getEllipse(V v) {
-    theEllipse.setFrame(getRectangle(v));
-    return theEllipse;
+    Ellipse2D ellipse = new Ellipse2D.Float();
+    ellipse.setFrame(getRectangle(v));
+    return ellipse;
   }
 
-  private static final RoundRectangle2D theRoundRectangle = new RoundRectangle2D.Float();
   /**
    * Returns a <code>RoundRectangle2D</code> whose width and height are defined by this instance's
    * layoutSize and aspect ratio functions for this vertex. The arc layoutSize is set to be half the
@@ -97,13 +93,12 @@ public class VertexShapeFactory<V> {
   public RoundRectangle2D getRoundRectangle(V v) {
     Rectangle2D frame = getRectangle(v);
     float arc_size = (float) Math.min(frame.getHeight(), frame.getWidth()) / 2;
-    theRoundRectangle.setRoundRect(
+    RoundRectangle2D roundRectangle = new RoundRectangle2D.Float();
+    roundRectangle.setRoundRect(
         frame.getX(), frame.getY(), frame.getWidth(), frame.getHeight(), arc_size, arc_size);
-    return theRoundRectangle;
+    return roundRectangle;
   }
 
-  private static final GeneralPath thePolygon = new GeneralPath();
-
   /**
    * Returns a regular <code>num_sides</code>-sided <code>Polygon</code> whose bounding box's width
    * and height are defined by this instance's layoutSize and aspect ratio functions for this
@@ -121,21 +116,21 @@ public class VertexShapeFactory<V> {
 
     // generate coordinates
     double angle = 0;
-    thePolygon.reset();
-    thePolygon.moveTo(0, 0);
-    thePolygon.lineTo(width, 0);
+    GeneralPath polygon = new GeneralPath();
+    polygon.moveTo(0, 0);
+    polygon.lineTo(width, 0);
     double theta = (2 * Math.PI) / num_sides;
     for (int i = 2; i < num_sides; i++) {
       angle -= theta;
       float delta_x = (float) (width * Math.cos(angle));
       float delta_y = (float) (width * Math.sin(angle));
-      Point2D prev = thePolygon.getCurrentPoint();
-      thePolygon.lineTo((float) prev.getX() + delta_x, (float) prev.getY() + delta_y);
+      Point2D prev = polygon.getCurrentPoint();
+      polygon.lineTo((float) prev.getX() + delta_x, (float) prev.getY() + delta_y);
     }
-    thePolygon.closePath();
+    polygon.closePath();
 
     // scale polygon to be right layoutSize, translate to center at (0,0)
-    Rectangle2D r = thePolygon.getBounds2D();
+    Rectangle2D r = polygon.getBounds2D();
     double scale_x = width / r.getWidth();
     double scale_y = height / r.getHeight();
     float translationX = (float) (r.getMinX() + r.getWidth() / 2);
@@ -144,7 +139,7 @@ public class VertexShapeFactory<V> {
     AffineTransform at = AffineTransform.getScaleInstance(scale_x, scale_y);
     at.translate(-translationX, -translationY);
 
-    return at.createTransformedShape(thePolygon);
+    return at.createTransformedShape(polygon);
   }
 
   /**
@@ -165,28 +160,28 @@ public class VertexShapeFactory<V> {
     // generate coordinates
     double theta = (2 * Math.PI) / num_points;
     double angle = -theta / 2;
-    thePolygon.reset();
-    thePolygon.moveTo(0, 0);
+    GeneralPath polygon = new GeneralPath();
+    polygon.moveTo(0, 0);
     float delta_x = width * (float) Math.cos(angle);
     float delta_y = width * (float) Math.sin(angle);
-    Point2D prev = thePolygon.getCurrentPoint();
-    thePolygon.lineTo((float) prev.getX() + delta_x, (float) prev.getY() + delta_y);
+    Point2D prev = polygon.getCurrentPoint();
+    polygon.lineTo((float) prev.getX() + delta_x, (float) prev.getY() + delta_y);
     for (int i = 1; i < num_points; i++) {
       angle += theta;
       delta_x = width * (float) Math.cos(angle);
       delta_y = width * (float) Math.sin(angle);
-      prev = thePolygon.getCurrentPoint();
-      thePolygon.lineTo((float) prev.getX() + delta_x, (float) prev.getY() + delta_y);
+      prev = polygon.getCurrentPoint();
+      polygon.lineTo((float) prev.getX() + delta_x, (float) prev.getY() + delta_y);
       angle -= theta * 2;
       delta_x = width * (float) Math.cos(angle);
       delta_y = width * (float) Math.sin(angle);
-      prev = thePolygon.getCurrentPoint();
-      thePolygon.lineTo((float) prev.getX() + delta_x, (float) prev.getY() + delta_y);
+      prev = polygon.getCurrentPoint();
+      polygon.lineTo((float) prev.getX() + delta_x, (float) prev.getY() + delta_y);
     }
-    thePolygon.closePath();
+    polygon.closePath();
 
     // scale polygon to be right layoutSize, translate to center at (0,0)
-    Rectangle2D r = thePolygon.getBounds2D();
+    Rectangle2D r = polygon.getBounds2D();
     double scale_x = width / r.getWidth();
     double scale_y = height / r.getHeight();
 
@@ -196,6 +191,6 @@ public class VertexShapeFactory<V> {
     AffineTransform at = AffineTransform.getScaleInstance(scale_x, scale_y);
     at.translate(-translationX, -translationY);
 
-    return at.createTransformedShape(thePolygon);
+    return at.createTransformedShape(polygon);
   }
 }
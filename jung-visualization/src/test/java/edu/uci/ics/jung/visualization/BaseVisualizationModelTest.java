@@ -0,0 +1,108 @@
+package edu.uci.ics.jung.visualization;
+
+import static edu.uci.ics.jung.visualization.layout.AWT.POINT_MODEL;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.graph.ObservableNetwork;
+import edu.uci.ics.jung.layout.algorithms.StaticLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.visualization.decorators.EdgeShape;
+import edu.uci.ics.jung.visualization.layout.SpatialQuadTreeLayoutModel;
+import edu.uci.ics.jung.visualization.picking.ShapePickSupport;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * test that the spatial structure for the edges follows the changes to the network, so that the
+ * edges painted and picked are those of the network
+ */
+public class BaseVisualizationModelTest {
+
+  private static final int SIZE = 400;
+
+  private LayoutModel<String, Point2D> layoutModel;
+  private BasicVisualizationServer<String, String> vv;
+
+  private void createServer(MutableNetwork<String, String> network) {
+    network.addEdge("a", "b", "ab");
+    network.addEdge("b", "c", "bc");
+    layoutModel =
+        SpatialQuadTreeLayoutModel.<String, Point2D>builder()
+            .setGraph(network.asGraph())
+            .setPointModel(POINT_MODEL)
+            .setSize(SIZE, SIZE)
+            .build();
+    layoutModel.set("a", 50, 50);
+    layoutModel.set("b", 350, 50);
+    layoutModel.set("c", 350, 350);
+    vv =
+        new BasicVisualizationServer<>(
+            new BaseVisualizationModel<>(network, layoutModel, new StaticLayoutAlgorithm<>()),
+            new Dimension(SIZE, SIZE));
+    vv.setSize(SIZE, SIZE);
+    vv.setBackground(Color.WHITE);
+    vv.getRenderContext().setEdgeShapeTransformer(EdgeShape.line());
+  }
+
+  private BufferedImage render() {
+    BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    vv.paint(g);
+    g.dispose();
+    return image;
+  }
+
+  private String pickEdge(double x, double y) {
+    return new ShapePickSupport<>(vv).getEdge(layoutModel, x, y);
+  }
+
+  private static boolean isPainted(BufferedImage image, int x, int y) {
+    return (image.getRGB(x, y) & 0xffffff) != 0xffffff;
+  }
+
+  @Test
+  public void testObservableNetwork() {
+    ObservableNetwork<String, String> network =
+        new ObservableNetwork<>(NetworkBuilder.directed().<String, String>build());
+    createServer(network);
+    Assert.assertNotNull(vv.getModel().getEdgeSpatial());
+    Assert.assertEquals("ab", pickEdge(200, 50));
+
+    network.removeEdge("ab");
+    Assert.assertFalse(isPainted(render(), 200, 50));
+    Assert.assertNull(pickEdge(200, 50));
+
+    // a batch of changes, including the removal of a node with an edge
+    network.beginBatch();
+    network.addEdge("a", "c", "ac");
+    network.removeNode("b");
+    network.commitBatch();
+    BufferedImage image = render();
+    Assert.assertTrue(isPainted(image, 200, 200));
+    Assert.assertFalse(isPainted(image, 350, 200));
+    Assert.assertEquals("ac", pickEdge(200, 200));
+    Assert.assertNull(pickEdge(350, 200));
+  }
+
+  @Test
+  public void testMutableNetwork() {
+    MutableNetwork<String, String> network = NetworkBuilder.directed().build();
+    createServer(network);
+    // the changes to a network that fires no events could not be followed
+    Assert.assertNull(vv.getModel().getEdgeSpatial());
+
+    network.removeEdge("ab");
+    network.addEdge("a", "c", "ac");
+    BufferedImage image = render();
+    Assert.assertFalse(isPainted(image, 200, 50));
+    Assert.assertTrue(isPainted(image, 200, 200));
+    Assert.assertNull(pickEdge(200, 50));
+    Assert.assertEquals("ac", pickEdge(200, 200));
+  }
+}
@@ -0,0 +1,184 @@
+package edu.uci.ics.jung.visualization;
+
+import static edu.uci.ics.jung.visualization.layout.AWT.POINT_MODEL;
+
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.graph.ObservableNetwork;
+import edu.uci.ics.jung.layout.algorithms.StaticLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.visualization.decorators.EdgeShape;
+import edu.uci.ics.jung.visualization.layout.SpatialRTreeLayoutModel;
+import edu.uci.ics.jung.visualization.renderers.BasicVertexRenderer;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test that the view rendered in tiles is painted like the whole view, and that only the tiles
+ * whose contents have changed are painted again
+ */
+public class OffscreenTilesTest {
+
+  private static final int SIZE = 400;
+
+  private ObservableNetwork<String, String> network;
+  private LayoutModel<String, Point2D> layoutModel;
+  private BasicVisualizationServer<String, String> vv;
+  private Map<String, Integer> painted = new ConcurrentHashMap<>();
+
+  @Before
+  public void setUp() {
+    network = new ObservableNetwork<>(NetworkBuilder.directed().<String, String>build());
+    network.addNode("a");
+    network.addNode("b");
+    // c is near the boundary between two tiles
+    network.addNode("c");
+    layoutModel =
+        SpatialRTreeLayoutModel.<String, Point2D>builder()
+            .setGraph(network.asGraph())
+            .setPointModel(POINT_MODEL)
+            .setSize(SIZE, SIZE)
+            .build();
+    layoutModel.set("a", 50, 50);
+    layoutModel.set("b", 250, 250);
+    layoutModel.set("c", 295, 150);
+    vv =
+        new BasicVisualizationServer<>(
+            new BaseVisualizationModel<>(network, layoutModel, new StaticLayoutAlgorithm<>()),
+            new Dimension(SIZE, SIZE));
+    vv.setSize(SIZE, SIZE);
+    vv.setBackground(Color.WHITE);
+    vv.getRenderContext().setEdgeShapeTransformer(EdgeShape.line());
+    vv.getRenderer()
+        .setVertexRenderer(
+            new BasicVertexRenderer<String, String>() {
+              @Override
+              public void paintVertex(
+                  RenderContext<String, String> renderContext,
+                  VisualizationModel<String, String, Point2D> visualizationModel,
+                  String v) {
+                painted.merge(v, 1, Integer::sum);
+                super.paintVertex(renderContext, visualizationModel, v);
+              }
+            });
+    vv.setTileSize(100);
+  }
+
+  private BufferedImage render() {
+    painted.clear();
+    BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    vv.paint(g);
+    g.dispose();
+    return image;
+  }
+
+  private int paintCount(String node) {
+    return painted.getOrDefault(node, 0);
+  }
+
+  private static boolean isPainted(BufferedImage image, int x, int y) {
+    return (image.getRGB(x, y) & 0xffffff) != 0xffffff;
+  }
+
+  @Test
+  public void testTiles() {
+    BufferedImage tiled = render();
+    // c is painted in both of the tiles that its shape reaches into
+    Assert.assertEquals(1, paintCount("a"));
+    Assert.assertEquals(1, paintCount("b"));
+    Assert.assertEquals(2, paintCount("c"));
+
+    vv.setTileSize(0);
+    BufferedImage whole = render();
+    for (int y = 0; y < SIZE; y++) {
+      for (int x = 0; x < SIZE; x++) {
+        Assert.assertEquals(isPainted(whole, x, y), isPainted(tiled, x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testUnchangedTilesReused() {
+    render();
+    BufferedImage image = render();
+    Assert.assertTrue(painted.isEmpty());
+    Assert.assertTrue(isPainted(image, 50, 50));
+    Assert.assertTrue(isPainted(image, 250, 250));
+    Assert.assertTrue(isPainted(image, 295, 150));
+  }
+
+  @Test
+  public void testChangedTilesPainted() {
+    render();
+    layoutModel.set("a", 60, 60);
+    BufferedImage image = render();
+    Assert.assertEquals(1, paintCount("a"));
+    Assert.assertEquals(0, paintCount("b"));
+    Assert.assertEquals(0, paintCount("c"));
+    Assert.assertTrue(isPainted(image, 65, 65));
+
+    vv.getPickedVertexState().pick("b", true);
+    render();
+    Assert.assertEquals(0, paintCount("a"));
+    Assert.assertEquals(1, paintCount("b"));
+    Assert.assertEquals(0, paintCount("c"));
+  }
+
+  @Test
+  public void testClearTiles() {
+    render();
+    vv.getRenderContext().setVertexFillPaintTransformer(n -> Color.BLUE);
+    Assert.assertNotEquals(Color.BLUE.getRGB(), render().getRGB(50, 50));
+
+    vv.clearTiles();
+    BufferedImage image = render();
+    Assert.assertEquals(1, paintCount("a"));
+    Assert.assertEquals(1, paintCount("b"));
+    Assert.assertEquals(2, paintCount("c"));
+    Assert.assertEquals(Color.BLUE.getRGB(), image.getRGB(50, 50));
+  }
+
+  @Test
+  public void testTileMargin() {
+    // with no margin, the part of the shape of c that reaches into the next tile is cut off
+    vv.setTileMargin(0);
+    BufferedImage image = render();
+    Assert.assertEquals(1, paintCount("c"));
+    Assert.assertTrue(isPainted(image, 298, 150));
+    Assert.assertFalse(isPainted(image, 302, 150));
+
+    vv.setTileMargin(20);
+    image = render();
+    Assert.assertEquals(2, paintCount("c"));
+    Assert.assertTrue(isPainted(image, 302, 150));
+  }
+
+  @Test
+  public void testForkJoinPool() {
+    BufferedImage serial = render();
+    vv.clearTiles();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      vv.setForkJoinPool(pool);
+      BufferedImage parallel = render();
+      Assert.assertEquals(1, paintCount("a"));
+      Assert.assertEquals(2, paintCount("c"));
+      for (int y = 0; y < SIZE; y++) {
+        for (int x = 0; x < SIZE; x++) {
+          Assert.assertEquals(serial.getRGB(x, y), parallel.getRGB(x, y));
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package edu.uci.ics.jung.visualization;
+
+import static edu.uci.ics.jung.visualization.layout.AWT.POINT_MODEL;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.layout.algorithms.StaticLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.visualization.layout.SpatialRTreeLayoutModel;
+import edu.uci.ics.jung.visualization.renderers.BasicVertexRenderer;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test that the nodes are rendered in order of priority within the frame budget, and that changes
+ * to the layout do not keep the rendering in progress from completing
+ */
+public class ProgressiveRenderingTest {
+
+  private static final int SIZE = 400;
+  private static final int NODES = 200;
+  /** the nodes painted between two checks of the time */
+  private static final int CHUNK_SIZE = 64;
+
+  private LayoutModel<Integer, Point2D> layoutModel;
+  private BasicVisualizationServer<Integer, String> vv;
+  private List<Integer> painted = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    MutableNetwork<Integer, String> network = NetworkBuilder.directed().build();
+    for (int i = 0; i < NODES; i++) {
+      network.addNode(i);
+    }
+    layoutModel =
+        SpatialRTreeLayoutModel.<Integer, Point2D>builder()
+            .setGraph(network.asGraph())
+            .setPointModel(POINT_MODEL)
+            .setSize(SIZE, SIZE)
+            .build();
+    for (int i = 0; i < NODES; i++) {
+      layoutModel.set(i, x(i), y(i));
+    }
+    vv =
+        new BasicVisualizationServer<>(
+            new BaseVisualizationModel<>(network, layoutModel, new StaticLayoutAlgorithm<>()),
+            new Dimension(SIZE, SIZE));
+    vv.setSize(SIZE, SIZE);
+    vv.setBackground(Color.WHITE);
+    // each chunk of nodes takes longer than the budget, so that each frame paints one chunk
+    vv.getRenderer()
+        .setVertexRenderer(
+            new BasicVertexRenderer<Integer, String>() {
+              @Override
+              public void paintVertex(
+                  RenderContext<Integer, String> renderContext,
+                  VisualizationModel<Integer, String, Point2D> visualizationModel,
+                  Integer v) {
+                painted.add(v);
+                try {
+                  Thread.sleep(1);
+                } catch (InterruptedException ex) {
+                  Thread.currentThread().interrupt();
+                }
+                super.paintVertex(renderContext, visualizationModel, v);
+              }
+            });
+    vv.setRenderPriority(n -> n);
+    vv.setFrameBudget(40);
+  }
+
+  private static int x(int node) {
+    return 10 + (node % 20) * 19;
+  }
+
+  private static int y(int node) {
+    return 10 + (node / 20) * 38;
+  }
+
+  private BufferedImage frame() {
+    painted.clear();
+    BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    vv.paint(g);
+    g.dispose();
+    return image;
+  }
+
+  private static boolean isPainted(BufferedImage image, int x, int y) {
+    return (image.getRGB(x, y) & 0xffffff) != 0xffffff;
+  }
+
+  /** asserts that the last frame painted the nodes from <code>first</code> down */
+  private void assertPainted(int first, int count) {
+    Assert.assertEquals(count, painted.size());
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals(first - i, (int) painted.get(i));
+    }
+  }
+
+  /** renders frames until all of the nodes have been painted, returning the last image */
+  private BufferedImage completePass(int first) {
+    BufferedImage image = null;
+    for (int next = first; next >= 0; next -= CHUNK_SIZE) {
+      image = frame();
+      assertPainted(next, Math.min(CHUNK_SIZE, next + 1));
+    }
+    return image;
+  }
+
+  @Test
+  public void testOrderAndBudget() {
+    BufferedImage image = frame();
+    assertPainted(NODES - 1, CHUNK_SIZE);
+    Assert.assertTrue(isPainted(image, x(NODES - 1), y(NODES - 1)));
+    Assert.assertFalse(isPainted(image, x(0), y(0)));
+
+    image = completePass(NODES - 1 - CHUNK_SIZE);
+    for (int i = 0; i < NODES; i++) {
+      Assert.assertTrue(isPainted(image, x(i), y(i)));
+    }
+
+    // nothing is painted again until something changes
+    image = frame();
+    Assert.assertTrue(painted.isEmpty());
+    Assert.assertTrue(isPainted(image, x(0), y(0)));
+  }
+
+  @Test
+  public void testLayoutChangesCoalesced() {
+    frame();
+    assertPainted(NODES - 1, CHUNK_SIZE);
+
+    // changes in every frame continue the pass in progress instead of starting it over
+    int next = NODES - 1 - CHUNK_SIZE;
+    for (int i = 0; next >= 0; i++, next -= CHUNK_SIZE) {
+      layoutModel.set(0, 200, 390 - i);
+      vv.getPickedVertexState().pick(i, true);
+      frame();
+      assertPainted(next, Math.min(CHUNK_SIZE, next + 1));
+    }
+
+    // then the pass starts over, drawing the complete image until the next one is complete
+    BufferedImage image = frame();
+    assertPainted(NODES - 1, CHUNK_SIZE);
+    Assert.assertTrue(isPainted(image, x(1), y(1)));
+
+    image = completePass(NODES - 1 - CHUNK_SIZE);
+    Assert.assertFalse(isPainted(image, x(0), y(0)));
+    Assert.assertTrue(isPainted(image, 200, 387));
+    Assert.assertTrue(isPainted(image, x(1), y(1)));
+
+    frame();
+    Assert.assertTrue(painted.isEmpty());
+  }
+
+  @Test
+  public void testViewChangeRestarts() {
+    completePass(NODES - 1);
+
+    // a pan starts over at once, without drawing the image of the old view
+    vv.getRenderContext().getMultiLayerTransformer().getTransformer(Layer.VIEW).translate(5, 0);
+    BufferedImage image = frame();
+    assertPainted(NODES - 1, CHUNK_SIZE);
+    Assert.assertFalse(isPainted(image, x(1) + 5, y(1)));
+    Assert.assertTrue(isPainted(image, x(NODES - 1) + 5, y(NODES - 1)));
+  }
+}
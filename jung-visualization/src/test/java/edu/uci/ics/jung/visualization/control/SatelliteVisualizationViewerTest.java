@@ -0,0 +1,173 @@
+package edu.uci.ics.jung.visualization.control;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.layout.algorithms.StaticLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.visualization.BaseVisualizationModel;
+import edu.uci.ics.jung.visualization.RenderContext;
+import edu.uci.ics.jung.visualization.VisualizationModel;
+import edu.uci.ics.jung.visualization.VisualizationViewer;
+import edu.uci.ics.jung.visualization.renderers.BasicVertexRenderer;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import javax.swing.SwingUtilities;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test that the thumbnail of the satellite view is rendered again when it is invalidated, and that
+ * a failed or rejected rendering does not keep the graph from being shown
+ */
+public class SatelliteVisualizationViewerTest {
+
+  private static final int SIZE = 400;
+  private static final int SATELLITE_SIZE = 200;
+
+  private MutableNetwork<String, String> network;
+  private LayoutModel<String, Point2D> layoutModel;
+  private VisualizationViewer<String, String> master;
+  private SatelliteVisualizationViewer<String, String> satellite;
+  private int painted;
+  private int failures;
+
+  @Before
+  public void setUp() {
+    network = NetworkBuilder.directed().build();
+    network.addEdge("a", "b", "ab");
+    network.addEdge("b", "c", "bc");
+    Map<String, Point2D> locations =
+        ImmutableMap.of(
+            "a", new Point2D.Double(100, 100),
+            "b", new Point2D.Double(300, 100),
+            "c", new Point2D.Double(200, 300));
+    master =
+        new VisualizationViewer<>(
+            new BaseVisualizationModel<>(
+                network, new StaticLayoutAlgorithm<>(), locations::get, new Dimension(SIZE, SIZE)),
+            new Dimension(SIZE, SIZE));
+    master.setSize(SIZE, SIZE);
+    layoutModel = master.getModel().getLayoutModel();
+    satellite =
+        new SatelliteVisualizationViewer<>(
+            master, new Dimension(SATELLITE_SIZE, SATELLITE_SIZE));
+    satellite.setSize(SATELLITE_SIZE, SATELLITE_SIZE);
+    satellite.scaleToLayout(new CrossoverScalingControl());
+    satellite
+        .getRenderer()
+        .setVertexRenderer(
+            new BasicVertexRenderer<String, String>() {
+              @Override
+              public void paintVertex(
+                  RenderContext<String, String> renderContext,
+                  VisualizationModel<String, String, Point2D> visualizationModel,
+                  String v) {
+                if (failures > 0) {
+                  failures--;
+                  throw new IllegalStateException();
+                }
+                painted++;
+                super.paintVertex(renderContext, visualizationModel, v);
+              }
+            });
+    // render the thumbnail on the calling thread
+    satellite.setThumbnailExecutor(Runnable::run);
+    satellite.setThumbnailRendering(true);
+  }
+
+  /** paints the satellite view, then runs the events posted for the rendered thumbnail */
+  private BufferedImage paint() throws Exception {
+    painted = 0;
+    BufferedImage image =
+        new BufferedImage(SATELLITE_SIZE, SATELLITE_SIZE, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    satellite.paint(g);
+    g.dispose();
+    SwingUtilities.invokeAndWait(() -> {});
+    return image;
+  }
+
+  /** @return true if the center of <code>node</code> is painted in the fill color of the nodes */
+  private boolean isPainted(BufferedImage image, String node) {
+    Point2D p =
+        satellite.getRenderContext().getMultiLayerTransformer().transform(layoutModel.apply(node));
+    return image.getRGB((int) p.getX(), (int) p.getY()) == Color.RED.getRGB();
+  }
+
+  @Test
+  public void testThumbnailReused() throws Exception {
+    // the first paint renders the thumbnail, and the next one draws it
+    paint();
+    Assert.assertEquals(3, painted);
+    BufferedImage image = paint();
+    Assert.assertEquals(0, painted);
+    Assert.assertTrue(isPainted(image, "a"));
+    Assert.assertTrue(isPainted(image, "c"));
+  }
+
+  @Test
+  public void testInvalidate() throws Exception {
+    paint();
+    paint();
+
+    satellite.invalidateThumbnail();
+    paint();
+    Assert.assertEquals(3, painted);
+    paint();
+    Assert.assertEquals(0, painted);
+
+    // changes to the layout and the picked states are followed
+    layoutModel.set("a", 120, 120);
+    paint();
+    Assert.assertEquals(3, painted);
+    Assert.assertTrue(isPainted(paint(), "a"));
+
+    master.getPickedVertexState().pick("b", true);
+    paint();
+    Assert.assertEquals(3, painted);
+    Assert.assertNotEquals(Color.RED.getRGB(), paint().getRGB(0, 0));
+  }
+
+  @Test
+  public void testRenderingFails() throws Exception {
+    failures = 1;
+    BufferedImage image = paint();
+    Assert.assertFalse(isPainted(image, "a"));
+
+    // the thumbnail is rendered again when next painted
+    paint();
+    Assert.assertEquals(3, painted);
+    image = paint();
+    Assert.assertEquals(0, painted);
+    Assert.assertTrue(isPainted(image, "a"));
+  }
+
+  @Test
+  public void testRenderingRejected() throws Exception {
+    satellite.setThumbnailExecutor(
+        r -> {
+          throw new RejectedExecutionException();
+        });
+    // the graph is rendered in the view instead, on each paint
+    BufferedImage image = paint();
+    Assert.assertEquals(3, painted);
+    Assert.assertTrue(isPainted(image, "a"));
+    paint();
+    Assert.assertEquals(3, painted);
+
+    // the thumbnail is requested again once the executor accepts it
+    satellite.setThumbnailExecutor(Runnable::run);
+    paint();
+    Assert.assertEquals(3, painted);
+    image = paint();
+    Assert.assertEquals(0, painted);
+    Assert.assertTrue(isPainted(image, "a"));
+  }
+}
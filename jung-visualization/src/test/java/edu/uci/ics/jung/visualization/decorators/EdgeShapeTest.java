@@ -0,0 +1,162 @@
+package edu.uci.ics.jung.visualization.decorators;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.graph.util.ParallelEdgeIndexFunction;
+import edu.uci.ics.jung.visualization.util.Context;
+import java.awt.Shape;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test that the edge shapes and the parallel edge indices may be requested from several rendering
+ * threads at once: each call returns its own shape, with the bounds it has when requested alone
+ */
+public class EdgeShapeTest {
+
+  private static final int THREADS = 8;
+  private static final int REPEATS = 200;
+
+  private MutableNetwork<String, String> network;
+  private List<String> edges;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    network = NetworkBuilder.directed().allowsParallelEdges(true).allowsSelfLoops(true).build();
+    for (int i = 0; i < 10; i++) {
+      network.addEdge("a", "b", "p" + i);
+    }
+    for (int i = 0; i < 4; i++) {
+      network.addEdge("a", "a", "l" + i);
+    }
+    edges = ImmutableList.copyOf(network.edges());
+    executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /** calls <code>task</code> on all of the threads at once, returning the results of each thread */
+  private <T> List<T> callConcurrently(Callable<T> task) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<T>> futures = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return task.call();
+              }));
+    }
+    start.countDown();
+    List<T> results = new ArrayList<>();
+    for (Future<T> future : futures) {
+      results.add(future.get());
+    }
+    return results;
+  }
+
+  private void assertShapes(ParallelEdgeShapeTransformer<String> edgeShape) throws Exception {
+    edgeShape.setEdgeIndexFunction(new ParallelEdgeIndexFunction<>(network));
+    Map<String, Shape> expected = new HashMap<>();
+    for (String edge : edges) {
+      expected.put(edge, edgeShape.apply(Context.getInstance(network, edge)));
+    }
+
+    List<List<Shape>> results =
+        callConcurrently(
+            () -> {
+              List<Shape> shapes = new ArrayList<>();
+              for (int i = 0; i < REPEATS; i++) {
+                for (String edge : edges) {
+                  shapes.add(edgeShape.apply(Context.getInstance(network, edge)));
+                }
+              }
+              return shapes;
+            });
+
+    Set<Shape> seen = Sets.newIdentityHashSet();
+    for (List<Shape> shapes : results) {
+      for (int i = 0; i < shapes.size(); i++) {
+        String edge = edges.get(i % edges.size());
+        Shape shape = shapes.get(i);
+        Assert.assertEquals(edge, expected.get(edge).getBounds2D(), shape.getBounds2D());
+        Assert.assertTrue(edge, seen.add(shape));
+      }
+    }
+  }
+
+  @Test
+  public void testQuadCurve() throws Exception {
+    assertShapes(new EdgeShape.QuadCurve<>());
+  }
+
+  @Test
+  public void testCubicCurve() throws Exception {
+    assertShapes(new EdgeShape.CubicCurve<>());
+  }
+
+  @Test
+  public void testBentLine() throws Exception {
+    assertShapes(new EdgeShape.BentLine<>());
+  }
+
+  @Test
+  public void testLoop() throws Exception {
+    assertShapes(new EdgeShape.Loop<>());
+  }
+
+  @Test
+  public void testBox() throws Exception {
+    assertShapes(new EdgeShape.Box<>());
+  }
+
+  @Test
+  public void testParallelEdgeIndexFunction() throws Exception {
+    for (int i = 0; i < REPEATS; i++) {
+      ParallelEdgeIndexFunction<String, String> edgeIndexFunction =
+          new ParallelEdgeIndexFunction<>(network);
+      List<Map<String, Integer>> results =
+          callConcurrently(
+              () -> {
+                Map<String, Integer> indices = new HashMap<>();
+                for (String edge : edges) {
+                  indices.put(edge, edgeIndexFunction.getIndex(edge));
+                }
+                return indices;
+              });
+
+      Map<String, Integer> indices = results.get(0);
+      for (Map<String, Integer> result : results) {
+        Assert.assertEquals(indices, result);
+      }
+      assertIndices(network.edgesConnecting("a", "b"), indices);
+      assertIndices(network.edgesConnecting("a", "a"), indices);
+    }
+  }
+
+  /** asserts that the parallel edges are numbered from 0 without gaps */
+  private static void assertIndices(Iterable<String> edges, Map<String, Integer> indices) {
+    int count = 0;
+    for (String edge : edges) {
+      Assert.assertEquals(edge, count++, (int) indices.get(edge));
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package edu.uci.ics.jung.visualization.picking;
+
+import static edu.uci.ics.jung.visualization.layout.AWT.POINT_MODEL;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.layout.algorithms.StaticLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.visualization.BaseVisualizationModel;
+import edu.uci.ics.jung.visualization.BasicVisualizationServer;
+import edu.uci.ics.jung.visualization.layout.SpatialRTreeLayoutModel;
+import java.awt.Dimension;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Point2D;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/** test that picking with the spatial R-tree finds every node whose shape contains the point */
+public class ShapePickSupportTest {
+
+  private LayoutModel<String, Point2D> layoutModel;
+  private BasicVisualizationServer<String, String> vv;
+  private ShapePickSupport<String, String> pickSupport;
+
+  @Before
+  public void setup() {
+    MutableNetwork<String, String> network = NetworkBuilder.directed().build();
+    network.addNode("small");
+    network.addNode("big");
+    layoutModel =
+        SpatialRTreeLayoutModel.<String, Point2D>builder()
+            .setGraph(network.asGraph())
+            .setPointModel(POINT_MODEL)
+            .setSize(400, 400)
+            .build();
+    layoutModel.set("small", 100, 100);
+    layoutModel.set("big", 200, 100);
+    vv =
+        new BasicVisualizationServer<>(
+            new BaseVisualizationModel<>(network, layoutModel, new StaticLayoutAlgorithm<>()),
+            new Dimension(400, 400));
+    vv.getRenderContext()
+        .setVertexShapeTransformer(
+            node ->
+                node.equals("big")
+                    ? new Ellipse2D.Double(-100, -100, 200, 200)
+                    : new Ellipse2D.Double(-5, -5, 10, 10));
+    pickSupport = new ShapePickSupport<>(vv);
+  }
+
+  @Test
+  public void testLargerFartherNode() {
+    // "small" is the nearest node, but only the shape of "big" contains the point
+    Assert.assertEquals("big", pickSupport.getNode(layoutModel, 110, 100));
+    Assert.assertEquals("small", pickSupport.getNode(layoutModel, 100, 100));
+    Assert.assertNull(pickSupport.getNode(layoutModel, 350, 350));
+  }
+
+  @Test
+  public void testShapesChange() {
+    Assert.assertEquals("big", pickSupport.getNode(layoutModel, 110, 100));
+    vv.getRenderContext().setVertexShapeTransformer(node -> new Ellipse2D.Double(-5, -5, 10, 10));
+    Assert.assertNull(pickSupport.getNode(layoutModel, 110, 100));
+    vv.getRenderContext()
+        .setVertexShapeTransformer(node -> new Ellipse2D.Double(-150, -150, 300, 300));
+    Assert.assertEquals("small", pickSupport.getNode(layoutModel, 110, 100));
+  }
+}
@@ -0,0 +1,225 @@
+package edu.uci.ics.jung.visualization.renderers;
+
+import static edu.uci.ics.jung.visualization.layout.AWT.POINT_MODEL;
+
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.graph.ObservableNetwork;
+import edu.uci.ics.jung.layout.algorithms.StaticLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.visualization.BaseVisualizationModel;
+import edu.uci.ics.jung.visualization.BasicVisualizationServer;
+import edu.uci.ics.jung.visualization.Layer;
+import edu.uci.ics.jung.visualization.RenderContext;
+import edu.uci.ics.jung.visualization.VisualizationModel;
+import edu.uci.ics.jung.visualization.layout.SpatialRTreeLayoutModel;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test that the level of detail follows the scale on either side of the thresholds: full shapes
+ * with labels and arrows, full shapes alone, or an outline, whether the view is rendered as a
+ * whole, in tiles or progressively
+ */
+public class BasicRendererTest {
+
+  private static final int SIZE = 400;
+  private static final Point2D CENTER = new Point2D.Double(SIZE / 2, SIZE / 2);
+  private static final double LABEL_THRESHOLD = 1.0;
+  private static final double OUTLINE_THRESHOLD = 0.5;
+
+  private BasicVisualizationServer<String, String> vv;
+  private RecordingRenderer renderer;
+
+  /** records what the renderer paints */
+  private static class RecordingRenderer extends BasicRenderer<String, String> {
+    int shapes;
+    int labels;
+    int outlines;
+    int arrows;
+
+    @Override
+    public void renderVertex(
+        RenderContext<String, String> renderContext,
+        VisualizationModel<String, String, Point2D> visualizationModel,
+        String v) {
+      shapes++;
+      super.renderVertex(renderContext, visualizationModel, v);
+    }
+
+    @Override
+    public void renderEdge(
+        RenderContext<String, String> renderContext,
+        VisualizationModel<String, String, Point2D> visualizationModel,
+        String e) {
+      shapes++;
+      if (renderContext.renderEdgeArrow()) {
+        arrows++;
+      }
+      super.renderEdge(renderContext, visualizationModel, e);
+    }
+
+    @Override
+    public void renderVertexLabel(
+        RenderContext<String, String> renderContext,
+        VisualizationModel<String, String, Point2D> visualizationModel,
+        String v) {
+      labels++;
+      super.renderVertexLabel(renderContext, visualizationModel, v);
+    }
+
+    @Override
+    public void renderEdgeLabel(
+        RenderContext<String, String> renderContext,
+        VisualizationModel<String, String, Point2D> visualizationModel,
+        String e) {
+      labels++;
+      super.renderEdgeLabel(renderContext, visualizationModel, e);
+    }
+
+    @Override
+    protected void renderOutline(
+        RenderContext<String, String> renderContext,
+        VisualizationModel<String, String, Point2D> visualizationModel,
+        Collection<String> nodes,
+        Collection<String> edges) {
+      outlines++;
+      super.renderOutline(renderContext, visualizationModel, nodes, edges);
+    }
+
+    void reset() {
+      shapes = 0;
+      labels = 0;
+      outlines = 0;
+      arrows = 0;
+    }
+  }
+
+  @Before
+  public void setUp() {
+    // the edge spatial structure of an observable network allows tiles
+    ObservableNetwork<String, String> network =
+        new ObservableNetwork<>(NetworkBuilder.directed().<String, String>build());
+    network.addEdge("a", "b", "ab");
+    LayoutModel<String, Point2D> layoutModel =
+        SpatialRTreeLayoutModel.<String, Point2D>builder()
+            .setGraph(network.asGraph())
+            .setPointModel(POINT_MODEL)
+            .setSize(SIZE, SIZE)
+            .build();
+    layoutModel.set("a", 150, 200);
+    layoutModel.set("b", 250, 200);
+    vv =
+        new BasicVisualizationServer<>(
+            new BaseVisualizationModel<>(network, layoutModel, new StaticLayoutAlgorithm<>()),
+            new Dimension(SIZE, SIZE));
+    vv.setSize(SIZE, SIZE);
+    vv.setBackground(Color.WHITE);
+    vv.getRenderContext().setVertexLabelTransformer(Object::toString);
+    vv.getRenderContext().setEdgeLabelTransformer(Object::toString);
+    renderer = new RecordingRenderer();
+    renderer.setLabelScaleThreshold(LABEL_THRESHOLD);
+    renderer.setOutlineScaleThreshold(OUTLINE_THRESHOLD);
+    vv.setRenderer(renderer);
+  }
+
+  private BufferedImage render(double viewScale) {
+    vv.getRenderContext()
+        .getMultiLayerTransformer()
+        .getTransformer(Layer.VIEW)
+        .setScale(viewScale, viewScale, CENTER);
+    renderer.reset();
+    BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    vv.paint(g);
+    g.dispose();
+    return image;
+  }
+
+  private static boolean isPainted(BufferedImage image, int x, int y) {
+    return (image.getRGB(x, y) & 0xffffff) != 0xffffff;
+  }
+
+  /**
+   * asserts what is painted at scales on either side of each threshold; tiles may paint a shape
+   * once for each tile that it reaches into, but the labels are painted once over the tiles
+   */
+  private void assertLevelsOfDetail() {
+    // at and above the label threshold, everything is painted
+    for (double scale : new double[] {LABEL_THRESHOLD * 1.25, LABEL_THRESHOLD}) {
+      render(scale);
+      Assert.assertTrue(renderer.shapes >= 3);
+      Assert.assertEquals(3, renderer.labels);
+      Assert.assertTrue(renderer.arrows > 0);
+      Assert.assertEquals(0, renderer.outlines);
+    }
+
+    // below it and down to the outline threshold, the shapes are painted without labels or arrows
+    for (double scale : new double[] {LABEL_THRESHOLD * 0.8, OUTLINE_THRESHOLD}) {
+      render(scale);
+      Assert.assertTrue(renderer.shapes >= 3);
+      Assert.assertEquals(0, renderer.labels);
+      Assert.assertEquals(0, renderer.arrows);
+      Assert.assertEquals(0, renderer.outlines);
+      Assert.assertTrue(vv.getRenderContext().renderEdgeArrow());
+    }
+
+    // below the outline threshold, only the outline is painted
+    render(OUTLINE_THRESHOLD * 0.8);
+    Assert.assertEquals(0, renderer.shapes);
+    Assert.assertEquals(0, renderer.labels);
+    Assert.assertTrue(renderer.outlines > 0);
+  }
+
+  @Test
+  public void testLevelsOfDetail() {
+    assertLevelsOfDetail();
+  }
+
+  @Test
+  public void testLevelsOfDetailInTiles() {
+    vv.setTileSize(100);
+    assertLevelsOfDetail();
+  }
+
+  @Test
+  public void testLevelsOfDetailInProgressiveRendering() {
+    vv.setFrameBudget(10000);
+    assertLevelsOfDetail();
+  }
+
+  @Test
+  public void testLayoutScale() {
+    // the thresholds apply to the scale from layout to view coordinates, which is the product of
+    // the layout and view scales
+    vv.getRenderContext()
+        .getMultiLayerTransformer()
+        .getTransformer(Layer.LAYOUT)
+        .setScale(0.5, 0.5, CENTER);
+    render(1.5);
+    Assert.assertEquals(3, renderer.shapes);
+    Assert.assertEquals(0, renderer.labels);
+    render(0.8);
+    Assert.assertEquals(0, renderer.shapes);
+    Assert.assertTrue(renderer.outlines > 0);
+  }
+
+  @Test
+  public void testOutline() {
+    // a is drawn at (175, 200) at the outline threshold and at (180, 200) just below it: the full
+    // node shape reaches 3 pixels from the location, and the outline square does not
+    BufferedImage full = render(OUTLINE_THRESHOLD);
+    BufferedImage outline = render(OUTLINE_THRESHOLD * 0.8);
+    Assert.assertTrue(isPainted(full, 175, 203));
+    Assert.assertTrue(isPainted(outline, 180, 200));
+    Assert.assertFalse(isPainted(outline, 180, 203));
+    // the edge is still painted between them
+    Assert.assertTrue(isPainted(outline, 200, 200));
+  }
+}
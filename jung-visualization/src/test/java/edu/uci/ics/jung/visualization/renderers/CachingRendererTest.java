@@ -0,0 +1,160 @@
+package edu.uci.ics.jung.visualization.renderers;
+
+import static edu.uci.ics.jung.visualization.layout.AWT.POINT_MODEL;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.layout.algorithms.StaticLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.visualization.BaseVisualizationModel;
+import edu.uci.ics.jung.visualization.BasicVisualizationServer;
+import edu.uci.ics.jung.visualization.RenderContext;
+import edu.uci.ics.jung.visualization.VisualizationModel;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test that the layout events evict the shapes kept by the caching renderers: only those of a moved
+ * node and its edges, or all of them when any node may have moved
+ */
+public class CachingRendererTest {
+
+  private static final int SIZE = 300;
+
+  private MutableNetwork<String, String> network;
+  private LoadingCacheLayoutModel<String, Point2D> layoutModel;
+  private BasicVisualizationServer<String, String> vv;
+  private CountingVertexRenderer vertexRenderer;
+  private CountingEdgeRenderer edgeRenderer;
+
+  @Before
+  public void setup() {
+    network = NetworkBuilder.directed().build();
+    network.addEdge("a", "b", "ab");
+    network.addEdge("b", "c", "bc");
+    network.addEdge("c", "a", "ca");
+    layoutModel =
+        LoadingCacheLayoutModel.<String, Point2D>builder()
+            .setGraph(network.asGraph())
+            .setPointModel(POINT_MODEL)
+            .setSize(SIZE, SIZE)
+            .build();
+    layoutModel.set("a", 50, 50);
+    layoutModel.set("b", 250, 50);
+    layoutModel.set("c", 150, 250);
+    vv =
+        new BasicVisualizationServer<>(
+            new BaseVisualizationModel<>(network, layoutModel, new StaticLayoutAlgorithm<>()),
+            new Dimension(SIZE, SIZE));
+    vv.setSize(SIZE, SIZE);
+    vertexRenderer = new CountingVertexRenderer(vv);
+    edgeRenderer = new CountingEdgeRenderer(vv);
+    vv.getRenderer().setVertexRenderer(vertexRenderer);
+    vv.getRenderer().setEdgeRenderer(edgeRenderer);
+    render();
+    Assert.assertEquals(3, vertexRenderer.prepared);
+    Assert.assertEquals(3, edgeRenderer.prepared);
+  }
+
+  private void render() {
+    BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    vv.paint(g);
+    g.dispose();
+  }
+
+  @Test
+  public void testShapesAreKept() {
+    render();
+    Assert.assertEquals(3, vertexRenderer.prepared);
+    Assert.assertEquals(3, edgeRenderer.prepared);
+  }
+
+  @Test
+  public void testNodeEvent() {
+    // the event evicts the shapes even though the node is set to the same location
+    layoutModel.set("a", 50, 50);
+    render();
+    Assert.assertEquals(4, vertexRenderer.prepared);
+    Assert.assertEquals(5, edgeRenderer.prepared);
+  }
+
+  @Test
+  public void testNullNodeEventWhenEventsAreTurnedOn() {
+    layoutModel.setFireEvents(false);
+    layoutModel.setFireEvents(true);
+    render();
+    Assert.assertEquals(6, vertexRenderer.prepared);
+    Assert.assertEquals(6, edgeRenderer.prepared);
+  }
+
+  @Test
+  public void testNullNodeEventWhenGraphIsSet() {
+    layoutModel.setGraph(network.asGraph());
+    render();
+    Assert.assertEquals(6, vertexRenderer.prepared);
+    Assert.assertEquals(6, edgeRenderer.prepared);
+  }
+
+  @Test
+  @SuppressWarnings({"deprecation", "unchecked"})
+  public void testDeprecatedMembers() {
+    Assert.assertEquals(3, vertexRenderer.vertexShapeMap.size());
+    Assert.assertNotNull(edgeRenderer.edgeShapeMap.get("ab"));
+
+    vertexRenderer.dirtyVertices.add("a");
+    edgeRenderer.dirtyEdges.add("ab");
+    render();
+    Assert.assertEquals(4, vertexRenderer.prepared);
+    Assert.assertEquals(4, edgeRenderer.prepared);
+
+    vertexRenderer.vertexShapeMap.clear();
+    edgeRenderer.edgeShapeMap.remove("bc");
+    render();
+    Assert.assertEquals(7, vertexRenderer.prepared);
+    Assert.assertEquals(5, edgeRenderer.prepared);
+  }
+
+  private static class CountingVertexRenderer extends CachingVertexRenderer<String, String> {
+    int prepared;
+
+    CountingVertexRenderer(BasicVisualizationServer<String, String> vv) {
+      super(vv);
+    }
+
+    @Override
+    protected Shape prepareFinalVertexShape(
+        RenderContext<String, String> renderContext,
+        VisualizationModel<String, String, Point2D> visualizationModel,
+        String v,
+        int[] coords) {
+      prepared++;
+      return super.prepareFinalVertexShape(renderContext, visualizationModel, v, coords);
+    }
+  }
+
+  private static class CountingEdgeRenderer extends CachingEdgeRenderer<String, String> {
+    int prepared;
+
+    CountingEdgeRenderer(BasicVisualizationServer<String, String> vv) {
+      super(vv);
+    }
+
+    @Override
+    protected Shape prepareFinalEdgeShape(
+        RenderContext<String, String> renderContext,
+        VisualizationModel<String, String, Point2D> visualizationModel,
+        String e,
+        int[] coords,
+        boolean[] loop) {
+      prepared++;
+      return super.prepareFinalEdgeShape(renderContext, visualizationModel, e, coords, loop);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package edu.uci.ics.jung.visualization.spatial;
+
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test that searches of an RTree find exactly the items that a search of every item finds, after
+ * bulk loading, inserting, moving and removing items
+ */
+public class RTreeTest {
+
+  final int count = 1000;
+  Random random;
+  Map<Integer, Rectangle2D> bounds;
+  RTree<Integer> tree;
+
+  @Before
+  public void setup() {
+    random = new Random(13);
+    bounds = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      bounds.put(i, randomRectangle());
+    }
+    tree = new RTree<>(8);
+  }
+
+  private Rectangle2D randomRectangle() {
+    return new Rectangle2D.Double(
+        random.nextDouble() * 1000,
+        random.nextDouble() * 1000,
+        random.nextDouble() * 50,
+        random.nextDouble() * 50);
+  }
+
+  private void assertSearchesMatch() {
+    Assert.assertEquals(bounds.size(), tree.size());
+    for (int i = 0; i < 100; i++) {
+      Rectangle2D area = randomRectangle();
+      Set<Integer> expected = new HashSet<>();
+      for (Map.Entry<Integer, Rectangle2D> entry : bounds.entrySet()) {
+        if (entry.getValue().intersects(area)) {
+          expected.add(entry.getKey());
+        }
+      }
+      Assert.assertEquals(expected, new HashSet<>(tree.search(area)));
+    }
+  }
+
+  @Test
+  public void testInsert() {
+    for (Map.Entry<Integer, Rectangle2D> entry : bounds.entrySet()) {
+      tree.insert(entry.getKey(), entry.getValue());
+    }
+    assertSearchesMatch();
+  }
+
+  @Test
+  public void testBulkLoad() {
+    tree.bulkLoad(bounds.keySet(), bounds::get);
+    assertSearchesMatch();
+  }
+
+  @Test
+  public void testUpdateAndRemove() {
+    tree.bulkLoad(bounds.keySet(), bounds::get);
+    for (int i = 0; i < count; i += 3) {
+      Rectangle2D moved = randomRectangle();
+      bounds.put(i, moved);
+      tree.update(i, moved);
+    }
+    List<Integer> removed = new ArrayList<>();
+    for (int i = 1; i < count; i += 4) {
+      bounds.remove(i);
+      tree.remove(i);
+      removed.add(i);
+    }
+    assertSearchesMatch();
+    for (Integer item : removed) {
+      Assert.assertFalse(tree.contains(item));
+    }
+  }
+
+  @Test
+  public void testShapeSearch() {
+    tree.bulkLoad(bounds.keySet(), bounds::get);
+    Ellipse2D circle = new Ellipse2D.Double(200, 200, 400, 400);
+    Set<Integer> expected = new HashSet<>();
+    for (Map.Entry<Integer, Rectangle2D> entry : bounds.entrySet()) {
+      if (circle.intersects(entry.getValue())) {
+        expected.add(entry.getKey());
+      }
+    }
+    Assert.assertEquals(expected, new HashSet<>(tree.search(circle)));
+  }
+}
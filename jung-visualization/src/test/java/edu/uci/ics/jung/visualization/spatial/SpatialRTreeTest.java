@@ -0,0 +1,116 @@
+package edu.uci.ics.jung.visualization.spatial;
+
+import static edu.uci.ics.jung.visualization.layout.AWT.POINT_MODEL;
+
+import com.google.common.graph.Graph;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.util.NetworkNodeAccessor;
+import edu.uci.ics.jung.layout.util.RadiusNetworkNodeAccessor;
+import edu.uci.ics.jung.layout.util.RandomLocationTransformer;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test that the SpatialRTree finds the same nodes as a search of every node, before and after the
+ * nodes are moved
+ */
+public class SpatialRTreeTest {
+
+  int width = 600;
+  int height = 600;
+  Graph<String> graph;
+  LayoutModel<String, Point2D> layoutModel;
+  SpatialRTree<String> tree;
+
+  @Before
+  public void setup() {
+    // generate 100 random nodes in a graph at random locations in the layoutModel
+    graph = TestGraphs.createChainPlusIsolates(0, 100).asGraph();
+    layoutModel =
+        LoadingCacheLayoutModel.<String, Point2D>builder()
+            .setGraph(graph)
+            .setPointModel(POINT_MODEL)
+            .setSize(width, height)
+            .setInitializer(
+                new RandomLocationTransformer(
+                    POINT_MODEL, width, height, 0, System.currentTimeMillis()))
+            .build();
+
+    tree = new SpatialRTree<>(layoutModel, width, height);
+    tree.recalculate(graph.nodes());
+  }
+
+  /** move half of the nodes, some of them outside of the layout area, and update the tree */
+  private void moveNodes() {
+    int i = 0;
+    for (String node : graph.nodes()) {
+      if (i++ % 2 == 0) {
+        layoutModel.set(node, Math.random() * width * 1.5, Math.random() * height * 1.5);
+        tree.update(node);
+      }
+    }
+  }
+
+  /** test that the nodes found in a shape are those whose locations are in the shape */
+  @Test
+  public void testVisibleNodes() {
+    moveNodes();
+    for (int i = 0; i < 100; i++) {
+      double radius = Math.random() * width / 2;
+      Ellipse2D target =
+          new Ellipse2D.Double(
+              Math.random() * width - radius,
+              Math.random() * height - radius,
+              radius * 2,
+              radius * 2);
+      Set<String> expected = new HashSet<>();
+      for (String node : graph.nodes()) {
+        if (target.contains(layoutModel.apply(node))) {
+          expected.add(node);
+        }
+      }
+      Assert.assertEquals(expected, new HashSet<>(tree.getVisibleNodes(target)));
+    }
+  }
+
+  /**
+   * test that the closest node for a random point is the same one returned for the
+   * RadiusNetworkNodeAccessor
+   */
+  @Test
+  public void testClosestNodes() {
+    moveNodes();
+    NetworkNodeAccessor<String, Point2D> slowWay =
+        new RadiusNetworkNodeAccessor<String, Point2D>(graph, POINT_MODEL, Double.MAX_VALUE);
+    for (int i = 0; i < 10000; i++) {
+      double x = Math.random() * width;
+      double y = Math.random() * height;
+      Assert.assertEquals(slowWay.getNode(layoutModel, x, y, 0), tree.getClosestNode(x, y));
+    }
+  }
+
+  /** test that the k closest nodes are found, closest first */
+  @Test
+  public void testKNearestNodes() {
+    final int k = 10;
+    for (int i = 0; i < 1000; i++) {
+      double x = Math.random() * width;
+      double y = Math.random() * height;
+      List<String> expected = new ArrayList<>(graph.nodes());
+      expected.sort(
+          (a, b) ->
+              Double.compare(
+                  layoutModel.apply(a).distanceSq(x, y), layoutModel.apply(b).distanceSq(x, y)));
+      Assert.assertEquals(expected.subList(0, k), tree.getClosestNodes(x, y, k));
+    }
+  }
+}
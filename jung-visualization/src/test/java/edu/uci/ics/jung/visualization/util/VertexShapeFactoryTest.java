@@ -0,0 +1,104 @@
+package edu.uci.ics.jung.visualization.util;
+
+import com.google.common.collect.Sets;
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test that the vertex shapes may be requested from several rendering threads at once: each call
+ * returns its own shape, with the size given for its vertex
+ */
+public class VertexShapeFactoryTest {
+
+  private static final int THREADS = 8;
+  private static final int VERTICES = 20;
+  private static final int REPEATS = 100;
+
+  private VertexShapeFactory<Integer> factory;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    // the width of the shape of vertex v is 10 + v, and its height twice that
+    factory = new VertexShapeFactory<>(v -> 10 + v, v -> 2.0f);
+    executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private void assertShapes(BiFunction<VertexShapeFactory<Integer>, Integer, Shape> shapeFunction)
+      throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<Shape>>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                List<Shape> shapes = new ArrayList<>();
+                for (int i = 0; i < REPEATS; i++) {
+                  for (int v = 0; v < VERTICES; v++) {
+                    shapes.add(shapeFunction.apply(factory, v));
+                  }
+                }
+                return shapes;
+              }));
+    }
+    start.countDown();
+
+    Set<Shape> seen = Sets.newIdentityHashSet();
+    for (Future<List<Shape>> future : futures) {
+      List<Shape> shapes = future.get();
+      for (int i = 0; i < shapes.size(); i++) {
+        int v = i % VERTICES;
+        Shape shape = shapes.get(i);
+        Rectangle2D bounds = shape.getBounds2D();
+        Assert.assertEquals(10 + v, bounds.getWidth(), 0.01);
+        Assert.assertEquals(2 * (10 + v), bounds.getHeight(), 0.01);
+        Assert.assertEquals(0, bounds.getCenterX(), 0.01);
+        Assert.assertEquals(0, bounds.getCenterY(), 0.01);
+        Assert.assertTrue(seen.add(shape));
+      }
+    }
+  }
+
+  @Test
+  public void testRectangle() throws Exception {
+    assertShapes(VertexShapeFactory::getRectangle);
+  }
+
+  @Test
+  public void testEllipse() throws Exception {
+    assertShapes(VertexShapeFactory::getEllipse);
+  }
+
+  @Test
+  public void testRoundRectangle() throws Exception {
+    assertShapes(VertexShapeFactory::getRoundRectangle);
+  }
+
+  @Test
+  public void testRegularPolygon() throws Exception {
+    assertShapes((f, v) -> f.getRegularPolygon(v, 5 + v % 3));
+  }
+
+  @Test
+  public void testRegularStar() throws Exception {
+    assertShapes((f, v) -> f.getRegularStar(v, 5 + v % 3));
+  }
+}